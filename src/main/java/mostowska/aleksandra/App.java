@@ -1,71 +1,72 @@
 package mostowska.aleksandra;
 
+import mostowska.aleksandra.api.routes.ErrorRouter;
+import mostowska.aleksandra.api.routes.MetricsRouter;
 import mostowska.aleksandra.api.routes.ModelRouter;
+import mostowska.aleksandra.api.server.HttpServer;
 import lombok.extern.slf4j.Slf4j;
 import mostowska.aleksandra.config.AppConfig;
+import mostowska.aleksandra.importer.CsvImportPipeline;
+import mostowska.aleksandra.importer.ImportSettings;
+import mostowska.aleksandra.repository.CountryDictionary;
+import mostowska.aleksandra.repository.RepositoryEngine;
+import mostowska.aleksandra.repository.SwiftCodeTrie;
+import mostowska.aleksandra.repository.memory.InMemoryDirectory;
+import mostowska.aleksandra.repository.schema.SchemaManager;
+import mostowska.aleksandra.repository.search.TextSearchIndex;
 import org.springframework.context.annotation.AnnotationConfigApplicationContext;
 
+import java.nio.file.Path;
+
 import static spark.Spark.*;
 
 @Slf4j
 public class App {
     public static void main(String[] args) {
-        log.info("Setting up routes");
+        var context = new AnnotationConfigApplicationContext(AppConfig.class);
+        context.getBean(SchemaManager.class).migrate();
+        context.getBean(CountryDictionary.class).load();
 
-        initExceptionHandler(err -> System.out.println(err.getMessage()));
-        port(8080);
+        // `import <path>` loads a SWIFT codes CSV file into the database and exits without starting the server
+        if (args.length == 2 && args[0].equals("import")) {
+            importCsv(context, Path.of(args[1]));
+            return;
+        }
 
-//      var data = CsvReader.readCsv("SWIFT.csv");
-//            var createHeadquartersTableSql = """
-//                        CREATE TABLE IF NOT EXISTS headquarters (
-//                                  swift_code VARCHAR(20) PRIMARY KEY,
-//                                  swift_prefix VARCHAR(8) NOT NULL UNIQUE,
-//                                  country_iso2 VARCHAR(2) NOT NULL,
-//                                  code_type VARCHAR(50),
-//                                  bank_name VARCHAR(100),
-//                                  address VARCHAR(255),
-//                                  town_name VARCHAR(100),
-//                                  country_name VARCHAR(100),
-//                                  time_zone VARCHAR(50),
-//                                  is_headquarter BOOLEAN DEFAULT TRUE
-//                              );
-//                    """;
-//
-//            var createBranchesTableSql = """
-//                        CREATE TABLE IF NOT EXISTS branches (
-//                            swift_code VARCHAR(20) PRIMARY KEY,
-//                            swift_prefix VARCHAR(8),
-//                            country_iso2 VARCHAR(2) NOT NULL,
-//                            code_type VARCHAR(50),
-//                            bank_name VARCHAR(100),
-//                            address VARCHAR(255),
-//                            town_name VARCHAR(100),
-//                            country_name VARCHAR(100),
-//                            time_zone VARCHAR(50),
-//                            is_headquarter BOOLEAN DEFAULT FALSE
-//                        );
-//                    """;
-//        var jdbi = context.getBean(Jdbi.class);
-//        jdbi.useHandle(handle -> {
-//            handle.execute(createHeadquartersTableSql);  // Execute HQ table creation
-//            handle.execute(createBranchesTableSql);      // Execute Branches table creation
-//        });
+        // The import above writes straight through, only the server reads from the in-memory directory
+        if (context.getBean(RepositoryEngine.class) == RepositoryEngine.MEMORY) {
+            context.getBean(InMemoryDirectory.class).load();
+        }
 
-        var context = new AnnotationConfigApplicationContext(AppConfig.class);
+        context.getBean(SwiftCodeTrie.class).load();
+        context.getBean(TextSearchIndex.class).load();
+
+        log.info("Setting up routes");
+
+        initExceptionHandler(err -> log.error("Server failed to start", err));
+        context.getBean(HttpServer.class).configure();
 
         var modelRouter = context.getBean("modelRouter", ModelRouter.class);
         modelRouter.routes();
-    }
 
-//    public static void saveToDBFromCsv(List<CreateModelDto> data, ModelService modelService) {
-//        for (var d : data) {
-//            try {
-//                modelService.saveModelToDB(d);
-//            } catch (Exception e) {
-//                log.error("Failed to save model: " + d.swiftCode(), e);
-//            }
-//        }
-//    }
-}
+        var metricsRouter = context.getBean("metricsRouter", MetricsRouter.class);
+        metricsRouter.routes();
 
+        var errorRouter = context.getBean("errorRouter", ErrorRouter.class);
+        errorRouter.routes();
+    }
 
+    /**
+     * Imports a SWIFT codes CSV file through the import pipeline and closes the application context.
+     *
+     * @param context The application context providing the pipeline and its settings.
+     * @param path    The path of the CSV file to import.
+     */
+    private static void importCsv(AnnotationConfigApplicationContext context, Path path) {
+        try (context) {
+            var pipeline = context.getBean(CsvImportPipeline.class);
+            var report = pipeline.run(path, context.getBean(ImportSettings.class));
+            log.info("Import finished: {}", report);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package mostowska.aleksandra.api.cache;
+
+import lombok.RequiredArgsConstructor;
+import mostowska.aleksandra.api.compression.ResponseCompression;
+import mostowska.aleksandra.repository.DataVersions;
+import org.springframework.stereotype.Component;
+import spark.Request;
+import spark.Route;
+
+import java.util.function.ToLongFunction;
+
+/**
+ * ConditionalGet answers conditional GET requests of the read routes from data versions.
+ *
+ * The strong ETag of a response is made of the epoch of the data versions and the version the response is built from,
+ * so it is computed without rendering or hashing the body. A request whose `If-None-Match` holds the current ETag
+ * is answered with 304 Not Modified before the route runs, so no repository is touched. Every response carries
+ * the configured `Cache-Control` header. ETags track the writes made through this application: rows written
+ * to the database by another process are only reflected once the application restarts.
+ *
+ * A compressed body gets its own ETag, the identity ETag with the suffix of its coding, such as `--gzip`,
+ * and any of these variants matches the identity one in `If-None-Match`.
+ */
+@Component
+@RequiredArgsConstructor
+public class ConditionalGet {
+    private final DataVersions dataVersions;
+    private final HttpCacheSettings settings;
+
+    /**
+     * Wraps a read route so that it sends an ETag and answers requests holding that ETag with 304 Not Modified.
+     *
+     * @param version The function reading the current data version of the result of a request.
+     * @param route   The route producing the response.
+     * @return A route answering 304 when the client copy is current, or running the route otherwise.
+     */
+    public Route conditional(ToLongFunction<Request> version, Route route) {
+        return (request, response) -> {
+            var etag = etagOf(version.applyAsLong(request));
+            response.header("ETag", etag);
+            response.header("Cache-Control", settings.cacheControl());
+            if (matches(request.headers("If-None-Match"), etag)) {
+                response.status(304);
+                return "";
+            }
+            try {
+                return route.handle(request, response);
+            } catch (RuntimeException e) {
+                // The ETag describes the data, not the error the route ended with
+                response.raw().setHeader("ETag", null);
+                throw e;
+            }
+        };
+    }
+
+    /**
+     * Builds the ETag of a response.
+     *
+     * @param version The data version the response is built from.
+     * @return The quoted strong ETag.
+     */
+    public String etagOf(long version) {
+        return "\"" + Long.toHexString(dataVersions.epoch()) + '-' + Long.toHexString(version) + "\"";
+    }
+
+    /**
+     * Checks whether an `If-None-Match` header holds an ETag, comparing the tags weakly as RFC 9110 requires.
+     *
+     * @param ifNoneMatch The header value, a list of ETags or `*`, or null.
+     * @param etag        The quoted current ETag.
+     * @return True if the header holds the ETag or the variant of a coding, or is `*`.
+     */
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (var candidate : ifNoneMatch.split(",")) {
+            var tag = candidate.strip();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (ResponseCompression.identityOf(tag).equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
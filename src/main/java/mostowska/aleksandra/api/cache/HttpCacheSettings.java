@@ -0,0 +1,19 @@
+package mostowska.aleksandra.api.cache;
+
+/**
+ * HttpCacheSettings holds the caching directives sent to HTTP clients with the responses of the read routes.
+ *
+ * @param cacheControl The value of the `Cache-Control` header, such as `no-cache` to have clients revalidate
+ *                     their copy with the ETag on every use, or `public, max-age=5` to let them reuse it for 5 seconds.
+ */
+public record HttpCacheSettings(String cacheControl) {
+
+    /**
+     * Validates that the header value is present.
+     */
+    public HttpCacheSettings {
+        if (cacheControl == null || cacheControl.isBlank()) {
+            throw new IllegalArgumentException("Cache-Control cannot be empty");
+        }
+    }
+}
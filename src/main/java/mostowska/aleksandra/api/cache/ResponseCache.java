@@ -0,0 +1,286 @@
+package mostowska.aleksandra.api.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import mostowska.aleksandra.api.compression.ContentCoding;
+import mostowska.aleksandra.api.compression.ResponseCompression;
+import mostowska.aleksandra.api.routes.Utils;
+import mostowska.aleksandra.api.transformer.JsonTransformer;
+import org.eclipse.jetty.server.HttpOutput;
+import org.springframework.stereotype.Component;
+import spark.Request;
+import spark.Response;
+import spark.Route;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+import java.util.zip.Adler32;
+import java.util.zip.CRC32;
+import java.util.zip.Checksum;
+
+/**
+ * ResponseCache keeps the rendered JSON of read routes whose responses only change when the data they show is written.
+ *
+ * A cached route is keyed by its name and the parameters of the request, and each response is stored with the
+ * data version it was rendered from, read from `DataVersions` before the route runs. A response whose version
+ * has moved since is rendered again, so writes never need to find and remove the responses they affect.
+ *
+ * Rendered bytes are copied to direct buffers, outside the Java heap, so large responses neither fill the heap
+ * nor get copied around by the garbage collector, and are handed to Jetty without another copy. Responses past the
+ * compression threshold are also kept as a raw deflate stream, compressed once and framed on the way out as gzip
+ * or deflate, whichever the client accepts, under the ETag variant of the coding. The cache is bounded by the bytes
+ * held, evicting with Caffeine's W-TinyLFU. Hits and misses are counted in the `response.cache.requests` meter,
+ * and the hit ratio and the bytes held are published as the `response.cache.hit.ratio`
+ * and `response.cache.bytes` gauges.
+ */
+@Component
+public class ResponseCache {
+    private static final int ENTRY_OVERHEAD_BYTES = 64;
+
+    private final JsonTransformer jsonTransformer;
+    private final ResponseCompression compression;
+    private final boolean enabled;
+    private final Cache<String, Entry> cache;
+    private final Counter hits;
+    private final Counter misses;
+
+    /**
+     * Creates the cache and registers its meters.
+     *
+     * @param jsonTransformer The transformer rendering the results of the routes.
+     * @param compression     The compression of the cached responses.
+     * @param settings        The bounds of the cache.
+     * @param meterRegistry   The registry receiving the cache metrics.
+     */
+    public ResponseCache(JsonTransformer jsonTransformer, ResponseCompression compression,
+                         ResponseCacheSettings settings, MeterRegistry meterRegistry) {
+        this.jsonTransformer = jsonTransformer;
+        this.compression = compression;
+        this.enabled = settings.maximumBytes() > 0;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(settings.maximumBytes())
+                .weigher((String key, Entry entry) -> entry.weight(key))
+                .expireAfterWrite(settings.expireAfterWrite())
+                .build();
+        this.hits = Counter.builder("response.cache.requests").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("response.cache.requests").tag("result", "miss").register(meterRegistry);
+
+        Gauge.builder("response.cache.hit.ratio", this, ResponseCache::hitRatio).register(meterRegistry);
+        Gauge.builder("response.cache.bytes", this, ResponseCache::bytes).baseUnit("bytes").register(meterRegistry);
+    }
+
+    /**
+     * Wraps a route so that its rendered result is cached until the data version of the request moves.
+     * Only successful results are cached: a route throwing an exception is run again by the next request.
+     * Requests for indented JSON are cached apart from compact ones.
+     *
+     * @param name      The name of the route, keeping the keys of different routes apart.
+     * @param parameter The function extracting from a request the parameters the result depends on.
+     * @param version   The function reading the current data version of the result of a request.
+     * @param route     The route producing the object to render, setting the status and headers of the response.
+     * @return A route serving the cached bytes, or running the route and caching its rendered result.
+     */
+    public Route cached(String name, Function<Request, String> parameter, ToLongFunction<Request> version,
+                        Route route) {
+        if (!enabled) {
+            return jsonTransformer.stream(route);
+        }
+        return (request, response) -> {
+            var pretty = JsonTransformer.isPretty(request);
+            var key = name + ':' + parameter.apply(request) + (pretty ? ":pretty" : "");
+            // Read before the route runs: a write landing while it runs leaves the entry stale, never wrong
+            var currentVersion = version.applyAsLong(request);
+
+            var entry = cache.getIfPresent(key);
+            if (entry != null && entry.version() == currentVersion) {
+                hits.increment();
+                Utils.setResponse(response, 200);
+            } else {
+                misses.increment();
+                entry = render(route.handle(request, response), pretty, currentVersion);
+                cache.put(key, entry);
+            }
+            send(entry, request, response);
+            return "";
+        };
+    }
+
+    /**
+     * Computes the share of requests served from the cache.
+     *
+     * @return The hit ratio since startup, 0 before the first request.
+     */
+    public double hitRatio() {
+        var total = hits.count() + misses.count();
+        return total == 0 ? 0 : hits.count() / total;
+    }
+
+    /**
+     * Computes the bytes held by the cached responses.
+     *
+     * @return The weight of all entries, the rendered bytes plus a fixed overhead per entry.
+     */
+    public long bytes() {
+        return cache.policy().eviction().orElseThrow().weightedSize().orElse(0);
+    }
+
+    /**
+     * A rendered response.
+     *
+     * @param version  The data version the response was rendered from.
+     * @param identity The JSON bytes, in a read-only direct buffer.
+     * @param deflated The JSON bytes as a raw deflate stream in a read-only direct buffer, or null if not worth
+     *                 compressing.
+     * @param crc32    The CRC-32 of the JSON bytes, closing the gzip coding.
+     * @param adler32  The Adler-32 of the JSON bytes, closing the deflate coding.
+     */
+    private record Entry(long version, ByteBuffer identity, ByteBuffer deflated, long crc32, long adler32) {
+
+        /**
+         * Computes the weight of the entry in the cache.
+         *
+         * @param key The key of the entry.
+         * @return The approximate number of bytes taken by the entry.
+         */
+        int weight(String key) {
+            return ENTRY_OVERHEAD_BYTES + key.length() * 2 + identity.capacity()
+                    + (deflated == null ? 0 : deflated.capacity());
+        }
+
+        /**
+         * Computes the checksum closing a coding.
+         *
+         * @param coding The coding, gzip or deflate.
+         * @return The checksum of the JSON bytes the trailer of the coding carries.
+         */
+        long checksum(ContentCoding coding) {
+            return coding == ContentCoding.GZIP ? crc32 : adler32;
+        }
+    }
+
+    /**
+     * Renders a result into direct buffers, deflating it as well if it is large enough and compresses.
+     *
+     * @param result  The result of the route.
+     * @param pretty  True to indent the JSON.
+     * @param version The data version the result was read from.
+     * @return The rendered response.
+     * @throws IOException If rendering fails.
+     */
+    private Entry render(Object result, boolean pretty, long version) throws IOException {
+        var json = new Buffer();
+        jsonTransformer.write(result, json, pretty);
+        if (json.size() < compression.minBytes()) {
+            return new Entry(version, json.toDirectBuffer(), null, 0, 0);
+        }
+
+        var deflated = new Buffer();
+        json.deflateTo(compression, deflated);
+        if (deflated.size() >= json.size()) {
+            return new Entry(version, json.toDirectBuffer(), null, 0, 0);
+        }
+        return new Entry(version, json.toDirectBuffer(), deflated.toDirectBuffer(),
+                json.checksum(new CRC32()), json.checksum(new Adler32()));
+    }
+
+    /**
+     * Sends a rendered response, compressed in the coding the client prefers if a deflated copy exists.
+     *
+     * @param entry    The rendered response.
+     * @param request  The request, telling the accepted encodings.
+     * @param response The response to write to.
+     * @throws IOException If the client connection fails.
+     */
+    private void send(Entry entry, Request request, Response response) throws IOException {
+        var coding = ContentCoding.IDENTITY;
+        if (entry.deflated() != null) {
+            response.header("Vary", "Accept-Encoding");
+            coding = ContentCoding.negotiate(request.headers("Accept-Encoding"));
+        }
+
+        var raw = response.raw();
+        if (coding == ContentCoding.IDENTITY) {
+            raw.setContentLength(entry.identity().capacity());
+            write(entry.identity(), raw.getOutputStream());
+        } else {
+            compression.applyCoding(response, coding);
+            var header = coding.header();
+            var trailer = coding.trailer(entry.checksum(coding), entry.identity().capacity());
+            raw.setContentLength(header.length + entry.deflated().capacity() + trailer.length);
+            var out = raw.getOutputStream();
+            out.write(header);
+            write(entry.deflated(), out);
+            out.write(trailer);
+        }
+        // Commits the response, so that Spark does not write a body of its own after it
+        raw.getOutputStream().flush();
+    }
+
+    /**
+     * Writes a direct buffer to the servlet output stream, leaving the position of the buffer untouched.
+     *
+     * @param body The buffer.
+     * @param out  The servlet output stream.
+     * @throws IOException If the client connection fails.
+     */
+    private static void write(ByteBuffer body, OutputStream out) throws IOException {
+        if (out instanceof HttpOutput httpOutput) {
+            // Jetty writes the direct buffer to the socket as is
+            httpOutput.write(body.duplicate());
+        } else {
+            Channels.newChannel(out).write(body.duplicate());
+        }
+    }
+
+    /**
+     * A byte array output stream able to copy its bytes to a direct buffer without an intermediate array.
+     */
+    private static final class Buffer extends ByteArrayOutputStream {
+
+        /**
+         * Creates an empty buffer of the usual size of a rendered response.
+         */
+        Buffer() {
+            super(8192);
+        }
+
+        /**
+         * Copies the bytes written so far to a new direct buffer.
+         *
+         * @return A read-only direct buffer holding the bytes.
+         */
+        ByteBuffer toDirectBuffer() {
+            return ByteBuffer.allocateDirect(count).put(buf, 0, count).flip().asReadOnlyBuffer();
+        }
+
+        /**
+         * Compresses the bytes written so far into a raw deflate stream.
+         *
+         * @param compression The compression lending the deflater.
+         * @param out         The stream receiving the raw deflate stream.
+         * @throws IOException If the stream fails.
+         */
+        void deflateTo(ResponseCompression compression, OutputStream out) throws IOException {
+            compression.deflate(buf, 0, count, out);
+        }
+
+        /**
+         * Computes a checksum of the bytes written so far.
+         *
+         * @param checksum A new checksum.
+         * @return The value of the checksum over the bytes.
+         */
+        long checksum(Checksum checksum) {
+            checksum.update(buf, 0, count);
+            return checksum.getValue();
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package mostowska.aleksandra.api.cache;
+
+import java.time.Duration;
+
+/**
+ * ResponseCacheSettings holds the bounds of the cache of rendered responses.
+ *
+ * @param maximumBytes     The maximum number of bytes held by the rendered responses; 0 disables caching.
+ * @param expireAfterWrite The time after which a response is rendered again even if its data versions did not move,
+ *                         bounding how stale rows written by other processes can get.
+ */
+public record ResponseCacheSettings(long maximumBytes, Duration expireAfterWrite) {
+
+    /**
+     * Validates that the bounds are not negative.
+     */
+    public ResponseCacheSettings {
+        if (maximumBytes < 0) {
+            throw new IllegalArgumentException("Cache maximum bytes cannot be negative");
+        }
+        if (expireAfterWrite == null || expireAfterWrite.isNegative()) {
+            throw new IllegalArgumentException("Cache expiration cannot be negative");
+        }
+    }
+}
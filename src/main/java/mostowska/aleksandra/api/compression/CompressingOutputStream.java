@@ -0,0 +1,166 @@
+package mostowska.aleksandra.api.compression;
+
+import spark.Response;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.Checksum;
+import java.util.zip.Deflater;
+
+/**
+ * CompressingOutputStream writes the body of a response in a content coding, once it has grown past a threshold.
+ *
+ * The first bytes are buffered up to the threshold. A body ending before the threshold is sent as is, with its
+ * length. A longer one is streamed as is to clients accepting no compressed coding; otherwise its coding is applied
+ * to the response, then the buffered and following bytes are deflated through a pooled deflater between the header
+ * and trailer of the coding. Flushing before closing does nothing, so that the coding can still be chosen and
+ * deflate blocks are not cut short.
+ */
+final class CompressingOutputStream extends OutputStream {
+    private static final int DEFLATE_BUFFER_SIZE = 8192;
+
+    private final ResponseCompression compression;
+    private final Response response;
+    private final ContentCoding coding;
+    private final byte[] pending;
+    private int pendingCount;
+
+    private OutputStream out;
+    private Deflater deflater;
+    private Checksum checksum;
+    private byte[] deflated;
+    private long size;
+    private boolean closed;
+
+    /**
+     * Creates the stream of a response.
+     *
+     * @param compression The compression lending the deflater.
+     * @param response    The response to write.
+     * @param coding      The coding accepted by the client.
+     * @param minBytes    The size under which the body is sent as is.
+     */
+    CompressingOutputStream(ResponseCompression compression, Response response, ContentCoding coding, int minBytes) {
+        this.compression = compression;
+        this.response = response;
+        this.coding = coding;
+        this.pending = new byte[minBytes];
+    }
+
+    /**
+     * Writes a byte.
+     *
+     * @param b The byte, in the lower 8 bits.
+     * @throws IOException If the servlet output stream fails.
+     */
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[]{(byte) b}, 0, 1);
+    }
+
+    /**
+     * Writes bytes, buffering them while the body is under the threshold.
+     *
+     * @param bytes  The bytes.
+     * @param offset The position of the first byte.
+     * @param length The number of bytes.
+     * @throws IOException If the servlet output stream fails.
+     */
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        if (deflater == null && out == null) {
+            if (pendingCount + length <= pending.length) {
+                System.arraycopy(bytes, offset, pending, pendingCount, length);
+                pendingCount += length;
+                return;
+            }
+            start();
+        }
+        if (deflater == null) {
+            out.write(bytes, offset, length);
+        } else {
+            deflate(bytes, offset, length);
+        }
+    }
+
+    /**
+     * Does nothing: the body is only flushed once complete, by `close`.
+     */
+    @Override
+    public void flush() {
+        // Flushing mid-body would fix the coding early and end deflate blocks short
+    }
+
+    /**
+     * Completes the body and commits the response. The servlet output stream is flushed, not closed.
+     *
+     * @throws IOException If the servlet output stream fails.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (deflater == null && out == null) {
+            // The whole body fits under the threshold, it is sent as is
+            response.raw().setContentLength(pendingCount);
+            out = response.raw().getOutputStream();
+            out.write(pending, 0, pendingCount);
+        } else if (deflater != null) {
+            try {
+                deflater.finish();
+                while (!deflater.finished()) {
+                    out.write(deflated, 0, deflater.deflate(deflated));
+                }
+                out.write(coding.trailer(checksum.getValue(), size));
+            } finally {
+                compression.release(deflater);
+                deflater = null;
+            }
+        }
+        out.flush();
+    }
+
+    /**
+     * Starts sending the body: in its coding with the buffered bytes deflated, or as is for identity.
+     *
+     * @throws IOException If the servlet output stream fails.
+     */
+    private void start() throws IOException {
+        if (coding != ContentCoding.IDENTITY) {
+            compression.applyCoding(response, coding);
+        }
+        out = response.raw().getOutputStream();
+        if (coding == ContentCoding.IDENTITY) {
+            out.write(pending, 0, pendingCount);
+            return;
+        }
+
+        deflater = compression.borrow();
+        checksum = coding.newChecksum();
+        deflated = new byte[DEFLATE_BUFFER_SIZE];
+        out.write(coding.header());
+        deflate(pending, 0, pendingCount);
+    }
+
+    /**
+     * Deflates bytes to the servlet output stream.
+     *
+     * @param bytes  The bytes.
+     * @param offset The position of the first byte.
+     * @param length The number of bytes.
+     * @throws IOException If the servlet output stream fails.
+     */
+    private void deflate(byte[] bytes, int offset, int length) throws IOException {
+        checksum.update(bytes, offset, length);
+        size += length;
+        deflater.setInput(bytes, offset, length);
+        while (!deflater.needsInput()) {
+            var count = deflater.deflate(deflated);
+            if (count > 0) {
+                out.write(deflated, 0, count);
+            }
+        }
+    }
+}
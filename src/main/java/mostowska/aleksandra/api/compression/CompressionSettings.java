@@ -0,0 +1,24 @@
+package mostowska.aleksandra.api.compression;
+
+import java.util.zip.Deflater;
+
+/**
+ * CompressionSettings holds how responses are compressed.
+ *
+ * @param minBytes The size under which a response is sent uncompressed, compressing it costing more than it saves.
+ * @param level    The deflate compression level, from 1 (fastest) to 9 (smallest), or -1 for the zlib default, 6.
+ */
+public record CompressionSettings(int minBytes, int level) {
+
+    /**
+     * Validates the threshold and the level.
+     */
+    public CompressionSettings {
+        if (minBytes < 0) {
+            throw new IllegalArgumentException("Compression threshold cannot be negative");
+        }
+        if (level != Deflater.DEFAULT_COMPRESSION && (level < Deflater.BEST_SPEED || level > Deflater.BEST_COMPRESSION)) {
+            throw new IllegalArgumentException("Compression level must be between 1 and 9, or -1");
+        }
+    }
+}
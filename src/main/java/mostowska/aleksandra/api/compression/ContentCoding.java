@@ -0,0 +1,143 @@
+package mostowska.aleksandra.api.compression;
+
+import java.util.Locale;
+import java.util.zip.Adler32;
+import java.util.zip.CRC32;
+import java.util.zip.Checksum;
+
+/**
+ * ContentCoding lists the content codings the API can send, and frames a raw deflate stream for each of them.
+ *
+ * Both `gzip` and `deflate` (the zlib format, as HTTP defines it) wrap the same raw deflate stream, only with
+ * a different header and trailer, so a body is compressed once and can be sent in either coding.
+ * Brotli has no implementation in the JDK and is not offered.
+ */
+public enum ContentCoding {
+    GZIP("gzip"),
+    DEFLATE("deflate"),
+    IDENTITY("identity");
+
+    private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, 8, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+    private static final byte[] ZLIB_HEADER = {0x78, (byte) 0x9c};
+
+    private final String token;
+
+    /**
+     * Creates a content coding.
+     *
+     * @param token The name of the coding in the `Accept-Encoding` and `Content-Encoding` headers.
+     */
+    ContentCoding(String token) {
+        this.token = token;
+    }
+
+    /**
+     * Returns the name of the coding.
+     *
+     * @return The name of the coding in the `Accept-Encoding` and `Content-Encoding` headers.
+     */
+    public String token() {
+        return token;
+    }
+
+    /**
+     * Picks the coding to send from an `Accept-Encoding` header. The coding with the highest quality wins,
+     * gzip on a tie; codings the header does not name are only acceptable through `*`.
+     *
+     * @param acceptEncoding The header value, or null when the client sent none.
+     * @return The coding to send, `IDENTITY` if the client accepts no compressed coding.
+     */
+    public static ContentCoding negotiate(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isBlank()) {
+            return IDENTITY;
+        }
+
+        var gzip = -1.0;
+        var deflate = -1.0;
+        var any = 0.0;
+        for (var element : acceptEncoding.split(",")) {
+            var parameters = element.split(";");
+            var name = parameters[0].strip().toLowerCase(Locale.ROOT);
+            var quality = qualityOf(parameters);
+            switch (name) {
+                case "gzip", "x-gzip" -> gzip = Math.max(gzip, quality);
+                case "deflate" -> deflate = Math.max(deflate, quality);
+                case "*" -> any = quality;
+                default -> {
+                    // Codings the API does not send are ignored
+                }
+            }
+        }
+        gzip = gzip < 0 ? any : gzip;
+        deflate = deflate < 0 ? any : deflate;
+
+        if (gzip > 0 && gzip >= deflate) {
+            return GZIP;
+        }
+        return deflate > 0 ? DEFLATE : IDENTITY;
+    }
+
+    /**
+     * Creates the checksum the trailer of the coding carries.
+     *
+     * @return A CRC-32 for gzip, an Adler-32 for deflate, null for identity.
+     */
+    public Checksum newChecksum() {
+        return switch (this) {
+            case GZIP -> new CRC32();
+            case DEFLATE -> new Adler32();
+            case IDENTITY -> null;
+        };
+    }
+
+    /**
+     * Returns the bytes preceding the raw deflate stream.
+     *
+     * @return The header of the coding, empty for identity.
+     */
+    public byte[] header() {
+        return switch (this) {
+            case GZIP -> GZIP_HEADER.clone();
+            case DEFLATE -> ZLIB_HEADER.clone();
+            case IDENTITY -> new byte[0];
+        };
+    }
+
+    /**
+     * Returns the bytes following the raw deflate stream.
+     *
+     * @param checksum The value of the checksum created by `newChecksum` over the uncompressed bytes.
+     * @param size     The number of uncompressed bytes.
+     * @return The trailer of the coding, empty for identity.
+     */
+    public byte[] trailer(long checksum, long size) {
+        return switch (this) {
+            case GZIP -> new byte[]{
+                    (byte) checksum, (byte) (checksum >> 8), (byte) (checksum >> 16), (byte) (checksum >> 24),
+                    (byte) size, (byte) (size >> 8), (byte) (size >> 16), (byte) (size >> 24)};
+            case DEFLATE -> new byte[]{
+                    (byte) (checksum >> 24), (byte) (checksum >> 16), (byte) (checksum >> 8), (byte) checksum};
+            case IDENTITY -> new byte[0];
+        };
+    }
+
+    /**
+     * Reads the quality of an `Accept-Encoding` element.
+     *
+     * @param parameters The element split on `;`, the coding name first.
+     * @return The value of the `q` parameter, 1 if absent or malformed.
+     */
+    private static double qualityOf(String[] parameters) {
+        for (var i = 1; i < parameters.length; i++) {
+            var parameter = parameters[i].strip();
+            if (parameter.startsWith("q=") || parameter.startsWith("Q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2));
+                } catch (NumberFormatException e) {
+                    return 1;
+                }
+            }
+        }
+        return 1;
+    }
+}
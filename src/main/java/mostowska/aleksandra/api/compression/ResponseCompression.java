@@ -0,0 +1,148 @@
+package mostowska.aleksandra.api.compression;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import spark.Request;
+import spark.Response;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.Deflater;
+
+/**
+ * ResponseCompression negotiates the content coding of a response from its request and compresses it.
+ *
+ * Responses are compressed with `Deflater`s taken from a pool: each one holds a few hundred kilobytes of native
+ * zlib memory, which is costly to allocate and free for every response. A response smaller than the configured
+ * threshold is sent as is, since its size is only known once it is complete, up to the threshold is buffered
+ * before deciding. The ETag of a compressed response gets the suffix of its coding, telling the representations
+ * apart as HTTP requires for strong ETags.
+ */
+@Component
+@RequiredArgsConstructor
+public class ResponseCompression {
+    private static final int DEFLATER_POOL_SIZE = 64;
+
+    private final CompressionSettings settings;
+    private final BlockingQueue<Deflater> deflaters = new ArrayBlockingQueue<>(DEFLATER_POOL_SIZE);
+
+    /**
+     * Opens the body of a response in the coding accepted by its request. Closing the returned stream completes
+     * the coding and commits the response, leaving the servlet output stream open for its owner.
+     *
+     * @param request  The request, telling the accepted codings.
+     * @param response The response, whose status and headers have been set.
+     * @return A stream compressing what is written to it once it grows past the threshold.
+     * @throws IOException If the servlet output stream cannot be opened.
+     */
+    public OutputStream open(Request request, Response response) throws IOException {
+        response.header("Vary", "Accept-Encoding");
+        var coding = ContentCoding.negotiate(request.headers("Accept-Encoding"));
+        return new CompressingOutputStream(this, response, coding, settings.minBytes());
+    }
+
+    /**
+     * Retrieves the threshold under which responses are sent uncompressed.
+     *
+     * @return The minimum size of a compressed response, in bytes.
+     */
+    public int minBytes() {
+        return settings.minBytes();
+    }
+
+    /**
+     * Marks a response as sent in a coding, setting its `Content-Encoding` and moving its ETag to the variant
+     * of the coding.
+     *
+     * @param response The response, not yet committed.
+     * @param coding   The coding of the body.
+     */
+    public void applyCoding(Response response, ContentCoding coding) {
+        if (coding == ContentCoding.IDENTITY) {
+            return;
+        }
+        response.header("Content-Encoding", coding.token());
+        var raw = response.raw();
+        var etag = raw.getHeader("ETag");
+        if (etag != null) {
+            raw.setHeader("ETag", variantOf(etag, coding));
+        }
+    }
+
+    /**
+     * Builds the ETag of the body of a response sent in a coding.
+     *
+     * @param etag   The quoted ETag of the response.
+     * @param coding The coding of the body.
+     * @return The quoted ETag with the suffix of the coding, the same ETag for identity.
+     */
+    public static String variantOf(String etag, ContentCoding coding) {
+        if (coding == ContentCoding.IDENTITY || !etag.endsWith("\"")) {
+            return etag;
+        }
+        return etag.substring(0, etag.length() - 1) + "--" + coding.token() + "\"";
+    }
+
+    /**
+     * Removes the suffix of a coding from an ETag.
+     *
+     * @param etag The quoted ETag, possibly the variant of a coding.
+     * @return The quoted ETag of the response, without a coding suffix.
+     */
+    public static String identityOf(String etag) {
+        for (var coding : ContentCoding.values()) {
+            var suffix = "--" + coding.token() + "\"";
+            if (etag.endsWith(suffix)) {
+                return etag.substring(0, etag.length() - suffix.length()) + "\"";
+            }
+        }
+        return etag;
+    }
+
+    /**
+     * Compresses bytes into a raw deflate stream with a pooled deflater.
+     *
+     * @param bytes  The bytes to compress.
+     * @param offset The position of the first byte.
+     * @param length The number of bytes.
+     * @param out    The stream receiving the raw deflate stream.
+     * @throws IOException If the stream fails.
+     */
+    public void deflate(byte[] bytes, int offset, int length, OutputStream out) throws IOException {
+        var deflater = borrow();
+        try {
+            var buffer = new byte[Math.min(8192, Math.max(64, length / 2))];
+            deflater.setInput(bytes, offset, length);
+            deflater.finish();
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+        } finally {
+            release(deflater);
+        }
+    }
+
+    /**
+     * Takes a deflater from the pool, creating one if the pool is empty.
+     *
+     * @return A deflater writing raw deflate streams at the configured level.
+     */
+    Deflater borrow() {
+        var deflater = deflaters.poll();
+        return deflater == null ? new Deflater(settings.level(), true) : deflater;
+    }
+
+    /**
+     * Returns a deflater to the pool, freeing its native memory if the pool is full.
+     *
+     * @param deflater The deflater, which may be in the middle of a stream.
+     */
+    void release(Deflater deflater) {
+        deflater.reset();
+        if (!deflaters.offer(deflater)) {
+            deflater.end();
+        }
+    }
+}
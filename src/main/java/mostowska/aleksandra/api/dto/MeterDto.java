@@ -0,0 +1,13 @@
+package mostowska.aleksandra.api.dto;
+
+import java.util.Map;
+
+/**
+ * MeterDto is a record representing a single application metric in API responses.
+ *
+ * @param name         The name of the meter.
+ * @param tags         The tags identifying the meter.
+ * @param measurements The current measurements of the meter keyed by statistic name.
+ */
+public record MeterDto(String name, Map<String, String> tags, Map<String, Double> measurements) {
+}
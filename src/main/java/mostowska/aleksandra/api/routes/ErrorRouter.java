@@ -0,0 +1,199 @@
+package mostowska.aleksandra.api.routes;
+
+import com.google.gson.JsonParseException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import mostowska.aleksandra.api.dto.ResponseDto;
+import mostowska.aleksandra.api.transformer.JsonTransformer;
+import mostowska.aleksandra.exception.ApiException;
+import org.springframework.stereotype.Component;
+import spark.Request;
+import spark.Response;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.SQLTransientConnectionException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static spark.Spark.*;
+
+/**
+ * The `ErrorRouter` class answers the requests that fail, and the requests no route matches, with a JSON error body
+ * and the status of the failure, in the response to the request itself.
+ *
+ * An `ApiException` is answered with its own status and message. An `IllegalArgumentException` is answered
+ * with 400, the application using it to reject malformed arguments such as SWIFT codes and numbers, and a request
+ * body that is not valid JSON likewise. A write breaking a unique constraint of the database is answered with 409
+ * and a database call refused because too many are running with 503. Anything else is a failure of the application:
+ * it is logged and answered with 500, without its message. The bodies that do not depend on the exception are
+ * serialized once, when the router is created, and written as they are.
+ *
+ * Every error answered is counted in the `api.errors` meter, tagged with its status and the type of the exception,
+ * `NoRoute` for requests no route matches.
+ */
+@Component
+@Slf4j
+public class ErrorRouter {
+    private static final String NO_ROUTE = "NoRoute";
+
+    private final JsonTransformer jsonTransformer;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private final byte[] badRequest;
+    private final byte[] malformedJson;
+    private final byte[] notFound;
+    private final byte[] conflict;
+    private final byte[] internalServerError;
+    private final byte[] serviceUnavailable;
+
+    /**
+     * Creates the router and serializes the error bodies that do not depend on the exception.
+     *
+     * @param jsonTransformer The transformer rendering the error bodies.
+     * @param meterRegistry   The registry receiving the error counters.
+     */
+    public ErrorRouter(JsonTransformer jsonTransformer, MeterRegistry meterRegistry) {
+        this.jsonTransformer = jsonTransformer;
+        this.meterRegistry = meterRegistry;
+        this.badRequest = render("Bad request");
+        this.malformedJson = render("Request body is not valid JSON");
+        this.notFound = render("Not found");
+        this.conflict = render("Model already exists");
+        this.internalServerError = render("Internal Server Error");
+        this.serviceUnavailable = render("Service Unavailable");
+    }
+
+    /**
+     * Define the error handlers of the API.
+     */
+    public void routes() {
+
+        // Global exception handler, answering the request that failed directly. Every exception has a handler,
+        // so Spark never falls back to its own internal server error page.
+        exception(Exception.class, this::handle);
+
+        // Global handler for not found errors (404).
+        notFound((request, response) -> {
+            count(404, NO_ROUTE);
+            send(response, 404, notFound);
+            return "";
+        });
+    }
+
+    /**
+     * Answers a request whose route threw an exception with the status and error body the exception maps to.
+     *
+     * @param exception The exception thrown by the route.
+     * @param request   The request that failed.
+     * @param response  The response to write the error to.
+     */
+    public void handle(Exception exception, Request request, Response response) {
+        int status;
+        byte[] body;
+        if (exception instanceof ApiException apiException) {
+            status = apiException.status();
+            body = render(apiException.getMessage());
+        } else if (exception instanceof JsonParseException) {
+            status = 400;
+            body = malformedJson;
+        } else if (exception instanceof IllegalArgumentException) {
+            status = 400;
+            body = exception.getMessage() == null ? badRequest : render(exception.getMessage());
+        } else if (hasCause(exception, SQLIntegrityConstraintViolationException.class)) {
+            status = 409;
+            body = conflict;
+        } else if (hasCause(exception, SQLTransientConnectionException.class)) {
+            status = 503;
+            body = serviceUnavailable;
+        } else {
+            status = 500;
+            body = internalServerError;
+        }
+
+        if (status >= 500) {
+            log.error("{} {} failed", request.requestMethod(), request.pathInfo(), exception);
+        } else {
+            log.debug("{} {} rejected with {}: {}", request.requestMethod(), request.pathInfo(), status,
+                    exception.getMessage());
+        }
+        count(status, exception.getClass().getSimpleName());
+        send(response, status, body);
+    }
+
+    /**
+     * Counts an error answered.
+     *
+     * @param status The status of the error.
+     * @param type   The type of the error, the simple name of the exception.
+     */
+    private void count(int status, String type) {
+        counters.computeIfAbsent(status + ":" + type, key -> Counter
+                .builder("api.errors")
+                .tag("status", String.valueOf(status))
+                .tag("type", type)
+                .register(meterRegistry))
+                .increment();
+    }
+
+    /**
+     * Writes an error body to the response and commits it, so that Spark does not write a body of its own after it.
+     * A response already committed by the route that failed is left as it is, its status having been sent.
+     *
+     * @param response The response.
+     * @param status   The status of the error.
+     * @param body     The serialized error body.
+     */
+    private static void send(Response response, int status, byte[] body) {
+        var raw = response.raw();
+        if (raw.isCommitted()) {
+            response.body("");
+            return;
+        }
+        Utils.setResponse(response, status);
+        raw.setContentLength(body.length);
+        try {
+            var out = raw.getOutputStream();
+            out.write(body);
+            out.flush();
+        } catch (IOException e) {
+            log.debug("Error response could not be sent: {}", e.getMessage());
+        }
+        response.body("");
+    }
+
+    /**
+     * Serializes an error body.
+     *
+     * @param message The error message.
+     * @return The compact UTF-8 encoded JSON of a response holding the message as its error.
+     */
+    private byte[] render(String message) {
+        var out = new ByteArrayOutputStream(64 + (message == null ? 0 : message.length()));
+        try {
+            jsonTransformer.write(new ResponseDto<>(message), out, false);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Checks whether an exception was caused, directly or through other exceptions, by an exception of a type.
+     *
+     * @param exception The exception.
+     * @param type      The type of the cause looked for.
+     * @return True if the exception or one of its causes is of the type.
+     */
+    private static boolean hasCause(Throwable exception, Class<? extends Throwable> type) {
+        for (var cause = exception; cause != null; cause = cause.getCause() == cause ? null : cause.getCause()) {
+            if (type.isInstance(cause)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
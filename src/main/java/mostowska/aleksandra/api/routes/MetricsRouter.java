@@ -0,0 +1,66 @@
+package mostowska.aleksandra.api.routes;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import lombok.RequiredArgsConstructor;
+import mostowska.aleksandra.api.dto.MeterDto;
+import mostowska.aleksandra.api.dto.ResponseDto;
+import org.springframework.stereotype.Component;
+import spark.ResponseTransformer;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.stream.Collectors;
+
+import static spark.Spark.*;
+
+/**
+ * The `MetricsRouter` class exposes the application metrics collected in the meter registry,
+ * such as the connection pool gauges, so they can be inspected over HTTP.
+ */
+@Component
+@RequiredArgsConstructor
+public class MetricsRouter {
+    private final MeterRegistry meterRegistry;
+    private final ResponseTransformer responseTransformer;
+
+    /**
+     * Define the routes for the metrics API.
+     */
+    public void routes() {
+
+        // Route for retrieving all registered meters (GET request).
+        get(
+                "/v1/metrics",
+                (request, response) -> {
+                    Utils.setResponse(response, 200);
+                    return new ResponseDto<>(meterRegistry
+                            .getMeters()
+                            .stream()
+                            .sorted(Comparator.comparing(meter -> meter.getId().getName()))
+                            .map(MetricsRouter::toMeterDto)
+                            .collect(Collectors.toList()));
+                },
+                responseTransformer
+        );
+    }
+
+    /**
+     * Converts a meter to its DTO representation.
+     *
+     * @param meter The meter to convert.
+     * @return A MeterDto holding the meter name, tags and current measurements.
+     */
+    private static MeterDto toMeterDto(Meter meter) {
+        var tags = meter
+                .getId()
+                .getTags()
+                .stream()
+                .collect(Collectors.toMap(Tag::getKey, Tag::getValue, (a, b) -> b, LinkedHashMap::new));
+        var measurements = new LinkedHashMap<String, Double>();
+        meter.measure().forEach(measurement ->
+                measurements.put(measurement.getStatistic().getTagValueRepresentation(), measurement.getValue()));
+        return new MeterDto(meter.getId().getName(), tags, measurements);
+    }
+}
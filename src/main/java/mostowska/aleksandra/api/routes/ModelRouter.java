@@ -3,12 +3,18 @@ package mostowska.aleksandra.api.routes;
 import com.google.gson.Gson;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import mostowska.aleksandra.api.cache.ConditionalGet;
+import mostowska.aleksandra.api.cache.ResponseCache;
 import mostowska.aleksandra.api.dto.ResponseDto;
+import mostowska.aleksandra.api.transformer.JsonTransformer;
 import mostowska.aleksandra.model.dto.CreateModelDto;
+import mostowska.aleksandra.repository.DataVersions;
 import mostowska.aleksandra.service.HeadquartersService;
 import mostowska.aleksandra.service.ModelService;
 import org.springframework.stereotype.Component;
-import spark.ResponseTransformer;
+import spark.Request;
+
+import java.util.Arrays;
 
 import static spark.Spark.*;
 
@@ -21,9 +27,15 @@ import static spark.Spark.*;
 @RequiredArgsConstructor
 @Slf4j
 public class ModelRouter {
+    private static final int DEFAULT_SEARCH_LIMIT = 10;
+    private static final int DEFAULT_PAGE_LIMIT = 100;
+
     private final ModelService modelService;
     private final HeadquartersService headquartersService;
-    private final ResponseTransformer responseTransformer;
+    private final JsonTransformer jsonTransformer;
+    private final ResponseCache responseCache;
+    private final ConditionalGet conditionalGet;
+    private final DataVersions dataVersions;
     private final Gson gson;
 
     /**
@@ -40,103 +52,171 @@ public class ModelRouter {
                 return "Test route is working inside model router!";
             });
 
-            // Route for retrieving all headquarters (GET request).
+            // Route for retrieving a page of headquarters in swift code order (GET request).
             get(
                     "/swift-codes/headquarters",
-                    (request, response) -> {
-                        Utils.setResponse(response, 200);
-//                        return new ResponseDto<>(headquartersService.getAll());
-                        return headquartersService.getAll();
-                    },
-                    responseTransformer
+                    conditionalGet.conditional(
+                            request -> dataVersions.version(),
+                            jsonTransformer.stream((request, response) -> {
+                                var after = request.queryParams("after");
+                                var limit = request.queryParams("limit");
+                                Utils.setResponse(response, 200);
+                                return new ResponseDto<>(headquartersService.getPage(after,
+                                        limit == null ? DEFAULT_PAGE_LIMIT : Integer.parseInt(limit)));
+                            }))
             );
 
             // Route for retrieving headquarters by a specific swift code (GET request).
             get(
                     "/swift-codes/headquarters/:swift-code",
-                    (request, response) -> {
-                        var swiftCode = String.valueOf(request.params(":swift-code"));
-                        Utils.setResponse(response, 200);
-                        return new ResponseDto<>(headquartersService.getAllBySwiftCode(swiftCode));
-                    },
-                    responseTransformer
+                    conditionalGet.conditional(
+                            this::swiftCodeVersion,
+                            jsonTransformer.stream((request, response) -> {
+                                var swiftCode = String.valueOf(request.params(":swift-code"));
+                                Utils.setResponse(response, 200);
+                                return new ResponseDto<>(headquartersService.getAllBySwiftCode(swiftCode));
+                            }))
             );
 
-            // Route for retrieving all headquarters and branches by swift code (GET request).
+            // Route for searching (GET request), declared before the `:swift-code` route:
+            // `q` runs a full-text search over bank names and addresses, `prefix` autocompletes swift codes.
+            get(
+                    "/swift-codes/search",
+                    conditionalGet.conditional(
+                            request -> dataVersions.version(),
+                            jsonTransformer.stream((request, response) -> {
+                                var query = request.queryParams("q");
+                                var limit = request.queryParams("limit");
+                                var maxResults = limit == null ? DEFAULT_SEARCH_LIMIT : Integer.parseInt(limit);
+                                Utils.setResponse(response, 200);
+                                if (query != null) {
+                                    return new ResponseDto<>(modelService.searchText(query, maxResults));
+                                }
+                                var prefix = request.queryParams("prefix");
+                                return new ResponseDto<>(modelService.search(prefix, maxResults));
+                            }))
+            );
+
+            // Route for retrieving all headquarters and branches by swift code (GET request),
+            // cached until a model of the same bank is written.
             get(
                     "/swift-codes/:swift-code",
-                    (request, response) -> {
-                        var swiftCode = String.valueOf(request.params(":swift-code"));
-                        Utils.setResponse(response, 200);
-                        return new ResponseDto<>(modelService.getAllHeadquartersWithBranches(swiftCode));
-                    },
-                    responseTransformer
+                    conditionalGet.conditional(
+                            this::swiftCodeVersion,
+                            responseCache.cached(
+                                    "swift-code",
+                                    request -> request.params(":swift-code"),
+                                    this::swiftCodeVersion,
+                                    (request, response) -> {
+                                        var swiftCode = String.valueOf(request.params(":swift-code"));
+                                        Utils.setResponse(response, 200);
+                                        return new ResponseDto<>(
+                                                modelService.getAllHeadquartersWithBranches(swiftCode));
+                                    }))
             );
 
-            // Route for retrieving all models by country ISO2 code (GET request).
+            // Route for retrieving a page of the models of a country by country ISO2 code (GET request),
+            // cached until a model of the country is written.
             get(
                     "/swift-codes/country/:countryISO2code",
-                    (request, response) -> {
-                        var countryIso2 = String.valueOf(request.params(":countryISO2code"));
+                    conditionalGet.conditional(
+                            this::countryVersion,
+                            responseCache.cached(
+                                    "country",
+                                    request -> request.params(":countryISO2code") + ':' + request.queryParams("after")
+                                            + ':' + request.queryParams("limit"),
+                                    this::countryVersion,
+                                    (request, response) -> {
+                                        var countryIso2 = String.valueOf(request.params(":countryISO2code"));
+                                        var after = request.queryParams("after");
+                                        var limit = request.queryParams("limit");
+                                        Utils.setResponse(response, 200);
+                                        return new ResponseDto<>(modelService.getPageByCountry(countryIso2, after,
+                                                limit == null ? DEFAULT_PAGE_LIMIT : Integer.parseInt(limit)));
+                                    }))
+            );
+
+            // Route for looking up many swift codes at once (POST request), the body being a JSON array of codes.
+            post(
+                    "/swift-codes/lookup",
+                    jsonTransformer.stream((request, response) -> {
+                        var swiftCodes = gson.fromJson(request.body(), String[].class);
                         Utils.setResponse(response, 200);
-                        return new ResponseDto<>(modelService.getAllByCountry(countryIso2));
-                    },
-                    responseTransformer
+                        return new ResponseDto<>(modelService.lookup(
+                                swiftCodes == null ? null : Arrays.asList(swiftCodes)));
+                    })
             );
 
             // Route for creating a new model (POST request).
             post(
                     "/swift-codes",
-                    (request, response) -> {
+                    jsonTransformer.stream((request, response) -> {
                         var createModelDto = gson.fromJson(request.body(), CreateModelDto.class);
                         Utils.setResponse(response, 201);
                         return new ResponseDto<>(modelService.saveModelToDB(createModelDto));
-                    },
-                    responseTransformer
+                    })
+            );
+
+            // Route for creating many models from newline-delimited JSON (POST request), read as it arrives.
+            post(
+                    "/swift-codes/bulk",
+                    jsonTransformer.stream((request, response) -> {
+                        var report = modelService.createAll(Utils.bodyStream(request));
+                        Utils.setResponse(response, 200);
+                        return new ResponseDto<>(report);
+                    })
+            );
+
+            // Route for deleting many models at once (DELETE request), the body being a JSON array of codes.
+            delete(
+                    "/swift-codes",
+                    jsonTransformer.stream((request, response) -> {
+                        var swiftCodes = gson.fromJson(request.body(), String[].class);
+                        Utils.setResponse(response, 200);
+                        return new ResponseDto<>(modelService.deleteAll(
+                                swiftCodes == null ? null : Arrays.asList(swiftCodes)));
+                    })
+            );
+
+            // Route for purging all models of a country (DELETE request), an administrative operation.
+            delete(
+                    "/swift-codes/country/:countryISO2code",
+                    jsonTransformer.stream((request, response) -> {
+                        var countryIso2 = request.params(":countryISO2code");
+                        Utils.setResponse(response, 200);
+                        return new ResponseDto<>(modelService.deleteAllForCountry(countryIso2));
+                    })
             );
 
             // Route for deleting a model by swift code (DELETE request).
             delete(
                     "/swift-codes/:swift-code",
-                    (request, response) -> {
+                    jsonTransformer.stream((request, response) -> {
                         var swiftCode = String.valueOf(request.params(":swift-code"));
                         Utils.setResponse(response, 200);
                         return new ResponseDto<>(modelService.delete(swiftCode));
-                    },
-                    responseTransformer
+                    })
             );
         });
+    }
 
-        // Global exception handler for runtime exceptions.
-        exception(RuntimeException.class, (ex, request, response) -> {
-            var exceptionMessage = ex.getMessage();
-            System.out.println("EX: " + exceptionMessage);
-            response.redirect("/error?msg=" + exceptionMessage, 301);
-        });
-
-        // Error route to display error messages.
-        path("/error", () ->
-                get(
-                        "",
-                        (request, response) -> {
-                            Utils.setResponse(response, 500);
-                            var message = request.queryParams("msg");
-                            return new ResponseDto<>(message);
-                        },
-                        responseTransformer
-                )
-        );
-
-        // Global handler for internal server errors.
-        internalServerError((request, response) -> {
-            response.header("Content-Type", "application/json;charset=utf-8");
-            return gson.toJson(new ResponseDto<>("Internal Server Error"));
-        });
+    /**
+     * Reads the data version of the routes addressing a model by swift code: the version of its bank.
+     *
+     * @param request The request holding the swift code.
+     * @return The version of the bank the swift code belongs to.
+     */
+    private long swiftCodeVersion(Request request) {
+        return dataVersions.prefixVersion(request.params(":swift-code"));
+    }
 
-        // Global handler for not found errors (404).
-        notFound((request, response) -> {
-            response.header("Content-Type", "application/json;charset=utf-8");
-            return gson.toJson(new ResponseDto<>("Not found"));
-        });
+    /**
+     * Reads the data version of the routes addressing a country by ISO2 code.
+     *
+     * @param request The request holding the country ISO2 code.
+     * @return The version of the country.
+     */
+    private long countryVersion(Request request) {
+        return dataVersions.countryVersion(request.params(":countryISO2code"));
     }
 }
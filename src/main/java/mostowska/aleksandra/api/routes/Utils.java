@@ -1,7 +1,13 @@
 package mostowska.aleksandra.api.routes;
 
+import spark.Request;
 import spark.Response;
 
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletRequestWrapper;
+import java.io.IOException;
+import java.io.InputStream;
+
 /**
  * Utils interface provides utility methods for routing operations.
  */
@@ -16,4 +22,21 @@ public interface Utils {
         response.header("Content-Type", "application/json;charset=utf-8");
         response.status(statusCode);
     }
+
+    /**
+     * Opens the body of a request as it arrives from the client.
+     * Spark wraps requests in a wrapper reading the whole body into memory the first time it is asked for,
+     * so the stream is taken from the request it wraps instead.
+     *
+     * @param request The Spark request.
+     * @return The stream of the request body, read from the connection.
+     * @throws IOException If the body cannot be opened.
+     */
+    static InputStream bodyStream(Request request) throws IOException {
+        ServletRequest raw = request.raw();
+        while (raw instanceof ServletRequestWrapper wrapper) {
+            raw = wrapper.getRequest();
+        }
+        return raw.getInputStream();
+    }
 }
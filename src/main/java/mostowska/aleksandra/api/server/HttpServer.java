@@ -0,0 +1,38 @@
+package mostowska.aleksandra.api.server;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import spark.embeddedserver.EmbeddedServers;
+import spark.embeddedserver.jetty.EmbeddedJettyFactory;
+
+import static spark.Spark.port;
+import static spark.Spark.threadPool;
+
+/**
+ * HttpServer configures the embedded Jetty server Spark starts once the first route is mapped.
+ *
+ * With platform threads, Jetty's bounded pool runs the requests and queues those it has no thread for.
+ * With virtual threads, Spark's Jetty factory is replaced by one handing the server a `VirtualThreadPool`,
+ * and every request runs on a thread of its own.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class HttpServer {
+    private final ServerSettings settings;
+
+    /**
+     * Configures the port and the threads of the server. Must be called before the first route is mapped.
+     */
+    public void configure() {
+        port(settings.port());
+        if (settings.threads() == ServerThreads.VIRTUAL) {
+            EmbeddedServers.add(EmbeddedServers.defaultIdentifier(),
+                    new EmbeddedJettyFactory().withThreadPool(new VirtualThreadPool()));
+        } else {
+            threadPool(settings.maxThreads(), settings.minThreads(), (int) settings.idleTimeout().toMillis());
+        }
+        log.info("Serving on port {} with {} threads", settings.port(), settings.threads());
+    }
+}
@@ -0,0 +1,33 @@
+package mostowska.aleksandra.api.server;
+
+import java.time.Duration;
+
+/**
+ * ServerSettings holds how the embedded HTTP server is started.
+ *
+ * @param port        The port the server listens on.
+ * @param threads     The threads running the requests.
+ * @param maxThreads  The maximum size of the platform thread pool, unused with virtual threads.
+ * @param minThreads  The minimum size of the platform thread pool, unused with virtual threads.
+ * @param idleTimeout The time after which an idle platform thread above the minimum is stopped.
+ */
+public record ServerSettings(int port, ServerThreads threads, int maxThreads, int minThreads, Duration idleTimeout) {
+
+    /**
+     * Validates the port and the sizes of the platform thread pool.
+     */
+    public ServerSettings {
+        if (port < 0 || port > 65535) {
+            throw new IllegalArgumentException("Server port must be between 0 and 65535");
+        }
+        if (threads == null) {
+            throw new IllegalArgumentException("Server threads must be set");
+        }
+        if (minThreads < 1 || maxThreads < minThreads) {
+            throw new IllegalArgumentException("Server thread pool needs at least one thread and no more than its maximum");
+        }
+        if (idleTimeout.isNegative()) {
+            throw new IllegalArgumentException("Server thread idle timeout cannot be negative");
+        }
+    }
+}
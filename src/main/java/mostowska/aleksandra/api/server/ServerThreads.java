@@ -0,0 +1,16 @@
+package mostowska.aleksandra.api.server;
+
+/**
+ * The threads running the requests of the HTTP server, selected with the `server.threads` property.
+ */
+public enum ServerThreads {
+    /**
+     * Requests run on Jetty's bounded pool of platform threads, each blocked for the whole of its JDBC calls.
+     */
+    PLATFORM,
+
+    /**
+     * Every request runs on a virtual thread of its own, which frees its carrier thread while it blocks.
+     */
+    VIRTUAL
+}
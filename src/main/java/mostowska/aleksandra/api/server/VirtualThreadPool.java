@@ -0,0 +1,132 @@
+package mostowska.aleksandra.api.server;
+
+import org.eclipse.jetty.util.component.AbstractLifeCycle;
+import org.eclipse.jetty.util.thread.ThreadPool;
+import org.eclipse.jetty.util.thread.TryExecutor;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * VirtualThreadPool is a Jetty thread pool starting a new virtual thread for every task.
+ *
+ * Jetty runs its acceptors, its selectors and the handling of each request as tasks of the server thread pool.
+ * Virtual threads cost a few hundred bytes until they block, and a blocked one gives its carrier thread back,
+ * so there is no pool to size and no queue of requests waiting for a thread: a request blocked on the database
+ * holds nothing but its stack. Since a thread is always available, the pool is a `TryExecutor` that accepts
+ * every task, letting Jetty hand a selected connection to a new thread instead of queuing it.
+ *
+ * A virtual thread inside a `synchronized` block holds its carrier while it blocks, as the MySQL driver does
+ * around its socket reads, which is why database calls are bounded separately.
+ */
+public class VirtualThreadPool extends AbstractLifeCycle implements ThreadPool, TryExecutor {
+    private static final long STOP_TIMEOUT_MS = 30_000;
+
+    private final AtomicInteger threads = new AtomicInteger();
+    private ExecutorService executor;
+
+    /**
+     * Starts the executor creating the virtual threads.
+     */
+    @Override
+    protected void doStart() {
+        executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("http-", 0).factory());
+    }
+
+    /**
+     * Stops accepting tasks and waits for the running ones to end, interrupting them past the stop timeout.
+     *
+     * @throws InterruptedException If interrupted while waiting.
+     */
+    @Override
+    protected void doStop() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(STOP_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Runs a task on a new virtual thread.
+     *
+     * @param task The task.
+     * @throws RejectedExecutionException If the pool is not started or is stopping.
+     */
+    @Override
+    public void execute(Runnable task) {
+        if (executor == null) {
+            throw new RejectedExecutionException("Virtual thread pool is not started");
+        }
+        executor.execute(() -> {
+            threads.incrementAndGet();
+            try {
+                task.run();
+            } finally {
+                threads.decrementAndGet();
+            }
+        });
+    }
+
+    /**
+     * Runs a task on a new virtual thread, which is always possible while the pool is running.
+     *
+     * @param task The task.
+     * @return True, unless the pool is not running.
+     */
+    @Override
+    public boolean tryExecute(Runnable task) {
+        if (!isRunning()) {
+            return false;
+        }
+        execute(task);
+        return true;
+    }
+
+    /**
+     * Waits until the pool has stopped and its tasks have ended, returning at once if it never started.
+     *
+     * @throws InterruptedException If interrupted while waiting.
+     */
+    @Override
+    public void join() throws InterruptedException {
+        if (executor == null) {
+            return;
+        }
+        while (!executor.awaitTermination(1, TimeUnit.SECONDS)) {
+            // The server is still running
+        }
+    }
+
+    /**
+     * Counts the threads running a task.
+     *
+     * @return The number of virtual threads started by the pool and not yet ended.
+     */
+    @Override
+    public int getThreads() {
+        return threads.get();
+    }
+
+    /**
+     * Counts the idle threads, a virtual thread ending with its task.
+     *
+     * @return 0.
+     */
+    @Override
+    public int getIdleThreads() {
+        return 0;
+    }
+
+    /**
+     * Tells whether the pool is low on threads, which it never is.
+     *
+     * @return False.
+     */
+    @Override
+    public boolean isLowOnThreads() {
+        return false;
+    }
+}
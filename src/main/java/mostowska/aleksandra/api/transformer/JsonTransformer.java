@@ -1,17 +1,43 @@
 package mostowska.aleksandra.api.transformer;
 
 import com.google.gson.Gson;
+import com.google.gson.JsonNull;
 import lombok.RequiredArgsConstructor;
+import mostowska.aleksandra.api.compression.ResponseCompression;
 import org.springframework.stereotype.Component;
+import spark.Request;
 import spark.ResponseTransformer;
+import spark.Route;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * The `JsonTransformer` class renders route results as JSON.
+ *
+ * Routes wrapped with `stream` write their result straight to the servlet output stream through a Gson `JsonWriter`,
+ * so a response is never held in memory as a whole, first as a `String` and then as its bytes. The characters are
+ * encoded by `Utf8Writer`s taken from a small pool, whose buffers are reused from one response to the next.
+ * Output is compact, and indented only when the request asks for it with `pretty=true`. Streamed responses are
+ * compressed by `ResponseCompression` when the client accepts it and they are large enough.
+ * Rendering to a `String` through `render` remains for routes that are not streamed.
+ */
 @Component // Mark this class as a Spring component for dependency injection
 @RequiredArgsConstructor // Generate a constructor for all final fields, including Gson
 public class JsonTransformer implements ResponseTransformer {
+    private static final int WRITER_POOL_SIZE = 64;
+    private static final String PRETTY_INDENT = "  ";
+
     private final Gson gson; // Instance of Gson for converting objects to JSON
+    private final ResponseCompression compression; // Compresses streamed responses the client accepts compressed
+    private final BlockingQueue<Utf8Writer> writers = new ArrayBlockingQueue<>(WRITER_POOL_SIZE);
 
     /**
-     * Transforms the given object into a JSON string.
+     * Transforms the given object into a compact JSON string.
      *
      * @param o The object to be transformed into JSON.
      * @return A JSON representation of the object.
@@ -19,6 +45,77 @@ public class JsonTransformer implements ResponseTransformer {
      */
     @Override
     public String render(Object o) throws Exception {
-        return gson.toJson(o);
+        var json = new StringWriter();
+        write(o, json, false);
+        return json.toString();
+    }
+
+    /**
+     * Wraps a route so that its result is written as JSON straight to the response output stream.
+     * The route sets the status and headers before returning, they are sent ahead of the first bytes written.
+     * An exception thrown by the route propagates before anything is written, so the error handlers still apply.
+     *
+     * @param route The route producing the object to render.
+     * @return A route writing the JSON of the result, compressed if negotiated, and returning an empty body to Spark.
+     */
+    public Route stream(Route route) {
+        return (request, response) -> {
+            var result = route.handle(request, response);
+            try (var out = compression.open(request, response)) {
+                write(result, out, isPretty(request));
+            }
+            return "";
+        };
+    }
+
+    /**
+     * Writes the given object as UTF-8 encoded JSON to a stream. The stream is flushed but left open.
+     *
+     * @param o      The object to be written as JSON.
+     * @param out    The stream receiving the JSON.
+     * @param pretty True to indent the JSON, false to write it compact.
+     * @throws IOException If the stream fails.
+     */
+    public void write(Object o, OutputStream out, boolean pretty) throws IOException {
+        var writer = writers.poll();
+        if (writer == null) {
+            writer = new Utf8Writer();
+        }
+        try {
+            write(o, writer.reset(out), pretty);
+            writer.close();
+        } finally {
+            writers.offer(writer);
+        }
+    }
+
+    /**
+     * Writes the given object as JSON to a character writer through a Gson `JsonWriter`.
+     *
+     * @param o      The object to be written as JSON.
+     * @param out    The writer receiving the JSON.
+     * @param pretty True to indent the JSON, false to write it compact.
+     * @throws IOException If the writer fails.
+     */
+    private void write(Object o, Writer out, boolean pretty) throws IOException {
+        var jsonWriter = gson.newJsonWriter(out);
+        // The Gson bean pretty-prints, the indent is chosen per response instead
+        jsonWriter.setIndent(pretty ? PRETTY_INDENT : "");
+        if (o == null) {
+            gson.toJson(JsonNull.INSTANCE, jsonWriter);
+        } else {
+            gson.toJson(o, o.getClass(), jsonWriter);
+        }
+        jsonWriter.flush();
+    }
+
+    /**
+     * Checks whether a request asks for indented JSON.
+     *
+     * @param request The request.
+     * @return True if the `pretty` query parameter is `true`.
+     */
+    public static boolean isPretty(Request request) {
+        return "true".equalsIgnoreCase(request.queryParams("pretty"));
     }
 }
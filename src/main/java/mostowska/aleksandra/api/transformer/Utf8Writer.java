@@ -0,0 +1,169 @@
+package mostowska.aleksandra.api.transformer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+
+/**
+ * Utf8Writer encodes characters as UTF-8 into a fixed byte buffer and hands the full buffer to an output stream.
+ *
+ * Unlike an `OutputStreamWriter`, the writer can be pointed at another stream with `reset`, so one writer and its
+ * buffer serve many responses instead of being allocated for each of them. Characters are encoded by hand:
+ * JSON output is mostly ASCII, which takes one comparison and one store per character. A surrogate pair split
+ * between two writes is joined before being encoded, a lone surrogate is written as `?`.
+ * The writer is not thread-safe and is only used by one response at a time.
+ */
+final class Utf8Writer extends Writer {
+    private static final int BUFFER_SIZE = 8192;
+
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private OutputStream out;
+    private int position;
+    private char pendingHighSurrogate;
+
+    /**
+     * Points the writer at a new stream, dropping anything left from the previous one.
+     *
+     * @param out The stream receiving the encoded bytes.
+     * @return This writer.
+     */
+    Utf8Writer reset(OutputStream out) {
+        this.out = out;
+        this.position = 0;
+        this.pendingHighSurrogate = 0;
+        return this;
+    }
+
+    /**
+     * Encodes a single character.
+     *
+     * @param character The character, in its lower 16 bits.
+     * @throws IOException If the stream fails when the buffer is handed over.
+     */
+    @Override
+    public void write(int character) throws IOException {
+        encode((char) character);
+    }
+
+    /**
+     * Encodes a range of an array of characters.
+     *
+     * @param characters The characters.
+     * @param offset     The position of the first character to encode.
+     * @param length     The number of characters to encode.
+     * @throws IOException If the stream fails when the buffer is handed over.
+     */
+    @Override
+    public void write(char[] characters, int offset, int length) throws IOException {
+        for (var i = offset; i < offset + length; i++) {
+            encode(characters[i]);
+        }
+    }
+
+    /**
+     * Encodes a range of a string without copying it into an array first.
+     *
+     * @param text   The string.
+     * @param offset The position of the first character to encode.
+     * @param length The number of characters to encode.
+     * @throws IOException If the stream fails when the buffer is handed over.
+     */
+    @Override
+    public void write(String text, int offset, int length) throws IOException {
+        for (var i = offset; i < offset + length; i++) {
+            encode(text.charAt(i));
+        }
+    }
+
+    /**
+     * Hands the buffered bytes to the stream and flushes it. A high surrogate waiting for its pair is kept.
+     *
+     * @throws IOException If the stream fails.
+     */
+    @Override
+    public void flush() throws IOException {
+        drain();
+        out.flush();
+    }
+
+    /**
+     * Hands the buffered bytes to the stream and releases it. The stream itself is left open for its owner to close.
+     *
+     * @throws IOException If the stream fails.
+     */
+    @Override
+    public void close() throws IOException {
+        if (pendingHighSurrogate != 0) {
+            pendingHighSurrogate = 0;
+            put((byte) '?');
+        }
+        flush();
+        out = null;
+    }
+
+    /**
+     * Encodes one character, joining it with a pending high surrogate when it completes a pair.
+     *
+     * @param character The character.
+     * @throws IOException If the stream fails when the buffer is handed over.
+     */
+    private void encode(char character) throws IOException {
+        if (character < 0x80 && pendingHighSurrogate == 0) {
+            put((byte) character);
+            return;
+        }
+        if (pendingHighSurrogate != 0) {
+            var high = pendingHighSurrogate;
+            pendingHighSurrogate = 0;
+            if (Character.isLowSurrogate(character)) {
+                var codePoint = Character.toCodePoint(high, character);
+                put((byte) (0xF0 | (codePoint >> 18)));
+                put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+                put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+                put((byte) (0x80 | (codePoint & 0x3F)));
+                return;
+            }
+            put((byte) '?');
+        }
+
+        if (character < 0x80) {
+            put((byte) character);
+        } else if (character < 0x800) {
+            put((byte) (0xC0 | (character >> 6)));
+            put((byte) (0x80 | (character & 0x3F)));
+        } else if (Character.isHighSurrogate(character)) {
+            pendingHighSurrogate = character;
+        } else if (Character.isLowSurrogate(character)) {
+            put((byte) '?');
+        } else {
+            put((byte) (0xE0 | (character >> 12)));
+            put((byte) (0x80 | ((character >> 6) & 0x3F)));
+            put((byte) (0x80 | (character & 0x3F)));
+        }
+    }
+
+    /**
+     * Appends a byte to the buffer, handing the buffer to the stream first when it is full.
+     *
+     * @param value The byte.
+     * @throws IOException If the stream fails.
+     */
+    private void put(byte value) throws IOException {
+        if (position == BUFFER_SIZE) {
+            drain();
+        }
+        buffer[position++] = value;
+    }
+
+    /**
+     * Hands the buffered bytes to the stream.
+     *
+     * @throws IOException If the stream fails.
+     */
+    private void drain() throws IOException {
+        if (position > 0) {
+            out.write(buffer, 0, position);
+            position = 0;
+        }
+    }
+}
@@ -2,19 +2,51 @@ package mostowska.aleksandra.config;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import lombok.RequiredArgsConstructor;
+import mostowska.aleksandra.api.cache.HttpCacheSettings;
+import mostowska.aleksandra.api.cache.ResponseCacheSettings;
+import mostowska.aleksandra.api.compression.CompressionSettings;
+import mostowska.aleksandra.api.server.ServerSettings;
+import mostowska.aleksandra.api.server.ServerThreads;
+import mostowska.aleksandra.importer.ImportSettings;
+import mostowska.aleksandra.importer.NdjsonImportSettings;
+import mostowska.aleksandra.repository.BoundedConnectionFactory;
+import mostowska.aleksandra.repository.DatabaseConcurrencySettings;
+import mostowska.aleksandra.repository.RepositoryEngine;
+import mostowska.aleksandra.repository.cache.CachingBranchRepository;
+import mostowska.aleksandra.repository.cache.CachingHeadquartersRepository;
+import mostowska.aleksandra.repository.cache.RepositoryCacheSettings;
+import mostowska.aleksandra.repository.memory.InMemoryBranchRepository;
+import mostowska.aleksandra.repository.memory.InMemoryCountryRepository;
+import mostowska.aleksandra.repository.memory.InMemoryDirectory;
+import mostowska.aleksandra.repository.memory.InMemoryHeadquartersRepository;
+import mostowska.aleksandra.repository.model.BranchRepository;
+import mostowska.aleksandra.repository.model.CountryRepository;
+import mostowska.aleksandra.repository.model.HeadquartersRepository;
+import mostowska.aleksandra.repository.model.impl.BranchRepositoryImpl;
+import mostowska.aleksandra.repository.model.impl.CountryRepositoryImpl;
+import mostowska.aleksandra.repository.model.impl.HeadquartersRepositoryImpl;
 import org.jdbi.v3.core.Jdbi;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.context.annotation.PropertySource;
 import org.springframework.core.env.Environment;
 
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Locale;
+
 
 /**
  * Configuration class for setting up application-level beans and settings.
- * This class initializes various components such as Gson, PasswordEncoder,
- * Jdbi for database access, Mailer for email sending, and a SecretKey for JWT.
+ * This class initializes various components such as Gson, the pooled DataSource
+ * and Jdbi for database access, the repositories of the selected engine, and the MeterRegistry for application metrics.
  */
 @Configuration
 @ComponentScan("mostowska.aleksandra")
@@ -36,19 +68,262 @@ public class AppConfig {
                 .create();
     }
 
+    /**
+     * Provides a MeterRegistry bean collecting application metrics such as connection pool gauges.
+     *
+     * @return A MeterRegistry instance keeping meters in memory.
+     */
+    @Bean
+    public MeterRegistry meterRegistry() {
+        return new SimpleMeterRegistry();
+    }
+
+    /**
+     * Provides a pooled DataSource bean for database connections.
+     * Connections are validated before being handed out, the pool is filled up to its minimum idle size
+     * right after startup, and MySQL prepared statement caching and batch rewriting are enabled on every connection.
+     * Pool gauges (active, idle, pending connections) and the acquire time are published to the meter registry.
+     *
+     * @param meterRegistry The registry receiving the pool metrics.
+     * @return A HikariDataSource configured with database connection and pool properties.
+     */
+    @Bean(destroyMethod = "close")
+    public HikariDataSource dataSource(MeterRegistry meterRegistry) {
+        var config = new HikariConfig();
+        config.setPoolName("swift-pool");
+        config.setJdbcUrl(environment.getRequiredProperty("db.url"));
+        config.setUsername(environment.getRequiredProperty("db.username"));
+        config.setPassword(environment.getRequiredProperty("db.password"));
+
+        config.setMaximumPoolSize(environment.getProperty("db.pool.maximum-size", Integer.class, 10));
+        config.setMinimumIdle(environment.getProperty("db.pool.minimum-idle", Integer.class, 10));
+        config.setConnectionTimeout(environment.getProperty("db.pool.connection-timeout-ms", Long.class, 3000L));
+        config.setValidationTimeout(environment.getProperty("db.pool.validation-timeout-ms", Long.class, 1000L));
+        config.setIdleTimeout(environment.getProperty("db.pool.idle-timeout-ms", Long.class, 600000L));
+        config.setMaxLifetime(environment.getProperty("db.pool.max-lifetime-ms", Long.class, 1800000L));
+        config.setKeepaliveTime(environment.getProperty("db.pool.keepalive-time-ms", Long.class, 120000L));
+        // A negative value starts the pool without blocking on the first connection, the pool is warmed in background
+        config.setInitializationFailTimeout(
+                environment.getProperty("db.pool.initialization-fail-timeout-ms", Long.class, -1L));
+
+        config.addDataSourceProperty("cachePrepStmts", "true");
+        config.addDataSourceProperty("useServerPrepStmts", "true");
+        config.addDataSourceProperty("prepStmtCacheSize",
+                environment.getProperty("db.statement-cache.size", "250"));
+        config.addDataSourceProperty("prepStmtCacheSqlLimit",
+                environment.getProperty("db.statement-cache.sql-limit", "2048"));
+        // Lets the driver send a batch of inserts as multi-row insert statements
+        config.addDataSourceProperty("rewriteBatchedStatements", "true");
+
+        config.setMetricRegistry(meterRegistry);
+
+        return new HikariDataSource(config);
+    }
+
     /**
      * Provides a Jdbi bean for database interactions.
+     * Handles take their connections through a `BoundedConnectionFactory`, so the database work running at once
+     * stays within `db.max-concurrent` calls however many request threads there are.
+     *
+     * @param dataSource    The pooled DataSource handing out connections to Jdbi handles.
+     * @param settings      The bound on concurrent database calls.
+     * @param meterRegistry The registry receiving the concurrency gauges.
+     * @return A Jdbi instance backed by the connection pool.
+     */
+    @Bean
+    public Jdbi jdbi(DataSource dataSource, DatabaseConcurrencySettings settings, MeterRegistry meterRegistry) {
+        return Jdbi.create(new BoundedConnectionFactory(dataSource, settings, meterRegistry));
+    }
+
+    /**
+     * Provides the DatabaseConcurrencySettings bean bounding the database calls running at once.
+     * The bound should not exceed `db.pool.maximum-size`, and with virtual threads it should stay below the number
+     * of carrier threads, the MySQL driver pinning its carrier while it waits for the database.
      *
-     * @return A Jdbi instance configured with database connection properties.
+     * @return A DatabaseConcurrencySettings instance with the `db.max-concurrent` bound, 8 by default, and the
+     *         `db.acquire-timeout-ms` timeout, 3000 by default.
      */
     @Bean
-    public Jdbi jdbi() {
-        var jdbi = Jdbi.create(
-                environment.getRequiredProperty("db.url"),
-                environment.getRequiredProperty("db.username"),
-                environment.getRequiredProperty("db.password")
-        );
+    public DatabaseConcurrencySettings databaseConcurrencySettings() {
+        return new DatabaseConcurrencySettings(
+                environment.getProperty("db.max-concurrent", Integer.class, 8),
+                Duration.ofMillis(environment.getProperty("db.acquire-timeout-ms", Long.class, 3000L)));
+    }
+
+    /**
+     * Provides the ServerSettings bean holding how the HTTP server is started.
+     *
+     * @return A ServerSettings instance with the `server.port` port, 8080 by default, the `server.threads` threads,
+     *         `platform` by default, and the sizes of the platform thread pool.
+     */
+    @Bean
+    public ServerSettings serverSettings() {
+        return new ServerSettings(
+                environment.getProperty("server.port", Integer.class, 8080),
+                ServerThreads.valueOf(environment.getProperty("server.threads", "platform").toUpperCase(Locale.ROOT)),
+                environment.getProperty("server.platform.max-threads", Integer.class, 200),
+                environment.getProperty("server.platform.min-threads", Integer.class, 8),
+                Duration.ofMillis(environment.getProperty("server.platform.idle-timeout-ms", Long.class, 60000L)));
+    }
+
+    /**
+     * Provides the ImportSettings bean sizing the stages of the CSV import pipeline.
+     * Writers hold a pooled connection each, so `import.writers-per-table` times two should stay
+     * below the maximum pool size.
+     *
+     * @return An ImportSettings instance configured with the import properties.
+     */
+    @Bean
+    public ImportSettings importSettings() {
+        return new ImportSettings(
+                environment.getProperty("import.queue-capacity", Integer.class, 16),
+                environment.getProperty("import.chunk-size", Integer.class, 5000),
+                environment.getProperty("import.normalizers", Integer.class, 2),
+                environment.getProperty("import.writers-per-table", Integer.class, 2),
+                environment.getProperty("import.batch-size", Integer.class, 1000));
+    }
 
-        return jdbi;
+    /**
+     * Provides the NdjsonImportSettings bean sizing the import of newline-delimited JSON uploads.
+     * Each batch is saved in one transaction as long as `bulk.batch-size` does not exceed `db.batch.size`.
+     *
+     * @return An NdjsonImportSettings instance configured with the bulk properties.
+     */
+    @Bean
+    public NdjsonImportSettings ndjsonImportSettings() {
+        return new NdjsonImportSettings(
+                environment.getProperty("bulk.batch-size", Integer.class, 1000),
+                environment.getProperty("bulk.queue-capacity", Integer.class, 4),
+                environment.getProperty("bulk.max-line-length", Integer.class, 65536),
+                environment.getProperty("bulk.max-reported-errors", Integer.class, 1000));
+    }
+
+    /**
+     * Provides the RepositoryCacheSettings bean bounding the read-through repository caches.
+     *
+     * @return A RepositoryCacheSettings instance configured with the cache properties.
+     */
+    @Bean
+    public RepositoryCacheSettings repositoryCacheSettings() {
+        return new RepositoryCacheSettings(
+                environment.getProperty("cache.repository.maximum-size", Long.class, 10000L),
+                Duration.ofSeconds(environment.getProperty("cache.repository.expire-after-write-s", Long.class, 300L)));
+    }
+
+    /**
+     * Provides the ResponseCacheSettings bean bounding the cache of rendered responses.
+     * The responses are held in direct buffers, so `cache.response.maximum-bytes` should stay
+     * well below the maximum direct memory of the JVM, which defaults to the maximum heap size.
+     *
+     * @return A ResponseCacheSettings instance configured with the response cache properties.
+     */
+    @Bean
+    public ResponseCacheSettings responseCacheSettings() {
+        return new ResponseCacheSettings(
+                environment.getProperty("cache.response.maximum-bytes", Long.class, 67108864L),
+                Duration.ofSeconds(environment.getProperty("cache.response.expire-after-write-s", Long.class, 300L)));
+    }
+
+    /**
+     * Provides the CompressionSettings bean holding how responses are compressed.
+     *
+     * @return A CompressionSettings instance configured with the `compression.min-bytes` threshold, 1024 by default,
+     *         and the `compression.level` deflate level, 1 by default.
+     */
+    @Bean
+    public CompressionSettings compressionSettings() {
+        return new CompressionSettings(
+                environment.getProperty("compression.min-bytes", Integer.class, 1024),
+                environment.getProperty("compression.level", Integer.class, 1));
+    }
+
+    /**
+     * Provides the HttpCacheSettings bean holding the caching directives sent to HTTP clients.
+     *
+     * @return An HttpCacheSettings instance with the `Cache-Control` value of the `cache.http.cache-control` property,
+     *         `no-cache` by default.
+     */
+    @Bean
+    public HttpCacheSettings httpCacheSettings() {
+        return new HttpCacheSettings(environment.getProperty("cache.http.cache-control", "no-cache"));
+    }
+
+    /**
+     * Provides the RepositoryEngine bean selecting how the model repositories are served.
+     *
+     * @return The engine named by the `repository.engine` property, `memory` by default.
+     */
+    @Bean
+    public RepositoryEngine repositoryEngine() {
+        return RepositoryEngine.valueOf(environment
+                .getProperty("repository.engine", "memory")
+                .toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * Provides the primary HeadquartersRepository bean for the selected engine.
+     *
+     * @param engine                 The engine serving the repositories.
+     * @param headquartersRepository The repository reading from and writing to the `headquarters` table.
+     * @param directory              The in-memory directory used by the `memory` engine.
+     * @param settings               The bounds of the caches used by the `cache` engine.
+     * @param meterRegistry          The registry receiving the cache metrics.
+     * @return The headquarters repository of the selected engine.
+     */
+    @Bean
+    @Primary
+    public HeadquartersRepository primaryHeadquartersRepository(RepositoryEngine engine,
+                                                                HeadquartersRepositoryImpl headquartersRepository,
+                                                                InMemoryDirectory directory,
+                                                                RepositoryCacheSettings settings,
+                                                                MeterRegistry meterRegistry) {
+        return switch (engine) {
+            case DATABASE -> headquartersRepository;
+            case CACHE -> new CachingHeadquartersRepository(headquartersRepository, settings, meterRegistry);
+            case MEMORY -> new InMemoryHeadquartersRepository(headquartersRepository, directory);
+        };
+    }
+
+    /**
+     * Provides the primary BranchRepository bean for the selected engine.
+     *
+     * @param engine           The engine serving the repositories.
+     * @param branchRepository The repository reading from and writing to the `branches` table.
+     * @param directory        The in-memory directory used by the `memory` engine.
+     * @param settings         The bounds of the caches used by the `cache` engine.
+     * @param meterRegistry    The registry receiving the cache metrics.
+     * @return The branch repository of the selected engine.
+     */
+    @Bean
+    @Primary
+    public BranchRepository primaryBranchRepository(RepositoryEngine engine,
+                                                    BranchRepositoryImpl branchRepository,
+                                                    InMemoryDirectory directory,
+                                                    RepositoryCacheSettings settings,
+                                                    MeterRegistry meterRegistry) {
+        return switch (engine) {
+            case DATABASE -> branchRepository;
+            case CACHE -> new CachingBranchRepository(branchRepository, settings, meterRegistry);
+            case MEMORY -> new InMemoryBranchRepository(branchRepository, directory);
+        };
+    }
+
+    /**
+     * Provides the primary CountryRepository bean for the selected engine.
+     * Only the `memory` engine serves countries without the database.
+     *
+     * @param engine            The engine serving the repositories.
+     * @param countryRepository The repository reading both tables from the database.
+     * @param directory         The in-memory directory used by the `memory` engine.
+     * @return The country repository of the selected engine.
+     */
+    @Bean
+    @Primary
+    public CountryRepository primaryCountryRepository(RepositoryEngine engine,
+                                                      CountryRepositoryImpl countryRepository,
+                                                      InMemoryDirectory directory) {
+        return engine == RepositoryEngine.MEMORY
+                ? new InMemoryCountryRepository(countryRepository, directory)
+                : countryRepository;
     }
 }
@@ -0,0 +1,38 @@
+package mostowska.aleksandra.exception;
+
+/**
+ * ApiException is the base of the exceptions whose message is meant for the client of the API,
+ * each type answering with its own HTTP status.
+ *
+ * The exceptions extend `IllegalStateException`, which the services threw for every failure before the types
+ * existed, so callers catching it keep working. They report a failure of the request rather than of the application,
+ * and are thrown and answered far more often than they are debugged, so they do not capture a stack trace.
+ */
+public abstract class ApiException extends IllegalStateException {
+
+    /**
+     * Creates an exception with a message for the client.
+     *
+     * @param message The message sent back in the error response.
+     */
+    protected ApiException(String message) {
+        super(message);
+    }
+
+    /**
+     * Retrieves the HTTP status the exception is answered with.
+     *
+     * @return The status code, in the 4xx range.
+     */
+    public abstract int status();
+
+    /**
+     * Skips capturing the stack trace, the exception being answered without ever being printed.
+     *
+     * @return This exception.
+     */
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
@@ -0,0 +1,27 @@
+package mostowska.aleksandra.exception;
+
+/**
+ * BadRequestException is thrown when the input of a request is missing or malformed,
+ * and is answered with the 400 Bad Request status.
+ */
+public class BadRequestException extends ApiException {
+
+    /**
+     * Creates an exception telling what is wrong with the input.
+     *
+     * @param message The message sent back in the error response.
+     */
+    public BadRequestException(String message) {
+        super(message);
+    }
+
+    /**
+     * Retrieves the HTTP status the exception is answered with.
+     *
+     * @return 400.
+     */
+    @Override
+    public int status() {
+        return 400;
+    }
+}
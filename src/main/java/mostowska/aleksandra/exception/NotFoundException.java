@@ -0,0 +1,27 @@
+package mostowska.aleksandra.exception;
+
+/**
+ * NotFoundException is thrown when a request addresses a model or a country that does not exist,
+ * and is answered with the 404 Not Found status.
+ */
+public class NotFoundException extends ApiException {
+
+    /**
+     * Creates an exception telling what has not been found.
+     *
+     * @param message The message sent back in the error response.
+     */
+    public NotFoundException(String message) {
+        super(message);
+    }
+
+    /**
+     * Retrieves the HTTP status the exception is answered with.
+     *
+     * @return 404.
+     */
+    @Override
+    public int status() {
+        return 404;
+    }
+}
@@ -0,0 +1,300 @@
+package mostowska.aleksandra.importer;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import mostowska.aleksandra.model.dto.csv.CreateModelFromCsvDto;
+import mostowska.aleksandra.model.impl.Branch;
+import mostowska.aleksandra.model.impl.Headquarters;
+import mostowska.aleksandra.reader.CsvReader;
+import mostowska.aleksandra.repository.generic.CrudRepository;
+import mostowska.aleksandra.repository.model.BranchRepository;
+import mostowska.aleksandra.repository.model.HeadquartersRepository;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * CsvImportPipeline imports a SWIFT codes CSV file into the database as a pipeline of parallel stages:
+ *
+ * - a reader streaming the file and handing chunks of parsed rows to a bounded queue,
+ * - normalizers validating the rows and splitting them into headquarters and branch batches,
+ * - writers saving the batches through `CrudRepository.saveAll`, each one on its own pooled connection.
+ *
+ * Every queue between two stages is bounded, so a slow stage blocks the one before it instead of
+ * letting rows pile up in memory. The time stages spend blocked is reported as backpressure.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CsvImportPipeline {
+    private final HeadquartersRepository headquartersRepository;
+    private final BranchRepository branchRepository;
+
+    /**
+     * Imports the given CSV file.
+     *
+     * @param path     The path of the CSV file to import.
+     * @param settings The sizing of the pipeline stages.
+     * @return A report with the number of rows read, rejected and written, the throughput and the backpressure.
+     * @throws IllegalStateException if the file cannot be read or a stage fails unexpectedly.
+     */
+    public ImportReport run(Path path, ImportSettings settings) {
+        log.info("Importing {} with {}", path, settings);
+        var report = new Run(settings).execute(path);
+        log.info("Imported {}: {}", path, report);
+        return report;
+    }
+
+    /**
+     * A single execution of the pipeline, holding its queues and counters.
+     */
+    private class Run {
+        // Sentinels compared by identity, telling a stage that no more elements will come
+        private final List<CreateModelFromCsvDto> endOfRows = new ArrayList<>(0);
+        private final List<Headquarters> endOfHeadquarters = new ArrayList<>(0);
+        private final List<Branch> endOfBranches = new ArrayList<>(0);
+
+        private final ImportSettings settings;
+        private final BlockingQueue<List<CreateModelFromCsvDto>> rows;
+        private final BlockingQueue<List<Headquarters>> headquarters;
+        private final BlockingQueue<List<Branch>> branches;
+
+        private final LongAdder rowsRead = new LongAdder();
+        private final LongAdder rowsRejected = new LongAdder();
+        private final LongAdder rowsFailed = new LongAdder();
+        private final LongAdder headquartersWritten = new LongAdder();
+        private final LongAdder branchesWritten = new LongAdder();
+
+        private final LongAdder readerBlockedNanos = new LongAdder();
+        private final LongAdder normalizersBlockedNanos = new LongAdder();
+        private final LongAdder writersStarvedNanos = new LongAdder();
+
+        Run(ImportSettings settings) {
+            this.settings = settings;
+            this.rows = new ArrayBlockingQueue<>(settings.queueCapacity());
+            this.headquarters = new ArrayBlockingQueue<>(settings.queueCapacity());
+            this.branches = new ArrayBlockingQueue<>(settings.queueCapacity());
+        }
+
+        /**
+         * Starts all stages, waits for them to drain and builds the report.
+         * Stages are watched in the order they finish, so the first one failing stops the import
+         * and interrupts the others, instead of leaving them blocked on a queue nobody drains anymore.
+         * Once the reader and the normalizers are done, the writers are sent their end sentinels
+         * by a stage of its own, which a failing writer interrupts like any other.
+         *
+         * @param path The path of the CSV file to import.
+         * @return The report of the import.
+         */
+        ImportReport execute(Path path) {
+            var threads = 2 + settings.normalizers() + 2 * settings.writersPerTable();
+            var executor = Executors.newFixedThreadPool(threads, new ThreadFactoryBuilder()
+                    .setNameFormat("csv-import-%d")
+                    .build());
+            var stages = new ExecutorCompletionService<Void>(executor);
+            var start = System.nanoTime();
+
+            try {
+                var writers = new HashSet<Future<Void>>();
+                for (var i = 0; i < settings.writersPerTable(); i++) {
+                    writers.add(stages.submit(() -> write(headquarters, endOfHeadquarters,
+                            headquartersRepository, headquartersWritten)));
+                    writers.add(stages.submit(() -> write(branches, endOfBranches,
+                            branchRepository, branchesWritten)));
+                }
+                for (var i = 0; i < settings.normalizers(); i++) {
+                    stages.submit(() -> {
+                        normalize();
+                        return null;
+                    });
+                }
+                stages.submit(() -> {
+                    read(path);
+                    return null;
+                });
+
+                var running = writers.size() + settings.normalizers() + 1;
+                var producing = settings.normalizers() + 1;
+                while (running > 0) {
+                    var stage = stages.take();
+                    running--;
+                    stage.get();
+                    if (!writers.contains(stage) && --producing == 0) {
+                        stages.submit(() -> {
+                            for (var i = 0; i < settings.writersPerTable(); i++) {
+                                headquarters.put(endOfHeadquarters);
+                                branches.put(endOfBranches);
+                            }
+                            return null;
+                        });
+                        running++;
+                    }
+                }
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Import failed: " + e.getCause().getMessage(), e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Import interrupted", e);
+            } finally {
+                executor.shutdownNow();
+            }
+
+            var backpressure = new LinkedHashMap<String, Duration>();
+            backpressure.put("reader", Duration.ofNanos(readerBlockedNanos.sum()));
+            backpressure.put("normalizers", Duration.ofNanos(normalizersBlockedNanos.sum()));
+            backpressure.put("writersStarved", Duration.ofNanos(writersStarvedNanos.sum()));
+
+            return new ImportReport(
+                    rowsRead.sum(),
+                    rowsRejected.sum(),
+                    rowsFailed.sum(),
+                    headquartersWritten.sum(),
+                    branchesWritten.sum(),
+                    Duration.ofNanos(System.nanoTime() - start),
+                    backpressure);
+        }
+
+        /**
+         * Reader stage: streams the file and hands chunks of rows to the normalizers.
+         *
+         * @param path The path of the CSV file to read.
+         */
+        private void read(Path path) throws IOException, InterruptedException {
+            CsvReader.forEachBatch(path, settings.chunkSize(), chunk -> {
+                rowsRead.add(chunk.size());
+                putOrFail(rows, chunk, readerBlockedNanos);
+            });
+            for (var i = 0; i < settings.normalizers(); i++) {
+                put(rows, endOfRows, readerBlockedNanos);
+            }
+        }
+
+        /**
+         * Normalizer stage: validates the rows and splits them into headquarters and branch batches.
+         */
+        private void normalize() throws InterruptedException {
+            var headquartersBatch = new ArrayList<Headquarters>(settings.batchSize());
+            var branchesBatch = new ArrayList<Branch>(settings.batchSize());
+
+            for (var chunk = rows.take(); chunk != endOfRows; chunk = rows.take()) {
+                for (var row : chunk) {
+                    if (!isValid(row)) {
+                        rowsRejected.increment();
+                        continue;
+                    }
+
+                    if (row.checkIfHeadquarter()) {
+                        var item = row.toHeadquarters();
+                        item.setIsHeadquarter(true);
+                        headquartersBatch.add(item);
+                        if (headquartersBatch.size() == settings.batchSize()) {
+                            put(headquarters, List.copyOf(headquartersBatch), normalizersBlockedNanos);
+                            headquartersBatch.clear();
+                        }
+                    } else {
+                        var item = row.toBranch();
+                        item.setIsHeadquarter(false);
+                        branchesBatch.add(item);
+                        if (branchesBatch.size() == settings.batchSize()) {
+                            put(branches, List.copyOf(branchesBatch), normalizersBlockedNanos);
+                            branchesBatch.clear();
+                        }
+                    }
+                }
+            }
+
+            if (!headquartersBatch.isEmpty()) {
+                put(headquarters, List.copyOf(headquartersBatch), normalizersBlockedNanos);
+            }
+            if (!branchesBatch.isEmpty()) {
+                put(branches, List.copyOf(branchesBatch), normalizersBlockedNanos);
+            }
+        }
+
+        /**
+         * Writer stage: saves batches taken from the queue until the end sentinel arrives.
+         * A batch refused by the database is counted as failed and the import goes on.
+         *
+         * @param queue      The queue of batches to write.
+         * @param end        The sentinel ending the stage.
+         * @param repository The repository saving the batches.
+         * @param written    The counter of written rows.
+         * @return Nothing, the stage is run as a callable to propagate interruption.
+         */
+        private <T> Void write(BlockingQueue<List<T>> queue, List<T> end, CrudRepository<T> repository,
+                               LongAdder written) throws InterruptedException {
+            while (true) {
+                var waitStart = System.nanoTime();
+                var batch = queue.take();
+                writersStarvedNanos.add(System.nanoTime() - waitStart);
+
+                if (batch == end) {
+                    return null;
+                }
+
+                try {
+                    repository.saveAll(batch);
+                    written.add(batch.size());
+                } catch (RuntimeException e) {
+                    rowsFailed.add(batch.size());
+                    log.error("Failed to save a batch of {} rows", batch.size(), e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks that a row carries the fields required to store it.
+     *
+     * @param row The row to check.
+     * @return True if the row has an 11 characters SWIFT code and a 2 letters country ISO2 code.
+     */
+    private static boolean isValid(CreateModelFromCsvDto row) {
+        return row.swiftCode() != null && row.swiftCode().length() == 11
+                && row.countryISO2() != null && row.countryISO2().length() == 2;
+    }
+
+    /**
+     * Puts an element into a bounded queue, measuring how long the caller was blocked because the queue was full.
+     *
+     * @param queue        The queue to put the element into.
+     * @param element      The element to put.
+     * @param blockedNanos The counter of nanoseconds spent blocked.
+     */
+    private static <E> void put(BlockingQueue<E> queue, E element, LongAdder blockedNanos)
+            throws InterruptedException {
+        if (!queue.offer(element)) {
+            var start = System.nanoTime();
+            queue.put(element);
+            blockedNanos.add(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Puts an element into a bounded queue from a callback that cannot throw checked exceptions.
+     * An interrupt while waiting is not swallowed: the interrupt flag is restored and the stage is stopped
+     * by an unchecked exception.
+     *
+     * @param queue        The queue to put the element into.
+     * @param element      The element to put.
+     * @param blockedNanos The counter of nanoseconds spent blocked.
+     * @throws IllegalStateException if the thread is interrupted while waiting, stopping the stage.
+     */
+    private static <E> void putOrFail(BlockingQueue<E> queue, E element, LongAdder blockedNanos) {
+        try {
+            put(queue, element, blockedNanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Import interrupted", e);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package mostowska.aleksandra.importer;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * ImportReport summarizes a finished CSV import.
+ *
+ * @param rowsRead            The number of rows parsed from the file.
+ * @param rowsRejected        The number of rows dropped by the normalization because of invalid data.
+ * @param rowsFailed          The number of rows in batches the database refused.
+ * @param headquartersWritten The number of headquarters rows written.
+ * @param branchesWritten     The number of branch rows written.
+ * @param elapsed             The wall clock time of the import.
+ * @param backpressure        The time stages spent blocked on a full downstream queue (`reader`, `normalizers`)
+ *                            or waiting on an empty upstream one (`writersStarved`), keyed by stage name.
+ */
+public record ImportReport(
+        long rowsRead,
+        long rowsRejected,
+        long rowsFailed,
+        long headquartersWritten,
+        long branchesWritten,
+        Duration elapsed,
+        Map<String, Duration> backpressure) {
+
+    /**
+     * Computes the import throughput.
+     *
+     * @return The number of rows read per second of the import.
+     */
+    public double rowsPerSecond() {
+        var seconds = elapsed.toNanos() / 1_000_000_000.0;
+        return seconds == 0 ? rowsRead : rowsRead / seconds;
+    }
+
+    @Override
+    public String toString() {
+        return "ImportReport{" +
+                "rowsRead=" + rowsRead +
+                ", rowsRejected=" + rowsRejected +
+                ", rowsFailed=" + rowsFailed +
+                ", headquartersWritten=" + headquartersWritten +
+                ", branchesWritten=" + branchesWritten +
+                ", elapsed=" + elapsed +
+                ", rowsPerSecond=" + Math.round(rowsPerSecond()) +
+                ", backpressure=" + backpressure +
+                '}';
+    }
+}
@@ -0,0 +1,27 @@
+package mostowska.aleksandra.importer;
+
+/**
+ * ImportSettings holds the sizing of the CSV import pipeline stages.
+ *
+ * @param queueCapacity    The number of chunks each bounded queue between two stages can hold.
+ * @param chunkSize        The number of parsed rows handed from the reader to a normalizer at once.
+ * @param normalizers      The number of threads normalizing rows and splitting them into headquarters and branches.
+ * @param writersPerTable  The number of threads writing batches to each table, each one on its own connection.
+ * @param batchSize        The number of rows written to the database in one `saveAll` call.
+ */
+public record ImportSettings(
+        int queueCapacity,
+        int chunkSize,
+        int normalizers,
+        int writersPerTable,
+        int batchSize) {
+
+    /**
+     * Validates that every stage has a positive size.
+     */
+    public ImportSettings {
+        if (queueCapacity <= 0 || chunkSize <= 0 || normalizers <= 0 || writersPerTable <= 0 || batchSize <= 0) {
+            throw new IllegalArgumentException("All import settings must be positive");
+        }
+    }
+}
@@ -0,0 +1,339 @@
+package mostowska.aleksandra.importer;
+
+import com.google.common.base.Throwables;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import mostowska.aleksandra.model.dto.CreateModelDto;
+import mostowska.aleksandra.model.impl.Branch;
+import mostowska.aleksandra.model.impl.Headquarters;
+import mostowska.aleksandra.repository.generic.CrudRepository;
+import mostowska.aleksandra.repository.model.BranchRepository;
+import mostowska.aleksandra.repository.model.HeadquartersRepository;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * NdjsonImportPipeline creates headquarters and branches from a newline-delimited JSON upload, one `CreateModelDto`
+ * per line, as it arrives:
+ *
+ * - a reader parsing the upload line by line, validating each row and splitting the rows into headquarters
+ *   and branch batches,
+ * - two writers, one per table, saving the batches through `CrudRepository.saveAll`, one transaction per batch.
+ *
+ * The queues between the reader and the writers are bounded, so a slow database blocks the reader, which stops
+ * reading the upload and lets TCP flow control hold back the client. Memory use does not depend on the size of
+ * the upload: only a few batches and the line being parsed are held, and the report lists a bounded number of errors.
+ * A batch the database refuses is saved again row by row, so only the offending rows are reported as failed.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class NdjsonImportPipeline {
+    private static final long WRITER_CHECK_MILLIS = 100;
+
+    private final HeadquartersRepository headquartersRepository;
+    private final BranchRepository branchRepository;
+    private final Gson gson;
+
+    /**
+     * Imports a newline-delimited JSON upload.
+     *
+     * @param ndjson    The UTF-8 encoded upload, read to its end but left open.
+     * @param settings  The sizing of the batches, queues and report.
+     * @param onCreated The callback receiving every row once it is stored, called from the writer threads.
+     * @return A report counting the rows created, rejected and failed, and listing the rows that were not created.
+     * @throws IllegalStateException if the upload cannot be read or a writer fails unexpectedly.
+     */
+    public NdjsonImportReport run(InputStream ndjson, NdjsonImportSettings settings,
+                                  Consumer<CreateModelDto> onCreated) {
+        var report = new Run(settings, onCreated).execute(ndjson);
+        log.info("Imported NDJSON upload: {} rows read, {} headquarters and {} branches created, "
+                        + "{} rejected, {} failed in {} ms", report.rowsRead(), report.headquartersCreated(),
+                report.branchesCreated(), report.rowsRejected(), report.rowsFailed(), report.elapsedMillis());
+        return report;
+    }
+
+    /**
+     * A valid row on its way to the database.
+     *
+     * @param line The line number of the row in the upload.
+     * @param dto  The row as parsed.
+     * @param item The entity to store.
+     */
+    private record Row<T>(long line, CreateModelDto dto, T item) {
+    }
+
+    /**
+     * A single execution of the pipeline, holding its queues and counters.
+     */
+    private class Run {
+        // Sentinels compared by identity, telling a writer that no more batches will come
+        private final List<Row<Headquarters>> endOfHeadquarters = new ArrayList<>(0);
+        private final List<Row<Branch>> endOfBranches = new ArrayList<>(0);
+
+        private final NdjsonImportSettings settings;
+        private final Consumer<CreateModelDto> onCreated;
+        private final BlockingQueue<List<Row<Headquarters>>> headquarters;
+        private final BlockingQueue<List<Row<Branch>>> branches;
+
+        // Only touched by the reader
+        private long rowsRead;
+        private long rowsRejected;
+        private long readerBlockedNanos;
+
+        private final LongAdder headquartersCreated = new LongAdder();
+        private final LongAdder branchesCreated = new LongAdder();
+        private final LongAdder rowsFailed = new LongAdder();
+
+        // Guarded by itself, filled by the reader and both writers
+        private final List<NdjsonImportReport.RowError> errors = new ArrayList<>();
+        private boolean errorsTruncated;
+
+        Run(NdjsonImportSettings settings, Consumer<CreateModelDto> onCreated) {
+            this.settings = settings;
+            this.onCreated = onCreated;
+            this.headquarters = new ArrayBlockingQueue<>(settings.queueCapacity());
+            this.branches = new ArrayBlockingQueue<>(settings.queueCapacity());
+        }
+
+        /**
+         * Starts the writers, reads the upload on the calling thread, waits for the writers to drain
+         * and builds the report.
+         *
+         * @param ndjson The upload.
+         * @return The report of the import.
+         */
+        NdjsonImportReport execute(InputStream ndjson) {
+            var start = System.nanoTime();
+
+            try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                var headquartersWriter = executor.submit(() -> write(headquarters, endOfHeadquarters,
+                        headquartersRepository, headquartersCreated));
+                var branchesWriter = executor.submit(() -> write(branches, endOfBranches,
+                        branchRepository, branchesCreated));
+                try {
+                    read(ndjson, headquartersWriter, branchesWriter);
+                    headquartersWriter.get();
+                    branchesWriter.get();
+                } catch (IOException e) {
+                    throw new IllegalStateException("Upload could not be read: " + e.getMessage(), e);
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("Import failed: " + e.getCause().getMessage(), e.getCause());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Import interrupted", e);
+                } finally {
+                    executor.shutdownNow();
+                }
+            }
+
+            synchronized (errors) {
+                errors.sort(Comparator.comparingLong(NdjsonImportReport.RowError::line));
+                return new NdjsonImportReport(
+                        rowsRead,
+                        headquartersCreated.sum(),
+                        branchesCreated.sum(),
+                        rowsRejected,
+                        rowsFailed.sum(),
+                        List.copyOf(errors),
+                        errorsTruncated,
+                        TimeUnit.NANOSECONDS.toMillis(readerBlockedNanos),
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            }
+        }
+
+        /**
+         * Reader stage: parses the upload line by line and hands full batches to the writers.
+         * Blank lines are skipped.
+         *
+         * @param ndjson             The upload.
+         * @param headquartersWriter The writer of the headquarters, checked while waiting for it.
+         * @param branchesWriter     The writer of the branches, checked while waiting for it.
+         */
+        private void read(InputStream ndjson, Future<?> headquartersWriter, Future<?> branchesWriter)
+                throws IOException, InterruptedException, ExecutionException {
+            var lines = new NdjsonLineReader(new InputStreamReader(ndjson, StandardCharsets.UTF_8),
+                    settings.maxLineLength());
+            var headquartersBatch = new ArrayList<Row<Headquarters>>(settings.batchSize());
+            var branchesBatch = new ArrayList<Row<Branch>>(settings.batchSize());
+
+            for (var line = lines.next(); line != null; line = lines.next()) {
+                if (!lines.tooLong() && line.isBlank()) {
+                    continue;
+                }
+                rowsRead++;
+                var dto = lines.tooLong()
+                        ? reject(lines.lineNumber(), null, "Line longer than " + settings.maxLineLength() + " characters")
+                        : parse(lines.lineNumber(), line);
+                if (dto == null) {
+                    continue;
+                }
+
+                if (dto.checkIfHeadquarter()) {
+                    headquartersBatch.add(new Row<>(lines.lineNumber(), dto, dto.toHeadquarters()));
+                    if (headquartersBatch.size() == settings.batchSize()) {
+                        put(headquarters, List.copyOf(headquartersBatch), headquartersWriter);
+                        headquartersBatch.clear();
+                    }
+                } else {
+                    branchesBatch.add(new Row<>(lines.lineNumber(), dto, dto.toBranch()));
+                    if (branchesBatch.size() == settings.batchSize()) {
+                        put(branches, List.copyOf(branchesBatch), branchesWriter);
+                        branchesBatch.clear();
+                    }
+                }
+            }
+
+            if (!headquartersBatch.isEmpty()) {
+                put(headquarters, List.copyOf(headquartersBatch), headquartersWriter);
+            }
+            if (!branchesBatch.isEmpty()) {
+                put(branches, List.copyOf(branchesBatch), branchesWriter);
+            }
+            put(headquarters, endOfHeadquarters, headquartersWriter);
+            put(branches, endOfBranches, branchesWriter);
+        }
+
+        /**
+         * Parses and validates a row the same way a single model posted to `/v1/swift-codes` is.
+         *
+         * @param line The line number of the row.
+         * @param json The text of the row.
+         * @return The valid row, or null if it was rejected.
+         */
+        private CreateModelDto parse(long line, String json) {
+            CreateModelDto dto;
+            try {
+                dto = gson.fromJson(json, CreateModelDto.class);
+            } catch (JsonParseException e) {
+                return reject(line, null, "Malformed JSON");
+            }
+            if (dto == null) {
+                return reject(line, null, "Row must be a JSON object");
+            }
+
+            try {
+                CreateModelDto.checkRequiredFields(dto);
+                dto.verify();
+            } catch (IllegalArgumentException | IllegalStateException e) {
+                return reject(line, dto.swiftCode(), e.getMessage());
+            }
+            return dto;
+        }
+
+        /**
+         * Rejects a row before it reaches the database.
+         *
+         * @param line      The line number of the row.
+         * @param swiftCode The SWIFT code of the row, or null if it could not be read.
+         * @param error     The reason the row is rejected.
+         * @return Null, standing for no row.
+         */
+        private CreateModelDto reject(long line, String swiftCode, String error) {
+            rowsRejected++;
+            error(line, swiftCode, error);
+            return null;
+        }
+
+        /**
+         * Hands a batch to a writer, waiting while its queue is full. The writer is checked while waiting,
+         * so the reader stops instead of waiting forever if it failed.
+         *
+         * @param queue  The queue of the writer.
+         * @param batch  The batch, or the end sentinel.
+         * @param writer The writer taking from the queue.
+         */
+        private <T> void put(BlockingQueue<List<Row<T>>> queue, List<Row<T>> batch, Future<?> writer)
+                throws InterruptedException, ExecutionException {
+            if (queue.offer(batch)) {
+                return;
+            }
+            var waitStart = System.nanoTime();
+            while (!queue.offer(batch, WRITER_CHECK_MILLIS, TimeUnit.MILLISECONDS)) {
+                if (writer.isDone()) {
+                    writer.get();
+                    throw new IllegalStateException("Writer stopped before the end of the upload");
+                }
+            }
+            readerBlockedNanos += System.nanoTime() - waitStart;
+        }
+
+        /**
+         * Writer stage: saves batches taken from the queue until the end sentinel arrives.
+         * A batch refused by the database is saved again row by row, and the rows refused then are reported.
+         *
+         * @param queue      The queue of batches to write.
+         * @param end        The sentinel ending the stage.
+         * @param repository The repository saving the batches.
+         * @param created    The counter of created rows.
+         * @return Nothing, the stage is run as a callable to propagate interruption.
+         */
+        private <T> Void write(BlockingQueue<List<Row<T>>> queue, List<Row<T>> end, CrudRepository<T> repository,
+                               LongAdder created) throws InterruptedException {
+            for (var batch = queue.take(); batch != end; batch = queue.take()) {
+                try {
+                    repository.saveAll(batch.stream().map(Row::item).toList());
+                    batch.forEach(row -> created(row, created));
+                } catch (RuntimeException e) {
+                    log.warn("Batch of {} rows refused, saving them one by one: {}", batch.size(),
+                            Throwables.getRootCause(e).getMessage());
+                    for (var row : batch) {
+                        try {
+                            repository.save(row.item());
+                            created(row, created);
+                        } catch (RuntimeException rowException) {
+                            rowsFailed.increment();
+                            error(row.line(), row.dto().swiftCode(), Throwables.getRootCause(rowException).getMessage());
+                        }
+                    }
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Counts a stored row and hands it to the callback.
+         *
+         * @param row     The stored row.
+         * @param created The counter of created rows.
+         */
+        private void created(Row<?> row, LongAdder created) {
+            created.increment();
+            onCreated.accept(row.dto());
+        }
+
+        /**
+         * Lists a row that was not created, unless the maximum number of errors is already listed.
+         *
+         * @param line      The line number of the row.
+         * @param swiftCode The SWIFT code of the row, or null.
+         * @param error     The reason the row was not created.
+         */
+        private void error(long line, String swiftCode, String error) {
+            synchronized (errors) {
+                if (errors.size() < settings.maxReportedErrors()) {
+                    errors.add(new NdjsonImportReport.RowError(line, swiftCode, error));
+                } else {
+                    errorsTruncated = true;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package mostowska.aleksandra.importer;
+
+import java.util.List;
+
+/**
+ * NdjsonImportReport summarizes a finished import of a newline-delimited JSON upload, row by row.
+ *
+ * Every row read is either created, rejected before reaching the database or refused by it. Rejected and refused
+ * rows are listed with their line number and the reason, up to a maximum, so the report of an upload of millions
+ * of lines keeps a bounded size.
+ *
+ * @param rowsRead            The number of non-blank lines read.
+ * @param headquartersCreated The number of headquarters created.
+ * @param branchesCreated     The number of branches created.
+ * @param rowsRejected        The number of rows that were not valid JSON or failed the validation of `CreateModelDto`.
+ * @param rowsFailed          The number of valid rows the database refused, a SWIFT code already present for one.
+ * @param errors              The rejected and failed rows in line order, at most the configured maximum.
+ * @param errorsTruncated     True if more rows were rejected or failed than the errors listed.
+ * @param readerBlockedMillis The time the reader waited for the writers to take batches, holding back the upload.
+ * @param elapsedMillis       The wall clock time of the import.
+ */
+public record NdjsonImportReport(
+        long rowsRead,
+        long headquartersCreated,
+        long branchesCreated,
+        long rowsRejected,
+        long rowsFailed,
+        List<RowError> errors,
+        boolean errorsTruncated,
+        long readerBlockedMillis,
+        long elapsedMillis) {
+
+    /**
+     * A row that was not created.
+     *
+     * @param line      The 1-based line number of the row in the upload.
+     * @param swiftCode The SWIFT code of the row, or null if it could not be read.
+     * @param error     The reason the row was not created.
+     */
+    public record RowError(long line, String swiftCode, String error) {
+    }
+}
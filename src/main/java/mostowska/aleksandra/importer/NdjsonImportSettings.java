@@ -0,0 +1,25 @@
+package mostowska.aleksandra.importer;
+
+/**
+ * NdjsonImportSettings holds the sizing of the import of newline-delimited JSON uploads.
+ *
+ * @param batchSize         The number of rows written to the database in one `saveAll` call.
+ * @param queueCapacity     The number of batches each bounded queue between the reader and a writer can hold.
+ * @param maxLineLength     The maximum number of characters of a line, longer lines being rejected.
+ * @param maxReportedErrors The maximum number of rejected or failed rows listed in the report.
+ */
+public record NdjsonImportSettings(
+        int batchSize,
+        int queueCapacity,
+        int maxLineLength,
+        int maxReportedErrors) {
+
+    /**
+     * Validates that the batches, queues and lines have a positive size and the error list is not negative.
+     */
+    public NdjsonImportSettings {
+        if (batchSize <= 0 || queueCapacity <= 0 || maxLineLength <= 0 || maxReportedErrors < 0) {
+            throw new IllegalArgumentException("NDJSON import sizes must be positive");
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package mostowska.aleksandra.importer;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * NdjsonLineReader splits a character stream into the lines of a newline-delimited JSON upload.
+ *
+ * Characters are read through a fixed buffer and a line is only held while it is being parsed, so reading an upload
+ * takes the same memory whatever its size. A line longer than the maximum length is skipped up to its end without
+ * being kept, and reported through `tooLong`. Lines end with `\n`, an `\r` before it is dropped.
+ * The reader is not thread-safe.
+ */
+final class NdjsonLineReader {
+    private static final int BUFFER_SIZE = 8192;
+
+    private final Reader in;
+    private final int maxLength;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private final StringBuilder line = new StringBuilder();
+    private int position;
+    private int limit;
+    private long lineNumber;
+    private boolean tooLong;
+
+    /**
+     * Creates a reader of the lines of a stream.
+     *
+     * @param in        The characters of the upload.
+     * @param maxLength The maximum number of characters of a line, its terminator excluded.
+     */
+    NdjsonLineReader(Reader in, int maxLength) {
+        this.in = in;
+        this.maxLength = maxLength;
+    }
+
+    /**
+     * Reads the next line, blocking until it is complete or the stream ends.
+     *
+     * @return The line without its terminator, empty if it is too long, or null once the stream is exhausted.
+     * @throws IOException If the stream fails.
+     */
+    String next() throws IOException {
+        line.setLength(0);
+        tooLong = false;
+        var started = false;
+        while (true) {
+            if (position == limit) {
+                limit = Math.max(in.read(buffer, 0, BUFFER_SIZE), 0);
+                position = 0;
+                if (limit == 0) {
+                    if (!started) {
+                        return null;
+                    }
+                    break;
+                }
+            }
+            started = true;
+            var start = position;
+            while (position < limit && buffer[position] != '\n') {
+                position++;
+            }
+            append(start, position);
+            if (position < limit) {
+                position++;
+                break;
+            }
+        }
+
+        lineNumber++;
+        if (!line.isEmpty() && line.charAt(line.length() - 1) == '\r') {
+            line.setLength(line.length() - 1);
+        }
+        return line.toString();
+    }
+
+    /**
+     * Tells whether the last line read was longer than the maximum length.
+     *
+     * @return True if the line was skipped.
+     */
+    boolean tooLong() {
+        return tooLong;
+    }
+
+    /**
+     * Retrieves the number of the last line read.
+     *
+     * @return The 1-based line number, blank lines included.
+     */
+    long lineNumber() {
+        return lineNumber;
+    }
+
+    /**
+     * Appends a range of the buffer to the current line, dropping the line once it gets too long.
+     *
+     * @param start The position of the first character.
+     * @param end   The position after the last character.
+     */
+    private void append(int start, int end) {
+        if (tooLong) {
+            return;
+        }
+        // One more character is let through for an `\r` ending the line
+        if (line.length() + end - start > maxLength + 1) {
+            tooLong = true;
+            line.setLength(0);
+            line.trimToSize();
+            return;
+        }
+        line.append(buffer, start, end - start);
+    }
+}
@@ -0,0 +1,150 @@
+package mostowska.aleksandra.model;
+
+/**
+ * SwiftCode packs a SWIFT (BIC) code into a single `long` and back.
+ *
+ * A code is made of up to 11 characters from [A-Z0-9]: an 8 characters bank prefix followed by an optional
+ * 3 characters branch suffix. Each character is a base-37 digit, 0 standing for a missing character,
+ * so codes of any length up to 11 have a distinct encoding. The prefix takes the upper 42 bits and the suffix
+ * the lower 16 bits of the packed value:
+ *
+ * - two codes of the same bank differ only in their lower 16 bits, so prefix matching is a mask-and-compare
+ *   with `BANK_MASK`, and the 8 characters form of a code encodes to its bank,
+ * - packed values are non-negative and sort in the same order as the upper-case codes.
+ *
+ * Letters are accepted in any case and decoded in upper case.
+ */
+public final class SwiftCode {
+
+    /**
+     * The value returned by `tryEncode` for a text that is not a SWIFT code.
+     */
+    public static final long INVALID = -1L;
+
+    /**
+     * The mask keeping the bank prefix of a packed code.
+     */
+    public static final long BANK_MASK = ~0xFFFFL;
+
+    private static final int PREFIX_LENGTH = 8;
+    private static final int MAX_LENGTH = 11;
+    private static final int RADIX = 37;
+    private static final int SUFFIX_BITS = 16;
+    private static final char[] DIGITS = "\u00000123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ".toCharArray();
+
+    private SwiftCode() {
+    }
+
+    /**
+     * Packs a SWIFT code.
+     *
+     * @param swiftCode The code of 1 to 11 characters from [A-Z0-9], in any letter case.
+     * @return The packed code.
+     * @throws IllegalArgumentException if the text is not a SWIFT code.
+     */
+    public static long encode(String swiftCode) {
+        var packed = tryEncode(swiftCode);
+        if (packed == INVALID) {
+            throw new IllegalArgumentException("Invalid SWIFT code: " + swiftCode);
+        }
+        return packed;
+    }
+
+    /**
+     * Packs a SWIFT code without throwing, for lookups of codes coming straight from a request.
+     *
+     * @param swiftCode The code of 1 to 11 characters from [A-Z0-9], in any letter case.
+     * @return The packed code, or `INVALID` if the text is not a SWIFT code.
+     */
+    public static long tryEncode(String swiftCode) {
+        if (swiftCode == null || swiftCode.isEmpty() || swiftCode.length() > MAX_LENGTH) {
+            return INVALID;
+        }
+
+        long prefix = 0;
+        long suffix = 0;
+        for (var i = 0; i < MAX_LENGTH; i++) {
+            var digit = i < swiftCode.length() ? digitOf(swiftCode.charAt(i)) : 0;
+            if (digit < 0) {
+                return INVALID;
+            }
+            if (i < PREFIX_LENGTH) {
+                prefix = prefix * RADIX + digit;
+            } else {
+                suffix = suffix * RADIX + digit;
+            }
+        }
+        return prefix << SUFFIX_BITS | suffix;
+    }
+
+    /**
+     * Unpacks a SWIFT code.
+     *
+     * @param packed The packed code.
+     * @return The upper-case SWIFT code.
+     * @throws IllegalArgumentException if the value is not a packed code.
+     */
+    public static String decode(long packed) {
+        if (packed < 0) {
+            throw new IllegalArgumentException("Invalid packed SWIFT code: " + packed);
+        }
+
+        var characters = new char[MAX_LENGTH];
+        var prefix = packed >>> SUFFIX_BITS;
+        var suffix = packed & ~BANK_MASK;
+        for (var i = MAX_LENGTH - 1; i >= PREFIX_LENGTH; i--) {
+            characters[i] = DIGITS[(int) (suffix % RADIX)];
+            suffix /= RADIX;
+        }
+        for (var i = PREFIX_LENGTH - 1; i >= 0; i--) {
+            characters[i] = DIGITS[(int) (prefix % RADIX)];
+            prefix /= RADIX;
+        }
+
+        var length = 0;
+        while (length < MAX_LENGTH && characters[length] != DIGITS[0]) {
+            length++;
+        }
+        return new String(characters, 0, length);
+    }
+
+    /**
+     * Keeps the bank prefix of a packed code, the packed form of its first 8 characters.
+     *
+     * @param packed The packed code.
+     * @return The packed bank prefix.
+     */
+    public static long bankOf(long packed) {
+        return packed & BANK_MASK;
+    }
+
+    /**
+     * Checks whether a packed code belongs to a bank.
+     *
+     * @param packed The packed code.
+     * @param bank   The packed bank prefix.
+     * @return True if the code starts with the bank prefix.
+     */
+    public static boolean isOfBank(long packed, long bank) {
+        return (packed & BANK_MASK) == bank;
+    }
+
+    /**
+     * Maps a character to its base-37 digit.
+     *
+     * @param character The character to map.
+     * @return The digit from 1 to 36, or -1 if the character is not a digit or a latin letter.
+     */
+    private static int digitOf(char character) {
+        if (character >= '0' && character <= '9') {
+            return character - '0' + 1;
+        }
+        if (character >= 'A' && character <= 'Z') {
+            return character - 'A' + 11;
+        }
+        if (character >= 'a' && character <= 'z') {
+            return character - 'a' + 11;
+        }
+        return -1;
+    }
+}
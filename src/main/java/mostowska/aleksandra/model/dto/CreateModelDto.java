@@ -1,6 +1,7 @@
 package mostowska.aleksandra.model.dto;
 
 import lombok.SneakyThrows;
+import mostowska.aleksandra.exception.BadRequestException;
 import mostowska.aleksandra.model.impl.Branch;
 import mostowska.aleksandra.model.impl.Headquarters;
 
@@ -73,19 +74,19 @@ public record CreateModelDto(
      */
     public void verify() {
         if (checkIfHeadquarter() && !isHeadquarter()) {
-            throw new IllegalStateException("Wrong input for headquarter. Please check SWIFT code and isHeadquarter");
+            throw new BadRequestException("Wrong input for headquarter. Please check SWIFT code and isHeadquarter");
         }
 
         if (!checkIfHeadquarter() && isHeadquarter()) {
-            throw new IllegalStateException("Wrong input for branch. Please check SWIFT code and isHeadquarter");
+            throw new BadRequestException("Wrong input for branch. Please check SWIFT code and isHeadquarter");
         }
 
         if (countryISO2.length() != 2) {
-            throw new IllegalStateException("Wrong input for country ISO2 code - should contain 2 letters.");
+            throw new BadRequestException("Wrong input for country ISO2 code - should contain 2 letters.");
         }
 
         if (swiftCode.length() != 11) {
-            throw new IllegalStateException("Wrong input for SWIFT code - should contain 11 letters.");
+            throw new BadRequestException("Wrong input for SWIFT code - should contain 11 letters.");
         }
 
     }
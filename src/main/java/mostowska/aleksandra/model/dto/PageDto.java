@@ -0,0 +1,93 @@
+package mostowska.aleksandra.model.dto;
+
+import mostowska.aleksandra.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * PageDto is a data transfer object (DTO) representing one page of a listing ordered by SWIFT code.
+ *
+ * The `next` cursor is an opaque token to pass as the `after` parameter of the request for the following page.
+ * It encodes the SWIFT code of the last item of the page, so the following page starts right after it
+ * however many rows were written in between. It is null on the last page.
+ *
+ * @param <T> The type of the items.
+ */
+public record PageDto<T>(
+        List<T> items,
+        String next
+) {
+
+    /**
+     * The maximum number of items of a page.
+     */
+    public static final int MAX_LIMIT = 1000;
+
+    private static final Base64.Encoder CURSOR_ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder CURSOR_DECODER = Base64.getUrlDecoder();
+
+    /**
+     * Builds a page from the rows read for it. Listings read one row more than the limit,
+     * and the presence of that extra row tells whether a following page exists.
+     *
+     * @param rows        The rows read, at most `limit + 1`.
+     * @param limit       The number of items of the page.
+     * @param swiftCodeOf The function reading the SWIFT code of an item.
+     * @param <T>         The type of the items.
+     * @return The page of at most `limit` items, with a cursor if more rows follow.
+     */
+    public static <T> PageDto<T> of(List<T> rows, int limit, Function<T, String> swiftCodeOf) {
+        if (rows.size() <= limit) {
+            return new PageDto<>(List.copyOf(rows), null);
+        }
+        var items = List.copyOf(rows.subList(0, limit));
+        return new PageDto<>(items, cursorOf(swiftCodeOf.apply(items.get(limit - 1))));
+    }
+
+    /**
+     * Encodes the cursor of a page ending with the given SWIFT code.
+     *
+     * @param swiftCode The SWIFT code of the last item of the page.
+     * @return The opaque cursor.
+     */
+    public static String cursorOf(String swiftCode) {
+        return CURSOR_ENCODER.encodeToString(swiftCode.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes the SWIFT code a page starts after from the cursor passed by the client.
+     *
+     * @param cursor The cursor returned with the previous page, or null for the first page.
+     * @return The SWIFT code of the last item of the previous page, or null for the first page.
+     * @throws BadRequestException If the cursor was not issued by this API.
+     */
+    public static String afterSwiftCode(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        try {
+            var swiftCode = new String(CURSOR_DECODER.decode(cursor), StandardCharsets.UTF_8);
+            if (swiftCode.isBlank()) {
+                throw new BadRequestException("Invalid cursor");
+            }
+            return swiftCode;
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+
+    /**
+     * Validates the requested number of items of a page.
+     *
+     * @param limit The requested number of items.
+     * @throws BadRequestException If the limit is not between 1 and `MAX_LIMIT`.
+     */
+    public static void checkLimit(int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new BadRequestException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+    }
+}
@@ -5,10 +5,24 @@ import java.util.List;
 
 /**
  * GetGroupedByCountryDto is a data transfer object (DTO) that represents a grouping of model data by country.
+ * When the items are a page of the country listing, `next` is the cursor of the following page,
+ * null on the last page.
  */
 public record GetGroupedByCountryDto(
         String countryISO2,
         String countryName,
-        List<GetModelForCountryDto> items
+        List<GetModelForCountryDto> items,
+        String next
 ) {
+
+    /**
+     * Creates a grouping that is not followed by another page.
+     *
+     * @param countryISO2 The ISO2 code of the country.
+     * @param countryName The name of the country.
+     * @param items       The headquarters and branches of the country.
+     */
+    public GetGroupedByCountryDto(String countryISO2, String countryName, List<GetModelForCountryDto> items) {
+        this(countryISO2, countryName, items, null);
+    }
 }
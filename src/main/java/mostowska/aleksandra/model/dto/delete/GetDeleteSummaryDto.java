@@ -0,0 +1,20 @@
+package mostowska.aleksandra.model.dto.delete;
+
+import java.util.List;
+
+/**
+ * GetDeleteSummaryDto is a data transfer object (DTO) summarizing a delete of many Headquarters and Branches:
+ * how many of each were deleted, and the SWIFT codes asked for that matched none of them.
+ *
+ * @param headquartersDeleted The number of Headquarters deleted.
+ * @param branchesDeleted     The number of Branches deleted.
+ * @param missing             The number of SWIFT codes that matched nothing.
+ * @param missingSwiftCodes   The SWIFT codes that matched nothing, in the order they were passed.
+ */
+public record GetDeleteSummaryDto(
+        int headquartersDeleted,
+        int branchesDeleted,
+        int missing,
+        List<String> missingSwiftCodes
+) {
+}
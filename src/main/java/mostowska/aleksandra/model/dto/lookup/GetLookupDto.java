@@ -0,0 +1,16 @@
+package mostowska.aleksandra.model.dto.lookup;
+
+import mostowska.aleksandra.model.dto.country.GetModelForCountryDto;
+
+import java.util.List;
+
+/**
+ * GetLookupDto is a data transfer object (DTO) representing the result of looking up many SWIFT codes at once:
+ * the Headquarters and Branches found, and the codes matching none of them.
+ * Both lists follow the order of the codes in the request, each code appearing once.
+ */
+public record GetLookupDto(
+        List<GetModelForCountryDto> found,
+        List<String> missing
+) {
+}
@@ -0,0 +1,16 @@
+package mostowska.aleksandra.model.dto.search;
+
+/**
+ * GetSearchHitDto is a data transfer object (DTO) representing a Headquarter or Branch found
+ * by a full-text search over bank names and addresses, together with its relevance score.
+ * Hits with a higher score matched more of the query words, or matched them more closely.
+ */
+public record GetSearchHitDto(
+        String address,
+        String bankName,
+        String countryISO2,
+        String swiftCode,
+        String townName,
+        double score
+) {
+}
@@ -4,11 +4,18 @@ import mostowska.aleksandra.model.dto.csv.CreateModelFromCsvDto;
 import org.apache.commons.csv.*;
 import java.io.*;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
 
 /**
  * CsvReader is a utility class responsible for reading and parsing CSV files
- * and converting each row into a list of `CreateModelFromCsvDto` objects.
+ * and converting each row into `CreateModelFromCsvDto` objects, either as a fully materialized list
+ * or streamed record by record from a file or an input stream.
  */
 public class CsvReader {
 
@@ -21,40 +28,162 @@ public class CsvReader {
      * @throws IOException If there is an issue with reading the file, such as a file not found or a parsing error.
      */
     public static List<CreateModelFromCsvDto> readCsv(String fileName) throws IOException {
-        var data = new ArrayList<CreateModelFromCsvDto>();
-
         InputStream inputStream = CsvReader.class.getClassLoader().getResourceAsStream(fileName);
 
         if (inputStream == null) {
             throw new FileNotFoundException(fileName + " has not been found in resources.");
         }
 
-        try (var reader = new InputStreamReader(inputStream, StandardCharsets.UTF_8);
-             var csvParser = new CSVParser(reader, CSVFormat.DEFAULT.withFirstRecordAsHeader())) {
-
-            for (var csvRecord : csvParser) {
-                var countryISO2 = csvRecord.get("COUNTRY ISO2 CODE").trim().toUpperCase();
-                var swiftCode = csvRecord.get("SWIFT CODE").trim();
-                var codeType = csvRecord.get("CODE TYPE").trim();
-                var bankName = csvRecord.get("NAME").trim().toUpperCase();
-                var address = csvRecord.get("ADDRESS").trim();
-                var townName = csvRecord.get("TOWN NAME").trim();
-                var countryName = csvRecord.get("COUNTRY NAME").trim();
-                var timeZone = csvRecord.get("TIME ZONE").trim();
-
-                data.add(new CreateModelFromCsvDto(
-                        countryISO2,
-                        swiftCode,
-                        codeType,
-                        bankName,
-                        address,
-                        townName,
-                        countryName,
-                        timeZone
-                ));
+        try (var rows = stream(inputStream)) {
+            return rows.collect(Collectors.toCollection(ArrayList::new));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Opens a CSV file from the filesystem as a lazily populated stream of rows.
+     * Records are parsed only as the stream is consumed, so memory use does not depend on the file size.
+     * Gzip-compressed files are detected by their magic bytes and decompressed on the fly.
+     * The returned stream holds the file open and must be closed, preferably with try-with-resources.
+     *
+     * @param path The path of the CSV file to be read.
+     * @return A sequential stream of `CreateModelFromCsvDto` objects in file order.
+     * @throws IOException If the file cannot be opened or its header cannot be parsed.
+     */
+    public static Stream<CreateModelFromCsvDto> stream(Path path) throws IOException {
+        return stream(Files.newInputStream(path));
+    }
+
+    /**
+     * Reads CSV data from an input stream as a lazily populated stream of rows.
+     * Gzip-compressed data is detected by its magic bytes and decompressed on the fly.
+     * Closing the returned stream closes the input stream.
+     *
+     * @param inputStream The input stream of the CSV data, optionally gzip-compressed.
+     * @return A sequential stream of `CreateModelFromCsvDto` objects in input order.
+     * @throws IOException If the data cannot be read or its header cannot be parsed.
+     */
+    public static Stream<CreateModelFromCsvDto> stream(InputStream inputStream) throws IOException {
+        CSVParser csvParser;
+        try {
+            var reader = new InputStreamReader(decompressIfGzipped(inputStream), StandardCharsets.UTF_8);
+            csvParser = new CSVParser(new BufferedReader(reader), CSVFormat.DEFAULT.withFirstRecordAsHeader());
+        } catch (IOException | RuntimeException e) {
+            inputStream.close();
+            throw e;
+        }
+
+        return csvParser
+                .stream()
+                .map(CsvReader::toCreateModelFromCsvDto)
+                .onClose(() -> {
+                    try {
+                        csvParser.close();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+    }
+
+    /**
+     * Reads a CSV file from the filesystem record by record and passes each mapped row to the consumer.
+     * Only the record being parsed is held in memory, so the file may be of any size.
+     *
+     * @param path     The path of the CSV file to be read, optionally gzip-compressed.
+     * @param consumer The consumer receiving every row in file order.
+     * @throws IOException If there is an issue with reading the file or a parsing error.
+     */
+    public static void forEach(Path path, Consumer<CreateModelFromCsvDto> consumer) throws IOException {
+        try (var rows = stream(path)) {
+            rows.forEach(consumer);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Reads a CSV file from the filesystem and pushes its rows to the consumer in batches of a fixed size.
+     * Only one batch is held in memory at a time; the last batch may be smaller than the requested size.
+     * Each batch is a new list, so the consumer may keep it or hand it over to another thread.
+     *
+     * @param path      The path of the CSV file to be read, optionally gzip-compressed.
+     * @param batchSize The maximum number of rows in a batch.
+     * @param consumer  The consumer receiving every batch in file order.
+     * @throws IOException If there is an issue with reading the file or a parsing error.
+     * @throws IllegalArgumentException If the batch size is not positive.
+     */
+    public static void forEachBatch(Path path, int batchSize, Consumer<List<CreateModelFromCsvDto>> consumer)
+            throws IOException {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+
+        var batch = new ArrayList<CreateModelFromCsvDto>(batchSize);
+        try (var rows = stream(path)) {
+            var iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                batch.add(iterator.next());
+                if (batch.size() == batchSize) {
+                    consumer.accept(batch);
+                    batch = new ArrayList<>(batchSize);
+                }
             }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        if (!batch.isEmpty()) {
+            consumer.accept(batch);
+        }
+    }
+
+    /**
+     * Wraps the input stream in a gzip decompressor when it starts with the gzip magic bytes.
+     *
+     * @param inputStream The input stream to inspect.
+     * @return A buffered stream of the decompressed or original data.
+     * @throws IOException If the first bytes cannot be read.
+     */
+    private static InputStream decompressIfGzipped(InputStream inputStream) throws IOException {
+        var buffered = new BufferedInputStream(inputStream);
+        buffered.mark(2);
+        var first = buffered.read();
+        var second = buffered.read();
+        buffered.reset();
+
+        if (first == (GZIPInputStream.GZIP_MAGIC & 0xff) && second == (GZIPInputStream.GZIP_MAGIC >> 8)) {
+            return new BufferedInputStream(new GZIPInputStream(buffered));
         }
+        return buffered;
+    }
+
+    /**
+     * Maps a CSV record to a `CreateModelFromCsvDto`, trimming every field
+     * and upper-casing the country ISO2 code and the bank name.
+     *
+     * @param csvRecord The record to be mapped.
+     * @return A `CreateModelFromCsvDto` populated with the data from the record.
+     */
+    private static CreateModelFromCsvDto toCreateModelFromCsvDto(CSVRecord csvRecord) {
+        var countryISO2 = csvRecord.get("COUNTRY ISO2 CODE").trim().toUpperCase();
+        var swiftCode = csvRecord.get("SWIFT CODE").trim();
+        var codeType = csvRecord.get("CODE TYPE").trim();
+        var bankName = csvRecord.get("NAME").trim().toUpperCase();
+        var address = csvRecord.get("ADDRESS").trim();
+        var townName = csvRecord.get("TOWN NAME").trim();
+        var countryName = csvRecord.get("COUNTRY NAME").trim();
+        var timeZone = csvRecord.get("TIME ZONE").trim();
 
-        return data;
+        return new CreateModelFromCsvDto(
+                countryISO2,
+                swiftCode,
+                codeType,
+                bankName,
+                address,
+                townName,
+                countryName,
+                timeZone
+        );
     }
 }
@@ -0,0 +1,88 @@
+package mostowska.aleksandra.repository;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.jdbi.v3.core.ConnectionFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BoundedConnectionFactory hands Jdbi its connections, letting a bounded number of callers hold one at once.
+ *
+ * Every Jdbi handle takes a permit before borrowing its connection from the pool and gives it back once the
+ * connection is closed, so at most `maxConcurrent` handles are at work on the database, whatever the number of
+ * request threads. Waiting callers are served in order; with virtual threads, thousands of them wait parked at
+ * almost no cost, while the database only sees the bounded load. A caller still waiting after the acquire timeout
+ * fails, as it would waiting for the pool. The calls at work and the callers waiting are published as the
+ * `db.calls.active` and `db.calls.waiting` gauges.
+ */
+public class BoundedConnectionFactory implements ConnectionFactory {
+    private final DataSource dataSource;
+    private final Semaphore permits;
+    private final long acquireTimeoutMs;
+
+    /**
+     * Creates the factory and registers its gauges.
+     *
+     * @param dataSource    The pool handing out the connections.
+     * @param settings      The bound and the acquire timeout.
+     * @param meterRegistry The registry receiving the gauges.
+     */
+    public BoundedConnectionFactory(DataSource dataSource, DatabaseConcurrencySettings settings,
+                                    MeterRegistry meterRegistry) {
+        this.dataSource = dataSource;
+        this.permits = new Semaphore(settings.maxConcurrent(), true);
+        this.acquireTimeoutMs = settings.acquireTimeout().toMillis();
+
+        var maxConcurrent = settings.maxConcurrent();
+        Gauge.builder("db.calls.active", permits, semaphore -> maxConcurrent - semaphore.availablePermits())
+                .register(meterRegistry);
+        Gauge.builder("db.calls.waiting", permits, Semaphore::getQueueLength).register(meterRegistry);
+    }
+
+    /**
+     * Waits for a permit and borrows a connection from the pool.
+     *
+     * @return A pooled connection.
+     * @throws SQLException If no permit is free within the acquire timeout, or the pool fails.
+     */
+    @Override
+    public Connection openConnection() throws SQLException {
+        try {
+            if (!permits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new SQLTransientConnectionException(
+                        "Too many concurrent database calls, none ended within " + acquireTimeoutMs + " ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a database call", e);
+        }
+
+        try {
+            return dataSource.getConnection();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns a connection to the pool and frees its permit.
+     *
+     * @param connection The connection opened by `openConnection`.
+     * @throws SQLException If closing the connection fails, the permit being freed regardless.
+     */
+    @Override
+    public void closeConnection(Connection connection) throws SQLException {
+        try {
+            connection.close();
+        } finally {
+            permits.release();
+        }
+    }
+}
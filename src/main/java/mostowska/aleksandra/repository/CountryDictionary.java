@@ -0,0 +1,141 @@
+package mostowska.aleksandra.repository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import mostowska.aleksandra.exception.NotFoundException;
+import org.jdbi.v3.core.Jdbi;
+import org.springframework.stereotype.Repository;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * CountryDictionary keeps the names of all known countries in memory, keyed by their ISO2 code.
+ *
+ * Names are stored in a dense 26x26 array indexed by the two letters of the code, so a lookup
+ * computes an index from two characters and reads one slot, without hashing or allocating.
+ * The dictionary is filled from the `headquarters` and `branches` tables at startup with `load`,
+ * and kept current by `register` when models of a new country are saved, and by `remove` when a country is purged.
+ */
+@Repository
+@RequiredArgsConstructor
+@Slf4j
+public class CountryDictionary {
+    private static final int LETTERS = 26;
+
+    private final Jdbi jdbi;
+    private final AtomicReferenceArray<String> names = new AtomicReferenceArray<>(LETTERS * LETTERS);
+
+    /**
+     * Loads the country names found in the `headquarters` and `branches` tables.
+     * Codes that are not two letters long are skipped.
+     *
+     * @return The number of countries loaded.
+     */
+    public int load() {
+        var sql = "select distinct country_iso2, country_name from headquarters " +
+                  "union " +
+                  "select distinct country_iso2, country_name from branches";
+        var loaded = jdbi.withHandle(handle -> handle
+                .createQuery(sql)
+                .reduceRows(0, (count, row) -> {
+                    var countryIso2 = row.getColumn("country_iso2", String.class);
+                    var countryName = row.getColumn("country_name", String.class);
+                    if (indexOf(countryIso2) < 0 || countryName == null) {
+                        return count;
+                    }
+                    return names.getAndSet(indexOf(countryIso2), countryName) == null ? count + 1 : count;
+                }));
+
+        log.info("Loaded {} countries", loaded);
+        return loaded;
+    }
+
+    /**
+     * Adds or replaces the name of a country.
+     *
+     * @param countryIso2 The ISO2 code of the country, in any letter case.
+     * @param countryName The name of the country.
+     * @throws IllegalArgumentException if the code is not made of two latin letters or the name is missing.
+     */
+    public void register(String countryIso2, String countryName) {
+        var index = indexOf(countryIso2);
+        if (index < 0) {
+            throw new IllegalArgumentException("Wrong input for country ISO2 code - should contain 2 letters.");
+        }
+        if (countryName == null || countryName.isEmpty()) {
+            throw new IllegalArgumentException("Country name must be passed");
+        }
+
+        names.set(index, countryName);
+    }
+
+    /**
+     * Forgets a country, once it has no models left.
+     *
+     * @param countryIso2 The ISO2 code of the country, in any letter case. Malformed codes are ignored.
+     */
+    public void remove(String countryIso2) {
+        var index = indexOf(countryIso2);
+        if (index >= 0) {
+            names.set(index, null);
+        }
+    }
+
+    /**
+     * Checks whether a country is known.
+     *
+     * @param countryIso2 The ISO2 code of the country, in any letter case.
+     * @return True if the dictionary holds a name for the code.
+     */
+    public boolean contains(String countryIso2) {
+        var index = indexOf(countryIso2);
+        return index >= 0 && names.get(index) != null;
+    }
+
+    /**
+     * Retrieves the country name based on the provided ISO2 country code.
+     *
+     * @param countryIso2 The ISO2 code of the country, in any letter case.
+     * @return The country name corresponding to the given ISO2 code.
+     * @throws NotFoundException if the country is not known.
+     */
+    public String findCountryNameByISO2(String countryIso2) {
+        var index = indexOf(countryIso2);
+        var countryName = index < 0 ? null : names.get(index);
+        if (countryName == null) {
+            throw new NotFoundException("No such country");
+        }
+        return countryName;
+    }
+
+    /**
+     * Computes the array slot of an ISO2 code.
+     *
+     * @param countryIso2 The ISO2 code of the country, in any letter case.
+     * @return The slot of the code, or -1 if it is not made of two latin letters.
+     */
+    private static int indexOf(String countryIso2) {
+        if (countryIso2 == null || countryIso2.length() != 2) {
+            return -1;
+        }
+        var first = letterOf(countryIso2.charAt(0));
+        var second = letterOf(countryIso2.charAt(1));
+        return first < 0 || second < 0 ? -1 : first * LETTERS + second;
+    }
+
+    /**
+     * Maps a latin letter to its position in the alphabet, ignoring case.
+     *
+     * @param character The character to map.
+     * @return The position of the letter from 0 to 25, or -1 if the character is not a latin letter.
+     */
+    private static int letterOf(char character) {
+        if (character >= 'A' && character <= 'Z') {
+            return character - 'A';
+        }
+        if (character >= 'a' && character <= 'z') {
+            return character - 'a';
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,111 @@
+package mostowska.aleksandra.repository;
+
+import org.springframework.stereotype.Repository;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * DataVersions counts the writes made to each country and to each bank, identified by the 8-character prefix
+ * its headquarters and branches share in their SWIFT codes.
+ *
+ * A reader remembers the versions its result was built from, and the result is current as long as those
+ * versions have not moved. Versions are bumped by `bump` once a write has reached the database, so a result
+ * built before the write is seen as stale, while one built after it is not. Versions start at 0 and only
+ * the countries and banks written since startup take an entry. A global version counts every write, and the epoch
+ * tells versions of this run apart from the same numbers counted by a previous run of the application.
+ */
+@Repository
+public class DataVersions {
+    private static final int PREFIX_LENGTH = 8;
+
+    private final long epoch = System.currentTimeMillis();
+    private final AtomicLong version = new AtomicLong();
+    private final Map<String, AtomicLong> countryVersions = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> prefixVersions = new ConcurrentHashMap<>();
+
+    /**
+     * Retrieves the epoch of the versions, the time the application started counting them.
+     *
+     * @return The epoch, in milliseconds since 1970-01-01T00:00:00Z.
+     */
+    public long epoch() {
+        return epoch;
+    }
+
+    /**
+     * Retrieves the global version.
+     *
+     * @return The number of writes made to any model since startup.
+     */
+    public long version() {
+        return version.get();
+    }
+
+    /**
+     * Retrieves the version of a country.
+     *
+     * @param countryIso2 The ISO2 code of the country, in any letter case.
+     * @return The number of writes made to the country since startup.
+     */
+    public long countryVersion(String countryIso2) {
+        return versionOf(countryVersions, normalize(countryIso2));
+    }
+
+    /**
+     * Retrieves the version of the bank a SWIFT code belongs to.
+     *
+     * @param swiftCode The SWIFT code, in any letter case.
+     * @return The number of writes made to the codes sharing its 8-character prefix since startup.
+     */
+    public long prefixVersion(String swiftCode) {
+        return versionOf(prefixVersions, prefixOf(swiftCode));
+    }
+
+    /**
+     * Records a write of a model, moving the global version and the versions of its country and of its bank.
+     *
+     * @param countryIso2 The ISO2 code of the country of the model, in any letter case.
+     * @param swiftCode   The SWIFT code of the model, in any letter case.
+     */
+    public void bump(String countryIso2, String swiftCode) {
+        countryVersions.computeIfAbsent(normalize(countryIso2), key -> new AtomicLong()).incrementAndGet();
+        prefixVersions.computeIfAbsent(prefixOf(swiftCode), key -> new AtomicLong()).incrementAndGet();
+        version.incrementAndGet();
+    }
+
+    /**
+     * Reads a version without creating an entry for keys never written.
+     *
+     * @param versions The versions to read from.
+     * @param key      The normalized key.
+     * @return The version of the key, 0 if it was never written.
+     */
+    private static long versionOf(Map<String, AtomicLong> versions, String key) {
+        var version = versions.get(key);
+        return version == null ? 0 : version.get();
+    }
+
+    /**
+     * Computes the bank prefix of a SWIFT code.
+     *
+     * @param swiftCode The SWIFT code.
+     * @return The upper-case first 8 characters of the code, or the whole code if it is shorter.
+     */
+    private static String prefixOf(String swiftCode) {
+        var code = normalize(swiftCode);
+        return code.length() > PREFIX_LENGTH ? code.substring(0, PREFIX_LENGTH) : code;
+    }
+
+    /**
+     * Normalizes a key. The database compares codes ignoring case.
+     *
+     * @param text The country code or SWIFT code, null being treated as empty.
+     * @return The upper-case text.
+     */
+    private static String normalize(String text) {
+        return text == null ? "" : text.toUpperCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,24 @@
+package mostowska.aleksandra.repository;
+
+import java.time.Duration;
+
+/**
+ * DatabaseConcurrencySettings bounds the database work running at once.
+ *
+ * @param maxConcurrent  The maximum number of connections handed out to Jdbi handles at once.
+ * @param acquireTimeout The time a caller waits for its turn before the call fails.
+ */
+public record DatabaseConcurrencySettings(int maxConcurrent, Duration acquireTimeout) {
+
+    /**
+     * Validates the bound and the timeout.
+     */
+    public DatabaseConcurrencySettings {
+        if (maxConcurrent < 1) {
+            throw new IllegalArgumentException("At least one concurrent database call must be allowed");
+        }
+        if (acquireTimeout.isNegative()) {
+            throw new IllegalArgumentException("Database acquire timeout cannot be negative");
+        }
+    }
+}
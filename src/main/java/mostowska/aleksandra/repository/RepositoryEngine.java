@@ -0,0 +1,21 @@
+package mostowska.aleksandra.repository;
+
+/**
+ * The engines serving the model repositories, selected with the `repository.engine` property.
+ */
+public enum RepositoryEngine {
+    /**
+     * Every read and write goes to the database.
+     */
+    DATABASE,
+
+    /**
+     * Lookups by SWIFT code are served from bounded read-through caches in front of the database.
+     */
+    CACHE,
+
+    /**
+     * The whole directory is held in memory and writes go through to the database.
+     */
+    MEMORY
+}
@@ -0,0 +1,377 @@
+package mostowska.aleksandra.repository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.jdbi.v3.core.Jdbi;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * SwiftCodeTrie keeps the SWIFT codes of all headquarters and branches in an in-memory radix trie,
+ * answering prefix searches in lexicographic order.
+ *
+ * Each edge of the trie is labelled with a run of characters shared by all codes below it, and the children
+ * of a node are sorted by the first character of their label, so a depth-first walk visits codes in
+ * lexicographic order and a search stops as soon as it has collected the requested number of matches.
+ *
+ * Nodes are immutable. A write copies the path from the root to the changed node and publishes the new root,
+ * so searches read a consistent trie without locking while writes, which are serialized, cost one path copy.
+ * The trie is filled from the `headquarters` and `branches` tables at startup with `load`,
+ * and kept current by `add` and `remove` when models are created and deleted.
+ */
+@Repository
+@RequiredArgsConstructor
+@Slf4j
+public class SwiftCodeTrie {
+    private static final Node[] NO_CHILDREN = new Node[0];
+
+    private final Jdbi jdbi;
+    private volatile Node root = Node.EMPTY_ROOT;
+    private volatile int size;
+
+    /**
+     * Loads the SWIFT codes found in the `headquarters` and `branches` tables, replacing the current trie.
+     *
+     * @return The number of codes loaded.
+     */
+    public synchronized int load() {
+        var sql = "select swift_code from headquarters " +
+                  "union all " +
+                  "select swift_code from branches";
+        var loaded = jdbi.withHandle(handle -> handle
+                .createQuery(sql)
+                .mapTo(String.class)
+                .reduce(Node.EMPTY_ROOT, (trie, swiftCode) -> insert(trie, normalize(swiftCode), 0)));
+        root = loaded;
+        size = count(loaded);
+
+        log.info("Loaded {} SWIFT codes into the search trie", size);
+        return size;
+    }
+
+    /**
+     * Adds a SWIFT code.
+     *
+     * @param swiftCode The SWIFT code, in any letter case.
+     * @throws IllegalArgumentException if the code is missing or empty.
+     */
+    public synchronized void add(String swiftCode) {
+        var updated = insert(root, requireCode(swiftCode), 0);
+        if (updated != root) {
+            root = updated;
+            size++;
+        }
+    }
+
+    /**
+     * Removes a SWIFT code. Removing a code that is not in the trie does nothing.
+     *
+     * @param swiftCode The SWIFT code, in any letter case.
+     * @throws IllegalArgumentException if the code is missing or empty.
+     */
+    public synchronized void remove(String swiftCode) {
+        var updated = delete(root, requireCode(swiftCode), 0);
+        if (updated != root) {
+            root = updated;
+            size--;
+        }
+    }
+
+    /**
+     * Finds the SWIFT codes starting with a prefix.
+     *
+     * @param prefix The prefix, in any letter case. An empty prefix matches every code.
+     * @param limit  The maximum number of codes to return.
+     * @return Up to `limit` upper-case codes starting with the prefix, in lexicographic order.
+     */
+    public List<String> search(String prefix, int limit) {
+        var key = normalize(prefix);
+        var node = root;
+        var path = new StringBuilder(key.length() + 8);
+
+        // Descends to the node holding every code starting with the prefix,
+        // its label may run past the end of the prefix
+        for (var depth = 0; depth < key.length(); ) {
+            var index = childIndex(node, key.charAt(depth));
+            if (index < 0) {
+                return List.of();
+            }
+            var child = node.children[index];
+            var compared = Math.min(child.label.length(), key.length() - depth);
+            if (!child.label.regionMatches(0, key, depth, compared)) {
+                return List.of();
+            }
+            path.append(child.label);
+            depth += child.label.length();
+            node = child;
+        }
+
+        var matches = new ArrayList<String>(Math.min(limit, 64));
+        collect(node, path, matches, limit);
+        return matches;
+    }
+
+    /**
+     * Returns the number of codes in the trie.
+     *
+     * @return The number of codes.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * A node of the trie. The root has an empty label.
+     */
+    private static final class Node {
+        static final Node EMPTY_ROOT = new Node("", false, NO_CHILDREN);
+
+        final String label;
+        final boolean terminal;
+        final Node[] children;
+
+        /**
+         * Creates a node.
+         *
+         * @param label    The characters of the edge leading to the node.
+         * @param terminal True if the path to the node spells a code.
+         * @param children The children, sorted by the first character of their label.
+         */
+        Node(String label, boolean terminal, Node[] children) {
+            this.label = label;
+            this.terminal = terminal;
+            this.children = children;
+        }
+
+        /**
+         * Returns a copy of the node with one child replaced.
+         *
+         * @param index The position of the child.
+         * @param child The new child.
+         * @return The copied node.
+         */
+        Node withChild(int index, Node child) {
+            var copy = children.clone();
+            copy[index] = child;
+            return new Node(label, terminal, copy);
+        }
+
+        /**
+         * Returns a copy of the node with a child inserted.
+         *
+         * @param index The position at which to insert the child.
+         * @param child The new child.
+         * @return The copied node.
+         */
+        Node withChildInserted(int index, Node child) {
+            var copy = new Node[children.length + 1];
+            System.arraycopy(children, 0, copy, 0, index);
+            copy[index] = child;
+            System.arraycopy(children, index, copy, index + 1, children.length - index);
+            return new Node(label, terminal, copy);
+        }
+
+        /**
+         * Returns a copy of the node with a child removed.
+         *
+         * @param index The position of the child to remove.
+         * @return The copied node.
+         */
+        Node withoutChild(int index) {
+            var copy = new Node[children.length - 1];
+            System.arraycopy(children, 0, copy, 0, index);
+            System.arraycopy(children, index + 1, copy, index, children.length - index - 1);
+            return new Node(label, terminal, copy);
+        }
+    }
+
+    /**
+     * Inserts a code below a node whose own label has already been matched.
+     *
+     * @param node  The node to insert below.
+     * @param key   The normalized code.
+     * @param depth The number of characters of the code matched by the path to the node.
+     * @return The node with the code inserted, the same node if the code was already present.
+     */
+    private static Node insert(Node node, String key, int depth) {
+        if (depth == key.length()) {
+            return node.terminal ? node : new Node(node.label, true, node.children);
+        }
+
+        var index = childIndex(node, key.charAt(depth));
+        if (index < 0) {
+            return node.withChildInserted(-index - 1, new Node(key.substring(depth), true, NO_CHILDREN));
+        }
+
+        var child = node.children[index];
+        var common = commonPrefixLength(child.label, key, depth);
+        if (common == child.label.length()) {
+            var inserted = insert(child, key, depth + common);
+            return inserted == child ? node : node.withChild(index, inserted);
+        }
+
+        // The code leaves the child's label midway, the label is split at that point
+        var split = new Node(child.label.substring(0, common), false,
+                new Node[]{new Node(child.label.substring(common), child.terminal, child.children)});
+        return node.withChild(index, insert(split, key, depth + common));
+    }
+
+    /**
+     * Removes a code below a node whose own label has already been matched, merging the nodes left
+     * with a single child and dropping the nodes left empty.
+     *
+     * @param node  The node to remove below.
+     * @param key   The normalized code.
+     * @param depth The number of characters of the code matched by the path to the node.
+     * @return The node without the code, the same node if the code was absent, or null if the node is left empty.
+     *         The root is never left null.
+     */
+    private static Node delete(Node node, String key, int depth) {
+        if (depth == key.length()) {
+            return node.terminal ? compact(new Node(node.label, false, node.children)) : node;
+        }
+
+        var index = childIndex(node, key.charAt(depth));
+        if (index < 0) {
+            return node;
+        }
+        var child = node.children[index];
+        if (!key.startsWith(child.label, depth)) {
+            return node;
+        }
+
+        var updated = delete(child, key, depth + child.label.length());
+        if (updated == child) {
+            return node;
+        }
+        return compact(updated == null ? node.withoutChild(index) : node.withChild(index, updated));
+    }
+
+    /**
+     * Restores the radix form of a node changed by a removal. The root is never merged or dropped.
+     *
+     * @param node The changed node.
+     * @return The node, its merge with its only child, or null if it holds no code.
+     */
+    private static Node compact(Node node) {
+        if (node.terminal || node.label.isEmpty()) {
+            return node;
+        }
+        if (node.children.length == 0) {
+            return null;
+        }
+        if (node.children.length == 1) {
+            var child = node.children[0];
+            return new Node(node.label + child.label, child.terminal, child.children);
+        }
+        return node;
+    }
+
+    /**
+     * Collects the codes below a node in lexicographic order.
+     *
+     * @param node    The node to collect from.
+     * @param path    The characters of the path to the node, restored before returning.
+     * @param matches The collected codes.
+     * @param limit   The maximum number of codes to collect.
+     */
+    private static void collect(Node node, StringBuilder path, List<String> matches, int limit) {
+        if (matches.size() >= limit) {
+            return;
+        }
+        if (node.terminal) {
+            matches.add(path.toString());
+        }
+        for (var child : node.children) {
+            if (matches.size() >= limit) {
+                return;
+            }
+            var length = path.length();
+            path.append(child.label);
+            collect(child, path, matches, limit);
+            path.setLength(length);
+        }
+    }
+
+    /**
+     * Counts the codes below a node.
+     *
+     * @param node The node to count from.
+     * @return The number of terminal nodes below and including the node.
+     */
+    private static int count(Node node) {
+        var count = node.terminal ? 1 : 0;
+        for (var child : node.children) {
+            count += count(child);
+        }
+        return count;
+    }
+
+    /**
+     * Finds the child whose label starts with a character.
+     *
+     * @param node      The parent node.
+     * @param character The first character of the label.
+     * @return The position of the child, or `-(insertion point) - 1` if there is none.
+     */
+    private static int childIndex(Node node, char character) {
+        var low = 0;
+        var high = node.children.length - 1;
+        while (low <= high) {
+            var middle = (low + high) >>> 1;
+            var first = node.children[middle].label.charAt(0);
+            if (first < character) {
+                low = middle + 1;
+            } else if (first > character) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -(low + 1);
+    }
+
+    /**
+     * Computes the length of the common prefix of a label and the rest of a code.
+     *
+     * @param label The label of an edge.
+     * @param key   The code.
+     * @param depth The position in the code the label is compared from.
+     * @return The number of leading characters shared.
+     */
+    private static int commonPrefixLength(String label, String key, int depth) {
+        var length = Math.min(label.length(), key.length() - depth);
+        var common = 0;
+        while (common < length && label.charAt(common) == key.charAt(depth + common)) {
+            common++;
+        }
+        return common;
+    }
+
+    /**
+     * Validates and normalizes a code to add or remove.
+     *
+     * @param swiftCode The code.
+     * @return The upper-case code.
+     * @throws IllegalArgumentException if the code is missing or empty.
+     */
+    private static String requireCode(String swiftCode) {
+        if (swiftCode == null || swiftCode.isEmpty()) {
+            throw new IllegalArgumentException("SWIFT code must be passed");
+        }
+        return normalize(swiftCode);
+    }
+
+    /**
+     * Normalizes a code or prefix. The database compares codes ignoring case.
+     *
+     * @param text The code or prefix.
+     * @return The upper-case text.
+     */
+    private static String normalize(String text) {
+        return text.toUpperCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,62 @@
+package mostowska.aleksandra.repository.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import mostowska.aleksandra.model.impl.Branch;
+import mostowska.aleksandra.repository.model.BranchRepository;
+
+import java.util.List;
+
+/**
+ * Caching decorator of the `BranchRepository`.
+ * Besides `findBySwiftCode`, it caches `findAllForSWIFT`, which looks branches up by the bank prefix
+ * of the SWIFT code, so a write of any branch invalidates the entry of its whole bank.
+ */
+public class CachingBranchRepository
+        extends CachingCrudRepository<Branch, BranchRepository>
+        implements BranchRepository {
+
+    /**
+     * Creates the decorator around the database repository.
+     *
+     * @param delegate      The repository reading from and writing to the `branches` table.
+     * @param settings      The bounds of the caches.
+     * @param meterRegistry The registry receiving the cache metrics.
+     */
+    public CachingBranchRepository(BranchRepository delegate, RepositoryCacheSettings settings,
+                                   MeterRegistry meterRegistry) {
+        super(delegate, Branch.class, "branches", settings, meterRegistry);
+    }
+
+    /**
+     * Finds all branches sharing the bank prefix of a SWIFT code, loading them from the database on a cache miss.
+     *
+     * @param swiftCode The SWIFT code to search for.
+     * @return A list of `Branch` entities with the bank prefix of the given SWIFT code.
+     */
+    @Override
+    public List<Branch> findAllForSWIFT(String swiftCode) {
+        return swiftLookupCache.get(swiftLookupKey(normalize(swiftCode)), key -> delegate.findAllForSWIFT(swiftCode));
+    }
+
+    /**
+     * Finds all branches located in a specific country, always reading the database.
+     *
+     * @param countryISO2 The ISO2 code of the country to search for.
+     * @return A list of `Branch` entities located in the specified country.
+     */
+    @Override
+    public List<Branch> findAllForCountry(String countryISO2) {
+        return delegate.findAllForCountry(countryISO2);
+    }
+
+    /**
+     * Branches are looked up by the bank prefix, the first 8 characters of the SWIFT code.
+     *
+     * @param swiftCode The normalized SWIFT code.
+     * @return The bank prefix of the SWIFT code, or the code itself if it is shorter than a prefix.
+     */
+    @Override
+    protected String swiftLookupKey(String swiftCode) {
+        return swiftCode.length() < 8 ? swiftCode : swiftCode.substring(0, 8);
+    }
+}
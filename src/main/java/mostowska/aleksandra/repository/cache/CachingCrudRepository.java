@@ -0,0 +1,309 @@
+package mostowska.aleksandra.repository.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import mostowska.aleksandra.repository.generic.CrudRepository;
+import mostowska.aleksandra.repository.generic.DeleteChunkRunner;
+import mostowska.aleksandra.repository.generic.EntityMetadata;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * CachingCrudRepository is a decorator adding bounded read-through caches in front of a `CrudRepository`.
+ *
+ * Two lookups are cached: `findBySwiftCode`, keyed by the SWIFT code, and the SWIFT lookup of the model
+ * repositories (`findAllForSWIFT`), keyed by what that lookup filters on. Every write going through
+ * the decorator invalidates exactly the entries of the SWIFT codes it touches, after the database write,
+ * so a read never serves a row older than the last write of this process. Rows written by other processes
+ * are picked up once the entries expire.
+ *
+ * Eviction is Caffeine's W-TinyLFU bounded by size. Hits, misses and evictions of both caches
+ * are published to the meter registry under the `cache.*` meters, tagged with the cache name.
+ *
+ * @param <T> The type of the entity.
+ * @param <R> The type of the decorated repository.
+ */
+public abstract class CachingCrudRepository<T, R extends CrudRepository<T>> implements CrudRepository<T> {
+    protected final R delegate;
+    protected final Cache<String, List<T>> swiftLookupCache;
+
+    private final EntityMetadata<T> metadata;
+    private final Cache<String, Optional<T>> bySwiftCodeCache;
+
+    /**
+     * Creates the decorator and registers its caches in the meter registry.
+     *
+     * @param delegate      The repository reading from and writing to the database.
+     * @param entityType    The class of the entity, used to read the SWIFT code of written items.
+     * @param cacheName     The prefix of the cache names in the published metrics.
+     * @param settings      The bounds of the caches.
+     * @param meterRegistry The registry receiving the cache metrics.
+     */
+    protected CachingCrudRepository(R delegate, Class<T> entityType, String cacheName,
+                                    RepositoryCacheSettings settings, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.metadata = EntityMetadata.of(entityType);
+        this.bySwiftCodeCache = CaffeineCacheMetrics.monitor(meterRegistry, newCache(settings),
+                cacheName + ".bySwiftCode");
+        this.swiftLookupCache = CaffeineCacheMetrics.monitor(meterRegistry, newCache(settings),
+                cacheName + ".forSwift");
+    }
+
+    /**
+     * Maps a SWIFT code to the key of the SWIFT lookup cache holding it.
+     *
+     * @param swiftCode The normalized SWIFT code.
+     * @return The key of the SWIFT lookup entry the code belongs to.
+     */
+    protected abstract String swiftLookupKey(String swiftCode);
+
+    /**
+     * Saves a new entity and invalidates the cached entries of its SWIFT code.
+     *
+     * @param item The entity to be saved.
+     * @return The saved entity.
+     */
+    @Override
+    public T save(T item) {
+        try {
+            return delegate.save(item);
+        } finally {
+            invalidate(metadata.swiftCode(item));
+        }
+    }
+
+    /**
+     * Updates an existing entity and invalidates the cached entries of its SWIFT code.
+     *
+     * @param swiftCode The `swiftCode` of the entity to update.
+     * @param item      The entity with updated data.
+     * @return The updated entity.
+     */
+    @Override
+    public T update(String swiftCode, T item) {
+        try {
+            return delegate.update(swiftCode, item);
+        } finally {
+            invalidate(swiftCode);
+        }
+    }
+
+    /**
+     * Finds an entity by its `swiftCode`, loading it from the database on a cache miss.
+     * Missing entities are cached as well, so repeated lookups of unknown codes do not reach the database.
+     *
+     * @param swiftCode The `swiftCode` of the entity.
+     * @return An Optional containing the entity if found, otherwise empty.
+     */
+    @Override
+    public Optional<T> findBySwiftCode(String swiftCode) {
+        return bySwiftCodeCache.get(normalize(swiftCode), key -> delegate.findBySwiftCode(swiftCode));
+    }
+
+    /**
+     * Saves multiple entities and invalidates the cached entries of all their SWIFT codes.
+     *
+     * @param items The list of entities to be saved.
+     * @return The list of saved entities.
+     */
+    @Override
+    public List<T> saveAll(List<T> items) {
+        try {
+            return delegate.saveAll(items);
+        } finally {
+            items.forEach(item -> invalidate(metadata.swiftCode(item)));
+        }
+    }
+
+    /**
+     * Finds the last `n` entities, always reading the database.
+     *
+     * @param n The number of entities to retrieve.
+     * @return A list of the last `n` entities.
+     */
+    @Override
+    public List<T> findLast(int n) {
+        return delegate.findLast(n);
+    }
+
+    /**
+     * Finds a page of entities, always reading the database.
+     *
+     * @param afterSwiftCode The `swiftCode` of the last entity of the previous page, or null for the first page.
+     * @param limit          The maximum number of entities to retrieve.
+     * @return Up to `limit` entities whose `swiftCode` follows `afterSwiftCode`, in `swiftCode` order.
+     */
+    @Override
+    public List<T> findPage(String afterSwiftCode, int limit) {
+        return delegate.findPage(afterSwiftCode, limit);
+    }
+
+    /**
+     * Retrieves all entities, always reading the database.
+     *
+     * @return A list of all entities.
+     */
+    @Override
+    public List<T> findAll() {
+        return delegate.findAll();
+    }
+
+    /**
+     * Deletes an entity and invalidates the cached entries of its SWIFT code.
+     *
+     * @param swiftCode The `swiftCode` of the entity to be deleted.
+     * @return The deleted entity.
+     */
+    @Override
+    public T delete(String swiftCode) {
+        try {
+            return delegate.delete(swiftCode);
+        } finally {
+            invalidate(swiftCode);
+        }
+    }
+
+    /**
+     * Finds all entities with the given SWIFT codes, always reading the database.
+     *
+     * @param swiftCodes A list of `swiftCode` values.
+     * @return A list of entities matching the provided `swiftCode` values.
+     */
+    @Override
+    public List<T> findAllBySwiftCode(List<String> swiftCodes) {
+        return delegate.findAllBySwiftCode(swiftCodes);
+    }
+
+    /**
+     * Looks up entities by SWIFT code, serving the cached codes and reading all the others in one database lookup.
+     * The codes read are not cached: a bulk load is not serialized against the invalidation of its keys,
+     * so a write committing while the lookup runs could otherwise have its stale row cached after its invalidation.
+     * The single-code `findBySwiftCode` loads under the lock of its key and fills the cache instead.
+     *
+     * @param swiftCodes A list of `swiftCode` values.
+     * @return The entities found, in no particular order.
+     */
+    @Override
+    public List<T> lookupBySwiftCode(List<String> swiftCodes) {
+        var keys = swiftCodes.stream().map(CachingCrudRepository::normalize).distinct().toList();
+        var cached = bySwiftCodeCache.getAllPresent(keys);
+        var found = new ArrayList<T>(keys.size());
+        cached.values().forEach(item -> item.ifPresent(found::add));
+        if (cached.size() < keys.size()) {
+            found.addAll(delegate.lookupBySwiftCode(keys.stream().filter(key -> !cached.containsKey(key)).toList()));
+        }
+        return found;
+    }
+
+    /**
+     * Deletes all entities with the given SWIFT codes and invalidates the cached entries of those codes.
+     *
+     * @param swiftCodes A list of `swiftCode` values of the entities to delete.
+     * @return A list of deleted entities.
+     */
+    @Override
+    public List<T> deleteAllBySwiftCode(List<String> swiftCodes) {
+        try {
+            return delegate.deleteAllBySwiftCode(swiftCodes);
+        } finally {
+            swiftCodes.forEach(this::invalidate);
+        }
+    }
+
+    /**
+     * Deletes the entities with the given SWIFT codes, invalidating the cached entries of each chunk
+     * as soon as it is committed.
+     *
+     * @param swiftCodes A list of `swiftCode` values of the entities to delete.
+     * @param chunks     The runner of each chunk.
+     * @return The entities deleted, in no particular order.
+     */
+    @Override
+    public List<T> deleteFoundBySwiftCode(List<String> swiftCodes, DeleteChunkRunner<T> chunks) {
+        return delegate.deleteFoundBySwiftCode(swiftCodes,
+                (chunk, delete) -> chunks.run(chunk, () -> invalidated(delete.get())));
+    }
+
+    /**
+     * Deletes all entities of a country, invalidating the cached entries of each chunk as soon as it is committed.
+     * If the delete fails part way, the entries of the chunks committed before are already invalidated.
+     *
+     * @param countryIso2 The upper-case ISO2 code of the country.
+     * @param chunks      The runner of each chunk.
+     * @return The entities deleted, in no particular order.
+     */
+    @Override
+    public List<T> deleteAllForCountry(String countryIso2, DeleteChunkRunner<T> chunks) {
+        return delegate.deleteAllForCountry(countryIso2,
+                (chunk, delete) -> chunks.run(chunk, () -> invalidated(delete.get())));
+    }
+
+    /**
+     * Deletes all entities and empties both caches.
+     *
+     * @return A list of deleted entities.
+     */
+    @Override
+    public List<T> deleteAll() {
+        try {
+            return delegate.deleteAll();
+        } finally {
+            bySwiftCodeCache.invalidateAll();
+            swiftLookupCache.invalidateAll();
+        }
+    }
+
+    /**
+     * Removes the cached entries a write of the given SWIFT code makes stale.
+     *
+     * @param swiftCode The SWIFT code written.
+     */
+    protected void invalidate(String swiftCode) {
+        var key = normalize(swiftCode);
+        bySwiftCodeCache.invalidate(key);
+        swiftLookupCache.invalidate(swiftLookupKey(key));
+    }
+
+    /**
+     * Removes the cached entries of deleted entities.
+     *
+     * @param deleted The entities deleted.
+     * @return The same entities.
+     */
+    private List<T> invalidated(List<T> deleted) {
+        deleted.forEach(item -> invalidate(metadata.swiftCode(item)));
+        return deleted;
+    }
+
+    /**
+     * Normalizes a SWIFT code to a cache key. The database compares codes ignoring case,
+     * so codes differing only by case must share one entry to be invalidated together.
+     *
+     * @param swiftCode The SWIFT code to normalize.
+     * @return The upper-case SWIFT code.
+     */
+    protected static String normalize(String swiftCode) {
+        return swiftCode.toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * Builds a cache bounded by the given settings, recording statistics for the metrics.
+     *
+     * @param settings The bounds of the cache.
+     * @param <V>      The type of the cached values.
+     * @return A new empty cache.
+     */
+    private static <V> Cache<String, V> newCache(RepositoryCacheSettings settings) {
+        return Caffeine
+                .newBuilder()
+                .maximumSize(settings.maximumSize())
+                .expireAfterWrite(settings.expireAfterWrite())
+                .recordStats()
+                .build();
+    }
+}
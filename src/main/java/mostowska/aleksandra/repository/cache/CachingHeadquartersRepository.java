@@ -0,0 +1,75 @@
+package mostowska.aleksandra.repository.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import mostowska.aleksandra.model.dto.headquarters.GetHeadquartersDto;
+import mostowska.aleksandra.model.impl.Headquarters;
+import mostowska.aleksandra.repository.model.HeadquartersRepository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Caching decorator of the `HeadquartersRepository`.
+ * Besides `findBySwiftCode`, it caches `findAllForSWIFT`, which looks headquarters up by their full SWIFT code.
+ */
+public class CachingHeadquartersRepository
+        extends CachingCrudRepository<Headquarters, HeadquartersRepository>
+        implements HeadquartersRepository {
+
+    /**
+     * Creates the decorator around the database repository.
+     *
+     * @param delegate      The repository reading from and writing to the `headquarters` table.
+     * @param settings      The bounds of the caches.
+     * @param meterRegistry The registry receiving the cache metrics.
+     */
+    public CachingHeadquartersRepository(HeadquartersRepository delegate, RepositoryCacheSettings settings,
+                                         MeterRegistry meterRegistry) {
+        super(delegate, Headquarters.class, "headquarters", settings, meterRegistry);
+    }
+
+    /**
+     * Finds all headquarters with a specific SWIFT code, loading them from the database on a cache miss.
+     *
+     * @param swiftCode The SWIFT code to search for.
+     * @return A list of `Headquarters` entities matching the given SWIFT code.
+     */
+    @Override
+    public List<Headquarters> findAllForSWIFT(String swiftCode) {
+        return swiftLookupCache.get(swiftLookupKey(normalize(swiftCode)), key -> delegate.findAllForSWIFT(swiftCode));
+    }
+
+    /**
+     * Finds all headquarters located in a specific country, always reading the database.
+     *
+     * @param countryISO2 The ISO2 code of the country to search for.
+     * @return A list of `Headquarters` entities located in the specified country.
+     */
+    @Override
+    public List<Headquarters> findAllForCountry(String countryISO2) {
+        return delegate.findAllForCountry(countryISO2);
+    }
+
+    /**
+     * Finds the headquarters with its branches, always reading the database,
+     * since branch writes do not go through this decorator.
+     *
+     * @param swiftCode The SWIFT code of the headquarters to search for.
+     * @return The headquarters with its nested branches, or an empty Optional if no headquarters has the given code.
+     */
+    @Override
+    public Optional<GetHeadquartersDto> findWithBranches(String swiftCode) {
+        return delegate.findWithBranches(swiftCode);
+    }
+
+    /**
+     * Headquarters are looked up by their full SWIFT code.
+     *
+     * @param swiftCode The normalized SWIFT code.
+     * @return The SWIFT code itself.
+     */
+    @Override
+    protected String swiftLookupKey(String swiftCode) {
+        return swiftCode;
+    }
+}
@@ -0,0 +1,25 @@
+package mostowska.aleksandra.repository.cache;
+
+import java.time.Duration;
+
+/**
+ * RepositoryCacheSettings holds the bounds of the read-through caches in front of the repositories.
+ *
+ * @param maximumSize      The maximum number of entries of each cache; 0 disables caching.
+ * @param expireAfterWrite The time after which an entry is reloaded from the database,
+ *                         bounding how stale rows written by other processes can get.
+ */
+public record RepositoryCacheSettings(long maximumSize, Duration expireAfterWrite) {
+
+    /**
+     * Validates that the bounds are not negative.
+     */
+    public RepositoryCacheSettings {
+        if (maximumSize < 0) {
+            throw new IllegalArgumentException("Cache maximum size cannot be negative");
+        }
+        if (expireAfterWrite == null || expireAfterWrite.isNegative()) {
+            throw new IllegalArgumentException("Cache expiration cannot be negative");
+        }
+    }
+}
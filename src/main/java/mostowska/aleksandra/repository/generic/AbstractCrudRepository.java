@@ -1,19 +1,17 @@
 package mostowska.aleksandra.repository.generic;
 
-import com.google.common.base.CaseFormat;
+import com.google.common.collect.Lists;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.atteo.evo.inflector.English;
+import org.jdbi.v3.core.Handle;
 import org.jdbi.v3.core.Jdbi;
+import org.jdbi.v3.core.statement.Query;
+import org.springframework.beans.factory.annotation.Value;
 
-import java.lang.reflect.Field;
 import java.lang.reflect.ParameterizedType;
-import java.time.LocalDate;
-import java.time.LocalDateTime;
+import java.sql.Statement;
 import java.util.*;
 
-import static java.util.stream.Collectors.joining;
-
 /**
  * AbstractCrudRepository is an abstract implementation of the CrudRepository interface.
  * It provides the basic functionality for CRUD operations using Jdbi.
@@ -30,6 +28,19 @@ public abstract class AbstractCrudRepository<T> implements CrudRepository<T> {
     private final Class<T> entityType
             = (Class<T>) ((ParameterizedType) super.getClass().getGenericSuperclass()).getActualTypeArguments()[0];
 
+    // Table name, columns, getter handles and statement texts are resolved once per repository,
+    // so statement texts stay the same across calls and the driver can reuse server-side prepared statements
+    protected final EntityMetadata<T> metadata = EntityMetadata.of(entityType);
+
+    // Maximum number of codes bound to the IN list of one lookup query
+    private static final int LOOKUP_CHUNK_SIZE = 1000;
+
+    // Maximum number of rows sent in one batch and committed in one transaction by saveAll
+    private int batchSize = 1000;
+
+    // Maximum number of rows deleted in one transaction by deleteFoundBySwiftCode and deleteAllForCountry
+    private int deleteChunkSize = 500;
+
     /**
      * Saves a new entity in the repository.
      * This method inserts the entity into the database.
@@ -39,22 +50,18 @@ public abstract class AbstractCrudRepository<T> implements CrudRepository<T> {
      */
     @Override
     public T save(T item) {
-        var sql = "insert into %s %s values %s;".formatted(
-                tableName(),
-                columnNamesForInsert(),
-                columnValuesForInsert(item)
-        );
-        var insertedRows = jdbi.withHandle(handle -> handle.execute(sql));
+        var insertedRows = jdbi.withHandle(handle -> metadata.bindColumns(handle.createUpdate(metadata.insertSql()), item).execute());
 
         if (insertedRows == 0) {
             throw new IllegalStateException("Row not inserted");
         }
-        return findBySwiftCode(getSwiftCode(item)).orElseThrow();
+        return findBySwiftCode(metadata.swiftCode(item)).orElseThrow();
     }
 
     /**
      * Updates an existing entity in the repository.
      * This method updates the entity with the provided swiftCode in the database.
+     * Fields left null in the given entity keep their current values.
      *
      * @param swiftCode The swiftCode of the entity to update.
      * @param item The entity with updated data.
@@ -62,12 +69,7 @@ public abstract class AbstractCrudRepository<T> implements CrudRepository<T> {
      */
     @Override
     public T update(String swiftCode, T item) {
-        var sql = "update %s set %s where swift_code = :swift_code".formatted(
-                tableName(),
-                columnNamesAndValuesForUpdate(item)
-        );
-        var updatedRows = jdbi.withHandle(handle -> handle
-                .createUpdate(sql)
+        var updatedRows = jdbi.withHandle(handle -> metadata.bindColumns(handle.createUpdate(metadata.updateSql()), item)
                 .bind("swift_code", swiftCode)
                 .execute());
 
@@ -86,11 +88,10 @@ public abstract class AbstractCrudRepository<T> implements CrudRepository<T> {
      */
     @Override
     public Optional<T> findBySwiftCode(String swiftCode) {
-        var sql = "select * from " + tableName() + " where swift_code = :swift_code";
         return jdbi.withHandle(handle -> handle
-                .createQuery(sql)
+                .createQuery(metadata.selectBySwiftCodeSql())
                 .bind("swift_code", swiftCode)
-                .mapToBean(entityType)
+                .map(metadata.rowMapper())
                 .findFirst()
         );
     }
@@ -98,25 +99,63 @@ public abstract class AbstractCrudRepository<T> implements CrudRepository<T> {
 
     /**
      * Saves multiple entities in the database.
+     * The entities are sent as prepared statement batches of at most `batchSize` rows,
+     * each chunk in its own transaction, so imports of any size keep statements and transactions short.
+     * Chunks committed before a failing chunk stay in the database.
      *
      * @param items The list of entities to save.
      * @return The list of saved entities.
      */
     @Override
     public List<T> saveAll(List<T> items) {
-        var sql = "insert into %s %s values %s".formatted(
-                tableName(),
-                columnNamesForInsert(),
-                items
-                        .stream()
-                        .map(this::columnValuesForInsert)
-                        .collect(joining(", "))
-        );
-        var insertedRows = jdbi.withHandle(handle -> handle.execute(sql));
+        if (items.isEmpty()) {
+            return List.of();
+        }
+
+        var insertedRows = 0;
+        for (var chunk : Lists.partition(items, batchSize)) {
+            insertedRows += jdbi.inTransaction(handle -> {
+                var batch = handle.prepareBatch(metadata.insertSql());
+                chunk.forEach(item -> metadata.bindColumns(batch, item).add());
+                // Rewritten batches report SUCCESS_NO_INFO instead of a row count for every statement
+                return Arrays
+                        .stream(batch.execute())
+                        .map(count -> count == Statement.SUCCESS_NO_INFO ? 1 : count)
+                        .sum();
+            });
+        }
+
         if (insertedRows == 0) {
             throw new IllegalStateException("Rows not inserted");
         }
-        return findLast(insertedRows);
+        return List.copyOf(items);
+    }
+
+    /**
+     * Sets the maximum number of rows sent in one batch and committed in one transaction by `saveAll`.
+     *
+     * @param batchSize The number of rows per batch.
+     */
+    @Value("${db.batch.size:1000}")
+    public void setBatchSize(int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Sets the maximum number of rows deleted in one transaction by `deleteFoundBySwiftCode`
+     * and `deleteAllForCountry`.
+     *
+     * @param deleteChunkSize The number of rows per transaction.
+     */
+    @Value("${db.delete.chunk-size:500}")
+    public void setDeleteChunkSize(int deleteChunkSize) {
+        if (deleteChunkSize <= 0) {
+            throw new IllegalArgumentException("Delete chunk size must be positive");
+        }
+        this.deleteChunkSize = deleteChunkSize;
     }
 
     /**
@@ -127,15 +166,36 @@ public abstract class AbstractCrudRepository<T> implements CrudRepository<T> {
      */
     @Override
     public List<T> findLast(int n) {
-        var sql = "select * from " + tableName() + " order by swift_code desc limit :n";
         return jdbi.withHandle(handle -> handle
-                .createQuery(sql)
+                .createQuery(metadata.selectLastSql())
                 .bind("n", n)
-                .mapToBean(entityType)
+                .map(metadata.rowMapper())
                 .list()
         );
     }
 
+    /**
+     * Finds a page of entities from the database in `swiftCode` order.
+     * The primary key on `swift_code` serves both the range condition and the ordering,
+     * so the database reads only the rows of the page.
+     *
+     * @param afterSwiftCode The `swiftCode` of the last entity of the previous page, or null for the first page.
+     * @param limit          The maximum number of entities to retrieve.
+     * @return Up to `limit` entities whose `swiftCode` follows `afterSwiftCode`, in `swiftCode` order.
+     */
+    @Override
+    public List<T> findPage(String afterSwiftCode, int limit) {
+        return jdbi.withHandle(handle -> {
+            var query = afterSwiftCode == null
+                    ? handle.createQuery(metadata.selectFirstPageSql())
+                    : handle.createQuery(metadata.selectPageAfterSql()).bind("after", afterSwiftCode);
+            return query
+                    .bind("limit", limit)
+                    .map(metadata.rowMapper())
+                    .list();
+        });
+    }
+
     /**
      * Retrieves all entities from the database.
      *
@@ -143,10 +203,9 @@ public abstract class AbstractCrudRepository<T> implements CrudRepository<T> {
      */
     @Override
     public List<T> findAll() {
-        var sql = "select * from " + tableName();
         return jdbi.withHandle(handle -> handle
-                .createQuery(sql)
-                .mapToBean(entityType)
+                .createQuery(metadata.selectAllSql())
+                .map(metadata.rowMapper())
                 .list()
         );
     }
@@ -165,9 +224,8 @@ public abstract class AbstractCrudRepository<T> implements CrudRepository<T> {
         var itemToDelete = findBySwiftCode(swiftCode)
                 .orElseThrow(() -> new IllegalStateException("No item to delete"));
 
-        var sql = "delete from " + tableName() + " where swift_code = :swift_code";
         jdbi.useHandle(handle -> handle
-                .createUpdate(sql)
+                .createUpdate(metadata.deleteBySwiftCodeSql())
                 .bind("swift_code", swiftCode)
                 .execute());
         return itemToDelete;
@@ -184,11 +242,10 @@ public abstract class AbstractCrudRepository<T> implements CrudRepository<T> {
      */
     @Override
     public List<T> findAllBySwiftCode(List<String> swiftCodes) {
-        var sql = "select * from " + tableName() + " where swift_code in (<swiftCodes>)";
         var items = jdbi.withHandle(handle -> handle
-                .createQuery(sql)
+                .createQuery(metadata.selectAllBySwiftCodesSql())
                 .bindList("swiftCodes", swiftCodes)
-                .mapToBean(entityType)
+                .map(metadata.rowMapper())
                 .list());
 
         if (items.isEmpty()) {
@@ -203,6 +260,33 @@ public abstract class AbstractCrudRepository<T> implements CrudRepository<T> {
     }
 
 
+    /**
+     * Looks up entities based on a list of `swiftCode`s, leaving out the codes not found.
+     * The codes are sent in chunks of at most 1000 per query, keeping the IN lists and their statement texts
+     * bounded, and all chunks are read through the same connection.
+     *
+     * @param swiftCodes A list of swiftCodes to look for in the database, of any length.
+     * @return The entities found, in no particular order.
+     */
+    @Override
+    public List<T> lookupBySwiftCode(List<String> swiftCodes) {
+        if (swiftCodes.isEmpty()) {
+            return List.of();
+        }
+        return jdbi.withHandle(handle -> {
+            var items = new ArrayList<T>(swiftCodes.size());
+            for (var chunk : Lists.partition(swiftCodes, LOOKUP_CHUNK_SIZE)) {
+                items.addAll(handle
+                        .createQuery(metadata.selectAllBySwiftCodesSql())
+                        .bindList("swiftCodes", chunk)
+                        .map(metadata.rowMapper())
+                        .list());
+            }
+            return items;
+        });
+    }
+
+
     /**
      * Deletes multiple entities from the database based on the provided list of `swiftCode`s.
      * This method deletes all entities whose `swiftCode` is contained in the provided list.
@@ -214,206 +298,87 @@ public abstract class AbstractCrudRepository<T> implements CrudRepository<T> {
     @Override
     public List<T> deleteAllBySwiftCode(List<String> swiftCodes) {
         var items = findAllBySwiftCode(swiftCodes);
-        var sql = "delete from " + tableName() + " where swift_code in (<swiftCodes>)";
         jdbi.useHandle(handle -> handle
-                .createUpdate(sql)
+                .createUpdate(metadata.deleteAllBySwiftCodesSql())
                 .bindList("swiftCodes", swiftCodes)
                 .execute());
         return items;
     }
 
     /**
-     * Deletes all entities in the database.
+     * Deletes the entities with the given `swiftCode`s, leaving out the codes not found.
+     * The codes are handled in chunks of at most `deleteChunkSize`, each in its own short transaction locking
+     * the rows of the chunk and deleting exactly those, so row locks are held briefly and released chunk by chunk.
+     * Each chunk is run by `chunks`. Chunks committed before a failing chunk stay deleted.
      *
-     * @return A list of the deleted entities.
+     * @param swiftCodes A list of swiftCodes identifying the entities to be deleted, of any length.
+     * @param chunks     The runner of each chunk.
+     * @return The entities deleted, in no particular order.
      */
     @Override
-    public List<T> deleteAll() {
-        var items = findAll();
-        var sql = "delete from " + tableName();
-        jdbi.useHandle(handle -> handle.execute(sql));
-        return items;  // Returns the list of deleted entities
-    }
-
-    /**
-     * Converts a string from UpperCamelCase to lower_underscore format.
-     *
-     * @param upperCamel The string to convert.
-     * @return The converted string in lower_underscore format.
-     */
-    private String toLowerUnderscore(String upperCamel) {
-        return CaseFormat.UPPER_CAMEL.to(
-                CaseFormat.LOWER_UNDERSCORE,
-                upperCamel);
-    }
-
-    /**
-     * Retrieves the table name for the entity based on its type.
-     *
-     * @return The table name as a string.
-     */
-    private String tableName() {
-        return English.plural(toLowerUnderscore(entityType.getSimpleName()));
-    }
-
-    /**
-     * Retrieves the column names for a select statement.
-     *
-     * @return An array of column names.
-     */
-    private String[] columnNamesForSelect() {
-        return Arrays
-                .stream(entityType.getDeclaredFields())
-                .map(field -> toLowerUnderscore(field.getName()))
-                .toArray(String[]::new);
-    }
-
-    /**
-     * Retrieves the column names for an insert statement.
-     * This helper method retrieves the columns that need to be inserted into the database.
-     *
-     * @return A formatted string of column names.
-     */
-    private String columnNamesForInsert() {
-        var cols = Arrays
-                .stream(getAllFields(entityType))
-                .filter(field -> !field.getName().equalsIgnoreCase("swift_code"))
-                .map(field -> toLowerUnderscore(field.getName()))
-                .collect(joining(", "));
-        return "( %s )".formatted(cols);
-    }
-
-
-
-    /**
-     * Generates the SQL values for an `INSERT` statement based on the entity's fields.
-     * This method prepares the field values of the entity for inclusion in an SQL query.
-     * It handles fields of type `String`, `Enum`, `LocalDateTime`, `LocalDate`, and others, converting them to the appropriate SQL format.
-     *
-     * @param item The entity whose values will be inserted.
-     * @return A formatted string representing the values for the `INSERT` statement.
-     * @throws IllegalStateException if an error occurs while accessing the fields or their values.
-     */
-    private String columnValuesForInsert(T item) {
-        var values = Arrays
-                .stream(getAllFields(entityType))
-                .filter(field -> !field.getName().equalsIgnoreCase("id"))
-                .map(field -> {
-                    try {
-                        field.setAccessible(true);
-
-                        if (field.get(item) == null) {
-                            return "NULL";
-                        }
-
-                        if (List.of(
-                                String.class,
-                                Enum.class,
-                                LocalDateTime.class,
-                                LocalDate.class).contains(field.getType())) {
-                            String fieldValue = (String) field.get(item);
-                            return "'%s'".formatted(escapeSingleQuotes(fieldValue));
-                        }
-
-                        return field.get(item).toString();
-                    } catch (Exception e) {
-                        throw new IllegalStateException(e);
-                    }
-                }).collect(joining(", "));
-        return "( %s )".formatted(values);
-    }
-
-
-
-    /**
-     * Retrieves the column names and values for an update statement.
-     *
-     * @param item The entity to extract column names and values from.
-     * @return A formatted string of column names and values for update.
-     */
-    private String columnNamesAndValuesForUpdate(T item) {
-        return Arrays
-                .stream(entityType.getDeclaredFields())
-                .filter(field -> {
-                    try {
-                        field.setAccessible(true);
-                        return !field.getName().equalsIgnoreCase("id") && field.get(item) != null;
-                    } catch (Exception e) {
-                        throw new IllegalStateException(e);
-                    }
-                })
-                .map(field -> {
-                    try {
-                        field.setAccessible(true);
-
-                        if (List.of(
-                                String.class,
-                                Enum.class,
-                                LocalDateTime.class,
-                                LocalDate.class).contains(field.getType())) {
-                            return "%s='%s'".formatted(
-                                    toLowerUnderscore(field.getName()),
-                                    field.get(item));
-                        }
-                        return toLowerUnderscore(field.getName()) + "=" + field.get(item).toString();  // Returns field name and value
-                    } catch (Exception e) {
-                        throw new IllegalStateException(e);
-                    }
-                }).collect(joining(", "));
+    public List<T> deleteFoundBySwiftCode(List<String> swiftCodes, DeleteChunkRunner<T> chunks) {
+        var deleted = new ArrayList<T>();
+        for (var chunk : Lists.partition(swiftCodes, deleteChunkSize)) {
+            deleted.addAll(chunks.run(chunk, () -> jdbi.inTransaction(handle -> deleteLocked(handle, handle
+                    .createQuery(metadata.lockAllBySwiftCodesSql())
+                    .bindList("swiftCodes", chunk)))));
+        }
+        return deleted;
     }
 
     /**
-     * Escapes single quotes in a string to ensure proper formatting in SQL queries.
-     * This method converts any single quote in the string to two single quotes ('').
+     * Deletes all entities located in a country.
+     * The entities are deleted in chunks of at most `deleteChunkSize`, in `swiftCode` order, each in its own
+     * short transaction run by `chunks`, until a chunk comes back short. The rows of a chunk are only known once
+     * it has run, so chunks are run without SWIFT codes. Chunks committed before a failing chunk stay deleted.
      *
-     * @param value The string value to escape.
-     * @return The escaped string.
+     * @param countryIso2 The upper-case ISO2 code of the country.
+     * @param chunks      The runner of each chunk.
+     * @return The entities deleted, in no particular order.
      */
-    private String escapeSingleQuotes(String value) {
-        if (value == null) {
-            return "NULL";
-        }
-        return value.replace("'", "''");
+    @Override
+    public List<T> deleteAllForCountry(String countryIso2, DeleteChunkRunner<T> chunks) {
+        var deleted = new ArrayList<T>();
+        List<T> chunk;
+        do {
+            chunk = chunks.run(null, () -> jdbi.inTransaction(handle -> deleteLocked(handle, handle
+                    .createQuery(metadata.lockChunkForCountrySql())
+                    .bind("country_iso2", countryIso2)
+                    .bind("limit", deleteChunkSize))));
+            deleted.addAll(chunk);
+        } while (chunk.size() == deleteChunkSize);
+        return deleted;
     }
 
-
     /**
-     * Retrieves the `swiftCode` from the given entity.
-     * This method reflects over the fields of the entity and extracts the value of the `swiftCode` field.
+     * Locks the rows selected by a query and deletes them by their `swiftCode`, within the transaction of the handle.
+     * The locking read sees the latest committed rows and holds them until the transaction ends, so of two deletes
+     * of the same rows running at once, the second one waits and finds them gone instead of reporting them deleted
+     * as well, as a plain consistent read would.
      *
-     * @param item The entity from which to retrieve the swiftCode.
-     * @return The `swiftCode` value of the entity.
-     * @throws IllegalStateException if no field named `swiftCode` is found or an error occurs.
+     * @param handle The handle of the open transaction.
+     * @param select The query selecting the rows to delete.
+     * @return The entities deleted.
      */
-    private String getSwiftCode(T item) {
-        try {
-            Field swiftCodeField = Arrays.stream(getAllFields(entityType))
-                    .filter(field -> field
-                            .getName()
-                            .equalsIgnoreCase("swiftCode"))
-                    .findFirst()
-                    .orElseThrow(() -> new IllegalStateException("No swiftCode field found"));
-
-            swiftCodeField.setAccessible(true);
-            return (String) swiftCodeField.get(item);
-        } catch (Exception e) {
-            throw new IllegalStateException("Error retrieving swift_code", e);
+    private List<T> deleteLocked(Handle handle, Query select) {
+        var items = select.map(metadata.rowMapper()).list();
+        if (!items.isEmpty()) {
+            handle.createUpdate(metadata.deleteAllBySwiftCodesSql())
+                    .bindList("swiftCodes", items.stream().map(metadata::swiftCode).toList())
+                    .execute();
         }
+        return items;
     }
 
     /**
-     * Retrieves all fields of the entity class and its superclasses.
-     * This method gets all declared fields (including inherited ones) of the entity class.
+     * Deletes all entities in the database.
      *
-     * @param clazz The class to inspect.
-     * @return An array of Field objects representing the entity's fields.
+     * @return A list of the deleted entities.
      */
-    private Field[] getAllFields(Class<?> clazz) {
-        List<Field> fields = new ArrayList<>();
-        while (clazz != null) {
-            fields.addAll(Arrays.asList(clazz.getDeclaredFields()));
-            clazz = clazz.getSuperclass();
-        }
-        return fields.toArray(new Field[0]);
+    @Override
+    public List<T> deleteAll() {
+        var items = findAll();
+        jdbi.useHandle(handle -> handle.execute(metadata.deleteAllSql()));
+        return items;  // Returns the list of deleted entities
     }
 }
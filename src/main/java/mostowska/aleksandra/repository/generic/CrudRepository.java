@@ -38,6 +38,7 @@ public interface CrudRepository<T> {
 
     /**
      * Saves multiple entities in the repository.
+     * Implementations may split the entities into chunks, each one committed separately.
      *
      * @param items The list of entities to be saved.
      * @return The list of saved entities.
@@ -53,6 +54,17 @@ public interface CrudRepository<T> {
      */
     List<T> findLast(int n);
 
+    /**
+     * Finds a page of entities in `swiftCode` order, starting right after a given `swiftCode`.
+     * Pages are delimited by the last `swiftCode` read rather than by an offset, so each page costs
+     * the same whatever its position and rows written between two pages are neither skipped nor repeated.
+     *
+     * @param afterSwiftCode The `swiftCode` of the last entity of the previous page, or null for the first page.
+     * @param limit          The maximum number of entities to retrieve.
+     * @return Up to `limit` entities whose `swiftCode` follows `afterSwiftCode`, in `swiftCode` order.
+     */
+    List<T> findPage(String afterSwiftCode, int limit);
+
     /**
      * Retrieves all entities in the repository.
      *
@@ -77,6 +89,14 @@ public interface CrudRepository<T> {
      */
     List<T> findAllBySwiftCode(List<String> swiftCodes);
 
+    /**
+     * Looks up entities by a list of `swiftCode`s, leaving out the codes not found.
+     *
+     * @param swiftCodes The list of `swiftCode`s, of any length.
+     * @return The entities found, in no particular order.
+     */
+    List<T> lookupBySwiftCode(List<String> swiftCodes);
+
 
     /**
      * Deletes multiple entities by a list of `swiftCode`s.
@@ -86,6 +106,26 @@ public interface CrudRepository<T> {
      */
     List<T> deleteAllBySwiftCode(List<String> swiftCodes);
 
+    /**
+     * Deletes the entities with the given `swiftCode`s, leaving out the codes not found.
+     * Implementations may split the codes into chunks, each one deleted in its own transaction and run by `chunks`.
+     *
+     * @param swiftCodes The list of `swiftCode`s, of any length.
+     * @param chunks     The runner of each chunk.
+     * @return The deleted entities, in no particular order.
+     */
+    List<T> deleteFoundBySwiftCode(List<String> swiftCodes, DeleteChunkRunner<T> chunks);
+
+    /**
+     * Deletes all entities located in a country.
+     * Implementations may delete them in chunks, each one in its own transaction and run by `chunks`.
+     *
+     * @param countryIso2 The upper-case ISO2 code of the country.
+     * @param chunks      The runner of each chunk.
+     * @return The deleted entities, in no particular order.
+     */
+    List<T> deleteAllForCountry(String countryIso2, DeleteChunkRunner<T> chunks);
+
     /**
      * Deletes all entities in the repository.
      *
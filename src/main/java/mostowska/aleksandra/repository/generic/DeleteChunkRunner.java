@@ -0,0 +1,39 @@
+package mostowska.aleksandra.repository.generic;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * DeleteChunkRunner runs each chunk of a delete split into chunks, such as `CrudRepository.deleteFoundBySwiftCode`
+ * and `CrudRepository.deleteAllForCountry`, each chunk being deleted in its own transaction.
+ *
+ * The repository hands every chunk to the runner instead of deleting it directly, so the layers above it can act
+ * around each committed chunk: hold locks while it runs, then publish its result, invalidate caches or update indexes
+ * at once, rather than after the whole delete. A delete failing part way thus leaves every layer matching the chunks
+ * committed before the failure.
+ *
+ * @param <T> The type of the entity.
+ */
+@FunctionalInterface
+public interface DeleteChunkRunner<T> {
+
+    /**
+     * Runs one chunk of a delete.
+     *
+     * @param swiftCodes The SWIFT codes the chunk deletes, or null if its rows are only known once it has run,
+     *                   as for the chunks of a country.
+     * @param delete     The delete of the chunk, committing it and returning the entities deleted.
+     * @return The entities deleted by the chunk, as returned by `delete`.
+     */
+    List<T> run(List<String> swiftCodes, Supplier<List<T>> delete);
+
+    /**
+     * Returns the runner deleting each chunk without doing anything around it.
+     *
+     * @param <T> The type of the entity.
+     * @return A runner only calling the delete of each chunk.
+     */
+    static <T> DeleteChunkRunner<T> direct() {
+        return (swiftCodes, delete) -> delete.get();
+    }
+}
@@ -0,0 +1,206 @@
+package mostowska.aleksandra.repository.generic;
+
+import com.google.common.base.CaseFormat;
+import org.atteo.evo.inflector.English;
+import org.jdbi.v3.core.mapper.RowMapper;
+import org.jdbi.v3.core.mapper.reflect.BeanMapper;
+import org.jdbi.v3.core.statement.SqlStatement;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.stream.Collectors.joining;
+
+/**
+ * EntityMetadata describes how an entity type is stored in the database: its table name,
+ * its columns with getter handles for their values, the row mapper and the text of every statement
+ * used by `AbstractCrudRepository`. It is built once per repository, so the hot path neither
+ * inspects the entity class nor formats any SQL.
+ *
+ * @param <T> The type of the entity.
+ */
+public record EntityMetadata<T>(
+        Class<T> entityType,
+        String tableName,
+        List<Column> columns,
+        MethodHandle swiftCodeGetter,
+        RowMapper<T> rowMapper,
+        String insertSql,
+        String updateSql,
+        String selectBySwiftCodeSql,
+        String selectAllSql,
+        String selectLastSql,
+        String selectFirstPageSql,
+        String selectPageAfterSql,
+        String selectAllBySwiftCodesSql,
+        String lockAllBySwiftCodesSql,
+        String lockChunkForCountrySql,
+        String deleteBySwiftCodeSql,
+        String deleteAllBySwiftCodesSql,
+        String deleteAllSql) {
+
+    /**
+     * A single table column mapped to an entity field.
+     *
+     * @param name     The column name in lower_underscore format.
+     * @param property The entity field name, used as the named parameter of the statements.
+     * @param type     The generic type of the field, used to bind typed nulls.
+     * @param getter   A handle reading the field value, adapted to the `(Object)Object` type.
+     */
+    public record Column(String name, String property, Type type, MethodHandle getter) {
+
+        /**
+         * Reads the value of the column from the given entity.
+         *
+         * @param item The entity to read from.
+         * @return The value of the field mapped to this column.
+         */
+        public Object get(Object item) {
+            try {
+                return getter.invokeExact(item);
+            } catch (Throwable e) {
+                throw new IllegalStateException("Error reading column " + name, e);
+            }
+        }
+    }
+
+    /**
+     * Builds the metadata of the given entity type.
+     *
+     * @param entityType The entity class to describe.
+     * @param <T>        The type of the entity.
+     * @return The metadata describing the entity.
+     */
+    public static <T> EntityMetadata<T> of(Class<T> entityType) {
+        var tableName = English.plural(toLowerUnderscore(entityType.getSimpleName()));
+        var columns = findColumns(entityType);
+        var swiftCodeGetter = columns
+                .stream()
+                .filter(column -> column.property().equals("swiftCode"))
+                .findFirst()
+                .map(Column::getter)
+                .orElseThrow(() -> new IllegalStateException("No swiftCode field found"));
+
+        var columnNames = columns.stream().map(Column::name).collect(joining(", "));
+        var parameters = columns.stream().map(column -> ":" + column.property()).collect(joining(", "));
+        // A column keeps its current value when the bound parameter is null,
+        // so one statement text serves every partial update
+        var assignments = columns
+                .stream()
+                .map(column -> "%1$s = coalesce(:%2$s, %1$s)".formatted(column.name(), column.property()))
+                .collect(joining(", "));
+
+        return new EntityMetadata<>(
+                entityType,
+                tableName,
+                columns,
+                swiftCodeGetter,
+                BeanMapper.of(entityType),
+                "insert into %s ( %s ) values ( %s )".formatted(tableName, columnNames, parameters),
+                "update %s set %s where swift_code = :swift_code".formatted(tableName, assignments),
+                "select * from " + tableName + " where swift_code = :swift_code",
+                "select * from " + tableName,
+                "select * from " + tableName + " order by swift_code desc limit :n",
+                "select * from " + tableName + " order by swift_code limit :limit",
+                "select * from " + tableName + " where swift_code > :after order by swift_code limit :limit",
+                "select * from " + tableName + " where swift_code in (<swiftCodes>)",
+                "select * from " + tableName + " where swift_code in (<swiftCodes>) for update",
+                "select * from " + tableName
+                        + " where country_iso2 = :country_iso2 order by swift_code limit :limit for update",
+                "delete from " + tableName + " where swift_code = :swift_code",
+                "delete from " + tableName + " where swift_code in (<swiftCodes>)",
+                "delete from " + tableName
+        );
+    }
+
+    /**
+     * Binds the entity field values to the named parameters of a statement.
+     *
+     * @param statement The statement to bind values to.
+     * @param item      The entity whose values will be bound.
+     * @param <S>       The type of the statement.
+     * @return The statement with all column parameters bound.
+     */
+    public <S extends SqlStatement<S>> S bindColumns(S statement, T item) {
+        for (var column : columns) {
+            statement.bindByType(column.property(), column.get(item), column.type());
+        }
+        return statement;
+    }
+
+    /**
+     * Retrieves the `swiftCode` of the given entity.
+     *
+     * @param item The entity from which to retrieve the swiftCode.
+     * @return The `swiftCode` value of the entity.
+     */
+    public String swiftCode(T item) {
+        try {
+            return (String) (Object) swiftCodeGetter.invokeExact((Object) item);
+        } catch (Throwable e) {
+            throw new IllegalStateException("Error retrieving swift_code", e);
+        }
+    }
+
+    /**
+     * Finds the column mapped to the given entity field.
+     *
+     * @param property The entity field name.
+     * @return The column mapped to the field.
+     * @throws IllegalStateException if the entity has no such field.
+     */
+    public Column column(String property) {
+        return columns
+                .stream()
+                .filter(column -> column.property().equals(property))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("No " + property + " field found"));
+    }
+
+    /**
+     * Converts a string from UpperCamelCase or lowerCamelCase to lower_underscore format.
+     *
+     * @param camel The string to convert.
+     * @return The converted string in lower_underscore format.
+     */
+    private static String toLowerUnderscore(String camel) {
+        return CaseFormat.UPPER_CAMEL.to(CaseFormat.LOWER_UNDERSCORE, camel);
+    }
+
+    /**
+     * Retrieves the persistent fields of the entity class and its superclasses as columns,
+     * skipping static and synthetic fields, and unreflects a getter handle for each of them.
+     *
+     * @param entityType The class to inspect.
+     * @return A list of columns of the entity.
+     */
+    private static List<Column> findColumns(Class<?> entityType) {
+        var columns = new ArrayList<Column>();
+        var objectGetter = MethodType.methodType(Object.class, Object.class);
+        for (Class<?> clazz = entityType; clazz != null; clazz = clazz.getSuperclass()) {
+            for (Field field : clazz.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers()) || field.isSynthetic()) {
+                    continue;
+                }
+                try {
+                    var lookup = MethodHandles.privateLookupIn(clazz, MethodHandles.lookup());
+                    var getter = lookup.unreflectGetter(field).asType(objectGetter);
+                    columns.add(new Column(
+                            toLowerUnderscore(field.getName()),
+                            field.getName(),
+                            field.getGenericType(),
+                            getter));
+                } catch (IllegalAccessException e) {
+                    throw new IllegalStateException("Cannot access field " + field.getName(), e);
+                }
+            }
+        }
+        return List.copyOf(columns);
+    }
+}
@@ -0,0 +1,367 @@
+package mostowska.aleksandra.repository.memory;
+
+import mostowska.aleksandra.model.SwiftCode;
+import mostowska.aleksandra.repository.generic.EntityMetadata;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * DirectoryIndex is an immutable in-memory index of one table of the SWIFT directory.
+ *
+ * Entities are kept in `SortedSegments`, sorted by their SWIFT code packed with `SwiftCode`:
+ *
+ * - a lookup by SWIFT code packs the code and probes the primitive map of its segment,
+ *   without hashing or comparing strings,
+ * - the entities of a bank are a contiguous range of the sequence, found by a binary search on the packed bank
+ *   prefix and ended by the first code failing the mask-and-compare of `SwiftCode.isOfBank`,
+ * - entities are also grouped by the ISO2 code of their country, each group being sorted segments of its own.
+ *
+ * Rows whose code is outside the SWIFT alphabet cannot be packed. They are kept apart by their upper-case code,
+ * so that no row of the table goes missing from the index.
+ *
+ * An index is never modified once built: `with` returns a new index, so readers holding the previous index
+ * keep a consistent view without locking. The new index copies only the segments and the country groups
+ * the change touches and shares everything else with this one, so a write costs about the size of its changes
+ * rather than the size of the table.
+ *
+ * @param <T> The type of the entity.
+ */
+public final class DirectoryIndex<T> {
+    private static final int PREFIX_LENGTH = 8;
+
+    private final EntityMetadata<T> metadata;
+    private final EntityMetadata.Column countryColumn;
+
+    private final SortedSegments<T> sorted;
+    private final Map<String, T> unencoded;
+    private final Map<String, SortedSegments<T>> byCountry;
+
+    /**
+     * Creates an index over segments and maps that are not modified afterward.
+     *
+     * @param metadata  The metadata of the entity, used to read the indexed fields.
+     * @param sorted    The entities whose code can be packed, in code order.
+     * @param unencoded The entities whose code cannot be packed, by upper-case code.
+     * @param byCountry The entities whose code can be packed, grouped by country ISO2 code.
+     */
+    private DirectoryIndex(EntityMetadata<T> metadata, SortedSegments<T> sorted,
+                           Map<String, T> unencoded, Map<String, SortedSegments<T>> byCountry) {
+        this.metadata = metadata;
+        this.countryColumn = metadata.column("countryIso2");
+        this.sorted = sorted;
+        this.unencoded = unencoded;
+        this.byCountry = byCountry;
+    }
+
+    /**
+     * Builds an index of the given entities.
+     *
+     * @param entityType The class of the entity.
+     * @param items      The entities to index.
+     * @param <T>        The type of the entity.
+     * @return A new index holding the given entities.
+     */
+    public static <T> DirectoryIndex<T> of(Class<T> entityType, Collection<T> items) {
+        return new DirectoryIndex<>(EntityMetadata.of(entityType), SortedSegments.empty(), Map.of(), Map.of())
+                .with(items, List.of());
+    }
+
+    /**
+     * Finds an entity by its SWIFT code.
+     *
+     * @param swiftCode The SWIFT code, in any letter case.
+     * @return An Optional containing the entity if indexed, otherwise empty.
+     */
+    public Optional<T> find(String swiftCode) {
+        var packed = SwiftCode.tryEncode(swiftCode);
+        if (packed == SwiftCode.INVALID) {
+            return Optional.ofNullable(unencoded.get(normalize(swiftCode)));
+        }
+        return Optional.ofNullable(sorted.get(packed));
+    }
+
+    /**
+     * Finds all entities of a bank.
+     *
+     * @param swiftPrefix The 8 characters bank prefix, in any letter case.
+     * @return The entities with the given prefix in SWIFT code order, or an empty list.
+     */
+    public List<T> findAllForPrefix(String swiftPrefix) {
+        var packed = SwiftCode.tryEncode(swiftPrefix);
+        var bankItems = List.<T>of();
+        if (packed != SwiftCode.INVALID) {
+            var bank = SwiftCode.bankOf(packed);
+            var from = sorted.positionOf(bank);
+            var to = from;
+            while (to < sorted.size() && SwiftCode.isOfBank(sorted.codeAt(to), bank)) {
+                to++;
+            }
+            bankItems = sorted.items().subList(from, to);
+        }
+
+        if (unencoded.isEmpty()) {
+            return bankItems;
+        }
+        var prefix = prefixOf(swiftPrefix);
+        var matching = new ArrayList<>(bankItems);
+        unencoded.forEach((swiftCode, item) -> {
+            if (prefixOf(swiftCode).equals(prefix)) {
+                matching.add(item);
+            }
+        });
+        return Collections.unmodifiableList(matching);
+    }
+
+    /**
+     * Finds all entities located in a country.
+     *
+     * @param countryISO2 The ISO2 code of the country, in any letter case.
+     * @return The entities located in the country, those with a packed code in SWIFT code order, or an empty list.
+     */
+    public List<T> findAllForCountry(String countryISO2) {
+        var country = normalize(countryISO2);
+        var group = byCountry.get(country);
+        var countryItems = group == null ? List.<T>of() : group.items();
+        if (unencoded.isEmpty()) {
+            return countryItems;
+        }
+        var matching = new ArrayList<>(countryItems);
+        unencoded.values().forEach(item -> {
+            if (country != null && country.equals(countryKey(item))) {
+                matching.add(item);
+            }
+        });
+        return Collections.unmodifiableList(matching);
+    }
+
+    /**
+     * Finds a page of entities in SWIFT code order, starting right after a given code.
+     * Packed codes sort like the upper-case codes, so the page is a range of the sorted sequence found
+     * by a binary search. Entities whose code cannot be packed are merged in by comparing codes.
+     *
+     * @param afterSwiftCode The SWIFT code the page starts after, in any letter case, or null for the first page.
+     * @param limit          The maximum number of entities to return.
+     * @return Up to `limit` entities whose code follows `afterSwiftCode`, in SWIFT code order.
+     */
+    public List<T> page(String afterSwiftCode, int limit) {
+        var packed = afterSwiftCode == null ? SwiftCode.INVALID : SwiftCode.tryEncode(afterSwiftCode);
+        if (unencoded.isEmpty() && (afterSwiftCode == null || packed != SwiftCode.INVALID)) {
+            var from = 0;
+            if (afterSwiftCode != null) {
+                from = sorted.positionOf(packed);
+                if (from < sorted.size() && sorted.codeAt(from) == packed) {
+                    from++;
+                }
+            }
+            return sorted.items().subList(from, from + Math.max(0, Math.min(limit, sorted.size() - from)));
+        }
+
+        var after = normalize(afterSwiftCode);
+        return all()
+                .stream()
+                .filter(item -> after == null || normalize(metadata.swiftCode(item)).compareTo(after) > 0)
+                .sorted(Comparator.comparing(item -> normalize(metadata.swiftCode(item))))
+                .limit(Math.max(limit, 0))
+                .toList();
+    }
+
+    /**
+     * Retrieves all indexed entities.
+     *
+     * @return An unmodifiable view of all entities.
+     */
+    public Collection<T> all() {
+        if (unencoded.isEmpty()) {
+            return sorted.items();
+        }
+        var all = new ArrayList<T>(size());
+        all.addAll(sorted.items());
+        all.addAll(unencoded.values());
+        return Collections.unmodifiableList(all);
+    }
+
+    /**
+     * Returns the number of indexed entities.
+     *
+     * @return The number of entities.
+     */
+    public int size() {
+        return sorted.size() + unencoded.size();
+    }
+
+    /**
+     * Builds a new index with entities removed and added. Removals are applied first, so an entity
+     * whose SWIFT code changed is removed under its old code and added under its new one.
+     * An added entity replaces the entity indexed under the same SWIFT code.
+     *
+     * Only the segments and the country groups touched by the change are copied, the others are shared
+     * with this index.
+     *
+     * @param upserts  The entities to add or replace.
+     * @param removals The SWIFT codes of the entities to remove.
+     * @return A new index reflecting the change.
+     */
+    public DirectoryIndex<T> with(Collection<T> upserts, Collection<String> removals) {
+        var change = new Change();
+        removals.forEach(change::remove);
+        upserts.forEach(change::add);
+        return change.build();
+    }
+
+    /**
+     * Returns an empty index of the same entity type.
+     *
+     * @return An index without entities.
+     */
+    public DirectoryIndex<T> cleared() {
+        return new DirectoryIndex<>(metadata, SortedSegments.empty(), Map.of(), Map.of());
+    }
+
+    /**
+     * Normalizes an index key.
+     *
+     * @param key The key to normalize.
+     * @return The upper-case key, or null for a null key.
+     */
+    static String normalize(String key) {
+        return key == null ? null : key.toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * Computes the bank prefix of a SWIFT code, tolerating codes shorter than a prefix.
+     *
+     * @param swiftCode The SWIFT code.
+     * @return The normalized first 8 characters of the code, or the whole code if it is shorter.
+     */
+    static String prefixOf(String swiftCode) {
+        var normalized = normalize(swiftCode);
+        return normalized.length() > PREFIX_LENGTH ? normalized.substring(0, PREFIX_LENGTH) : normalized;
+    }
+
+    /**
+     * A change being collected before it is applied to a copy of the index. Entities are collected by packed code,
+     * for the table and for each country group touched, a null entity standing for a removal.
+     */
+    private class Change {
+        private final TreeMap<Long, T> changes = new TreeMap<>();
+        private final Map<String, TreeMap<Long, T>> countryChanges = new HashMap<>();
+        private Map<String, T> unencodedItems;
+
+        /**
+         * Removes the entity indexed under a SWIFT code, if any.
+         *
+         * @param swiftCode The SWIFT code, in any letter case.
+         */
+        void remove(String swiftCode) {
+            var packed = SwiftCode.tryEncode(swiftCode);
+            if (packed == SwiftCode.INVALID) {
+                unencodedItems().remove(normalize(swiftCode));
+                return;
+            }
+            var previous = current(packed);
+            changes.put(packed, null);
+            if (previous != null) {
+                regroup(previous, packed, null);
+            }
+        }
+
+        /**
+         * Adds an entity, replacing the one indexed under the same SWIFT code.
+         *
+         * @param item The entity to add.
+         */
+        void add(T item) {
+            var swiftCode = metadata.swiftCode(item);
+            var packed = SwiftCode.tryEncode(swiftCode);
+            if (packed == SwiftCode.INVALID) {
+                unencodedItems().put(normalize(swiftCode), item);
+                return;
+            }
+            var previous = current(packed);
+            changes.put(packed, item);
+            if (previous != null) {
+                regroup(previous, packed, null);
+            }
+            regroup(item, packed, item);
+        }
+
+        /**
+         * Applies the collected changes to copies of the touched segments and country groups,
+         * dropping emptied country groups.
+         *
+         * @return The new index.
+         */
+        DirectoryIndex<T> build() {
+            var countries = byCountry;
+            if (!countryChanges.isEmpty()) {
+                countries = new HashMap<>(byCountry);
+                for (var entry : countryChanges.entrySet()) {
+                    var group = countries.getOrDefault(entry.getKey(), SortedSegments.empty()).apply(entry.getValue());
+                    if (group.size() == 0) {
+                        countries.remove(entry.getKey());
+                    } else {
+                        countries.put(entry.getKey(), group);
+                    }
+                }
+                countries = Collections.unmodifiableMap(countries);
+            }
+            var unencodedMap = unencodedItems == null ? unencoded : Collections.unmodifiableMap(unencodedItems);
+            return new DirectoryIndex<>(metadata, sorted.apply(changes), unencodedMap, countries);
+        }
+
+        /**
+         * Retrieves the entity held under a packed code once the changes collected so far are applied.
+         *
+         * @param packed The packed SWIFT code.
+         * @return The entity held under the code, or null if there is none.
+         */
+        private T current(long packed) {
+            return changes.containsKey(packed) ? changes.get(packed) : sorted.get(packed);
+        }
+
+        /**
+         * Records an entity in the country group it belongs to, or its removal from it.
+         *
+         * @param item   The entity whose country is read.
+         * @param packed The packed SWIFT code of the entity.
+         * @param value  The entity to hold in the group, or null to remove it.
+         */
+        private void regroup(T item, long packed, T value) {
+            var country = countryKey(item);
+            if (country != null) {
+                countryChanges.computeIfAbsent(country, key -> new TreeMap<>()).put(packed, value);
+            }
+        }
+
+        /**
+         * Retrieves the mutable copy of the unencoded entities, copying them the first time they are touched.
+         *
+         * @return The mutable copy.
+         */
+        private Map<String, T> unencodedItems() {
+            if (unencodedItems == null) {
+                unencodedItems = new HashMap<>(unencoded);
+            }
+            return unencodedItems;
+        }
+    }
+
+    /**
+     * Computes the country key of an entity.
+     *
+     * @param item The entity.
+     * @return The normalized country ISO2 code of the entity, or null if it has none.
+     */
+    private String countryKey(T item) {
+        return normalize((String) countryColumn.get(item));
+    }
+}
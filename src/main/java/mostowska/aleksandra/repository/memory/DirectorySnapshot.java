@@ -0,0 +1,44 @@
+package mostowska.aleksandra.repository.memory;
+
+import mostowska.aleksandra.model.impl.Branch;
+import mostowska.aleksandra.model.impl.Headquarters;
+
+/**
+ * DirectorySnapshot is an immutable view of the whole SWIFT directory at one point in time.
+ * Lookups spanning both tables, such as a headquarters with its branches, read a single snapshot
+ * and therefore never see a write applied to one table only.
+ *
+ * @param headquarters The index of the `headquarters` table.
+ * @param branches     The index of the `branches` table.
+ */
+public record DirectorySnapshot(DirectoryIndex<Headquarters> headquarters, DirectoryIndex<Branch> branches) {
+
+    /**
+     * Returns a snapshot with the headquarters index replaced.
+     *
+     * @param headquarters The new index of the `headquarters` table.
+     * @return A new snapshot sharing the branches index with this one.
+     */
+    public DirectorySnapshot withHeadquarters(DirectoryIndex<Headquarters> headquarters) {
+        return new DirectorySnapshot(headquarters, branches);
+    }
+
+    /**
+     * Returns a snapshot with the branches index replaced.
+     *
+     * @param branches The new index of the `branches` table.
+     * @return A new snapshot sharing the headquarters index with this one.
+     */
+    public DirectorySnapshot withBranches(DirectoryIndex<Branch> branches) {
+        return new DirectorySnapshot(headquarters, branches);
+    }
+
+    /**
+     * Returns the number of entities in both tables.
+     *
+     * @return The number of indexed headquarters and branches.
+     */
+    public int size() {
+        return headquarters.size() + branches.size();
+    }
+}
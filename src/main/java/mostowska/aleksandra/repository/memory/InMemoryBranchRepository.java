@@ -0,0 +1,70 @@
+package mostowska.aleksandra.repository.memory;
+
+import mostowska.aleksandra.model.impl.Branch;
+import mostowska.aleksandra.repository.model.BranchRepository;
+
+import java.util.List;
+
+/**
+ * In-memory implementation of the `BranchRepository`, writing through to the database repository.
+ */
+public class InMemoryBranchRepository
+        extends InMemoryCrudRepository<Branch, BranchRepository>
+        implements BranchRepository {
+
+    /**
+     * Creates the repository around the database repository.
+     *
+     * @param delegate  The repository reading from and writing to the `branches` table.
+     * @param directory The directory holding the indexes.
+     */
+    public InMemoryBranchRepository(BranchRepository delegate, InMemoryDirectory directory) {
+        super(delegate, Branch.class, directory);
+    }
+
+    /**
+     * Finds all branches sharing the bank prefix of a SWIFT code in the directory.
+     *
+     * @param swiftCode The SWIFT code to search for.
+     * @return A list of `Branch` entities with the bank prefix of the given SWIFT code.
+     */
+    @Override
+    public List<Branch> findAllForSWIFT(String swiftCode) {
+        return read(index -> index.findAllForPrefix(swiftCode.substring(0, 8)),
+                () -> delegate.findAllForSWIFT(swiftCode));
+    }
+
+    /**
+     * Finds all branches located in a specific country in the directory.
+     *
+     * @param countryISO2 The ISO2 code of the country to search for.
+     * @return A list of `Branch` entities located in the specified country.
+     */
+    @Override
+    public List<Branch> findAllForCountry(String countryISO2) {
+        return read(index -> index.findAllForCountry(countryISO2), () -> delegate.findAllForCountry(countryISO2));
+    }
+
+    /**
+     * Selects the index of the `branches` table.
+     *
+     * @param snapshot The snapshot of the directory.
+     * @return The branches index of the snapshot.
+     */
+    @Override
+    protected DirectoryIndex<Branch> indexOf(DirectorySnapshot snapshot) {
+        return snapshot.branches();
+    }
+
+    /**
+     * Replaces the index of the `branches` table.
+     *
+     * @param snapshot The snapshot of the directory.
+     * @param index    The new branches index.
+     * @return A new snapshot holding the given index.
+     */
+    @Override
+    protected DirectorySnapshot withIndex(DirectorySnapshot snapshot, DirectoryIndex<Branch> index) {
+        return snapshot.withBranches(index);
+    }
+}
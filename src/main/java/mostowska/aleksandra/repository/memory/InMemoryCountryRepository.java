@@ -0,0 +1,67 @@
+package mostowska.aleksandra.repository.memory;
+
+import mostowska.aleksandra.model.dto.country.GetGroupedByCountryDto;
+import mostowska.aleksandra.model.impl.Branch;
+import mostowska.aleksandra.model.impl.Headquarters;
+import mostowska.aleksandra.repository.model.CountryRepository;
+
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * In-memory implementation of the `CountryRepository`, reading both tables of a country from the same snapshot.
+ */
+public class InMemoryCountryRepository implements CountryRepository {
+    private final CountryRepository delegate;
+    private final InMemoryDirectory directory;
+
+    /**
+     * Creates the repository around the database repository.
+     *
+     * @param delegate  The repository used until the directory is loaded.
+     * @param directory The directory holding the indexes.
+     */
+    public InMemoryCountryRepository(CountryRepository delegate, InMemoryDirectory directory) {
+        this.delegate = delegate;
+        this.directory = directory;
+    }
+
+    /**
+     * Finds a page of the headquarters and branches located in a specific country, in SWIFT code order.
+     * The country groups of the snapshot are not ordered, so both are merged and sorted for every page.
+     *
+     * @param countryISO2    The ISO2 code of the country to search for.
+     * @param afterSwiftCode The SWIFT code of the last item of the previous page, or null for the first page.
+     * @param limit          The maximum number of items to retrieve.
+     * @return The country with up to `limit` of its headquarters and branches, or an empty Optional if the page
+     *         holds none.
+     */
+    @Override
+    public Optional<GetGroupedByCountryDto> findPageForCountry(String countryISO2, String afterSwiftCode, int limit) {
+        var snapshot = directory.snapshot();
+        if (snapshot == null) {
+            return delegate.findPageForCountry(countryISO2, afterSwiftCode, limit);
+        }
+
+        var headquarters = snapshot.headquarters().findAllForCountry(countryISO2);
+        var branches = snapshot.branches().findAllForCountry(countryISO2);
+        var after = afterSwiftCode == null ? null : afterSwiftCode.toUpperCase(Locale.ROOT);
+        var items = Stream
+                .concat(headquarters.stream().map(Headquarters::toGetModelByCountryDto),
+                        branches.stream().map(Branch::toGetModelByCountryDto))
+                .filter(item -> after == null || item.swiftCode().toUpperCase(Locale.ROOT).compareTo(after) > 0)
+                .sorted(Comparator.comparing(item -> item.swiftCode().toUpperCase(Locale.ROOT)))
+                .limit(limit)
+                .toList();
+        if (items.isEmpty()) {
+            return Optional.empty();
+        }
+
+        var countryName = headquarters.isEmpty()
+                ? branches.get(0).toGetBranchDto().countryName()
+                : headquarters.get(0).toGetHeadquartersDto().countryName();
+        return Optional.of(new GetGroupedByCountryDto(countryISO2, countryName, items));
+    }
+}
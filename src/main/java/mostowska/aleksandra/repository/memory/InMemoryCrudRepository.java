@@ -0,0 +1,266 @@
+package mostowska.aleksandra.repository.memory;
+
+import mostowska.aleksandra.repository.generic.CrudRepository;
+import mostowska.aleksandra.repository.generic.DeleteChunkRunner;
+import mostowska.aleksandra.repository.generic.EntityMetadata;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * InMemoryCrudRepository serves a `CrudRepository` from the `InMemoryDirectory`, writing through to
+ * the database repository it wraps.
+ *
+ * Reads are answered from the current snapshot of the directory without touching the database.
+ * Writes go to the database first and are applied to the directory once committed, so a failed write
+ * leaves both unchanged. Until the directory is loaded, every call is passed to the database repository.
+ *
+ * @param <T> The type of the entity.
+ * @param <R> The type of the database repository.
+ */
+public abstract class InMemoryCrudRepository<T, R extends CrudRepository<T>> implements CrudRepository<T> {
+    protected final R delegate;
+    protected final InMemoryDirectory directory;
+
+    private final EntityMetadata<T> metadata;
+
+    /**
+     * Creates the repository around the database repository.
+     *
+     * @param delegate   The repository writing to the database.
+     * @param entityType The class of the entity, used to read the SWIFT code of written items.
+     * @param directory  The directory holding the indexes.
+     */
+    protected InMemoryCrudRepository(R delegate, Class<T> entityType, InMemoryDirectory directory) {
+        this.delegate = delegate;
+        this.metadata = EntityMetadata.of(entityType);
+        this.directory = directory;
+    }
+
+    /**
+     * Selects the index of this repository's table in a snapshot.
+     *
+     * @param snapshot The snapshot of the directory.
+     * @return The index of the entity table.
+     */
+    protected abstract DirectoryIndex<T> indexOf(DirectorySnapshot snapshot);
+
+    /**
+     * Replaces the index of this repository's table in a snapshot.
+     *
+     * @param snapshot The snapshot of the directory.
+     * @param index    The new index of the entity table.
+     * @return A new snapshot holding the given index.
+     */
+    protected abstract DirectorySnapshot withIndex(DirectorySnapshot snapshot, DirectoryIndex<T> index);
+
+    /**
+     * Saves a new entity to the database and adds the stored row to the directory.
+     *
+     * @param item The entity to be saved.
+     * @return The saved entity.
+     */
+    @Override
+    public T save(T item) {
+        return directory.write(List.of(metadata.swiftCode(item)), () -> delegate.save(item),
+                (snapshot, saved) -> withIndex(snapshot, indexOf(snapshot).with(List.of(saved), List.of())));
+    }
+
+    /**
+     * Updates an existing entity in the database and replaces it in the directory with the stored row.
+     * The update may change the SWIFT code, so the entity is removed under the old code first.
+     *
+     * @param swiftCode The `swiftCode` of the entity to update.
+     * @param item      The entity with updated data.
+     * @return The updated entity.
+     */
+    @Override
+    public T update(String swiftCode, T item) {
+        var newSwiftCode = metadata.swiftCode(item);
+        var swiftCodes = newSwiftCode == null ? List.of(swiftCode) : List.of(swiftCode, newSwiftCode);
+        return directory.write(swiftCodes, () -> delegate.update(swiftCode, item),
+                (snapshot, updated) -> withIndex(snapshot,
+                        indexOf(snapshot).with(List.of(updated), List.of(swiftCode))));
+    }
+
+    /**
+     * Finds an entity by its `swiftCode` in the directory.
+     *
+     * @param swiftCode The `swiftCode` of the entity.
+     * @return An Optional containing the entity if found, otherwise empty.
+     */
+    @Override
+    public Optional<T> findBySwiftCode(String swiftCode) {
+        return read(index -> index.find(swiftCode), () -> delegate.findBySwiftCode(swiftCode));
+    }
+
+    /**
+     * Saves multiple entities to the database and adds them to the directory in a single snapshot.
+     *
+     * @param items The list of entities to be saved.
+     * @return The list of saved entities.
+     */
+    @Override
+    public List<T> saveAll(List<T> items) {
+        var swiftCodes = items.stream().map(metadata::swiftCode).toList();
+        return directory.write(swiftCodes, () -> delegate.saveAll(items),
+                (snapshot, saved) -> withIndex(snapshot, indexOf(snapshot).with(saved, List.of())));
+    }
+
+    /**
+     * Finds the last `n` entities, always reading the database, which owns the ordering of SWIFT codes.
+     *
+     * @param n The number of entities to retrieve.
+     * @return A list of the last `n` entities.
+     */
+    @Override
+    public List<T> findLast(int n) {
+        return delegate.findLast(n);
+    }
+
+    /**
+     * Finds a page of entities in the directory, in `swiftCode` order.
+     *
+     * @param afterSwiftCode The `swiftCode` of the last entity of the previous page, or null for the first page.
+     * @param limit          The maximum number of entities to retrieve.
+     * @return Up to `limit` entities whose `swiftCode` follows `afterSwiftCode`, in `swiftCode` order.
+     */
+    @Override
+    public List<T> findPage(String afterSwiftCode, int limit) {
+        return read(index -> index.page(afterSwiftCode, limit), () -> delegate.findPage(afterSwiftCode, limit));
+    }
+
+    /**
+     * Retrieves all entities from the directory.
+     *
+     * @return A list of all entities.
+     */
+    @Override
+    public List<T> findAll() {
+        return read(index -> List.copyOf(index.all()), delegate::findAll);
+    }
+
+    /**
+     * Deletes an entity from the database and removes it from the directory.
+     *
+     * @param swiftCode The `swiftCode` of the entity to be deleted.
+     * @return The deleted entity.
+     */
+    @Override
+    public T delete(String swiftCode) {
+        return directory.write(List.of(swiftCode), () -> delegate.delete(swiftCode),
+                (snapshot, deleted) -> withIndex(snapshot, indexOf(snapshot).with(List.of(), List.of(swiftCode))));
+    }
+
+    /**
+     * Finds all entities with the given SWIFT codes in the directory.
+     *
+     * @param swiftCodes A list of `swiftCode` values.
+     * @return A list of entities matching the provided `swiftCode` values, or an empty list if none matches.
+     * @throws IllegalStateException if only some of the SWIFT codes are found.
+     */
+    @Override
+    public List<T> findAllBySwiftCode(List<String> swiftCodes) {
+        return read(index -> {
+            var items = swiftCodes.stream().map(index::find).flatMap(Optional::stream).toList();
+            if (items.isEmpty()) {
+                return List.of();
+            }
+            if (items.size() != swiftCodes.size()) {
+                throw new IllegalStateException("Not all swiftCodes are present in table");
+            }
+            return items;
+        }, () -> delegate.findAllBySwiftCode(swiftCodes));
+    }
+
+    /**
+     * Looks up entities by SWIFT code in the directory, leaving out the codes not found.
+     *
+     * @param swiftCodes A list of `swiftCode` values.
+     * @return The entities found, in the order of their codes.
+     */
+    @Override
+    public List<T> lookupBySwiftCode(List<String> swiftCodes) {
+        return read(index -> swiftCodes.stream().map(index::find).flatMap(Optional::stream).toList(),
+                () -> delegate.lookupBySwiftCode(swiftCodes));
+    }
+
+    /**
+     * Deletes all entities with the given SWIFT codes from the database and removes them from the directory.
+     *
+     * @param swiftCodes A list of `swiftCode` values of the entities to delete.
+     * @return A list of deleted entities.
+     */
+    @Override
+    public List<T> deleteAllBySwiftCode(List<String> swiftCodes) {
+        return directory.write(swiftCodes, () -> delegate.deleteAllBySwiftCode(swiftCodes),
+                (snapshot, deleted) -> withIndex(snapshot, indexOf(snapshot).with(List.of(), swiftCodes)));
+    }
+
+    /**
+     * Deletes the entities with the given SWIFT codes from the database and removes those found from the directory.
+     * Each chunk holds the stripes of its own codes and is removed from the directory as soon as it is committed,
+     * before being handed back to `chunks`.
+     *
+     * @param swiftCodes A list of `swiftCode` values of the entities to delete.
+     * @param chunks     The runner of each chunk.
+     * @return The entities deleted, in no particular order.
+     */
+    @Override
+    public List<T> deleteFoundBySwiftCode(List<String> swiftCodes, DeleteChunkRunner<T> chunks) {
+        return delegate.deleteFoundBySwiftCode(swiftCodes, (chunk, delete) -> chunks.run(chunk,
+                () -> directory.write(chunk, delete, this::withoutDeleted)));
+    }
+
+    /**
+     * Deletes all entities of a country from the database and removes them from the directory.
+     * The rows of a chunk cannot be named upfront, so every stripe is held, but only while the chunk runs:
+     * each chunk is removed from the directory as soon as it is committed, before being handed back to `chunks`.
+     *
+     * @param countryIso2 The upper-case ISO2 code of the country.
+     * @param chunks      The runner of each chunk.
+     * @return The entities deleted, in no particular order.
+     */
+    @Override
+    public List<T> deleteAllForCountry(String countryIso2, DeleteChunkRunner<T> chunks) {
+        return delegate.deleteAllForCountry(countryIso2, (chunk, delete) -> chunks.run(chunk,
+                () -> directory.writeAll(delete, this::withoutDeleted)));
+    }
+
+    /**
+     * Deletes all entities from the database and empties the index of the table.
+     *
+     * @return A list of deleted entities.
+     */
+    @Override
+    public List<T> deleteAll() {
+        return directory.writeAll(delegate::deleteAll,
+                (snapshot, deleted) -> withIndex(snapshot, indexOf(snapshot).cleared()));
+    }
+
+    /**
+     * Removes deleted entities from the index of this repository's table in a snapshot.
+     *
+     * @param snapshot The snapshot of the directory.
+     * @param deleted  The entities deleted from the database.
+     * @return A new snapshot without the deleted entities.
+     */
+    private DirectorySnapshot withoutDeleted(DirectorySnapshot snapshot, List<T> deleted) {
+        return withIndex(snapshot, indexOf(snapshot).with(List.of(), deleted.stream().map(metadata::swiftCode).toList()));
+    }
+
+    /**
+     * Answers a read from the current snapshot, or from the database if the directory is not loaded.
+     *
+     * @param fromMemory   The read against the index of the table.
+     * @param fromDatabase The same read against the database.
+     * @param <V>          The type of the result.
+     * @return The result of the read.
+     */
+    protected <V> V read(Function<DirectoryIndex<T>, V> fromMemory, Supplier<V> fromDatabase) {
+        var snapshot = directory.snapshot();
+        return snapshot == null ? fromDatabase.get() : fromMemory.apply(indexOf(snapshot));
+    }
+}
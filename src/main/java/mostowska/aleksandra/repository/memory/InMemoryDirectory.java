@@ -0,0 +1,148 @@
+package mostowska.aleksandra.repository.memory;
+
+import com.google.common.util.concurrent.Striped;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import mostowska.aleksandra.model.impl.Branch;
+import mostowska.aleksandra.model.impl.Headquarters;
+import mostowska.aleksandra.repository.model.impl.BranchRepositoryImpl;
+import mostowska.aleksandra.repository.model.impl.HeadquartersRepositoryImpl;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Lock;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * InMemoryDirectory holds the whole SWIFT directory in memory as an immutable `DirectorySnapshot`
+ * and coordinates the writes that go through to the database.
+ *
+ * Reads take the current snapshot from an atomic reference and never lock. A write first goes
+ * to the database and then publishes a new snapshot with a compare-and-set, so the snapshot only ever holds
+ * rows the database has accepted. Writes lock a stripe chosen by the bank prefix of the SWIFT codes they touch:
+ * writes of different banks run in parallel against the database, while writes of the same bank are applied
+ * to the snapshot in the order they were committed.
+ *
+ * The directory is empty until `load` is called. Until then the in-memory repositories read from
+ * and write to the database only, which keeps one-off commands such as the CSV import from indexing rows
+ * nobody will read. Rows written by other processes are seen after the next `load`.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class InMemoryDirectory {
+    private static final int LOCK_STRIPES = 64;
+
+    private final HeadquartersRepositoryImpl headquartersRepository;
+    private final BranchRepositoryImpl branchRepository;
+
+    private final AtomicReference<DirectorySnapshot> snapshot = new AtomicReference<>();
+    private final Striped<Lock> locks = Striped.lock(LOCK_STRIPES);
+
+    /**
+     * Loads the `headquarters` and `branches` tables into memory, replacing the current snapshot.
+     * Every write stripe is held while loading, so no write is lost between the read of the tables
+     * and the publication of the snapshot.
+     *
+     * @return The number of entities loaded.
+     */
+    public int load() {
+        return locked(allLocks(), () -> {
+            var loaded = new DirectorySnapshot(
+                    DirectoryIndex.of(Headquarters.class, headquartersRepository.findAll()),
+                    DirectoryIndex.of(Branch.class, branchRepository.findAll()));
+            snapshot.set(loaded);
+
+            log.info("Loaded {} headquarters and {} branches into memory",
+                    loaded.headquarters().size(), loaded.branches().size());
+            return loaded.size();
+        });
+    }
+
+    /**
+     * Retrieves the current snapshot.
+     *
+     * @return The current snapshot, or null if the directory has not been loaded.
+     */
+    public DirectorySnapshot snapshot() {
+        return snapshot.get();
+    }
+
+    /**
+     * Writes to the database and applies the result to the snapshot, holding the stripes of the given SWIFT codes.
+     * If the database write fails, the snapshot is left unchanged and the exception is propagated.
+     *
+     * @param swiftCodes    The SWIFT codes touched by the write.
+     * @param databaseWrite The write to the database, returning its result.
+     * @param indexUpdate   A side-effect free function deriving the new snapshot from the current one and the result.
+     * @param <V>           The type of the result of the write.
+     * @return The result of the database write.
+     */
+    public <V> V write(Collection<String> swiftCodes, Supplier<V> databaseWrite,
+                       BiFunction<DirectorySnapshot, V, DirectorySnapshot> indexUpdate) {
+        var stripes = locks.bulkGet(swiftCodes.stream().map(DirectoryIndex::prefixOf).toList());
+        return locked(stripes, () -> publish(databaseWrite.get(), indexUpdate));
+    }
+
+    /**
+     * Writes to the database and applies the result to the snapshot, holding every stripe.
+     * Used by writes that touch rows they cannot name upfront, such as deleting a whole table or a chunk of the rows of a country.
+     *
+     * @param databaseWrite The write to the database, returning its result.
+     * @param indexUpdate   A side-effect free function deriving the new snapshot from the current one and the result.
+     * @param <V>           The type of the result of the write.
+     * @return The result of the database write.
+     */
+    public <V> V writeAll(Supplier<V> databaseWrite, BiFunction<DirectorySnapshot, V, DirectorySnapshot> indexUpdate) {
+        return locked(allLocks(), () -> publish(databaseWrite.get(), indexUpdate));
+    }
+
+    /**
+     * Publishes the snapshot derived from the result of a write. Writes of different stripes may publish
+     * concurrently, in which case the update is retried on the snapshot published by the other write.
+     *
+     * @param result      The result of the database write.
+     * @param indexUpdate The function deriving the new snapshot.
+     * @param <V>         The type of the result.
+     * @return The result of the write.
+     */
+    private <V> V publish(V result, BiFunction<DirectorySnapshot, V, DirectorySnapshot> indexUpdate) {
+        snapshot.updateAndGet(current -> current == null ? null : indexUpdate.apply(current, result));
+        return result;
+    }
+
+    /**
+     * Retrieves every lock stripe in stripe order.
+     *
+     * @return All locks of the directory.
+     */
+    private Iterable<Lock> allLocks() {
+        return IntStream.range(0, locks.size()).mapToObj(locks::getAt).toList();
+    }
+
+    /**
+     * Runs an action holding the given locks. Locks are acquired in stripe order, so two writes
+     * holding several stripes cannot deadlock.
+     *
+     * @param stripes The locks to hold, in stripe order.
+     * @param action  The action to run.
+     * @param <V>     The type of the result.
+     * @return The result of the action.
+     */
+    private static <V> V locked(Iterable<Lock> stripes, Supplier<V> action) {
+        var acquired = new ArrayList<Lock>();
+        try {
+            for (var stripe : stripes) {
+                stripe.lock();
+                acquired.add(stripe);
+            }
+            return action.get();
+        } finally {
+            acquired.forEach(Lock::unlock);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package mostowska.aleksandra.repository.memory;
+
+import mostowska.aleksandra.model.dto.headquarters.GetHeadquartersDto;
+import mostowska.aleksandra.model.impl.Branch;
+import mostowska.aleksandra.model.impl.Headquarters;
+import mostowska.aleksandra.repository.model.HeadquartersRepository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * In-memory implementation of the `HeadquartersRepository`, writing through to the database repository.
+ */
+public class InMemoryHeadquartersRepository
+        extends InMemoryCrudRepository<Headquarters, HeadquartersRepository>
+        implements HeadquartersRepository {
+
+    /**
+     * Creates the repository around the database repository.
+     *
+     * @param delegate  The repository reading from and writing to the `headquarters` table.
+     * @param directory The directory holding the indexes.
+     */
+    public InMemoryHeadquartersRepository(HeadquartersRepository delegate, InMemoryDirectory directory) {
+        super(delegate, Headquarters.class, directory);
+    }
+
+    /**
+     * Finds the headquarters with the given SWIFT code in the directory.
+     *
+     * @param swiftCode The SWIFT code to search for.
+     * @return A list holding the matching headquarters, or an empty list.
+     */
+    @Override
+    public List<Headquarters> findAllForSWIFT(String swiftCode) {
+        return read(index -> index.find(swiftCode).map(List::of).orElse(List.of()),
+                () -> delegate.findAllForSWIFT(swiftCode));
+    }
+
+    /**
+     * Finds all headquarters located in a specific country in the directory.
+     *
+     * @param countryISO2 The ISO2 code of the country to search for.
+     * @return A list of `Headquarters` entities located in the specified country.
+     */
+    @Override
+    public List<Headquarters> findAllForCountry(String countryISO2) {
+        return read(index -> index.findAllForCountry(countryISO2), () -> delegate.findAllForCountry(countryISO2));
+    }
+
+    /**
+     * Finds the headquarters with its branches. Both are read from the same snapshot,
+     * the branches being those sharing the bank prefix of the headquarters SWIFT code.
+     *
+     * @param swiftCode The SWIFT code of the headquarters to search for.
+     * @return The headquarters with its nested branches, or an empty Optional if no headquarters has the given code.
+     */
+    @Override
+    public Optional<GetHeadquartersDto> findWithBranches(String swiftCode) {
+        var snapshot = directory.snapshot();
+        if (snapshot == null) {
+            return delegate.findWithBranches(swiftCode);
+        }
+
+        return snapshot.headquarters().find(swiftCode).map(headquarters -> headquarters
+                .toGetHeadquartersDto()
+                .withBranches(snapshot.branches()
+                        .findAllForPrefix(swiftCode.substring(0, 8))
+                        .stream()
+                        .map(Branch::toGetBranchDto)
+                        .toList()));
+    }
+
+    /**
+     * Selects the index of the `headquarters` table.
+     *
+     * @param snapshot The snapshot of the directory.
+     * @return The headquarters index of the snapshot.
+     */
+    @Override
+    protected DirectoryIndex<Headquarters> indexOf(DirectorySnapshot snapshot) {
+        return snapshot.headquarters();
+    }
+
+    /**
+     * Replaces the index of the `headquarters` table.
+     *
+     * @param snapshot The snapshot of the directory.
+     * @param index    The new headquarters index.
+     * @return A new snapshot holding the given index.
+     */
+    @Override
+    protected DirectorySnapshot withIndex(DirectorySnapshot snapshot, DirectoryIndex<Headquarters> index) {
+        return snapshot.withHeadquarters(index);
+    }
+}
@@ -0,0 +1,128 @@
+package mostowska.aleksandra.repository.memory;
+
+import java.util.Arrays;
+
+/**
+ * LongIntMap is an open-addressing hash map from non-negative `long` keys to `int` values.
+ *
+ * Keys and values are kept in two primitive arrays probed linearly from a Fibonacci hash of the key,
+ * so a lookup neither boxes the key nor follows a pointer to an entry object. The table is kept at most
+ * half full. Entries cannot be removed: the in-memory indexes build a new map for every snapshot.
+ * The map is not thread-safe while it is being filled and is only read once published.
+ */
+public final class LongIntMap {
+
+    /**
+     * The value returned by `get` for a missing key.
+     */
+    public static final int MISSING = -1;
+
+    private static final long FREE = -1L;
+    private static final long GOLDEN_RATIO = 0x9E3779B97F4A7C15L;
+
+    private long[] keys;
+    private int[] values;
+    private int size;
+    private int shift;
+
+    /**
+     * Creates a map able to hold the expected number of entries without resizing.
+     *
+     * @param expectedSize The expected number of entries.
+     */
+    public LongIntMap(int expectedSize) {
+        allocate(Math.max(4, Integer.highestOneBit(Math.max(1, expectedSize) * 2 - 1) << 1));
+    }
+
+    /**
+     * Retrieves the value of a key.
+     *
+     * @param key The key to look up.
+     * @return The value of the key, or `MISSING` if the map does not hold it.
+     */
+    public int get(long key) {
+        var mask = keys.length - 1;
+        for (var slot = slotOf(key); ; slot = (slot + 1) & mask) {
+            var current = keys[slot];
+            if (current == key) {
+                return values[slot];
+            }
+            if (current == FREE) {
+                return MISSING;
+            }
+        }
+    }
+
+    /**
+     * Associates a value with a key, replacing its previous value.
+     *
+     * @param key   The non-negative key.
+     * @param value The value.
+     * @throws IllegalArgumentException if the key is negative.
+     */
+    public void put(long key, int value) {
+        if (key < 0) {
+            throw new IllegalArgumentException("Key must not be negative");
+        }
+        if (2 * (size + 1) > keys.length) {
+            resize();
+        }
+
+        var mask = keys.length - 1;
+        var slot = slotOf(key);
+        while (keys[slot] != FREE && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        if (keys[slot] == FREE) {
+            keys[slot] = key;
+            size++;
+        }
+        values[slot] = value;
+    }
+
+    /**
+     * Returns the number of entries.
+     *
+     * @return The number of keys held by the map.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Computes the home slot of a key from the upper bits of its Fibonacci hash.
+     *
+     * @param key The key.
+     * @return The slot at which the probing starts.
+     */
+    private int slotOf(long key) {
+        return (int) ((key * GOLDEN_RATIO) >>> shift);
+    }
+
+    /**
+     * Allocates empty tables of the given capacity.
+     *
+     * @param capacity The number of slots, a power of two.
+     */
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new int[capacity];
+        Arrays.fill(keys, FREE);
+        shift = Long.numberOfLeadingZeros(capacity - 1);
+    }
+
+    /**
+     * Doubles the tables and reinserts every entry.
+     */
+    private void resize() {
+        var oldKeys = keys;
+        var oldValues = values;
+        allocate(keys.length * 2);
+        size = 0;
+        for (var i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != FREE) {
+                put(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+}
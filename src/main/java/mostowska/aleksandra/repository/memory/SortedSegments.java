@@ -0,0 +1,301 @@
+package mostowska.aleksandra.repository.memory;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+
+/**
+ * SortedSegments is an immutable sequence of entities sorted by their packed SWIFT code, cut into segments
+ * of at most `MAX_SEGMENT_SIZE` entities.
+ *
+ * Each segment holds its codes and entities in sorted arrays and a `LongIntMap` from codes to positions.
+ * The sequence itself only holds the segments, the first code of each and the number of entities before each:
+ *
+ * - a lookup finds the segment by a binary search on the first codes and probes its primitive map,
+ * - positions in the whole sequence are mapped to a segment by a binary search on the counts,
+ * - `apply` copies only the segments the change falls into, the others are shared with this sequence.
+ *   A segment growing past `MAX_SEGMENT_SIZE` is split into even segments, an emptied one is dropped.
+ *
+ * A change therefore costs the size of the segments it touches plus one copy of the segment arrays,
+ * which hold one entry for hundreds of entities, instead of a copy of every entity.
+ *
+ * @param <T> The type of the entity.
+ */
+final class SortedSegments<T> {
+    static final int MAX_SEGMENT_SIZE = 1024;
+
+    private static final SortedSegments<?> EMPTY = new SortedSegments<>(new Segment[0], new long[0], new int[]{0});
+
+    private final Segment[] segments;
+    private final long[] firstCodes;
+    private final int[] offsets;
+
+    /**
+     * Creates a sequence over arrays that are not modified afterward.
+     *
+     * @param segments   The non-empty segments, in code order.
+     * @param firstCodes The first code of each segment.
+     * @param offsets    The number of entities before each segment, followed by the total.
+     */
+    private SortedSegments(Segment[] segments, long[] firstCodes, int[] offsets) {
+        this.segments = segments;
+        this.firstCodes = firstCodes;
+        this.offsets = offsets;
+    }
+
+    /**
+     * Returns the empty sequence.
+     *
+     * @param <T> The type of the entity.
+     * @return A sequence without entities.
+     */
+    @SuppressWarnings("unchecked")
+    static <T> SortedSegments<T> empty() {
+        return (SortedSegments<T>) EMPTY;
+    }
+
+    /**
+     * Returns the number of entities.
+     *
+     * @return The number of entities in all segments.
+     */
+    int size() {
+        return offsets[segments.length];
+    }
+
+    /**
+     * Finds the entity held under a packed code.
+     *
+     * @param code The packed SWIFT code.
+     * @return The entity, or null if there is none.
+     */
+    T get(long code) {
+        if (segments.length == 0) {
+            return null;
+        }
+        var segment = segments[segmentOf(code)];
+        var position = segment.positions.get(code);
+        return position == LongIntMap.MISSING ? null : segment.entityAt(position);
+    }
+
+    /**
+     * Finds the position of the first entity whose code is not lower than a packed code.
+     *
+     * @param code The packed SWIFT code.
+     * @return The position in the whole sequence, `size()` if every code is lower.
+     */
+    int positionOf(long code) {
+        if (segments.length == 0) {
+            return 0;
+        }
+        var index = segmentOf(code);
+        var segment = segments[index];
+        var position = Arrays.binarySearch(segment.codes, code);
+        return offsets[index] + (position < 0 ? -position - 1 : position);
+    }
+
+    /**
+     * Reads the packed code at a position.
+     *
+     * @param position The position in the whole sequence, lower than `size()`.
+     * @return The packed code at the position.
+     */
+    long codeAt(int position) {
+        var index = segmentAt(position);
+        return segments[index].codes[position - offsets[index]];
+    }
+
+    /**
+     * Reads the entity at a position.
+     *
+     * @param position The position in the whole sequence, lower than `size()`.
+     * @return The entity at the position.
+     */
+    T entityAt(int position) {
+        var index = segmentAt(position);
+        return segments[index].entityAt(position - offsets[index]);
+    }
+
+    /**
+     * Returns the entities as a list in code order, reading the segments without copying them.
+     *
+     * @return An unmodifiable view of the entities.
+     */
+    List<T> items() {
+        return new AbstractList<>() {
+            @Override
+            public T get(int index) {
+                if (index < 0 || index >= size()) {
+                    throw new IndexOutOfBoundsException(index);
+                }
+                return entityAt(index);
+            }
+
+            @Override
+            public int size() {
+                return SortedSegments.this.size();
+            }
+        };
+    }
+
+    /**
+     * Builds a new sequence with entities put and removed. Only the segments the changed codes fall into are copied.
+     *
+     * @param changes The entities to put by packed code, in code order, a null entity removing the code.
+     * @return A new sequence reflecting the change, or this sequence if there is no change.
+     */
+    SortedSegments<T> apply(NavigableMap<Long, T> changes) {
+        if (changes.isEmpty()) {
+            return this;
+        }
+        var updated = new ArrayList<Segment>(segments.length + 1);
+        var pending = changes.entrySet().iterator();
+        var next = pending.next();
+        var copied = 0;
+        while (next != null) {
+            var index = segments.length == 0 ? 0 : segmentOf(next.getKey());
+            while (copied < index) {
+                updated.add(segments[copied++]);
+            }
+
+            // Every change below the first code of the next segment falls into this one
+            var bounded = index + 1 < segments.length;
+            var bound = bounded ? firstCodes[index + 1] : 0;
+            var falling = new ArrayList<Map.Entry<Long, T>>();
+            while (next != null && (!bounded || next.getKey() < bound)) {
+                falling.add(next);
+                next = pending.hasNext() ? pending.next() : null;
+            }
+            merge(index < segments.length ? segments[index] : null, falling, updated);
+            copied = index + 1;
+        }
+        while (copied < segments.length) {
+            updated.add(segments[copied++]);
+        }
+        return of(updated);
+    }
+
+    /**
+     * Merges a segment with the changes falling into it and adds the result to the list of segments,
+     * in segments of at most `MAX_SEGMENT_SIZE` entities.
+     *
+     * @param segment The segment, or null if the sequence has none.
+     * @param changes The changes falling into the segment, in code order.
+     * @param into    The list of segments of the new sequence.
+     */
+    private void merge(Segment segment, List<Map.Entry<Long, T>> changes, List<Segment> into) {
+        var codes = segment == null ? new long[0] : segment.codes;
+        var entities = segment == null ? new Object[0] : segment.entities;
+        var mergedCodes = new long[codes.length + changes.size()];
+        var mergedEntities = new Object[mergedCodes.length];
+        var size = 0;
+        var i = 0;
+        var j = 0;
+        while (i < codes.length || j < changes.size()) {
+            var change = j < changes.size() ? changes.get(j) : null;
+            if (change == null || (i < codes.length && codes[i] < change.getKey())) {
+                mergedCodes[size] = codes[i];
+                mergedEntities[size++] = entities[i++];
+                continue;
+            }
+            if (i < codes.length && codes[i] == change.getKey()) {
+                i++;
+            }
+            if (change.getValue() != null) {
+                mergedCodes[size] = change.getKey();
+                mergedEntities[size++] = change.getValue();
+            }
+            j++;
+        }
+
+        var pieces = (size + MAX_SEGMENT_SIZE - 1) / MAX_SEGMENT_SIZE;
+        for (var piece = 0; piece < pieces; piece++) {
+            var from = (int) ((long) size * piece / pieces);
+            var to = (int) ((long) size * (piece + 1) / pieces);
+            into.add(new Segment(Arrays.copyOfRange(mergedCodes, from, to),
+                    Arrays.copyOfRange(mergedEntities, from, to)));
+        }
+    }
+
+    /**
+     * Builds a sequence over segments.
+     *
+     * @param segments The non-empty segments, in code order.
+     * @param <T>      The type of the entity.
+     * @return The sequence.
+     */
+    private static <T> SortedSegments<T> of(List<Segment> segments) {
+        if (segments.isEmpty()) {
+            return empty();
+        }
+        var firstCodes = new long[segments.size()];
+        var offsets = new int[segments.size() + 1];
+        for (var i = 0; i < segments.size(); i++) {
+            firstCodes[i] = segments.get(i).codes[0];
+            offsets[i + 1] = offsets[i] + segments.get(i).codes.length;
+        }
+        return new SortedSegments<>(segments.toArray(new Segment[0]), firstCodes, offsets);
+    }
+
+    /**
+     * Finds the segment a packed code belongs to: the last segment starting at or before the code,
+     * or the first segment for a code lower than every other.
+     *
+     * @param code The packed SWIFT code.
+     * @return The index of the segment.
+     */
+    private int segmentOf(long code) {
+        var index = Arrays.binarySearch(firstCodes, code);
+        return index >= 0 ? index : Math.max(0, -index - 2);
+    }
+
+    /**
+     * Finds the segment holding a position of the whole sequence.
+     *
+     * @param position The position.
+     * @return The index of the segment.
+     */
+    private int segmentAt(int position) {
+        var index = Arrays.binarySearch(offsets, 0, segments.length, position);
+        return index >= 0 ? index : -index - 2;
+    }
+
+    /**
+     * A segment of the sequence, never modified once built.
+     */
+    private static final class Segment {
+        private final long[] codes;
+        private final Object[] entities;
+        private final LongIntMap positions;
+
+        /**
+         * Creates a segment and maps its codes to their positions.
+         *
+         * @param codes    The packed codes, sorted.
+         * @param entities The entities, in the order of their codes.
+         */
+        Segment(long[] codes, Object[] entities) {
+            this.codes = codes;
+            this.entities = entities;
+            this.positions = new LongIntMap(codes.length);
+            for (var i = 0; i < codes.length; i++) {
+                positions.put(codes[i], i);
+            }
+        }
+
+        /**
+         * Reads an entity of the segment.
+         *
+         * @param position The position in the segment.
+         * @param <T>      The type of the entity.
+         * @return The entity at the position.
+         */
+        @SuppressWarnings("unchecked")
+        <T> T entityAt(int position) {
+            return (T) entities[position];
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package mostowska.aleksandra.repository.model;
+
+import mostowska.aleksandra.model.dto.country.GetGroupedByCountryDto;
+
+import java.util.Optional;
+
+/**
+ * Repository interface for reading headquarters and branches together, grouped by country.
+ * It spans both the `headquarters` and `branches` tables, so it is not bound to a single entity.
+ */
+public interface CountryRepository {
+
+    /**
+     * Finds a page of the headquarters and branches located in a specific country, in SWIFT code order,
+     * starting right after a given SWIFT code.
+     *
+     * @param countryISO2    The ISO2 code of the country to search for.
+     * @param afterSwiftCode The SWIFT code of the last item of the previous page, or null for the first page.
+     * @param limit          The maximum number of items to retrieve.
+     * @return The country with up to `limit` of its headquarters and branches, or an empty Optional if the page
+     *         holds none.
+     */
+    Optional<GetGroupedByCountryDto> findPageForCountry(String countryISO2, String afterSwiftCode, int limit);
+}
@@ -1,9 +1,11 @@
 package mostowska.aleksandra.repository.model;
 
+import mostowska.aleksandra.model.dto.headquarters.GetHeadquartersDto;
 import mostowska.aleksandra.model.impl.Headquarters;
 import mostowska.aleksandra.repository.generic.CrudRepository;
 
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repository interface for interacting with the `headquarters` table in the database.
@@ -27,5 +29,13 @@ public interface HeadquartersRepository extends CrudRepository<Headquarters> {
      * @return A list of `Headquarters` entities located in the specified country.
      */
     List<Headquarters> findAllForCountry(String countryISO2);
-}
 
+    /**
+     * Finds the headquarters with a specific SWIFT code together with all branches sharing its bank prefix,
+     * in a single database round trip.
+     *
+     * @param swiftCode The SWIFT code of the headquarters to search for.
+     * @return The headquarters with its nested branches, or an empty Optional if no headquarters has the given code.
+     */
+    Optional<GetHeadquartersDto> findWithBranches(String swiftCode);
+}
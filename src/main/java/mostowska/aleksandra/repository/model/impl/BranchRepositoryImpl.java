@@ -19,6 +19,9 @@ import java.util.stream.Collectors;
 @Repository
 public class BranchRepositoryImpl extends AbstractCrudRepository<Branch> implements BranchRepository {
 
+    public static final String FIND_ALL_FOR_SWIFT_SQL = "select * from branches where swift_prefix = :swift_prefix";
+    public static final String FIND_ALL_FOR_COUNTRY_SQL = "select * from branches where country_iso2 = :country_iso2";
+
     /**
      * Constructor that initializes the Jdbi object used for database interactions.
      *
@@ -32,16 +35,19 @@ public class BranchRepositoryImpl extends AbstractCrudRepository<Branch> impleme
      * Finds all branches entities in the database that have a specific SWIFT code.
      *
      * @param swiftCode The SWIFT code to search for.
-     * @return A list of `Branches` entities matching the given SWIFT code.
+     * @return A list of `Branches` entities matching the given SWIFT code, empty for codes shorter than
+     *         the 8-character bank prefix.
      */
     @Override
     public List<Branch> findAllForSWIFT(String swiftCode) {
+        if (swiftCode.length() < 8) {
+            return List.of();
+        }
         String swiftPrefix = swiftCode.substring(0, 8);
-        var sql = "select * from branches where swift_prefix = :swift_prefix";
         return jdbi.withHandle(handle -> handle
-                .createQuery(sql)
+                .createQuery(FIND_ALL_FOR_SWIFT_SQL)
                 .bind("swift_prefix", swiftPrefix)
-                .mapToBean(Branch.class)
+                .map(metadata.rowMapper())
                 .collect(Collectors.toList()));
     }
 
@@ -53,11 +59,10 @@ public class BranchRepositoryImpl extends AbstractCrudRepository<Branch> impleme
      */
     @Override
     public List<Branch> findAllForCountry(String countryISO2) {
-        var sql = "select * from branches where country_iso2 = :country_iso2";
         return jdbi.withHandle(handle -> handle
-                .createQuery(sql)
+                .createQuery(FIND_ALL_FOR_COUNTRY_SQL)
                 .bind("country_iso2", countryISO2)
-                .mapToBean(Branch.class)
+                .map(metadata.rowMapper())
                 .collect(Collectors.toList()));
     }
 }
@@ -0,0 +1,100 @@
+package mostowska.aleksandra.repository.model.impl;
+
+import lombok.RequiredArgsConstructor;
+import mostowska.aleksandra.model.dto.country.GetGroupedByCountryDto;
+import mostowska.aleksandra.model.dto.country.GetModelForCountryDto;
+import mostowska.aleksandra.repository.model.CountryRepository;
+import org.jdbi.v3.core.Jdbi;
+import org.jdbi.v3.core.statement.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Optional;
+
+/**
+ * Implementation of the `CountryRepository` interface.
+ * This class reads the `headquarters` and `branches` tables of a country in a single statement
+ * and maps the rows straight into the grouped country DTO.
+ */
+@Repository
+@RequiredArgsConstructor
+public class CountryRepositoryImpl implements CountryRepository {
+
+    // Each table reads at most `limit` rows of the country from its (country_iso2, swift_code) index, starting at
+    // the cursor, and only those rows are merged and cut to the page, so a page never reads the rest of the country
+    private static final String FIND_PAGE_FOR_COUNTRY_SQL = """
+            (select swift_code, address, bank_name, country_iso2, country_name, is_headquarter
+            from headquarters
+            where country_iso2 = :country_iso2 %1$s
+            order by swift_code
+            limit :limit)
+            union all
+            (select swift_code, address, bank_name, country_iso2, country_name, is_headquarter
+            from branches
+            where country_iso2 = :country_iso2 %1$s
+            order by swift_code
+            limit :limit)
+            order by swift_code
+            limit :limit
+            """;
+    public static final String FIND_FIRST_PAGE_FOR_COUNTRY_SQL = FIND_PAGE_FOR_COUNTRY_SQL.formatted("");
+    public static final String FIND_PAGE_AFTER_FOR_COUNTRY_SQL =
+            FIND_PAGE_FOR_COUNTRY_SQL.formatted("and swift_code > :after");
+
+    private final Jdbi jdbi;
+
+    /**
+     * Finds a page of the headquarters and branches located in a specific country, in SWIFT code order.
+     * Each table is read from its index at the SWIFT code the page starts after, at most `limit` rows of it, so a page
+     * costs the same whatever its position and however many rows the country has.
+     *
+     * @param countryISO2    The ISO2 code of the country to search for.
+     * @param afterSwiftCode The SWIFT code of the last item of the previous page, or null for the first page.
+     * @param limit          The maximum number of items to retrieve.
+     * @return The country with up to `limit` of its headquarters and branches, or an empty Optional if the page
+     *         holds none.
+     */
+    @Override
+    public Optional<GetGroupedByCountryDto> findPageForCountry(String countryISO2, String afterSwiftCode, int limit) {
+        return jdbi.withHandle(handle -> {
+            var query = afterSwiftCode == null
+                    ? handle.createQuery(FIND_FIRST_PAGE_FOR_COUNTRY_SQL)
+                    : handle.createQuery(FIND_PAGE_AFTER_FOR_COUNTRY_SQL).bind("after", afterSwiftCode);
+            return groupedByCountry(query
+                    .bind("country_iso2", countryISO2)
+                    .bind("limit", limit), countryISO2);
+        });
+    }
+
+    /**
+     * Runs a query over the rows of a country and maps them straight into the grouped country DTO.
+     * The country name is taken from the first row, so no separate lookup is needed.
+     *
+     * @param query       The query selecting the rows of the country.
+     * @param countryISO2 The ISO2 code of the country.
+     * @return The country with the rows found, or an empty Optional if there are none.
+     */
+    private static Optional<GetGroupedByCountryDto> groupedByCountry(Query query, String countryISO2) {
+        return query.scanResultSet((resultSetSupplier, context) -> {
+            var resultSet = resultSetSupplier.get();
+            String countryName = null;
+            var items = new ArrayList<GetModelForCountryDto>();
+
+            while (resultSet.next()) {
+                if (items.isEmpty()) {
+                    countryName = resultSet.getString("country_name");
+                }
+                items.add(new GetModelForCountryDto(
+                        resultSet.getString("address"),
+                        resultSet.getString("bank_name"),
+                        resultSet.getString("country_iso2"),
+                        resultSet.getObject("is_headquarter", Boolean.class),
+                        resultSet.getString("swift_code")));
+            }
+
+            return items.isEmpty()
+                    ? Optional.<GetGroupedByCountryDto>empty()
+                    : Optional.of(new GetGroupedByCountryDto(countryISO2, countryName, items));
+        });
+    }
+}
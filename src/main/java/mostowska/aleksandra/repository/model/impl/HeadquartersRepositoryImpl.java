@@ -1,12 +1,16 @@
 package mostowska.aleksandra.repository.model.impl;
 
+import mostowska.aleksandra.model.dto.branch.GetBranchForHeadquarterDto;
+import mostowska.aleksandra.model.dto.headquarters.GetHeadquartersDto;
 import mostowska.aleksandra.model.impl.Headquarters;
 import mostowska.aleksandra.repository.generic.AbstractCrudRepository;
 import mostowska.aleksandra.repository.model.HeadquartersRepository;
 import org.jdbi.v3.core.Jdbi;
 import org.springframework.stereotype.Repository;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 /**
@@ -17,6 +21,22 @@ import java.util.stream.Collectors;
 @Repository
 public class HeadquartersRepositoryImpl extends AbstractCrudRepository<Headquarters> implements HeadquartersRepository {
 
+    public static final String FIND_ALL_FOR_SWIFT_SQL = "select * from headquarters where swift_code = :swift_code";
+    public static final String FIND_ALL_FOR_COUNTRY_SQL =
+            "select * from headquarters where country_iso2 = :country_iso2";
+
+    // The headquarters row is read by its primary key and the branches through the swift_prefix index,
+    // the row_kind column tells both halves of the union apart
+    public static final String FIND_WITH_BRANCHES_SQL = """
+            select 0 as row_kind, swift_code, address, bank_name, country_iso2, country_name, is_headquarter
+            from headquarters
+            where swift_code = :swift_code
+            union all
+            select 1 as row_kind, swift_code, address, bank_name, country_iso2, country_name, is_headquarter
+            from branches
+            where swift_prefix = :swift_prefix
+            """;
+
     /**
      * Constructor that initializes the Jdbi object used for database interactions.
      *
@@ -34,11 +54,10 @@ public class HeadquartersRepositoryImpl extends AbstractCrudRepository<Headquart
      */
     @Override
     public List<Headquarters> findAllForSWIFT(String swiftCode) {
-        var sql = "select * from headquarters where swift_code = :swift_code";
         return jdbi.withHandle(handle -> handle
-                .createQuery(sql)
+                .createQuery(FIND_ALL_FOR_SWIFT_SQL)
                 .bind("swift_code", swiftCode)
-                .mapToBean(Headquarters.class)
+                .map(metadata.rowMapper())
                 .collect(Collectors.toList()));
     }
 
@@ -50,12 +69,57 @@ public class HeadquartersRepositoryImpl extends AbstractCrudRepository<Headquart
      */
     @Override
     public List<Headquarters> findAllForCountry(String countryISO2) {
-        var sql = "select * from headquarters where country_iso2 = :country_iso2";
         return jdbi.withHandle(handle -> handle
-                .createQuery(sql)
+                .createQuery(FIND_ALL_FOR_COUNTRY_SQL)
                 .bind("country_iso2", countryISO2)
-                .mapToBean(Headquarters.class)
+                .map(metadata.rowMapper())
                 .collect(Collectors.toList()));
     }
-}
 
+    /**
+     * Finds the headquarters with a specific SWIFT code together with all branches sharing its bank prefix.
+     * Both tables are read by one `union all` statement, and its rows are mapped straight into
+     * the headquarters DTO and its nested branch DTOs.
+     *
+     * @param swiftCode The SWIFT code of the headquarters to search for.
+     * @return The headquarters with its nested branches, or an empty Optional if no headquarters has the given code,
+     *         as for codes shorter than the 8-character bank prefix.
+     */
+    @Override
+    public Optional<GetHeadquartersDto> findWithBranches(String swiftCode) {
+        if (swiftCode.length() < 8) {
+            return Optional.empty();
+        }
+        return jdbi.withHandle(handle -> handle
+                .createQuery(FIND_WITH_BRANCHES_SQL)
+                .bind("swift_code", swiftCode)
+                .bind("swift_prefix", swiftCode.substring(0, 8))
+                .scanResultSet((resultSetSupplier, context) -> {
+                    var resultSet = resultSetSupplier.get();
+                    GetHeadquartersDto headquarters = null;
+                    var branches = new ArrayList<GetBranchForHeadquarterDto>();
+
+                    while (resultSet.next()) {
+                        if (resultSet.getInt("row_kind") == 0) {
+                            headquarters = new GetHeadquartersDto(
+                                    resultSet.getString("address"),
+                                    resultSet.getString("bank_name"),
+                                    resultSet.getString("country_iso2"),
+                                    resultSet.getString("country_name"),
+                                    resultSet.getObject("is_headquarter", Boolean.class),
+                                    resultSet.getString("swift_code"),
+                                    branches);
+                        } else {
+                            branches.add(new GetBranchForHeadquarterDto(
+                                    resultSet.getString("address"),
+                                    resultSet.getString("bank_name"),
+                                    resultSet.getString("country_iso2"),
+                                    resultSet.getObject("is_headquarter", Boolean.class),
+                                    resultSet.getString("swift_code")));
+                        }
+                    }
+
+                    return Optional.ofNullable(headquarters);
+                }));
+    }
+}
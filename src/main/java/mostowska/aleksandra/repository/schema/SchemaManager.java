@@ -0,0 +1,146 @@
+package mostowska.aleksandra.repository.schema;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.jdbi.v3.core.Handle;
+import org.jdbi.v3.core.Jdbi;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * SchemaManager brings the database schema up to date by applying the versioned SQL migrations
+ * found under `db/migration` in the classpath.
+ *
+ * Applied versions are recorded in the `schema_version` table, so every migration runs exactly once
+ * per database, whether the tables were created by a previous migration or loaded from a dump.
+ * Migrations are plain SQL statements separated by semicolons and must stay compatible with
+ * MySQL and with the H2 MySQL mode used by the tests.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SchemaManager {
+
+    /**
+     * The migrations in the order they are applied. A new migration is added at the end
+     * with the next version number, an applied migration is never edited.
+     */
+    static final List<String> MIGRATIONS = List.of(
+            "V1__create_tables.sql",
+            "V2__index_lookup_columns.sql",
+            "V3__index_country_pages.sql"
+    );
+
+    private static final String MIGRATIONS_LOCATION = "db/migration/";
+
+    private final Jdbi jdbi;
+
+    /**
+     * Applies every migration newer than the current schema version.
+     *
+     * @return The schema version after all migrations have been applied.
+     * @throws IllegalStateException if a migration cannot be read or fails.
+     */
+    public int migrate() {
+        return jdbi.withHandle(handle -> {
+            handle.execute("""
+                    CREATE TABLE IF NOT EXISTS schema_version (
+                        version INT PRIMARY KEY,
+                        description VARCHAR(255) NOT NULL,
+                        applied_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+                    )""");
+
+            var currentVersion = currentVersion(handle);
+            for (var migration : MIGRATIONS) {
+                var version = versionOf(migration);
+                if (version > currentVersion) {
+                    apply(handle, migration, version);
+                    currentVersion = version;
+                }
+            }
+
+            log.info("Database schema is at version {}", currentVersion);
+            return currentVersion;
+        });
+    }
+
+    /**
+     * Reads the latest applied schema version.
+     *
+     * @param handle The handle used to query the database.
+     * @return The latest applied version, or 0 if no migration has been applied yet.
+     */
+    private static int currentVersion(Handle handle) {
+        return handle
+                .createQuery("select coalesce(max(version), 0) from schema_version")
+                .mapTo(Integer.class)
+                .one();
+    }
+
+    /**
+     * Executes the statements of a migration and records its version.
+     * MySQL commits DDL statements implicitly, so a failed migration is not rolled back
+     * and has to be fixed by hand before the application is started again.
+     *
+     * @param handle    The handle used to execute the statements.
+     * @param migration The file name of the migration.
+     * @param version   The version of the migration.
+     */
+    private static void apply(Handle handle, String migration, int version) {
+        log.info("Applying schema migration {}", migration);
+        for (var statement : statementsOf(migration)) {
+            handle.execute(statement);
+        }
+        handle.createUpdate("insert into schema_version (version, description) values (:version, :description)")
+                .bind("version", version)
+                .bind("description", migration)
+                .execute();
+    }
+
+    /**
+     * Parses the version number from a migration file name of the `V<version>__<description>.sql` form.
+     *
+     * @param migration The file name of the migration.
+     * @return The version number of the migration.
+     */
+    static int versionOf(String migration) {
+        var separator = migration.indexOf("__");
+        if (!migration.startsWith("V") || separator < 0) {
+            throw new IllegalStateException("Invalid migration name " + migration);
+        }
+        return Integer.parseInt(migration.substring(1, separator));
+    }
+
+    /**
+     * Reads a migration from the classpath and splits it into statements, dropping comment lines.
+     *
+     * @param migration The file name of the migration.
+     * @return The statements of the migration in file order.
+     */
+    static List<String> statementsOf(String migration) {
+        try (var inputStream = SchemaManager.class.getClassLoader()
+                .getResourceAsStream(MIGRATIONS_LOCATION + migration)) {
+            if (inputStream == null) {
+                throw new IllegalStateException("Migration " + migration + " has not been found in resources.");
+            }
+
+            var sql = new String(inputStream.readAllBytes(), StandardCharsets.UTF_8)
+                    .lines()
+                    .filter(line -> !line.strip().startsWith("--"))
+                    .collect(Collectors.joining("\n"));
+
+            return Arrays
+                    .stream(sql.split(";"))
+                    .map(String::strip)
+                    .filter(statement -> !statement.isEmpty())
+                    .toList();
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read migration " + migration, e);
+        }
+    }
+}
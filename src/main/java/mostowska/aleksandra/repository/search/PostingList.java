@@ -0,0 +1,315 @@
+package mostowska.aleksandra.repository.search;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * PostingList is an immutable, compressed, sorted set of document ids: the posting list of one term
+ * of the full-text index.
+ *
+ * Ids are stored in increasing order as the gaps between consecutive ids, each gap written as a variable-length
+ * integer of 7 bits per byte. Ids are handed out in increasing order, so most gaps are small and most ids take
+ * a single byte instead of four, and adding an id larger than every id of the list only appends its gap.
+ * Other changes decode the list and encode it again, which stays cheap for the short lists of a directory.
+ */
+public final class PostingList {
+
+    /**
+     * The list without any id.
+     */
+    public static final PostingList EMPTY = new PostingList(new byte[0], 0, -1);
+
+    private final byte[] gaps;
+    private final int size;
+    private final int last;
+
+    /**
+     * Creates a list over an encoded array that is not modified afterward.
+     *
+     * @param gaps The encoded gaps between consecutive ids.
+     * @param size The number of ids.
+     * @param last The largest id, or -1 for an empty list.
+     */
+    private PostingList(byte[] gaps, int size, int last) {
+        this.gaps = gaps;
+        this.size = size;
+        this.last = last;
+    }
+
+    /**
+     * Builds a list of the given ids.
+     *
+     * @param ids The non-negative ids, in any order and possibly repeated.
+     * @return A list holding the distinct ids.
+     * @throws IllegalArgumentException if an id is negative.
+     */
+    public static PostingList of(int... ids) {
+        var sorted = ids.clone();
+        Arrays.sort(sorted);
+        var distinct = 0;
+        for (var id : sorted) {
+            if (id < 0) {
+                throw new IllegalArgumentException("Document id must not be negative");
+            }
+            if (distinct == 0 || sorted[distinct - 1] != id) {
+                sorted[distinct++] = id;
+            }
+        }
+        return encode(sorted, distinct);
+    }
+
+    /**
+     * Creates a builder collecting ids in increasing order, to build a long list without copying it on every id.
+     *
+     * @return An empty builder.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns a list with an id added. An id larger than every id of the list is appended,
+     * any other id is spliced in by rewriting the gap it falls into.
+     *
+     * @param id The non-negative id to add.
+     * @return A list holding the id, the same list if it already did.
+     * @throws IllegalArgumentException if the id is negative.
+     */
+    public PostingList with(int id) {
+        if (id < 0) {
+            throw new IllegalArgumentException("Document id must not be negative");
+        }
+        if (id > last) {
+            var appended = Arrays.copyOf(gaps, gaps.length + 5);
+            var length = writeGap(appended, gaps.length, id - Math.max(last, 0));
+            return new PostingList(Arrays.copyOf(appended, length), size + 1, id);
+        }
+
+        var entry = new Cursor();
+        if (entry.seek(id)) {
+            return this;
+        }
+        var spliced = new byte[gaps.length + 10];
+        System.arraycopy(gaps, 0, spliced, 0, entry.start);
+        var length = writeGap(spliced, entry.start, id - entry.previous);
+        length = writeGap(spliced, length, entry.id - id);
+        System.arraycopy(gaps, entry.end, spliced, length, gaps.length - entry.end);
+        return new PostingList(Arrays.copyOf(spliced, length + gaps.length - entry.end), size + 1, last);
+    }
+
+    /**
+     * Returns a list with an id removed. The gaps around the id are merged into one,
+     * the rest of the list is copied as is.
+     *
+     * @param id The id to remove.
+     * @return A list without the id, the same list if it did not hold it.
+     */
+    public PostingList without(int id) {
+        if (id < 0 || id > last) {
+            return this;
+        }
+
+        var entry = new Cursor();
+        if (!entry.seek(id)) {
+            return this;
+        }
+        if (size == 1) {
+            return EMPTY;
+        }
+        var removed = entry.start;
+        var previous = entry.previous;
+        if (!entry.next()) {
+            return new PostingList(Arrays.copyOf(gaps, removed), size - 1, previous);
+        }
+        var spliced = new byte[removed + 5 + gaps.length - entry.end];
+        System.arraycopy(gaps, 0, spliced, 0, removed);
+        var length = writeGap(spliced, removed, entry.id - previous);
+        System.arraycopy(gaps, entry.end, spliced, length, gaps.length - entry.end);
+        return new PostingList(Arrays.copyOf(spliced, length + gaps.length - entry.end), size - 1, last);
+    }
+
+    /**
+     * Passes every id to a consumer, in increasing order.
+     *
+     * @param consumer The consumer of the ids.
+     */
+    public void forEach(IntConsumer consumer) {
+        var id = 0;
+        for (var offset = 0; offset < gaps.length; ) {
+            var gap = 0;
+            var shift = 0;
+            byte current;
+            do {
+                current = gaps[offset++];
+                gap |= (current & 0x7F) << shift;
+                shift += 7;
+            } while (current < 0);
+            id += gap;
+            consumer.accept(id);
+        }
+    }
+
+    /**
+     * Decodes the ids.
+     *
+     * @return The ids in increasing order.
+     */
+    public int[] toArray() {
+        var ids = new int[size];
+        var count = new int[1];
+        forEach(id -> ids[count[0]++] = id);
+        return ids;
+    }
+
+    /**
+     * Returns the number of ids.
+     *
+     * @return The number of ids in the list.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks whether the list holds no id.
+     *
+     * @return True if the list is empty.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the size of the encoded list.
+     *
+     * @return The number of bytes taken by the encoded gaps.
+     */
+    public int encodedSize() {
+        return gaps.length;
+    }
+
+    /**
+     * A cursor over the encoded gaps, keeping where the current id is written and the id before it.
+     */
+    private final class Cursor {
+        int start;
+        int end;
+        int id = -1;
+        int previous;
+
+        /**
+         * Moves to the next id.
+         *
+         * @return True if there was a next id, false at the end of the list.
+         */
+        boolean next() {
+            if (end == gaps.length) {
+                return false;
+            }
+            previous = Math.max(id, 0);
+            start = end;
+            var gap = 0;
+            var shift = 0;
+            byte current;
+            do {
+                current = gaps[end++];
+                gap |= (current & 0x7F) << shift;
+                shift += 7;
+            } while (current < 0);
+            id = previous + gap;
+            return true;
+        }
+
+        /**
+         * Moves to the first id not smaller than a target, which must not be larger than the last id.
+         *
+         * @param target The id to look for.
+         * @return True if the list holds the target.
+         */
+        boolean seek(int target) {
+            while (next() && id < target) {
+                // Moves on until the target is reached or passed
+            }
+            return id == target;
+        }
+    }
+
+    /**
+     * A builder of posting lists collecting ids in increasing order.
+     */
+    public static final class Builder {
+        private int[] ids = new int[4];
+        private int count;
+
+        /**
+         * Creates an empty builder.
+         */
+        private Builder() {
+        }
+
+        /**
+         * Adds an id larger than all the ids added before.
+         *
+         * @param id The non-negative id.
+         * @return This builder.
+         * @throws IllegalArgumentException if the id is negative or not larger than the previous one.
+         */
+        public Builder add(int id) {
+            if (id < 0 || (count > 0 && id <= ids[count - 1])) {
+                throw new IllegalArgumentException("Document ids must be added in increasing order");
+            }
+            if (count == ids.length) {
+                ids = Arrays.copyOf(ids, count * 2);
+            }
+            ids[count++] = id;
+            return this;
+        }
+
+        /**
+         * Encodes the collected ids.
+         *
+         * @return The posting list of the collected ids.
+         */
+        public PostingList build() {
+            return encode(ids, count);
+        }
+    }
+
+    /**
+     * Encodes the first ids of a sorted array of distinct ids.
+     *
+     * @param ids   The ids, sorted and distinct.
+     * @param count The number of ids to encode.
+     * @return The encoded list.
+     */
+    private static PostingList encode(int[] ids, int count) {
+        if (count == 0) {
+            return EMPTY;
+        }
+        var encoded = new byte[count * 5];
+        var length = 0;
+        var previous = 0;
+        for (var i = 0; i < count; i++) {
+            length = writeGap(encoded, length, ids[i] - previous);
+            previous = ids[i];
+        }
+        return new PostingList(Arrays.copyOf(encoded, length), count, ids[count - 1]);
+    }
+
+    /**
+     * Writes a gap as a variable-length integer, the high bit of each byte telling whether another byte follows.
+     *
+     * @param target The array to write to, with at least 5 free bytes from the offset.
+     * @param offset The position of the first byte to write.
+     * @param gap    The non-negative gap.
+     * @return The position following the last byte written.
+     */
+    private static int writeGap(byte[] target, int offset, int gap) {
+        while ((gap & ~0x7F) != 0) {
+            target[offset++] = (byte) ((gap & 0x7F) | 0x80);
+            gap >>>= 7;
+        }
+        target[offset++] = (byte) gap;
+        return offset;
+    }
+}
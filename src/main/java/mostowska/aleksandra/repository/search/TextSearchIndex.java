@@ -0,0 +1,557 @@
+package mostowska.aleksandra.repository.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import mostowska.aleksandra.model.dto.search.GetSearchHitDto;
+import mostowska.aleksandra.model.impl.Branch;
+import mostowska.aleksandra.model.impl.Headquarters;
+import mostowska.aleksandra.repository.generic.EntityMetadata;
+import mostowska.aleksandra.repository.model.BranchRepository;
+import mostowska.aleksandra.repository.model.HeadquartersRepository;
+import org.springframework.stereotype.Repository;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * TextSearchIndex is an in-process inverted index over the bank name, address and town name
+ * of all headquarters and branches, answering ranked, typo-tolerant full-text queries.
+ *
+ * Every indexed model is a document with an integer id. Its fields are split into words, normalized
+ * to upper case without diacritics, and the index keeps two kinds of compressed `PostingList`s:
+ *
+ * - the ids of the documents holding each word,
+ * - the ids of the words holding each trigram, the words being padded with `$` on both sides
+ *   so their first and last letters weigh as much as the middle ones.
+ *
+ * A query word found in the index scores 1 on the documents holding it. A query word that is not,
+ * most likely misspelled, is matched against the words sharing its trigrams instead: each word whose
+ * Dice similarity to the query word reaches `MIN_SIMILARITY` scores that similarity, scaled by `FUZZY_WEIGHT`,
+ * on its documents. The words of a directory are few and repetitive, so this expansion walks a small vocabulary
+ * rather than every document. The score of a document is the sum over the query words, and ties are broken
+ * by SWIFT code.
+ *
+ * The index is filled from the repositories at startup with `load`, and kept current by `index` and `remove`
+ * when models are created and deleted. Posting lists are immutable and replaced in concurrent maps, so searches
+ * run without locking while writes, which are serialized, update one document at a time.
+ *
+ * The ids of removed documents and words are reused, lowest first, and freed ids at the top of the range are
+ * given back, so the id ranges and the scratch arrays searches size from them stay within the largest number
+ * of documents and words indexed at once, however many times models are reindexed. A search running while
+ * an id is reused may score the new document or word with postings of the one it replaced, as it may already
+ * see a write half applied.
+ */
+@Repository
+@RequiredArgsConstructor
+@Slf4j
+public class TextSearchIndex {
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final int MIN_WORD_LENGTH = 2;
+    private static final double MIN_SIMILARITY = 0.5;
+    private static final double FUZZY_WEIGHT = 0.8;
+
+    private final HeadquartersRepository headquartersRepository;
+    private final BranchRepository branchRepository;
+
+    private final Map<String, PostingList> documentsByWord = new ConcurrentHashMap<>();
+    private final Map<String, PostingList> wordsByTrigram = new ConcurrentHashMap<>();
+    private final Map<String, Integer> wordIds = new ConcurrentHashMap<>();
+    private final Map<String, Integer> documentIds = new ConcurrentHashMap<>();
+    private volatile String[] words = new String[16];
+    private volatile int nextWordId;
+    private final BitSet freeWordIds = new BitSet();
+    private volatile Document[] documents = new Document[16];
+    private volatile int nextDocumentId;
+    private final BitSet freeDocumentIds = new BitSet();
+
+    /**
+     * Loads all headquarters and branches from the repositories, replacing the current index.
+     * Posting lists are collected in bulk and encoded once, instead of growing one id at a time.
+     *
+     * @return The number of documents indexed.
+     */
+    public synchronized int load() {
+        documentsByWord.clear();
+        wordsByTrigram.clear();
+        wordIds.clear();
+        documentIds.clear();
+        words = new String[16];
+        nextWordId = 0;
+        freeWordIds.clear();
+        documents = new Document[16];
+        nextDocumentId = 0;
+        freeDocumentIds.clear();
+
+        var builders = new TreeMap<String, PostingList.Builder>();
+        indexAll(Headquarters.class, headquartersRepository.findAll(), builders);
+        indexAll(Branch.class, branchRepository.findAll(), builders);
+
+        var trigramBuilders = new TreeMap<String, PostingList.Builder>();
+        builders.forEach((word, builder) -> {
+            documentsByWord.put(word, builder.build());
+            var wordId = registerWord(word);
+            trigramsOf(word).forEach(trigram ->
+                    trigramBuilders.computeIfAbsent(trigram, key -> PostingList.builder()).add(wordId));
+        });
+        trigramBuilders.forEach((trigram, builder) -> wordsByTrigram.put(trigram, builder.build()));
+
+        log.info("Indexed {} documents with {} words and {} trigrams for full-text search",
+                documentIds.size(), wordIds.size(), wordsByTrigram.size());
+        return documentIds.size();
+    }
+
+    /**
+     * Indexes a model, replacing the document indexed under the same SWIFT code.
+     *
+     * @param swiftCode   The SWIFT code of the model.
+     * @param bankName    The bank name, or null.
+     * @param address     The address, or null.
+     * @param townName    The town name, or null.
+     * @param countryIso2 The ISO2 code of the country, or null.
+     * @throws IllegalArgumentException if the SWIFT code is missing or empty.
+     */
+    public synchronized void index(String swiftCode, String bankName, String address, String townName,
+                                   String countryIso2) {
+        var document = documentOf(requireCode(swiftCode), bankName, address, townName, countryIso2);
+        remove(document.swiftCode());
+
+        var id = registerDocument(document);
+        for (var word : document.words()) {
+            var previous = documentsByWord.get(word);
+            documentsByWord.put(word, previous == null ? PostingList.of(id) : previous.with(id));
+            if (previous == null) {
+                var wordId = registerWord(word);
+                trigramsOf(word).forEach(trigram ->
+                        wordsByTrigram.merge(trigram, PostingList.of(wordId), (list, added) -> list.with(wordId)));
+            }
+        }
+    }
+
+    /**
+     * Removes the document indexed under a SWIFT code. Removing a code that is not indexed does nothing.
+     * Words left without documents are dropped from the vocabulary.
+     *
+     * @param swiftCode The SWIFT code, in any letter case.
+     * @throws IllegalArgumentException if the SWIFT code is missing or empty.
+     */
+    public synchronized void remove(String swiftCode) {
+        var id = documentIds.remove(requireCode(swiftCode));
+        if (id == null) {
+            return;
+        }
+        var document = documents[id];
+        releaseDocument(id);
+
+        for (var word : document.words()) {
+            var remaining = documentsByWord.get(word).without(id);
+            if (!remaining.isEmpty()) {
+                documentsByWord.put(word, remaining);
+                continue;
+            }
+            documentsByWord.remove(word);
+            var wordId = wordIds.remove(word);
+            trigramsOf(word).forEach(trigram ->
+                    wordsByTrigram.computeIfPresent(trigram, (key, list) -> emptyToNull(list.without(wordId))));
+            releaseWord(wordId);
+        }
+    }
+
+    /**
+     * Finds the models whose bank name, address or town name best match a free-text query.
+     *
+     * @param query The query, in any letter case, with or without diacritics.
+     * @param limit The maximum number of hits to return.
+     * @return Up to `limit` hits, by decreasing score then SWIFT code, or an empty list if no word of the query
+     *         is long enough to be searched.
+     */
+    public List<GetSearchHitDto> search(String query, int limit) {
+        var queryWords = new LinkedHashSet<>(wordsOf(query));
+        if (queryWords.isEmpty()) {
+            return List.of();
+        }
+
+        // Documents added while searching get ids past the arrays and are left out of this search
+        var capacity = nextDocumentId;
+        var scores = new double[capacity];
+        var wordScores = new double[capacity];
+        var touched = new int[capacity];
+        var candidates = new int[capacity];
+        var candidateCount = 0;
+        for (var word : queryWords) {
+            var touchedCount = new int[1];
+            var exact = documentsByWord.get(word);
+            if (exact != null) {
+                collect(exact, 1.0, capacity, wordScores, touched, touchedCount);
+            } else {
+                similarWords(word).forEach((similar, similarity) -> collect(
+                        documentsByWord.getOrDefault(similar, PostingList.EMPTY), FUZZY_WEIGHT * similarity,
+                        capacity, wordScores, touched, touchedCount));
+            }
+
+            for (var i = 0; i < touchedCount[0]; i++) {
+                var id = touched[i];
+                if (scores[id] == 0) {
+                    candidates[candidateCount++] = id;
+                }
+                scores[id] += wordScores[id];
+                wordScores[id] = 0;
+            }
+        }
+
+        return rank(candidates, candidateCount, scores, limit);
+    }
+
+    /**
+     * Returns the number of indexed documents.
+     *
+     * @return The number of documents.
+     */
+    public int size() {
+        return documentIds.size();
+    }
+
+    /**
+     * An indexed model, with the words it was indexed under so it can be removed.
+     *
+     * @param swiftCode   The upper-case SWIFT code.
+     * @param bankName    The bank name.
+     * @param address     The address.
+     * @param townName    The town name.
+     * @param countryIso2 The ISO2 code of the country.
+     * @param words       The distinct normalized words of the indexed fields.
+     */
+    private record Document(
+            String swiftCode,
+            String bankName,
+            String address,
+            String townName,
+            String countryIso2,
+            String[] words) {
+
+        /**
+         * Converts the document into a search hit.
+         *
+         * @param score The score of the document for the query.
+         * @return The hit.
+         */
+        GetSearchHitDto toHit(double score) {
+            return new GetSearchHitDto(address, bankName, countryIso2, swiftCode, townName, score);
+        }
+    }
+
+    /**
+     * Finds the indexed words similar to a query word, from the trigrams they share.
+     *
+     * @param word The normalized query word.
+     * @return The similar words with their Dice similarity to the query word, at least `MIN_SIMILARITY`.
+     */
+    private Map<String, Double> similarWords(String word) {
+        var queryTrigrams = trigramsOf(word);
+        var vocabulary = words;
+        var shared = new int[nextWordId];
+        var touched = new ArrayList<Integer>();
+        for (var trigram : queryTrigrams) {
+            wordsByTrigram.getOrDefault(trigram, PostingList.EMPTY).forEach(wordId -> {
+                if (wordId < shared.length && shared[wordId]++ == 0) {
+                    touched.add(wordId);
+                }
+            });
+        }
+
+        var similar = new TreeMap<String, Double>();
+        for (var wordId : touched) {
+            var candidate = vocabulary[wordId];
+            if (candidate == null) {
+                continue;
+            }
+            var similarity = 2.0 * shared[wordId] / (queryTrigrams.size() + trigramsOf(candidate).size());
+            if (similarity >= MIN_SIMILARITY) {
+                similar.put(candidate, similarity);
+            }
+        }
+        return similar;
+    }
+
+    /**
+     * Gives the documents of a posting list a score for the current query word, keeping the best score
+     * of a document matched through several similar words.
+     *
+     * @param postings     The documents to score.
+     * @param score        The score of the documents.
+     * @param capacity     The number of document ids covered by the search.
+     * @param wordScores   The scores for the current query word, by document id.
+     * @param touched      The ids of the documents scored for the current query word.
+     * @param touchedCount A single-element holder of the number of touched documents.
+     */
+    private static void collect(PostingList postings, double score, int capacity, double[] wordScores,
+                                int[] touched, int[] touchedCount) {
+        postings.forEach(id -> {
+            if (id >= capacity) {
+                return;
+            }
+            if (wordScores[id] == 0) {
+                touched[touchedCount[0]++] = id;
+            }
+            wordScores[id] = Math.max(wordScores[id], score);
+        });
+    }
+
+    /**
+     * Keeps the best scored candidates and converts them into hits. Candidates ranked below the worst hit kept
+     * so far are skipped before any hit is built for them.
+     *
+     * @param candidates     The ids of the documents with a positive score.
+     * @param candidateCount The number of candidates.
+     * @param scores         The scores, by document id.
+     * @param limit          The maximum number of hits to return.
+     * @return The hits, by decreasing score then SWIFT code.
+     */
+    private List<GetSearchHitDto> rank(int[] candidates, int candidateCount, double[] scores, int limit) {
+        var order = Comparator
+                .comparingDouble(GetSearchHitDto::score)
+                .reversed()
+                .thenComparing(GetSearchHitDto::swiftCode);
+
+        // The head of the queue is the worst hit kept so far
+        var table = documents;
+        var best = new PriorityQueue<GetSearchHitDto>(limit + 1, order.reversed());
+        for (var i = 0; i < candidateCount; i++) {
+            var id = candidates[i];
+            var document = table[id];
+            if (document == null) {
+                continue;
+            }
+            if (best.size() == limit) {
+                var worst = best.peek();
+                if (scores[id] < worst.score()
+                        || (scores[id] == worst.score() && document.swiftCode().compareTo(worst.swiftCode()) > 0)) {
+                    continue;
+                }
+            }
+            best.add(document.toHit(scores[id]));
+            if (best.size() > limit) {
+                best.poll();
+            }
+        }
+
+        var hits = new ArrayList<>(best);
+        hits.sort(order);
+        return hits;
+    }
+
+    /**
+     * Indexes entities read from a repository into posting list builders of their words.
+     * An entity whose SWIFT code is already indexed is skipped.
+     *
+     * @param entityType The class of the entities.
+     * @param items      The entities to index.
+     * @param builders   The posting lists being built, by word.
+     * @param <T>        The type of the entities.
+     */
+    private <T> void indexAll(Class<T> entityType, List<T> items, Map<String, PostingList.Builder> builders) {
+        var metadata = EntityMetadata.of(entityType);
+        var bankName = metadata.column("bankName");
+        var address = metadata.column("address");
+        var townName = metadata.column("townName");
+        var countryIso2 = metadata.column("countryIso2");
+        for (var item : items) {
+            var document = documentOf(requireCode(metadata.swiftCode(item)),
+                    (String) bankName.get(item),
+                    (String) address.get(item),
+                    (String) townName.get(item),
+                    (String) countryIso2.get(item));
+            if (documentIds.containsKey(document.swiftCode())) {
+                continue;
+            }
+
+            var id = registerDocument(document);
+            for (var word : document.words()) {
+                builders.computeIfAbsent(word, key -> PostingList.builder()).add(id);
+            }
+        }
+    }
+
+    /**
+     * Gives a document the lowest free id, or the next one if none is free, and makes it visible to searches.
+     *
+     * @param document The document.
+     * @return The id of the document.
+     */
+    private int registerDocument(Document document) {
+        var id = freeDocumentIds.nextSetBit(0);
+        if (id >= 0) {
+            freeDocumentIds.clear(id);
+        } else {
+            id = nextDocumentId;
+            if (id == documents.length) {
+                documents = Arrays.copyOf(documents, id * 2);
+            }
+        }
+        documents[id] = document;
+        documentIds.put(document.swiftCode(), id);
+        // Publishing the id last makes the document visible to the searches sizing their arrays from it
+        if (id == nextDocumentId) {
+            nextDocumentId = id + 1;
+        }
+        return id;
+    }
+
+    /**
+     * Frees the id of a removed document, giving back the free ids left at the top of the range.
+     *
+     * @param id The id of the document.
+     */
+    private void releaseDocument(int id) {
+        documents[id] = null;
+        nextDocumentId = release(freeDocumentIds, id, nextDocumentId);
+    }
+
+    /**
+     * Gives a word of the vocabulary the lowest free id, or the next one if none is free.
+     *
+     * @param word The normalized word.
+     * @return The id of the word.
+     */
+    private int registerWord(String word) {
+        var id = freeWordIds.nextSetBit(0);
+        if (id >= 0) {
+            freeWordIds.clear(id);
+        } else {
+            id = nextWordId;
+            if (id == words.length) {
+                words = Arrays.copyOf(words, id * 2);
+            }
+        }
+        words[id] = word;
+        wordIds.put(word, id);
+        if (id == nextWordId) {
+            nextWordId = id + 1;
+        }
+        return id;
+    }
+
+    /**
+     * Frees the id of a word dropped from the vocabulary, giving back the free ids left at the top of the range.
+     *
+     * @param id The id of the word.
+     */
+    private void releaseWord(int id) {
+        words[id] = null;
+        nextWordId = release(freeWordIds, id, nextWordId);
+    }
+
+    /**
+     * Marks an id as free, then shrinks the range of ids while its last id is free, so free ids are always
+     * below the end of the range.
+     *
+     * @param freeIds The free ids.
+     * @param id      The id to free.
+     * @param nextId  The end of the range of ids.
+     * @return The new end of the range.
+     */
+    private static int release(BitSet freeIds, int id, int nextId) {
+        freeIds.set(id);
+        var end = nextId;
+        while (end > 0 && freeIds.get(end - 1)) {
+            end--;
+        }
+        freeIds.clear(end, nextId);
+        return end;
+    }
+
+    /**
+     * Splits the indexed fields of a model into their distinct words.
+     *
+     * @param swiftCode   The upper-case SWIFT code.
+     * @param bankName    The bank name, or null.
+     * @param address     The address, or null.
+     * @param townName    The town name, or null.
+     * @param countryIso2 The ISO2 code of the country, or null.
+     * @return The document of the model.
+     */
+    private static Document documentOf(String swiftCode, String bankName, String address, String townName,
+                                       String countryIso2) {
+        var documentWords = new LinkedHashSet<String>();
+        for (var field : new String[]{bankName, address, townName}) {
+            documentWords.addAll(wordsOf(field));
+        }
+        return new Document(swiftCode, bankName, address, townName, countryIso2,
+                documentWords.toArray(String[]::new));
+    }
+
+    /**
+     * Splits a text into normalized words, dropping the words too short to be searched.
+     *
+     * @param text The text to split, or null.
+     * @return The upper-case words without diacritics, in order of appearance.
+     */
+    private static List<String> wordsOf(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        var stripped = DIACRITICS
+                .matcher(Normalizer.normalize(text, Normalizer.Form.NFD))
+                .replaceAll("")
+                .toUpperCase(Locale.ROOT);
+
+        var found = new ArrayList<String>();
+        for (var word : WORD_SEPARATOR.split(stripped)) {
+            if (word.length() >= MIN_WORD_LENGTH) {
+                found.add(word);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Computes the distinct trigrams of a word padded with `$` on both sides.
+     *
+     * @param word The normalized word.
+     * @return The trigrams of the padded word.
+     */
+    private static Set<String> trigramsOf(String word) {
+        var padded = "$" + word + "$";
+        var found = new LinkedHashSet<String>();
+        for (var i = 0; i + 3 <= padded.length(); i++) {
+            found.add(padded.substring(i, i + 3));
+        }
+        return found;
+    }
+
+    /**
+     * Maps an emptied posting list to null, so `computeIfPresent` drops its trigram.
+     *
+     * @param list The posting list.
+     * @return The list, or null if it is empty.
+     */
+    private static PostingList emptyToNull(PostingList list) {
+        return list.isEmpty() ? null : list;
+    }
+
+    /**
+     * Validates and normalizes the SWIFT code of a document.
+     *
+     * @param swiftCode The SWIFT code.
+     * @return The upper-case code.
+     * @throws IllegalArgumentException if the code is missing or empty.
+     */
+    private static String requireCode(String swiftCode) {
+        if (swiftCode == null || swiftCode.isEmpty()) {
+            throw new IllegalArgumentException("SWIFT code must be passed");
+        }
+        return swiftCode.toUpperCase(Locale.ROOT);
+    }
+}
@@ -5,6 +5,7 @@ import mostowska.aleksandra.model.dto.country.GetModelForCountryDto;
 import mostowska.aleksandra.model.dto.branch.GetBranchDto;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * The BranchService interface defines the core operations for managing Branch models.
@@ -44,11 +45,31 @@ public interface BranchService {
     List<GetBranchDto> getAllBySwiftCode(String swiftCode);
 
     /**
-     * Retrieves a list of Branches by the given country ISO2 code.
-     * This method returns all Branch records associated with a specific country.
+     * Looks up Branches by many SWIFT codes at once.
+     * Codes matching no Branch are left out of the result.
      *
-     * @param countryIso2 The 2-letter ISO country code used to filter Branch records.
-     * @return A list of DTOs representing Branches for the given country.
+     * @param swiftCodes The SWIFT codes to look up.
+     * @return A list of DTOs representing the Branches found, in no particular order.
      */
-    List<GetModelForCountryDto> getAllByCountry(String countryIso2);
+    List<GetModelForCountryDto> lookup(List<String> swiftCodes);
+
+    /**
+     * Removes Branches by many SWIFT codes at once.
+     * Codes matching no Branch are left out of the result.
+     *
+     * @param swiftCodes The SWIFT codes of the Branches to remove.
+     * @param onRemoved  Called with the Branches of each chunk removed, as soon as the chunk is committed.
+     * @return A list of DTOs representing the Branches removed, in no particular order.
+     */
+    List<GetModelForCountryDto> removeAll(List<String> swiftCodes, Consumer<List<GetModelForCountryDto>> onRemoved);
+
+    /**
+     * Removes all Branches of a country.
+     *
+     * @param countryIso2 The upper-case 2-letter ISO country code.
+     * @param onRemoved   Called with the Branches of each chunk removed, as soon as the chunk is committed.
+     * @return A list of DTOs representing the Branches removed, in no particular order.
+     */
+    List<GetModelForCountryDto> removeAllForCountry(String countryIso2,
+                                                    Consumer<List<GetModelForCountryDto>> onRemoved);
 }
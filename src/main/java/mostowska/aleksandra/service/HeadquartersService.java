@@ -1,10 +1,12 @@
 package mostowska.aleksandra.service;
 
 import mostowska.aleksandra.model.dto.CreateModelDto;
+import mostowska.aleksandra.model.dto.PageDto;
 import mostowska.aleksandra.model.dto.country.GetModelForCountryDto;
 import mostowska.aleksandra.model.dto.headquarters.GetHeadquartersDto;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * The HeadquartersService interface defines the core operations for managing Headquarters models.
@@ -44,19 +46,50 @@ public interface HeadquartersService {
     List<GetHeadquartersDto> getAllBySwiftCode(String swiftCode);
 
     /**
-     * Retrieves all Headquarters.
-     * This method returns a list of all Headquarters records in the system.
+     * Retrieves a list of Headquarters by the given SWIFT code, each with all of its branches.
+     * The Headquarters and its branches are expected to be fetched together in a single query.
      *
-     * @return A list of DTOs representing all Headquarters.
+     * @param swiftCode The SWIFT code used to filter Headquarters records.
+     * @return A list of DTOs representing Headquarters with nested branches associated with the given SWIFT code.
+     */
+    List<GetHeadquartersDto> getAllWithBranchesBySwiftCode(String swiftCode);
+
+    /**
+     * Retrieves a page of Headquarters in SWIFT code order.
+     * Pages are chained through the opaque cursor returned with each page.
+     *
+     * @param after The cursor returned with the previous page, or null for the first page.
+     * @param limit The maximum number of Headquarters of the page.
+     * @return A page of DTOs representing Headquarters, with the cursor of the following page if there is one.
+     */
+    PageDto<GetHeadquartersDto> getPage(String after, int limit);
+
+    /**
+     * Looks up Headquarters by many SWIFT codes at once.
+     * Codes matching no Headquarters are left out of the result.
+     *
+     * @param swiftCodes The SWIFT codes to look up.
+     * @return A list of DTOs representing the Headquarters found, in no particular order.
+     */
+    List<GetModelForCountryDto> lookup(List<String> swiftCodes);
+
+    /**
+     * Removes Headquarters by many SWIFT codes at once.
+     * Codes matching no Headquarters are left out of the result.
+     *
+     * @param swiftCodes The SWIFT codes of the Headquarters to remove.
+     * @param onRemoved  Called with the Headquarters of each chunk removed, as soon as the chunk is committed.
+     * @return A list of DTOs representing the Headquarters removed, in no particular order.
      */
-    List<GetHeadquartersDto> getAll();
+    List<GetModelForCountryDto> removeAll(List<String> swiftCodes, Consumer<List<GetModelForCountryDto>> onRemoved);
 
     /**
-     * Retrieves a list of Headquarters by the given country ISO2 code.
-     * This method returns all Headquarters records associated with a specific country.
+     * Removes all Headquarters of a country.
      *
-     * @param countryIso2 The 2-letter ISO country code used to filter Headquarters records.
-     * @return A list of DTOs representing Headquarters for the given country.
+     * @param countryIso2 The upper-case 2-letter ISO country code.
+     * @param onRemoved   Called with the Headquarters of each chunk removed, as soon as the chunk is committed.
+     * @return A list of DTOs representing the Headquarters removed, in no particular order.
      */
-    List<GetModelForCountryDto> getAllByCountry(String countryIso2);
+    List<GetModelForCountryDto> removeAllForCountry(String countryIso2,
+                                                    Consumer<List<GetModelForCountryDto>> onRemoved);
 }
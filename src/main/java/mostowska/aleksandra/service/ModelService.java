@@ -1,15 +1,38 @@
 package mostowska.aleksandra.service;
 
+import com.google.common.collect.Iterables;
 import lombok.RequiredArgsConstructor;
+import mostowska.aleksandra.exception.BadRequestException;
+import mostowska.aleksandra.exception.NotFoundException;
+import mostowska.aleksandra.importer.NdjsonImportPipeline;
+import mostowska.aleksandra.importer.NdjsonImportReport;
+import mostowska.aleksandra.importer.NdjsonImportSettings;
 import mostowska.aleksandra.model.dto.CreateModelDto;
+import mostowska.aleksandra.model.dto.PageDto;
 import mostowska.aleksandra.model.dto.country.GetGroupedByCountryDto;
+import mostowska.aleksandra.model.dto.country.GetModelForCountryDto;
 import mostowska.aleksandra.model.dto.GetModelDto;
-import mostowska.aleksandra.repository.Utils;
+import mostowska.aleksandra.model.dto.delete.GetDeleteSummaryDto;
+import mostowska.aleksandra.model.dto.lookup.GetLookupDto;
+import mostowska.aleksandra.model.dto.search.GetSearchHitDto;
+import mostowska.aleksandra.repository.CountryDictionary;
+import mostowska.aleksandra.repository.DataVersions;
+import mostowska.aleksandra.repository.SwiftCodeTrie;
+import mostowska.aleksandra.repository.model.CountryRepository;
+import mostowska.aleksandra.repository.search.TextSearchIndex;
 import org.springframework.stereotype.Service;
 
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 /**
  * The ModelService class provides the core business logic for managing bank model data,
@@ -24,23 +47,33 @@ import java.util.stream.Stream;
 @Service
 @RequiredArgsConstructor
 public class ModelService {
+    private static final int MAX_SEARCH_LIMIT = 100;
+    private static final int MAX_BULK_CODES = 50_000;
+
     private final HeadquartersService headquartersService;
     private final BranchService branchService;
-    private final Utils utilsRepository;
+    private final CountryRepository countryRepository;
+    private final CountryDictionary countryDictionary;
+    private final SwiftCodeTrie swiftCodeTrie;
+    private final TextSearchIndex textSearchIndex;
+    private final DataVersions dataVersions;
+    private final NdjsonImportPipeline ndjsonImportPipeline;
+    private final NdjsonImportSettings ndjsonImportSettings;
 
     /**
      * Saves a model (either Headquarters or Branch) to the database based on the provided DTO.
      * It first validates that all required fields are present, then determines whether
      * the model is a Headquarter or Branch based on the SWIFT code and calls the respective service
-     * for saving it to the database.
+     * for saving it to the database. Once saved, the data versions of its country and bank are moved,
+     * its country is added to the country dictionary and its SWIFT code to the search trie and the full-text index.
      *
      * @param createModelDto DTO containing the data to be saved.
      * @return A DTO representing the saved model (Headquarter or Branch).
-     * @throws IllegalStateException If the DTO is null or missing required fields.
+     * @throws BadRequestException If the DTO is null or missing required fields.
      */
     public GetModelDto saveModelToDB(CreateModelDto createModelDto) {
         if (createModelDto == null) {
-            throw new IllegalStateException("All required parameters must be passed in form:" +
+            throw new BadRequestException("All required parameters must be passed in form:" +
                     "{\n" +
                     "    \"address\": string,\n" +
                     "    \"bankName\": string,\n" +
@@ -53,26 +86,61 @@ public class ModelService {
 
         CreateModelDto.checkRequiredFields(createModelDto);
 
-        return createModelDto.checkIfHeadquarter() ?
+        var savedModel = createModelDto.checkIfHeadquarter() ?
                 headquartersService.addHeadquarters(createModelDto, createModelDto.swiftCode())
                 : branchService.addBranch(createModelDto, createModelDto.swiftCode());
+        registerCreated(createModelDto);
+        return savedModel;
+
+    }
+
+    /**
+     * Creates Headquarters and Branches from a newline-delimited JSON upload, one model per line in the form
+     * accepted by `saveModelToDB`. The upload is parsed as it arrives and written in batches, each in its own
+     * transaction, so uploads of any size are imported with the same memory. Every model created moves the data
+     * versions and joins the country dictionary, the search trie and the full-text index, like a single one does.
+     * Invalid rows and rows refused by the database are reported and skipped, the others are created.
+     *
+     * @param ndjson The UTF-8 encoded upload.
+     * @return A report counting the models created, rejected and failed, and listing the rows that were not created.
+     * @throws IllegalStateException If the upload is missing or cannot be read.
+     */
+    public NdjsonImportReport createAll(InputStream ndjson) {
+        if (ndjson == null) {
+            throw new BadRequestException("Models must be passed as newline-delimited JSON");
+        }
+        return ndjsonImportPipeline.run(ndjson, ndjsonImportSettings, this::registerCreated);
+    }
+
+    /**
+     * Makes a stored model visible to the readers not going to the database: moves the data versions of its country
+     * and bank, adds its country to the country dictionary and its SWIFT code to the search trie
+     * and the full-text index.
+     *
+     * @param createModelDto DTO of the stored model.
+     */
+    private void registerCreated(CreateModelDto createModelDto) {
+        dataVersions.bump(createModelDto.countryISO2(), createModelDto.swiftCode());
 
+        countryDictionary.register(createModelDto.countryISO2(), createModelDto.countryName().toUpperCase());
+        swiftCodeTrie.add(createModelDto.swiftCode());
+        textSearchIndex.index(createModelDto.swiftCode(), createModelDto.bankName(), createModelDto.address(),
+                null, createModelDto.countryISO2());
     }
 
     /**
      * Retrieves a list of all Headquarters and Branches associated with a given SWIFT code.
-     * If the SWIFT code ends with "XXX", it treats it as a Headquarter and includes all related branches.
+     * If the SWIFT code ends with "XXX", it treats it as a Headquarter and includes all related branches,
+     * fetched together with the Headquarter in a single query.
      *
      * @param swiftCode The SWIFT code used to retrieve the models.
      * @return A list of DTOs representing Headquarters and Branches.
      */
     public List<GetModelDto> getAllHeadquartersWithBranches(String swiftCode) {
         if (swiftCode.endsWith("XXX")) {
-            var headquartersList = headquartersService.getAllBySwiftCode(swiftCode);
-            var branches = branchService.getAllBySwiftCode(swiftCode);
-
-            return headquartersList.stream()
-                    .map(h -> h.withBranches(branches))
+            return headquartersService.getAllWithBranchesBySwiftCode(swiftCode)
+                    .stream()
+                    .map(h -> (GetModelDto) h)
                     .collect(Collectors.toList());
         }
 
@@ -84,40 +152,270 @@ public class ModelService {
     }
 
     /**
-     * Retrieves all Headquarters and Branches grouped by country using the provided country ISO2 code.
-     * Combines the Headquarters and Branches into one list and creates a DTO with the country information.
+     * Retrieves a page of the Headquarters and Branches of a country in SWIFT code order.
+     * Countries missing from the country dictionary are rejected without querying the database.
+     * One row more than the limit is read, telling whether a following page exists without counting the rows.
      *
      * @param countryIso2 The 2-letter ISO country code used to group the models.
-     * @return A DTO containing the country information and a list of all related Headquarters and Branches.
-     * @throws IllegalStateException If the countryISO2 is null.
+     * @param after       The cursor returned with the previous page, or null for the first page.
+     * @param limit       The maximum number of Headquarters and Branches of the page, from 1 to 1000.
+     * @return A DTO containing the country information, a page of its Headquarters and Branches
+     *         and the cursor of the following page if there is one.
+     * @throws BadRequestException If the countryISO2 is null, the limit is out of range or the cursor is invalid.
+     * @throws NotFoundException   If the country is unknown.
      */
-    public GetGroupedByCountryDto getAllByCountry(String countryIso2) {
+    public GetGroupedByCountryDto getPageByCountry(String countryIso2, String after, int limit) {
         if (countryIso2 == null) {
-            throw new IllegalStateException("CountryISO2 must be passed");
+            throw new BadRequestException("CountryISO2 must be passed");
+        }
+        PageDto.checkLimit(limit);
+        var afterSwiftCode = PageDto.afterSwiftCode(after);
+        if (!countryDictionary.contains(countryIso2)) {
+            throw new NotFoundException("No such country");
         }
 
-        var headquarters = headquartersService.getAllByCountry(countryIso2);
-        var branches = branchService.getAllByCountry(countryIso2);
-        var countryName = utilsRepository.findCountryNameByISO2(countryIso2);
-        var allBranchesAndHeadquarters = Stream
-                .concat(headquarters.stream(), branches.stream())
-                .collect(Collectors.toList());
-
+        var found = countryRepository.findPageForCountry(countryIso2, afterSwiftCode, limit + 1);
+        if (found.isEmpty()) {
+            // Only the first page of a country tells whether the country has any models
+            if (afterSwiftCode == null) {
+                throw new NotFoundException("No such country");
+            }
+            return new GetGroupedByCountryDto(countryIso2, countryDictionary.findCountryNameByISO2(countryIso2),
+                    List.of());
+        }
 
-        return new GetGroupedByCountryDto(countryIso2, countryName, allBranchesAndHeadquarters);
+        var grouped = found.get();
+        var page = PageDto.of(grouped.items(), limit, GetModelForCountryDto::swiftCode);
+        return new GetGroupedByCountryDto(grouped.countryISO2(), grouped.countryName(), page.items(), page.next());
     }
 
     /**
      * Deletes a model (Headquarter or Branch) from the database based on the provided SWIFT code.
      * If the SWIFT code ends with "XXX", it will delete a Headquarter; otherwise, it deletes a Branch.
+     * Once deleted, the data versions of its country and bank are moved
+     * and the SWIFT code is removed from the search trie and the full-text index.
      *
      * @param swiftCode The SWIFT code used to identify the model to be deleted.
      * @return A DTO representing the deleted model (Headquarter or Branch).
      */
     public GetModelDto delete(String swiftCode) {
-        return swiftCode.endsWith("XXX") ?
-                headquartersService.removeHeadquarters(swiftCode)
-                : branchService.removeBranch(swiftCode);
+        GetModelDto deletedModel;
+        if (swiftCode.endsWith("XXX")) {
+            var headquarters = headquartersService.removeHeadquarters(swiftCode);
+            unregisterDeleted(headquarters.countryISO2(), swiftCode);
+            deletedModel = headquarters;
+        } else {
+            var branch = branchService.removeBranch(swiftCode);
+            unregisterDeleted(branch.countryISO2(), swiftCode);
+            deletedModel = branch;
+        }
+        return deletedModel;
+    }
+
+    /**
+     * Deletes many models (Headquarters and Branches) at once by their SWIFT codes.
+     * Codes are compared ignoring case and surrounding whitespace, and repeated ones are deleted once.
+     * Codes ending with "XXX" delete Headquarters, the others Branches; the repositories delete them in bounded
+     * chunks, each in its own short transaction. The models of each chunk are unregistered like a single deleted one
+     * as soon as the chunk is committed, so a delete failing part way leaves no deleted model registered.
+     *
+     * @param swiftCodes The SWIFT codes of the models to delete, at most 50000.
+     * @return A summary counting the Headquarters and Branches deleted and listing the codes that matched nothing.
+     * @throws BadRequestException If the codes are missing, empty, too many or hold a null code.
+     */
+    public GetDeleteSummaryDto deleteAll(List<String> swiftCodes) {
+        var codes = normalizeSwiftCodes(swiftCodes, "deleted");
+        var headquartersCodes = codes.stream().filter(code -> code.endsWith("XXX")).toList();
+        var branchCodes = codes.stream().filter(code -> !code.endsWith("XXX")).toList();
+
+        var deletedHeadquarters = headquartersService.removeAll(headquartersCodes, this::unregisterDeleted);
+        var deletedBranches = branchService.removeAll(branchCodes, this::unregisterDeleted);
+
+        var deleted = new HashSet<String>();
+        for (var model : Iterables.concat(deletedHeadquarters, deletedBranches)) {
+            deleted.add(model.swiftCode().toUpperCase(Locale.ROOT));
+        }
+        var missing = codes.stream().filter(code -> !deleted.contains(code)).toList();
+        return new GetDeleteSummaryDto(deletedHeadquarters.size(), deletedBranches.size(), missing.size(), missing);
+    }
+
+    /**
+     * Deletes all models (Headquarters and Branches) of a country, as an administrative purge.
+     * The repositories delete them in bounded chunks, each in its own short transaction, so readers of the same
+     * tables are never held up for the whole purge. The models of each chunk are unregistered like a single deleted
+     * one as soon as the chunk is committed, and the country itself is forgotten once it has no models left,
+     * so it is then reported as unknown.
+     *
+     * @param countryIso2 The 2-letter ISO country code, in any letter case.
+     * @return A summary counting the Headquarters and Branches deleted.
+     * @throws BadRequestException If the countryISO2 is null or not 2 characters long.
+     */
+    public GetDeleteSummaryDto deleteAllForCountry(String countryIso2) {
+        if (countryIso2 == null) {
+            throw new BadRequestException("CountryISO2 must be passed");
+        }
+        if (countryIso2.length() != 2) {
+            throw new BadRequestException("Wrong input for country ISO2 code - should contain 2 letters.");
+        }
+        var country = countryIso2.toUpperCase(Locale.ROOT);
+
+        var deletedHeadquarters = headquartersService.removeAllForCountry(country, this::unregisterDeleted);
+        var deletedBranches = branchService.removeAllForCountry(country, this::unregisterDeleted);
+        // Models of the country saved while the purge ran keep it known
+        if (countryRepository.findPageForCountry(country, null, 1).isEmpty()) {
+            countryDictionary.remove(country);
+        }
+        return new GetDeleteSummaryDto(deletedHeadquarters.size(), deletedBranches.size(), 0, List.of());
     }
 
+    /**
+     * Makes deleted models invisible to the readers not going to the database, like `unregisterDeleted` does
+     * for one model.
+     *
+     * @param models The deleted models.
+     */
+    private void unregisterDeleted(List<GetModelForCountryDto> models) {
+        models.forEach(model -> unregisterDeleted(model.countryISO2(), model.swiftCode()));
+    }
+
+    /**
+     * Makes a deleted model invisible to the readers not going to the database: moves the data versions of its
+     * country and bank, and removes its SWIFT code from the search trie and the full-text index.
+     *
+     * @param countryIso2 The ISO2 code of the country of the deleted model.
+     * @param swiftCode   The SWIFT code of the deleted model.
+     */
+    private void unregisterDeleted(String countryIso2, String swiftCode) {
+        dataVersions.bump(countryIso2, swiftCode);
+        swiftCodeTrie.remove(swiftCode);
+        textSearchIndex.remove(swiftCode);
+    }
+
+    /**
+     * Finds the SWIFT codes of Headquarters and Branches starting with a prefix, for autocompletion.
+     * Codes are served from the in-memory search trie without querying the database.
+     *
+     * @param prefix The beginning of the SWIFT code, in any letter case.
+     * @param limit  The maximum number of codes to return, from 1 to 100.
+     * @return Up to `limit` upper-case SWIFT codes starting with the prefix, in lexicographic order.
+     * @throws BadRequestException If the prefix is missing or blank, or the limit is out of range.
+     */
+    public List<String> search(String prefix, int limit) {
+        if (prefix == null || prefix.isBlank()) {
+            throw new BadRequestException("Prefix must be passed");
+        }
+        if (limit < 1 || limit > MAX_SEARCH_LIMIT) {
+            throw new BadRequestException("Limit must be between 1 and " + MAX_SEARCH_LIMIT);
+        }
+
+        return swiftCodeTrie.search(prefix.strip(), limit);
+    }
+
+    /**
+     * Finds the Headquarters and Branches whose bank name, address or town name match a free-text query.
+     * Words are matched ignoring case and diacritics, and tolerating typos, against the in-memory
+     * full-text index without querying the database.
+     *
+     * @param query The words to look for.
+     * @param limit The maximum number of hits to return, from 1 to 100.
+     * @return Up to `limit` hits, the best matching first.
+     * @throws BadRequestException If the query is missing or blank, or the limit is out of range.
+     */
+    public List<GetSearchHitDto> searchText(String query, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new BadRequestException("Query must be passed");
+        }
+        if (limit < 1 || limit > MAX_SEARCH_LIMIT) {
+            throw new BadRequestException("Limit must be between 1 and " + MAX_SEARCH_LIMIT);
+        }
+
+        return textSearchIndex.search(query, limit);
+    }
+
+    /**
+     * Looks up many SWIFT codes at once, returning the Headquarters and Branches found and the codes matching none.
+     * Codes are compared ignoring case and surrounding whitespace, and repeated ones are looked up once.
+     * Headquarters and Branches are resolved in parallel, each on a virtual thread, by their repositories,
+     * which read the database in bounded chunks of codes.
+     *
+     * @param swiftCodes The SWIFT codes to look up, at most 50000.
+     * @return The models found and the codes missing, both in the order of the codes passed.
+     * @throws BadRequestException If the codes are missing, empty, too many or hold a null code.
+     */
+    public GetLookupDto lookup(List<String> swiftCodes) {
+        var codes = normalizeSwiftCodes(swiftCodes, "looked up");
+        var headquartersCodes = codes.stream().filter(code -> code.endsWith("XXX")).toList();
+        var branchCodes = codes.stream().filter(code -> !code.endsWith("XXX")).toList();
+
+        var found = new HashMap<String, GetModelForCountryDto>();
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            var headquarters = executor.submit(() -> headquartersCodes.isEmpty()
+                    ? List.<GetModelForCountryDto>of() : headquartersService.lookup(headquartersCodes));
+            var branches = executor.submit(() -> branchCodes.isEmpty()
+                    ? List.<GetModelForCountryDto>of() : branchService.lookup(branchCodes));
+            join(headquarters).forEach(model -> found.put(model.swiftCode().toUpperCase(Locale.ROOT), model));
+            join(branches).forEach(model -> found.put(model.swiftCode().toUpperCase(Locale.ROOT), model));
+        }
+
+        var models = new ArrayList<GetModelForCountryDto>(found.size());
+        var missing = new ArrayList<String>();
+        for (var code : codes) {
+            var model = found.get(code);
+            if (model == null) {
+                missing.add(code);
+            } else {
+                models.add(model);
+            }
+        }
+        return new GetLookupDto(models, missing);
+    }
+
+    /**
+     * Validates the SWIFT codes passed to a bulk operation and normalizes them for comparison.
+     *
+     * @param swiftCodes The SWIFT codes, at most 50000.
+     * @param operation  The past participle of the operation, naming it in the error messages.
+     * @return The upper-case codes stripped of surrounding whitespace, without repetitions, in the order passed.
+     * @throws BadRequestException If the codes are missing, empty, too many or hold a null code.
+     */
+    private static LinkedHashSet<String> normalizeSwiftCodes(List<String> swiftCodes, String operation) {
+        if (swiftCodes == null || swiftCodes.isEmpty()) {
+            throw new BadRequestException("Swift codes must be passed as a non-empty array");
+        }
+        if (swiftCodes.size() > MAX_BULK_CODES) {
+            throw new BadRequestException("At most " + MAX_BULK_CODES + " swift codes can be " + operation
+                    + " at once");
+        }
+
+        var codes = new LinkedHashSet<String>();
+        for (var swiftCode : swiftCodes) {
+            if (swiftCode == null) {
+                throw new BadRequestException("Swift codes cannot be null");
+            }
+            codes.add(swiftCode.strip().toUpperCase(Locale.ROOT));
+        }
+        return codes;
+    }
+
+    /**
+     * Waits for the result of a lookup running in parallel.
+     *
+     * @param lookup The running lookup.
+     * @param <T>    The type of the result.
+     * @return The result of the lookup.
+     * @throws RuntimeException The exception the lookup failed with, or an IllegalStateException if interrupted.
+     */
+    private static <T> T join(Future<T> lookup) {
+        try {
+            return lookup.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Lookup interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Lookup failed", e.getCause());
+        }
+    }
 }
@@ -1,15 +1,19 @@
 package mostowska.aleksandra.service.impl;
 
 import lombok.RequiredArgsConstructor;
+import mostowska.aleksandra.exception.BadRequestException;
+import mostowska.aleksandra.exception.NotFoundException;
 import mostowska.aleksandra.model.dto.CreateModelDto;
 import mostowska.aleksandra.model.dto.country.GetModelForCountryDto;
 import mostowska.aleksandra.model.dto.branch.GetBranchDto;
 import mostowska.aleksandra.model.impl.Branch;
+import mostowska.aleksandra.repository.generic.DeleteChunkRunner;
 import mostowska.aleksandra.repository.model.BranchRepository;
 import mostowska.aleksandra.service.BranchService;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
@@ -33,7 +37,7 @@ public class BranchServiceImpl implements BranchService {
     @Override
     public GetBranchDto addBranch(CreateModelDto createModelDto, String swiftCode) {
         if (createModelDto == null) {
-            throw new IllegalStateException("Item cannot be null");
+            throw new BadRequestException("Item cannot be null");
         }
 
         createModelDto.verify();
@@ -52,10 +56,10 @@ public class BranchServiceImpl implements BranchService {
     @Override
     public GetBranchDto removeBranch(String swiftCode) {
         if (swiftCode == null) {
-            throw new IllegalStateException("Removal failed");
+            throw new BadRequestException("Removal failed");
         }
         if (branchRepository.findAllForSWIFT(swiftCode).isEmpty()) {
-            throw new IllegalStateException("Item not found");
+            throw new NotFoundException("Item not found");
         }
 
         return branchRepository.delete(swiftCode).toGetBranchDto();
@@ -78,20 +82,65 @@ public class BranchServiceImpl implements BranchService {
     }
 
     /**
-     * Retrieves a list of Branches associated with the provided country ISO2 code.
-     * If there are no matching Branches, it returns an empty list.
+     * Looks up Branches by many SWIFT codes at once through the repository, which reads them in bounded chunks.
+     * Codes matching no Branch are left out of the result.
      *
-     * @param countryIso2 The 2-letter ISO country code used to filter Branch records.
-     * @return A list of DTOs representing the Branches that belong to the given country.
+     * @param swiftCodes The SWIFT codes to look up.
+     * @return A list of DTOs representing the Branches found, in no particular order.
      */
     @Override
-    public List<GetModelForCountryDto> getAllByCountry(String countryIso2) {
-        if (countryIso2 == null) {
-            throw new IllegalStateException("Country name must be passed");
-        }
-        return branchRepository.findAllForCountry(countryIso2)
+    public List<GetModelForCountryDto> lookup(List<String> swiftCodes) {
+        return branchRepository.lookupBySwiftCode(swiftCodes)
                 .stream()
                 .map(Branch::toGetModelByCountryDto)
                 .collect(Collectors.toList());
     }
+
+    /**
+     * Removes Branches by many SWIFT codes at once through the repository, which deletes them in bounded chunks,
+     * each in its own transaction. Codes matching no Branch are left out of the result.
+     *
+     * @param swiftCodes The SWIFT codes of the Branches to remove.
+     * @param onRemoved  Called with the Branches of each chunk removed, as soon as the chunk is committed.
+     * @return A list of DTOs representing the Branches removed, in no particular order.
+     */
+    @Override
+    public List<GetModelForCountryDto> removeAll(List<String> swiftCodes,
+                                                 Consumer<List<GetModelForCountryDto>> onRemoved) {
+        return branchRepository.deleteFoundBySwiftCode(swiftCodes, reportingChunks(onRemoved))
+                .stream()
+                .map(Branch::toGetModelByCountryDto)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Removes all Branches of a country through the repository, which deletes them in bounded chunks,
+     * each in its own transaction.
+     *
+     * @param countryIso2 The upper-case 2-letter ISO country code.
+     * @param onRemoved   Called with the Branches of each chunk removed, as soon as the chunk is committed.
+     * @return A list of DTOs representing the Branches removed, in no particular order.
+     */
+    @Override
+    public List<GetModelForCountryDto> removeAllForCountry(String countryIso2,
+                                                           Consumer<List<GetModelForCountryDto>> onRemoved) {
+        return branchRepository.deleteAllForCountry(countryIso2, reportingChunks(onRemoved))
+                .stream()
+                .map(Branch::toGetModelByCountryDto)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Builds the runner of the chunks of a delete, reporting the Branches of each chunk once it is committed.
+     *
+     * @param onRemoved Called with the Branches of each chunk removed.
+     * @return The runner of the chunks.
+     */
+    private static DeleteChunkRunner<Branch> reportingChunks(Consumer<List<GetModelForCountryDto>> onRemoved) {
+        return (swiftCodes, delete) -> {
+            var deleted = delete.get();
+            onRemoved.accept(deleted.stream().map(Branch::toGetModelByCountryDto).toList());
+            return deleted;
+        };
+    }
 }
@@ -1,15 +1,20 @@
 package mostowska.aleksandra.service.impl;
 
 import lombok.RequiredArgsConstructor;
+import mostowska.aleksandra.exception.BadRequestException;
+import mostowska.aleksandra.exception.NotFoundException;
 import mostowska.aleksandra.model.dto.CreateModelDto;
+import mostowska.aleksandra.model.dto.PageDto;
 import mostowska.aleksandra.model.dto.country.GetModelForCountryDto;
 import mostowska.aleksandra.model.dto.headquarters.GetHeadquartersDto;
 import mostowska.aleksandra.model.impl.Headquarters;
+import mostowska.aleksandra.repository.generic.DeleteChunkRunner;
 import mostowska.aleksandra.repository.model.HeadquartersRepository;
 import mostowska.aleksandra.service.HeadquartersService;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
@@ -32,7 +37,7 @@ public class HeadquartersServiceImpl implements HeadquartersService {
     @Override
     public GetHeadquartersDto addHeadquarters(CreateModelDto createModelDto, String swiftCode) {
         if (createModelDto == null) {
-            throw new IllegalStateException("Item cannot be null");
+            throw new BadRequestException("Item cannot be null");
         }
 
         createModelDto.verify();
@@ -51,10 +56,10 @@ public class HeadquartersServiceImpl implements HeadquartersService {
     @Override
     public GetHeadquartersDto removeHeadquarters(String swiftCode) {
         if (swiftCode == null) {
-            throw new IllegalStateException("Removal failed");
+            throw new BadRequestException("Removal failed");
         }
         if (headquartersRepository.findAllForSWIFT(swiftCode).isEmpty()) {
-            throw new IllegalStateException("Item not found");
+            throw new NotFoundException("Item not found");
         }
 
         return headquartersRepository.delete(swiftCode).toGetHeadquartersDto();
@@ -77,34 +82,103 @@ public class HeadquartersServiceImpl implements HeadquartersService {
     }
 
     /**
-     * Retrieves all Headquarters records.
+     * Retrieves the Headquarters record with the provided SWIFT code together with its branches,
+     * read from the repository in a single query.
+     * If no Headquarters is found, an empty list is returned.
      *
-     * @return A list of DTOs representing all the Headquarters in the repository.
+     * @param swiftCode The SWIFT code used to filter the Headquarters records.
+     * @return A list of DTOs representing the Headquarters with nested branches associated with the SWIFT code.
      */
     @Override
-    public List<GetHeadquartersDto> getAll() {
+    public List<GetHeadquartersDto> getAllWithBranchesBySwiftCode(String swiftCode) {
         return headquartersRepository
-                .findAll()
+                .findWithBranches(swiftCode)
+                .stream()
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Retrieves a page of Headquarters records in SWIFT code order.
+     * One record more than the limit is read, telling whether a following page exists
+     * without counting the records.
+     *
+     * @param after The cursor returned with the previous page, or null for the first page.
+     * @param limit The maximum number of Headquarters of the page, from 1 to 1000.
+     * @return A page of DTOs representing Headquarters, with the cursor of the following page if there is one.
+     * @throws BadRequestException If the limit is out of range or the cursor is invalid.
+     */
+    @Override
+    public PageDto<GetHeadquartersDto> getPage(String after, int limit) {
+        PageDto.checkLimit(limit);
+
+        var rows = headquartersRepository
+                .findPage(PageDto.afterSwiftCode(after), limit + 1)
                 .stream()
                 .map(Headquarters::toGetHeadquartersDto)
+                .toList();
+        return PageDto.of(rows, limit, GetHeadquartersDto::swiftCode);
+    }
+
+    /**
+     * Looks up Headquarters by many SWIFT codes at once through the repository, which reads them in bounded chunks.
+     * Codes matching no Headquarters are left out of the result.
+     *
+     * @param swiftCodes The SWIFT codes to look up.
+     * @return A list of DTOs representing the Headquarters found, in no particular order.
+     */
+    @Override
+    public List<GetModelForCountryDto> lookup(List<String> swiftCodes) {
+        return headquartersRepository.lookupBySwiftCode(swiftCodes)
+                .stream()
+                .map(Headquarters::toGetModelByCountryDto)
                 .collect(Collectors.toList());
     }
 
     /**
-     * Retrieves all Headquarters records associated with the provided country ISO2 code.
-     * If no Headquarters are found for the given country, an empty list is returned.
+     * Removes Headquarters by many SWIFT codes at once through the repository, which deletes them in bounded chunks,
+     * each in its own transaction. Codes matching no Headquarters are left out of the result.
      *
-     * @param countryIso2 The 2-letter ISO country code used to filter Headquarters records.
-     * @return A list of DTOs representing the Headquarters associated with the country.
+     * @param swiftCodes The SWIFT codes of the Headquarters to remove.
+     * @param onRemoved  Called with the Headquarters of each chunk removed, as soon as the chunk is committed.
+     * @return A list of DTOs representing the Headquarters removed, in no particular order.
      */
     @Override
-    public List<GetModelForCountryDto> getAllByCountry(String countryIso2) {
-        if (countryIso2 == null) {
-            throw new IllegalStateException("Country name must be passed");
-        }
-        return headquartersRepository.findAllForCountry(countryIso2)
+    public List<GetModelForCountryDto> removeAll(List<String> swiftCodes,
+                                                 Consumer<List<GetModelForCountryDto>> onRemoved) {
+        return headquartersRepository.deleteFoundBySwiftCode(swiftCodes, reportingChunks(onRemoved))
+                .stream()
+                .map(Headquarters::toGetModelByCountryDto)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Removes all Headquarters of a country through the repository, which deletes them in bounded chunks,
+     * each in its own transaction.
+     *
+     * @param countryIso2 The upper-case 2-letter ISO country code.
+     * @param onRemoved   Called with the Headquarters of each chunk removed, as soon as the chunk is committed.
+     * @return A list of DTOs representing the Headquarters removed, in no particular order.
+     */
+    @Override
+    public List<GetModelForCountryDto> removeAllForCountry(String countryIso2,
+                                                           Consumer<List<GetModelForCountryDto>> onRemoved) {
+        return headquartersRepository.deleteAllForCountry(countryIso2, reportingChunks(onRemoved))
                 .stream()
                 .map(Headquarters::toGetModelByCountryDto)
                 .collect(Collectors.toList());
     }
+
+    /**
+     * Builds the runner of the chunks of a delete, reporting the Headquarters of each chunk once it is committed.
+     *
+     * @param onRemoved Called with the Headquarters of each chunk removed.
+     * @return The runner of the chunks.
+     */
+    private static DeleteChunkRunner<Headquarters> reportingChunks(Consumer<List<GetModelForCountryDto>> onRemoved) {
+        return (swiftCodes, delete) -> {
+            var deleted = delete.get();
+            onRemoved.accept(deleted.stream().map(Headquarters::toGetModelByCountryDto).toList());
+            return deleted;
+        };
+    }
 }
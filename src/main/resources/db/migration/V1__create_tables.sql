@@ -0,0 +1,26 @@
+-- Tables as created by the original dump, kept so an empty database reaches the same starting point
+CREATE TABLE IF NOT EXISTS headquarters (
+    swift_code VARCHAR(20) PRIMARY KEY,
+    swift_prefix VARCHAR(8) NOT NULL UNIQUE,
+    country_iso2 VARCHAR(2) NOT NULL,
+    code_type VARCHAR(50),
+    bank_name VARCHAR(100),
+    address VARCHAR(255),
+    town_name VARCHAR(100),
+    country_name VARCHAR(100),
+    time_zone VARCHAR(50),
+    is_headquarter BOOLEAN DEFAULT TRUE
+);
+
+CREATE TABLE IF NOT EXISTS branches (
+    swift_code VARCHAR(20) PRIMARY KEY,
+    swift_prefix VARCHAR(8),
+    country_iso2 VARCHAR(2) NOT NULL,
+    code_type VARCHAR(50),
+    bank_name VARCHAR(100),
+    address VARCHAR(255),
+    town_name VARCHAR(100),
+    country_name VARCHAR(100),
+    time_zone VARCHAR(50),
+    is_headquarter BOOLEAN DEFAULT FALSE
+);
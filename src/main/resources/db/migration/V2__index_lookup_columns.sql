@@ -0,0 +1,14 @@
+-- SWIFT and ISO codes have a fixed length and only use ASCII letters and digits.
+-- The character set sits in a MySQL versioned comment, as in the dump, since H2 does not accept it before NOT NULL
+ALTER TABLE headquarters MODIFY swift_code CHAR(11) /*!40101 CHARACTER SET ascii */ NOT NULL;
+ALTER TABLE headquarters MODIFY swift_prefix CHAR(8) /*!40101 CHARACTER SET ascii */ NOT NULL;
+ALTER TABLE headquarters MODIFY country_iso2 CHAR(2) /*!40101 CHARACTER SET ascii */ NOT NULL;
+
+ALTER TABLE branches MODIFY swift_code CHAR(11) /*!40101 CHARACTER SET ascii */ NOT NULL;
+ALTER TABLE branches MODIFY swift_prefix CHAR(8) /*!40101 CHARACTER SET ascii */;
+ALTER TABLE branches MODIFY country_iso2 CHAR(2) /*!40101 CHARACTER SET ascii */ NOT NULL;
+
+-- Branches are looked up by the bank prefix, both tables by country
+CREATE INDEX idx_branches_swift_prefix ON branches (swift_prefix);
+CREATE INDEX idx_branches_country_iso2 ON branches (country_iso2);
+CREATE INDEX idx_headquarters_country_iso2 ON headquarters (country_iso2);
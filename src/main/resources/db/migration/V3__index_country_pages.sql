@@ -0,0 +1,7 @@
+-- Pages of a country are read in SWIFT code order from a cursor, so both tables are indexed by country and code.
+-- InnoDB secondary indexes already end with the primary key; the explicit column lets every database seek
+-- to the cursor and read the index in order, and the country indexes it covers are dropped
+CREATE INDEX idx_branches_country_swift_code ON branches (country_iso2, swift_code);
+CREATE INDEX idx_headquarters_country_swift_code ON headquarters (country_iso2, swift_code);
+ALTER TABLE branches DROP INDEX idx_branches_country_iso2;
+ALTER TABLE headquarters DROP INDEX idx_headquarters_country_iso2;
@@ -0,0 +1,102 @@
+package mostowska.aleksandra.api.cache.conditionalGet;
+
+import mostowska.aleksandra.api.cache.ConditionalGet;
+import mostowska.aleksandra.api.cache.HttpCacheSettings;
+import mostowska.aleksandra.api.compression.ContentCoding;
+import mostowska.aleksandra.api.compression.ResponseCompression;
+import mostowska.aleksandra.repository.DataVersions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import spark.Request;
+import spark.Response;
+import spark.Route;
+
+import javax.servlet.http.HttpServletResponse;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ConditionalTest {
+
+    @Mock
+    private Request request;
+
+    @Mock
+    private Response response;
+
+    @Mock
+    private HttpServletResponse rawResponse;
+
+    private DataVersions dataVersions;
+    private ConditionalGet conditionalGet;
+    private Route route;
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        dataVersions = new DataVersions();
+        conditionalGet = new ConditionalGet(dataVersions, new HttpCacheSettings("public, max-age=5"));
+        route = conditionalGet.conditional(request -> dataVersions.countryVersion("PL"), (request, response) -> {
+            calls.incrementAndGet();
+            return "body";
+        });
+        when(response.raw()).thenReturn(rawResponse);
+    }
+
+    @Test
+    @DisplayName("Should send the ETag and Cache-Control headers with the response")
+    void shouldSendEtagAndCacheControl() throws Exception {
+        assertEquals("body", route.handle(request, response));
+
+        verify(response).header("ETag", conditionalGet.etagOf(0));
+        verify(response).header("Cache-Control", "public, max-age=5");
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    @DisplayName("Should answer 304 without running the route while the ETag is current")
+    void shouldAnswerNotModifiedWhileEtagIsCurrent() throws Exception {
+        var etag = conditionalGet.etagOf(0);
+        when(request.headers("If-None-Match")).thenReturn("\"other\", W/" + ResponseCompression.variantOf(etag, ContentCoding.GZIP));
+
+        assertEquals("", route.handle(request, response));
+        verify(response).status(304);
+        assertEquals(0, calls.get());
+
+        dataVersions.bump("PL", "PLNABCDEXXX");
+        assertEquals("body", route.handle(request, response));
+        verify(response).header("ETag", conditionalGet.etagOf(1));
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    @DisplayName("Should not change the ETag when another country is written")
+    void shouldKeepEtagWhenOtherCountryIsWritten() throws Exception {
+        when(request.headers("If-None-Match")).thenReturn(conditionalGet.etagOf(0));
+
+        dataVersions.bump("DE", "DEUABCDEXXX");
+
+        assertEquals("", route.handle(request, response));
+        assertEquals(0, calls.get());
+    }
+
+    @Test
+    @DisplayName("Should remove the ETag when the route fails")
+    void shouldRemoveEtagWhenRouteFails() {
+        var failing = conditionalGet.conditional(request -> 0, (request, response) -> {
+            throw new IllegalStateException("No such country");
+        });
+
+        assertThrows(IllegalStateException.class, () -> failing.handle(request, response));
+        verify(rawResponse).setHeader("ETag", null);
+    }
+}
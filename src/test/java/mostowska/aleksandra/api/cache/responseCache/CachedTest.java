@@ -0,0 +1,166 @@
+package mostowska.aleksandra.api.cache.responseCache;
+
+import com.google.gson.Gson;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import mostowska.aleksandra.api.cache.ResponseCache;
+import mostowska.aleksandra.api.cache.ResponseCacheSettings;
+import mostowska.aleksandra.api.compression.CompressionSettings;
+import mostowska.aleksandra.api.compression.ResponseCompression;
+import mostowska.aleksandra.api.transformer.JsonTransformer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import spark.Request;
+import spark.Response;
+import spark.Route;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class CachedTest {
+
+    @Mock
+    private Request request;
+
+    @Mock
+    private Response response;
+
+    @Mock
+    private HttpServletResponse rawResponse;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ResponseCache responseCache;
+    private ByteArrayOutputStream body;
+    private final AtomicInteger calls = new AtomicInteger();
+    private final AtomicLong version = new AtomicLong();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        meterRegistry = new SimpleMeterRegistry();
+        var compression = new ResponseCompression(new CompressionSettings(1024, 6));
+        responseCache = new ResponseCache(new JsonTransformer(new Gson(), compression), compression,
+                new ResponseCacheSettings(1 << 20, Duration.ofMinutes(5)), meterRegistry);
+        body = new ByteArrayOutputStream();
+        when(response.raw()).thenReturn(rawResponse);
+        when(rawResponse.getOutputStream()).thenReturn(new ServletOutputStream() {
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+            }
+
+            @Override
+            public void write(int b) {
+                body.write(b);
+            }
+        });
+        when(request.params(":swift-code")).thenReturn("PLNABCDEXXX");
+    }
+
+    @Test
+    @DisplayName("Should serve the cached response until the data version moves")
+    void shouldServeCachedResponseUntilVersionMoves() throws Exception {
+        var route = cachedRoute(List.of("PLNABCDEXXX"));
+
+        assertEquals("[\"PLNABCDEXXX\"]", handle(route));
+        assertEquals("[\"PLNABCDEXXX\"]", handle(route));
+        assertEquals(1, calls.get());
+
+        version.incrementAndGet();
+        assertEquals("[\"PLNABCDEXXX\"]", handle(route));
+        assertEquals(2, calls.get());
+
+        assertEquals(1.0 / 3, responseCache.hitRatio(), 1e-9);
+        assertEquals(1, meterRegistry.get("response.cache.requests").tag("result", "hit").counter().count());
+        assertTrue(meterRegistry.get("response.cache.bytes").gauge().value() > 0);
+    }
+
+    @Test
+    @DisplayName("Should not cache a route throwing an exception")
+    void shouldNotCacheFailures() {
+        Route failing = (request, response) -> {
+            calls.incrementAndGet();
+            throw new IllegalStateException("Not found");
+        };
+        var route = responseCache.cached("swift-code", request -> request.params(":swift-code"),
+                request -> version.get(), failing);
+
+        assertThrows(IllegalStateException.class, () -> route.handle(request, response));
+        assertThrows(IllegalStateException.class, () -> route.handle(request, response));
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    @DisplayName("Should serve large responses gzipped to clients accepting gzip")
+    void shouldServeGzippedResponses() throws Exception {
+        var codes = java.util.stream.IntStream.range(0, 500).mapToObj(i -> "PLNABCDE%03d".formatted(i)).toList();
+        var route = cachedRoute(codes);
+        var expected = new Gson().toJson(codes);
+
+        assertEquals(expected, handle(route));
+
+        when(request.headers("Accept-Encoding")).thenReturn("gzip, deflate");
+        body.reset();
+        route.handle(request, response);
+        try (var gzip = new GZIPInputStream(new ByteArrayInputStream(body.toByteArray()))) {
+            assertEquals(expected, new String(gzip.readAllBytes(), StandardCharsets.UTF_8));
+        }
+        verify(response).header("Content-Encoding", "gzip");
+        verify(rawResponse).setContentLength(body.size());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    @DisplayName("Should frame the same cached deflate stream as zlib for clients preferring deflate")
+    void shouldServeDeflatedResponses() throws Exception {
+        var codes = java.util.stream.IntStream.range(0, 500).mapToObj(i -> "PLNABCDE%03d".formatted(i)).toList();
+        var route = cachedRoute(codes);
+        var expected = new Gson().toJson(codes);
+
+        when(request.headers("Accept-Encoding")).thenReturn("gzip;q=0.5, deflate");
+        route.handle(request, response);
+        try (var deflate = new InflaterInputStream(new ByteArrayInputStream(body.toByteArray()))) {
+            assertEquals(expected, new String(deflate.readAllBytes(), StandardCharsets.UTF_8));
+        }
+        verify(response).header("Content-Encoding", "deflate");
+        verify(rawResponse).setContentLength(body.size());
+        assertEquals(1, calls.get());
+    }
+
+    private Route cachedRoute(List<String> result) {
+        return responseCache.cached("swift-code", request -> request.params(":swift-code"),
+                request -> version.get(), (request, response) -> {
+                    calls.incrementAndGet();
+                    return result;
+                });
+    }
+
+    private String handle(Route route) throws Exception {
+        body.reset();
+        assertEquals("", route.handle(request, response));
+        return body.toString(StandardCharsets.UTF_8);
+    }
+}
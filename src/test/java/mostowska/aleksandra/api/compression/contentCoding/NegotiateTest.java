@@ -0,0 +1,36 @@
+package mostowska.aleksandra.api.compression.contentCoding;
+
+import mostowska.aleksandra.api.compression.ContentCoding;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NegotiateTest {
+
+    @Test
+    @DisplayName("Should send identity when the client accepts no compressed coding")
+    void shouldSendIdentityWithoutAcceptedCoding() {
+        assertEquals(ContentCoding.IDENTITY, ContentCoding.negotiate(null));
+        assertEquals(ContentCoding.IDENTITY, ContentCoding.negotiate(""));
+        assertEquals(ContentCoding.IDENTITY, ContentCoding.negotiate("br, identity"));
+        assertEquals(ContentCoding.IDENTITY, ContentCoding.negotiate("gzip;q=0, deflate;q=0"));
+    }
+
+    @Test
+    @DisplayName("Should prefer gzip on a tie and follow the quality values otherwise")
+    void shouldFollowQualityValues() {
+        assertEquals(ContentCoding.GZIP, ContentCoding.negotiate("deflate, gzip"));
+        assertEquals(ContentCoding.GZIP, ContentCoding.negotiate("br, x-gzip"));
+        assertEquals(ContentCoding.DEFLATE, ContentCoding.negotiate("gzip;q=0.5, deflate"));
+        assertEquals(ContentCoding.DEFLATE, ContentCoding.negotiate("deflate; q=1, gzip; Q=0.9"));
+    }
+
+    @Test
+    @DisplayName("Should accept the codings not named in the header through the wildcard")
+    void shouldAcceptWildcard() {
+        assertEquals(ContentCoding.GZIP, ContentCoding.negotiate("*"));
+        assertEquals(ContentCoding.DEFLATE, ContentCoding.negotiate("gzip;q=0, *;q=0.5"));
+        assertEquals(ContentCoding.IDENTITY, ContentCoding.negotiate("*;q=0"));
+    }
+}
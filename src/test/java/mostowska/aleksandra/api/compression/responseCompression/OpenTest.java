@@ -0,0 +1,139 @@
+package mostowska.aleksandra.api.compression.responseCompression;
+
+import mostowska.aleksandra.api.compression.CompressionSettings;
+import mostowska.aleksandra.api.compression.ResponseCompression;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import spark.Request;
+import spark.Response;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class OpenTest {
+
+    @Mock
+    private Request request;
+
+    @Mock
+    private Response response;
+
+    @Mock
+    private HttpServletResponse rawResponse;
+
+    private ResponseCompression compression;
+    private ByteArrayOutputStream body;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        compression = new ResponseCompression(new CompressionSettings(1024, 6));
+        body = new ByteArrayOutputStream();
+        when(response.raw()).thenReturn(rawResponse);
+        when(rawResponse.getHeader("ETag")).thenReturn("\"1-2\"");
+        when(rawResponse.getOutputStream()).thenReturn(new ServletOutputStream() {
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+            }
+
+            @Override
+            public void write(int b) {
+                body.write(b);
+            }
+        });
+    }
+
+    @Test
+    @DisplayName("Should send bodies under the threshold as is, with their length")
+    void shouldNotCompressSmallBodies() throws Exception {
+        when(request.headers("Accept-Encoding")).thenReturn("gzip");
+
+        var json = write("[\"PLNABCDEXXX\"]");
+
+        assertEquals(json, body.toString(StandardCharsets.UTF_8));
+        verify(rawResponse).setContentLength(json.length());
+        verify(response, never()).header(eq("Content-Encoding"), anyString());
+        verify(response).header("Vary", "Accept-Encoding");
+    }
+
+    @Test
+    @DisplayName("Should gzip bodies past the threshold and move the ETag to the gzip variant")
+    void shouldGzipLargeBodies() throws Exception {
+        when(request.headers("Accept-Encoding")).thenReturn("gzip, deflate");
+
+        var json = write(largeJson());
+
+        try (var gzip = new GZIPInputStream(new ByteArrayInputStream(body.toByteArray()))) {
+            assertEquals(json, new String(gzip.readAllBytes(), StandardCharsets.UTF_8));
+        }
+        assertTrue(body.size() < json.length());
+        verify(response).header("Content-Encoding", "gzip");
+        verify(rawResponse).setHeader("ETag", "\"1-2--gzip\"");
+    }
+
+    @Test
+    @DisplayName("Should deflate bodies past the threshold for clients preferring deflate")
+    void shouldDeflateLargeBodies() throws Exception {
+        when(request.headers("Accept-Encoding")).thenReturn("deflate");
+
+        // Closing twice returns the pooled deflater once, the next response must still get a fresh stream
+        for (var i = 0; i < 2; i++) {
+            body.reset();
+            var json = write(largeJson());
+            try (var deflate = new InflaterInputStream(new ByteArrayInputStream(body.toByteArray()))) {
+                assertEquals(json, new String(deflate.readAllBytes(), StandardCharsets.UTF_8));
+            }
+        }
+        verify(response, times(2)).header("Content-Encoding", "deflate");
+    }
+
+    @Test
+    @DisplayName("Should stream large bodies as is to clients accepting no compressed coding")
+    void shouldNotCompressForIdentityClients() throws Exception {
+        var json = write(largeJson());
+
+        assertEquals(json, body.toString(StandardCharsets.UTF_8));
+        verify(response, never()).header(eq("Content-Encoding"), anyString());
+    }
+
+    private String write(String json) throws Exception {
+        var bytes = json.getBytes(StandardCharsets.UTF_8);
+        var out = compression.open(request, response);
+        // Written in pieces, as the JSON writer hands over its buffer
+        for (var offset = 0; offset < bytes.length; offset += 100) {
+            out.write(bytes, offset, Math.min(100, bytes.length - offset));
+        }
+        out.close();
+        out.close();
+        return json;
+    }
+
+    private static String largeJson() {
+        var json = new StringBuilder("[");
+        for (var i = 0; i < 2000; i++) {
+            json.append(i == 0 ? "" : ",").append("\"PLNABCDE%03d\"".formatted(i % 1000));
+        }
+        return json.append(']').toString();
+    }
+}
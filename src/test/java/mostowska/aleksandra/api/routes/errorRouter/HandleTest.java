@@ -0,0 +1,144 @@
+package mostowska.aleksandra.api.routes.errorRouter;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonSyntaxException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import mostowska.aleksandra.api.compression.CompressionSettings;
+import mostowska.aleksandra.api.compression.ResponseCompression;
+import mostowska.aleksandra.api.routes.ErrorRouter;
+import mostowska.aleksandra.api.transformer.JsonTransformer;
+import mostowska.aleksandra.exception.BadRequestException;
+import mostowska.aleksandra.exception.NotFoundException;
+import org.jdbi.v3.core.statement.UnableToExecuteStatementException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import spark.Request;
+import spark.Response;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.SQLTransientConnectionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class HandleTest {
+
+    @Mock
+    private Request request;
+
+    @Mock
+    private Response response;
+
+    @Mock
+    private HttpServletResponse rawResponse;
+
+    private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+    private SimpleMeterRegistry meterRegistry;
+    private ErrorRouter errorRouter;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        meterRegistry = new SimpleMeterRegistry();
+        var jsonTransformer = new JsonTransformer(new Gson(), new ResponseCompression(new CompressionSettings(1024, 6)));
+        errorRouter = new ErrorRouter(jsonTransformer, meterRegistry);
+        when(response.raw()).thenReturn(rawResponse);
+        when(rawResponse.getOutputStream()).thenReturn(new CapturingOutputStream());
+    }
+
+    @Test
+    @DisplayName("Should answer an API exception inline with its status and message")
+    void shouldAnswerApiExceptionInline() {
+        errorRouter.handle(new NotFoundException("No such country"), request, response);
+
+        verify(response).status(404);
+        verify(response, never()).redirect(anyString(), anyInt());
+        verify(response).body("");
+        assertEquals("{\"error\":\"No such country\"}", body.toString(StandardCharsets.UTF_8));
+        verify(rawResponse).setContentLength(body.size());
+    }
+
+    @Test
+    @DisplayName("Should answer invalid arguments and malformed JSON with 400")
+    void shouldAnswerInvalidInputWithBadRequest() {
+        errorRouter.handle(new NumberFormatException("For input string: \"ten\""), request, response);
+        errorRouter.handle(new JsonSyntaxException("Expected BEGIN_ARRAY"), request, response);
+
+        verify(response, times(2)).status(400);
+        assertTrue(body.toString(StandardCharsets.UTF_8).endsWith("{\"error\":\"Request body is not valid JSON\"}"));
+    }
+
+    @Test
+    @DisplayName("Should answer constraint violations with 409 and saturated database calls with 503")
+    void shouldAnswerDatabaseFailures() {
+        errorRouter.handle(new UnableToExecuteStatementException(
+                new SQLIntegrityConstraintViolationException("Duplicate entry"), null), request, response);
+        errorRouter.handle(new UnableToExecuteStatementException(
+                new SQLTransientConnectionException("Timed out"), null), request, response);
+
+        verify(response).status(409);
+        verify(response).status(503);
+    }
+
+    @Test
+    @DisplayName("Should answer other failures with 500 without exposing their message")
+    void shouldHideMessageOfInternalErrors() {
+        errorRouter.handle(new IllegalStateException("Connection string with password"), request, response);
+
+        verify(response).status(500);
+        assertEquals("{\"error\":\"Internal Server Error\"}", body.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Should count errors by status and exception type")
+    void shouldCountErrorsByStatusAndType() {
+        errorRouter.handle(new BadRequestException("Prefix must be passed"), request, response);
+        errorRouter.handle(new BadRequestException("Query must be passed"), request, response);
+        errorRouter.handle(new NotFoundException("Item not found"), request, response);
+
+        assertEquals(2, meterRegistry.get("api.errors")
+                .tags("status", "400", "type", "BadRequestException").counter().count());
+        assertEquals(1, meterRegistry.get("api.errors")
+                .tags("status", "404", "type", "NotFoundException").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should leave an already committed response untouched")
+    void shouldLeaveCommittedResponseUntouched() {
+        when(rawResponse.isCommitted()).thenReturn(true);
+
+        errorRouter.handle(new BadRequestException("Invalid cursor"), request, response);
+
+        verify(response, never()).status(anyInt());
+        assertEquals(0, body.size());
+    }
+
+    private class CapturingOutputStream extends ServletOutputStream {
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+        }
+
+        @Override
+        public void write(int b) {
+            body.write(b);
+        }
+    }
+}
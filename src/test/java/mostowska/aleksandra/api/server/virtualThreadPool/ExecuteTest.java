@@ -0,0 +1,64 @@
+package mostowska.aleksandra.api.server.virtualThreadPool;
+
+import mostowska.aleksandra.api.server.VirtualThreadPool;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExecuteTest {
+
+    @Test
+    @DisplayName("Should run every task on a virtual thread of its own while started")
+    void shouldRunTasksOnVirtualThreads() throws Exception {
+        var pool = new VirtualThreadPool();
+        pool.start();
+        var tasks = 1_000;
+        var started = new CountDownLatch(tasks);
+        var release = new CountDownLatch(1);
+        var allVirtual = new AtomicBoolean(true);
+
+        for (var i = 0; i < tasks; i++) {
+            pool.execute(() -> {
+                allVirtual.compareAndSet(true, Thread.currentThread().isVirtual());
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+
+        // Every task blocks at once, none waits for another to end
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        assertEquals(tasks, pool.getThreads());
+        assertFalse(pool.isLowOnThreads());
+        assertTrue(allVirtual.get());
+
+        release.countDown();
+        pool.stop();
+        pool.join();
+        assertEquals(0, pool.getThreads());
+    }
+
+    @Test
+    @DisplayName("Should refuse tasks before start and after stop")
+    void shouldRefuseTasksWhenNotRunning() throws Exception {
+        var pool = new VirtualThreadPool();
+        assertThrows(RejectedExecutionException.class, () -> pool.execute(() -> { }));
+        assertFalse(pool.tryExecute(() -> { }));
+
+        pool.start();
+        assertTrue(pool.tryExecute(() -> { }));
+        pool.stop();
+
+        assertFalse(pool.tryExecute(() -> { }));
+        assertThrows(RejectedExecutionException.class, () -> pool.execute(() -> { }));
+    }
+}
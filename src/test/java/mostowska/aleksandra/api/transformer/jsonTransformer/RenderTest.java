@@ -4,6 +4,8 @@ import com.google.gson.Gson;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.extern.slf4j.XSlf4j;
+import mostowska.aleksandra.api.compression.CompressionSettings;
+import mostowska.aleksandra.api.compression.ResponseCompression;
 import mostowska.aleksandra.api.transformer.JsonTransformer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -19,7 +21,7 @@ class RenderTest {
 
     @BeforeEach
     void setUp() {
-        jsonTransformer = new JsonTransformer(new Gson());
+        jsonTransformer = new JsonTransformer(new Gson(), new ResponseCompression(new CompressionSettings(1024, 6)));
     }
 
     @Test
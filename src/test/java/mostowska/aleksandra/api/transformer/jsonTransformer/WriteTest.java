@@ -0,0 +1,82 @@
+package mostowska.aleksandra.api.transformer.jsonTransformer;
+
+import com.google.gson.GsonBuilder;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import mostowska.aleksandra.api.compression.CompressionSettings;
+import mostowska.aleksandra.api.compression.ResponseCompression;
+import mostowska.aleksandra.api.transformer.JsonTransformer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WriteTest {
+    private JsonTransformer jsonTransformer;
+
+    @BeforeEach
+    void setUp() {
+        // The application Gson pretty-prints, the transformer must still write compact JSON by default
+        jsonTransformer = new JsonTransformer(new GsonBuilder().setPrettyPrinting().create(),
+                new ResponseCompression(new CompressionSettings(1024, 6)));
+    }
+
+    @Test
+    @DisplayName("Should write compact JSON by default and indented JSON on request")
+    void shouldWriteCompactOrPrettyJson() throws Exception {
+        var person = new TestPerson("Jane", "Doe", 25);
+
+        assertEquals("{\"firstName\":\"Jane\",\"lastName\":\"Doe\",\"age\":25}", write(person, false));
+        assertEquals("{\n  \"firstName\": \"Jane\",\n  \"lastName\": \"Doe\",\n  \"age\": 25\n}", write(person, true));
+    }
+
+    @Test
+    @DisplayName("Should encode multi-byte characters and surrogate pairs as UTF-8")
+    void shouldEncodeUtf8() throws Exception {
+        var person = new TestPerson("Zażółć", "Gęślą 😀 Jaźń", 1);
+
+        assertEquals("{\"firstName\":\"Zażółć\",\"lastName\":\"Gęślą 😀 Jaźń\",\"age\":1}", write(person, false));
+    }
+
+    @Test
+    @DisplayName("Should write output larger than the writer buffer in full")
+    void shouldWriteLargeOutput() throws Exception {
+        var people = new ArrayList<TestPerson>();
+        for (var i = 0; i < 2_000; i++) {
+            people.add(new TestPerson("Jane ✓", "Doe " + i, i));
+        }
+
+        var json = write(people, false);
+
+        assertTrue(json.startsWith("[{\"firstName\":\"Jane ✓\",\"lastName\":\"Doe 0\",\"age\":0}"));
+        assertTrue(json.endsWith("{\"firstName\":\"Jane ✓\",\"lastName\":\"Doe 1999\",\"age\":1999}]"));
+        assertEquals(new GsonBuilder().create().toJson(people), json);
+    }
+
+    @Test
+    @DisplayName("Should write null for null object")
+    void shouldWriteNullForNullObject() throws Exception {
+        assertEquals("null", write(null, false));
+        assertEquals("[]", write(List.of(), false));
+    }
+
+    private String write(Object o, boolean pretty) throws Exception {
+        var out = new ByteArrayOutputStream();
+        jsonTransformer.write(o, out, pretty);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    @Getter
+    @AllArgsConstructor
+    static class TestPerson {
+        private String firstName;
+        private String lastName;
+        private int age;
+    }
+}
@@ -0,0 +1,137 @@
+package mostowska.aleksandra.benchmark;
+
+import mostowska.aleksandra.api.compression.CompressionSettings;
+import mostowska.aleksandra.api.compression.ContentCoding;
+import mostowska.aleksandra.api.compression.ResponseCompression;
+import mostowska.aleksandra.api.transformer.JsonTransformer;
+import mostowska.aleksandra.config.AppConfig;
+import mostowska.aleksandra.model.impl.Headquarters;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Measures the CPU cost of compressing JSON responses of about 1 KiB, 16 KiB and 256 KiB at deflate levels 1, 6
+ * and 9: sending the bytes as is, gzipping them with a new `GZIPOutputStream` per response as a servlet filter
+ * would, and deflating them with the pooled deflaters of `ResponseCompression`. Framing a payload deflated once
+ * and held by the response cache stands for a cache hit. The compression ratio of each size and level is printed
+ * at setup. Run with: -Djmh.args="CompressionBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CompressionBenchmark {
+
+    @Param({"1024", "16384", "262144"})
+    public int size;
+
+    @Param({"1", "6", "9"})
+    public int level;
+
+    private byte[] json;
+    private ResponseCompression compression;
+    private byte[] deflated;
+    private long crc32;
+    private OutputStream socket;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        compression = new ResponseCompression(new CompressionSettings(0, level));
+        var jsonTransformer = new JsonTransformer(new AppConfig(null).gson(), compression);
+        var rows = new ArrayList<Object>();
+        // A headquarters renders to about 190 bytes
+        for (var i = 0; i < Math.max(1, size / 190); i++) {
+            var swiftCode = "BANKPL%02dXXX".formatted(i % 100);
+            rows.add(Headquarters.builder()
+                    .address("UL. MARSZALKOWSKA " + i + ", 00-950 WARSZAWA")
+                    .bankName("BENCHMARK BANK SPÓŁKA AKCYJNA " + i)
+                    .countryIso2("PL")
+                    .countryName("POLAND")
+                    .isHeadquarter(true)
+                    .swiftCode(swiftCode)
+                    .swiftPrefix(swiftCode.substring(0, 8))
+                    .build()
+                    .toGetHeadquartersDto());
+        }
+        var rendered = new ByteArrayOutputStream();
+        jsonTransformer.write(rows, rendered, false);
+        json = rendered.toByteArray();
+
+        var buffer = new ByteArrayOutputStream();
+        compression.deflate(json, 0, json.length, buffer);
+        deflated = buffer.toByteArray();
+        var checksum = new CRC32();
+        checksum.update(json);
+        crc32 = checksum.getValue();
+        System.out.printf("%n%d bytes at level %d: %d deflated, ratio %.2f%n",
+                json.length, level, deflated.length, (double) json.length / deflated.length);
+    }
+
+    @Setup(Level.Iteration)
+    public void openSocket(Blackhole blackhole) {
+        // Stands for the servlet output stream, consuming what it is given
+        socket = new OutputStream() {
+            @Override
+            public void write(int b) {
+                blackhole.consume(b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                blackhole.consume(b);
+            }
+        };
+    }
+
+    @Benchmark
+    public void identity() throws IOException {
+        socket.write(json);
+    }
+
+    @Benchmark
+    public void gzipOutputStream() throws IOException {
+        try (var gzip = new GZIPOutputStream(new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                socket.write(b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                socket.write(b, off, len);
+            }
+        }) {
+            {
+                def.setLevel(level);
+            }
+        }) {
+            gzip.write(json);
+        }
+    }
+
+    @Benchmark
+    public void pooledDeflater() throws IOException {
+        var checksum = new CRC32();
+        checksum.update(json);
+        socket.write(ContentCoding.GZIP.header());
+        compression.deflate(json, 0, json.length, socket);
+        socket.write(ContentCoding.GZIP.trailer(checksum.getValue(), json.length));
+    }
+
+    @Benchmark
+    public void cachedPayload() throws IOException {
+        socket.write(ContentCoding.GZIP.header());
+        socket.write(deflated);
+        socket.write(ContentCoding.GZIP.trailer(crc32, json.length));
+    }
+}
@@ -0,0 +1,102 @@
+package mostowska.aleksandra.benchmark;
+
+import mostowska.aleksandra.model.dto.country.GetGroupedByCountryDto;
+import mostowska.aleksandra.model.impl.Branch;
+import mostowska.aleksandra.model.impl.Headquarters;
+import mostowska.aleksandra.repository.model.impl.BranchRepositoryImpl;
+import mostowska.aleksandra.repository.model.impl.CountryRepositoryImpl;
+import mostowska.aleksandra.repository.model.impl.HeadquartersRepositoryImpl;
+import mostowska.aleksandra.support.EmbeddedDatabase;
+import org.jdbi.v3.core.Jdbi;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Compares reading a page of 1000 rows of a country with 100k entries through the union query of
+ * `CountryRepository.findPageForCountry` with reading the whole country through the former three sequential queries
+ * of the unpaged listing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CountryBenchmark {
+
+    private static final int HEADQUARTERS = 20_000;
+    private static final int BRANCHES = 80_000;
+
+    private Jdbi jdbi;
+    private HeadquartersRepositoryImpl headquartersRepository;
+    private BranchRepositoryImpl branchRepository;
+    private CountryRepositoryImpl countryRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        jdbi = EmbeddedDatabase.create("country_benchmark");
+        headquartersRepository = new HeadquartersRepositoryImpl(jdbi);
+        branchRepository = new BranchRepositoryImpl(jdbi);
+        countryRepository = new CountryRepositoryImpl(jdbi);
+
+        var headquarters = new ArrayList<Headquarters>(HEADQUARTERS);
+        for (var i = 0; i < HEADQUARTERS; i++) {
+            headquarters.add(Headquarters.builder()
+                    .address("UL. MARSZALKOWSKA " + i)
+                    .bankName("BENCHMARK BANK")
+                    .countryIso2("PL")
+                    .countryName("POLAND")
+                    .isHeadquarter(true)
+                    .swiftCode("BNK%05dXXX".formatted(i))
+                    .swiftPrefix("BNK%05d".formatted(i))
+                    .build());
+        }
+        var branches = new ArrayList<Branch>(BRANCHES);
+        for (var i = 0; i < BRANCHES; i++) {
+            var prefix = "BNK%05d".formatted(i % HEADQUARTERS);
+            branches.add(Branch.builder()
+                    .address("UL. PULAWSKA " + i)
+                    .bankName("BENCHMARK BANK")
+                    .countryIso2("PL")
+                    .countryName("POLAND")
+                    .isHeadquarter(false)
+                    .swiftCode(prefix + "%03d".formatted(i / HEADQUARTERS))
+                    .swiftPrefix(prefix)
+                    .build());
+        }
+        headquartersRepository.saveAll(headquarters);
+        branchRepository.saveAll(branches);
+    }
+
+    @Benchmark
+    public GetGroupedByCountryDto pageQuery() {
+        return countryRepository.findPageForCountry("PL", "BNK10000XXX", 1000).orElseThrow();
+    }
+
+    @Benchmark
+    public GetGroupedByCountryDto threeQueries() {
+        var headquarters = headquartersRepository.findAllForCountry("PL")
+                .stream()
+                .map(Headquarters::toGetModelByCountryDto)
+                .collect(Collectors.toList());
+        var branches = branchRepository.findAllForCountry("PL")
+                .stream()
+                .map(Branch::toGetModelByCountryDto)
+                .collect(Collectors.toList());
+        // The country name lookup as it was implemented in repository.Utils
+        var countryName = jdbi.withHandle(handle -> handle
+                .createQuery("select country_name from headquarters where country_iso2 = :country_iso2 limit 1")
+                .bind("country_iso2", "PL")
+                .mapTo(String.class)
+                .findFirst()
+                .orElseThrow());
+
+        return new GetGroupedByCountryDto("PL", countryName, Stream
+                .concat(headquarters.stream(), branches.stream())
+                .collect(Collectors.toList()));
+    }
+}
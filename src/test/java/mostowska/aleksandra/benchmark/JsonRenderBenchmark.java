@@ -0,0 +1,92 @@
+package mostowska.aleksandra.benchmark;
+
+import com.google.gson.Gson;
+import mostowska.aleksandra.api.compression.CompressionSettings;
+import mostowska.aleksandra.api.compression.ResponseCompression;
+import mostowska.aleksandra.api.dto.ResponseDto;
+import mostowska.aleksandra.api.transformer.JsonTransformer;
+import mostowska.aleksandra.config.AppConfig;
+import mostowska.aleksandra.model.dto.PageDto;
+import mostowska.aleksandra.model.dto.headquarters.GetHeadquartersDto;
+import mostowska.aleksandra.model.impl.Headquarters;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures rendering a full page of the `/swift-codes/headquarters` route, 1000 headquarters:
+ * the previous path, building the pretty-printed JSON as a String and copying it into bytes as Spark does,
+ * against the streaming path writing compact JSON through `JsonTransformer.write` to the output stream.
+ * Run with the GC profiler to compare the allocation per response: -Djmh.args="JsonRenderBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonRenderBenchmark {
+    private static final int PAGE_SIZE = 1_000;
+
+    private Gson gson;
+    private JsonTransformer jsonTransformer;
+    private ResponseDto<PageDto<GetHeadquartersDto>> page;
+    private OutputStream socket;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        gson = new AppConfig(null).gson();
+        jsonTransformer = new JsonTransformer(gson, new ResponseCompression(new CompressionSettings(1024, 6)));
+        var rows = new ArrayList<GetHeadquartersDto>(PAGE_SIZE);
+        for (var i = 0; i < PAGE_SIZE; i++) {
+            var swiftCode = "BANKPL%02dXXX".formatted(i % 100);
+            rows.add(Headquarters.builder()
+                    .address("UL. MARSZALKOWSKA " + i + ", 00-950 WARSZAWA")
+                    .bankName("BENCHMARK BANK SPÓŁKA AKCYJNA " + i)
+                    .countryIso2("PL")
+                    .countryName("POLAND")
+                    .isHeadquarter(true)
+                    .swiftCode(swiftCode)
+                    .swiftPrefix(swiftCode.substring(0, 8))
+                    .build()
+                    .toGetHeadquartersDto());
+        }
+        page = new ResponseDto<>(new PageDto<>(rows, PageDto.cursorOf("BANKPL99XXX")));
+    }
+
+    @Setup(Level.Iteration)
+    public void openSocket(Blackhole blackhole) {
+        // Stands for the servlet output stream, consuming what it is given
+        socket = new OutputStream() {
+            @Override
+            public void write(int b) {
+                blackhole.consume(b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                blackhole.consume(b);
+            }
+        };
+    }
+
+    @Benchmark
+    public void stringRender() throws IOException {
+        socket.write(gson.toJson(page).getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Benchmark
+    public void streamingRender() throws IOException {
+        jsonTransformer.write(page, socket, false);
+    }
+
+    @Benchmark
+    public void streamingPrettyRender() throws IOException {
+        jsonTransformer.write(page, socket, true);
+    }
+}
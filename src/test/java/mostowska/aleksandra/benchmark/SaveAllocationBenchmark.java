@@ -0,0 +1,112 @@
+package mostowska.aleksandra.benchmark;
+
+import com.google.common.base.CaseFormat;
+import mostowska.aleksandra.model.impl.Branch;
+import mostowska.aleksandra.repository.generic.EntityMetadata;
+import mostowska.aleksandra.support.EmbeddedDatabase;
+import org.atteo.evo.inflector.English;
+import org.jdbi.v3.core.Handle;
+import org.jdbi.v3.core.statement.Update;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.stream.Collectors.joining;
+
+/**
+ * Measures the work `AbstractCrudRepository.save` does around the database call: resolving the table name,
+ * building the statement, binding every column and reading the swift code for the re-select.
+ * Compares per-call reflection with the precomputed `EntityMetadata`.
+ * Run with the GC profiler to see the allocation per save: -Djmh.args="SaveAllocationBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SaveAllocationBenchmark {
+
+    private Handle handle;
+    private EntityMetadata<Branch> metadata;
+    private Branch branch;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        handle = EmbeddedDatabase.create("save_allocation_benchmark").open();
+        metadata = EntityMetadata.of(Branch.class);
+        branch = Branch.builder()
+                .address("UL. MARSZALKOWSKA 1, WARSZAWA")
+                .bankName("BENCHMARK BANK")
+                .countryIso2("PL")
+                .countryName("POLAND")
+                .isHeadquarter(false)
+                .swiftCode("BNKAPLPWXYZ")
+                .swiftPrefix("BNKAPLPW")
+                .townName("WARSZAWA")
+                .timeZone("Europe/Warsaw")
+                .codeType("BIC11")
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        handle.close();
+    }
+
+    @Benchmark
+    public void metadataSave(Blackhole blackhole) {
+        try (var update = metadata.bindColumns(handle.createUpdate(metadata.insertSql()), branch)) {
+            blackhole.consume(update);
+            blackhole.consume(metadata.selectBySwiftCodeSql());
+            blackhole.consume(metadata.swiftCode(branch));
+        }
+    }
+
+    @Benchmark
+    public void reflectiveSave(Blackhole blackhole) throws IllegalAccessException {
+        var tableName = English.plural(toLowerUnderscore(Branch.class.getSimpleName()));
+        var fields = getAllFields(Branch.class);
+        var insertSql = "insert into %s ( %s ) values ( %s )".formatted(
+                tableName,
+                Arrays.stream(fields).map(field -> toLowerUnderscore(field.getName())).collect(joining(", ")),
+                Arrays.stream(fields).map(field -> ":" + field.getName()).collect(joining(", ")));
+        try (Update update = handle.createUpdate(insertSql)) {
+            for (var field : fields) {
+                field.setAccessible(true);
+                blackhole.consume(List.of(String.class, Enum.class).contains(field.getType()));
+                update.bindByType(field.getName(), field.get(branch), field.getGenericType());
+            }
+            blackhole.consume(update);
+        }
+        blackhole.consume("select * from " + English.plural(toLowerUnderscore(Branch.class.getSimpleName()))
+                + " where swift_code = :swift_code");
+        var swiftCodeField = Arrays.stream(getAllFields(Branch.class))
+                .filter(field -> field.getName().equalsIgnoreCase("swiftCode"))
+                .findFirst()
+                .orElseThrow();
+        swiftCodeField.setAccessible(true);
+        blackhole.consume(swiftCodeField.get(branch));
+    }
+
+    private static String toLowerUnderscore(String upperCamel) {
+        return CaseFormat.UPPER_CAMEL.to(CaseFormat.LOWER_UNDERSCORE, upperCamel);
+    }
+
+    private static Field[] getAllFields(Class<?> clazz) {
+        List<Field> fields = new ArrayList<>();
+        while (clazz != null) {
+            Arrays.stream(clazz.getDeclaredFields())
+                    .filter(field -> !Modifier.isStatic(field.getModifiers()) && !field.isSynthetic())
+                    .forEach(fields::add);
+            clazz = clazz.getSuperclass();
+        }
+        return fields.toArray(new Field[0]);
+    }
+}
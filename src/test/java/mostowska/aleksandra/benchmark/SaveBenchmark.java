@@ -0,0 +1,121 @@
+package mostowska.aleksandra.benchmark;
+
+import mostowska.aleksandra.model.impl.Branch;
+import mostowska.aleksandra.repository.model.impl.BranchRepositoryImpl;
+import mostowska.aleksandra.support.EmbeddedDatabase;
+import org.jdbi.v3.core.Jdbi;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.stream.Collectors.joining;
+
+/**
+ * Compares the parameterized insert of `AbstractCrudRepository.save` with the former
+ * literal SQL string building path, on an embedded database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SaveBenchmark {
+
+    private Jdbi jdbi;
+    private BranchRepositoryImpl branchRepository;
+    private long sequence;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        jdbi = EmbeddedDatabase.create("save_benchmark");
+        branchRepository = new BranchRepositoryImpl(jdbi);
+    }
+
+    @Setup(Level.Iteration)
+    public void clearTable() {
+        jdbi.useHandle(handle -> handle.execute("delete from branches"));
+    }
+
+    @Benchmark
+    public Branch parameterizedSave() {
+        return branchRepository.save(nextBranch());
+    }
+
+    @Benchmark
+    public Branch stringBuildingSave() {
+        var branch = nextBranch();
+        var sql = "insert into branches %s values %s;".formatted(legacyColumnNames(), legacyColumnValues(branch));
+        jdbi.useHandle(handle -> handle.execute(sql));
+        return branchRepository.findBySwiftCode(swiftCodeOf(branch)).orElseThrow();
+    }
+
+    private Branch nextBranch() {
+        var swiftCode = "BNK%08d".formatted(sequence++ % 100_000_000L);
+        return Branch.builder()
+                .address("UL. O'HIGGINSA 1, WARSZAWA")
+                .bankName("BENCHMARK BANK")
+                .countryIso2("PL")
+                .countryName("POLAND")
+                .isHeadquarter(false)
+                .swiftCode(swiftCode)
+                .swiftPrefix(swiftCode.substring(0, 8))
+                .townName("WARSZAWA")
+                .timeZone("Europe/Warsaw")
+                .codeType("BIC11")
+                .build();
+    }
+
+    // The string building path as it was implemented in AbstractCrudRepository before parameterized statements
+
+    private static String legacyColumnNames() {
+        return "( %s )".formatted(fields()
+                .stream()
+                .map(field -> field.getName().replaceAll("([A-Z])", "_$1").toLowerCase())
+                .collect(joining(", ")));
+    }
+
+    private static String legacyColumnValues(Branch item) {
+        var values = fields()
+                .stream()
+                .map(field -> {
+                    try {
+                        field.setAccessible(true);
+                        if (field.get(item) == null) {
+                            return "NULL";
+                        }
+                        if (List.of(String.class).contains(field.getType())) {
+                            return "'%s'".formatted(((String) field.get(item)).replace("'", "''"));
+                        }
+                        return field.get(item).toString();
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                }).collect(joining(", "));
+        return "( %s )".formatted(values);
+    }
+
+    private static String swiftCodeOf(Branch item) {
+        try {
+            var field = fields().stream().filter(f -> f.getName().equals("swiftCode")).findFirst().orElseThrow();
+            field.setAccessible(true);
+            return (String) field.get(item);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static List<Field> fields() {
+        var fields = new ArrayList<Field>();
+        Class<?> clazz = Branch.class;
+        while (clazz != null) {
+            Arrays.stream(clazz.getDeclaredFields()).filter(field -> !field.isSynthetic()).forEach(fields::add);
+            clazz = clazz.getSuperclass();
+        }
+        return fields;
+    }
+}
@@ -0,0 +1,106 @@
+package mostowska.aleksandra.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import mostowska.aleksandra.api.server.HttpServer;
+import mostowska.aleksandra.api.server.ServerSettings;
+import mostowska.aleksandra.api.server.ServerThreads;
+import mostowska.aleksandra.repository.BoundedConnectionFactory;
+import mostowska.aleksandra.repository.DatabaseConcurrencySettings;
+import org.h2.jdbcx.JdbcConnectionPool;
+import org.jdbi.v3.core.Jdbi;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.URL;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static spark.Spark.*;
+
+/**
+ * Load test of the HTTP server with 1000 concurrent clients, on Jetty's pool of 200 platform threads and on
+ * virtual threads. 900 clients read from memory, as the `memory` engine serves lookups, and 100 write to the
+ * database, holding one of the 8 permits of a `BoundedConnectionFactory` over an embedded H2 database for a
+ * query and 5 ms standing for the MySQL round trip. Every client sends its next request once answered.
+ *
+ * Writes are bound by the database either way. With platform threads, the writes waiting for a permit hold
+ * their thread, and reads queue in Jetty behind them; with virtual threads, they only wait for the database.
+ * Sample time reports the p99 latency of each kind of request, divide the clients by the mean for the throughput.
+ * Run with: -Djmh.args="ServerThreadsBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx2g", "-Dhttp.maxConnections=1000"})
+public class ServerThreadsBenchmark {
+    private static final int PORT = 4600;
+    private static final long DATABASE_ROUND_TRIP_MS = 5;
+
+    @Param({"PLATFORM", "VIRTUAL"})
+    public ServerThreads threads;
+
+    private URL read;
+    private URL write;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        var dataSource = JdbcConnectionPool.create("jdbc:h2:mem:server-threads;DB_CLOSE_DELAY=-1", "sa", "");
+        dataSource.setMaxConnections(16);
+        var jdbi = Jdbi.create(new BoundedConnectionFactory(dataSource,
+                new DatabaseConcurrencySettings(8, Duration.ofSeconds(30)), new SimpleMeterRegistry()));
+
+        new HttpServer(new ServerSettings(PORT, threads, 200, 8, Duration.ofMinutes(1))).configure();
+        get("/read", (request, response) -> "{\"swiftCode\":\"PLNABCDEXXX\"}");
+        post("/write", (request, response) -> jdbi.withHandle(handle -> {
+            var result = handle.select("select 1").mapTo(Integer.class).one();
+            Thread.sleep(DATABASE_ROUND_TRIP_MS);
+            return "{\"result\":" + result + "}";
+        }));
+        awaitInitialization();
+
+        read = URI.create("http://localhost:" + PORT + "/read").toURL();
+        write = URI.create("http://localhost:" + PORT + "/write").toURL();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        stop();
+        awaitStop();
+    }
+
+    @Benchmark
+    @Group("clients")
+    @GroupThreads(900)
+    public int read() throws IOException {
+        return send(read, "GET");
+    }
+
+    @Benchmark
+    @Group("clients")
+    @GroupThreads(100)
+    public int write() throws IOException {
+        return send(write, "POST");
+    }
+
+    /**
+     * Sends a request over a kept-alive connection of the calling client, each client blocking on its own socket.
+     *
+     * @param url    The URL.
+     * @param method The HTTP method.
+     * @return The status code.
+     * @throws IOException If the request fails.
+     */
+    private static int send(URL url, String method) throws IOException {
+        var connection = (HttpURLConnection) url.openConnection();
+        connection.setRequestMethod(method);
+        try (var body = connection.getInputStream()) {
+            body.transferTo(OutputStream.nullOutputStream());
+        }
+        return connection.getResponseCode();
+    }
+}
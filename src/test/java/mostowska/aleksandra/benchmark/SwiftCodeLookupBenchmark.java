@@ -0,0 +1,100 @@
+package mostowska.aleksandra.benchmark;
+
+import mostowska.aleksandra.model.SwiftCode;
+import mostowska.aleksandra.model.impl.Branch;
+import mostowska.aleksandra.repository.memory.DirectoryIndex;
+import mostowska.aleksandra.repository.memory.LongIntMap;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares lookups of 1M SWIFT codes in a `HashMap<String, Integer>` with the packed `long` keys of a `LongIntMap`,
+ * the packing included, and with the lookups of the in-memory `DirectoryIndex`.
+ * Query codes are new String instances, so their hash is computed by the first lookup of each and cached after.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class SwiftCodeLookupBenchmark {
+
+    private static final int ENTRIES = 1_000_000;
+    private static final int QUERIES = 1 << 16;
+
+    private Map<String, Integer> hashMap;
+    private Map<String, List<Integer>> hashMapByPrefix;
+    private LongIntMap longIntMap;
+    private DirectoryIndex<Branch> index;
+    private String[] queries;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        var random = new Random(42);
+        var swiftCodes = new ArrayList<String>(ENTRIES);
+        for (var i = 0; i < ENTRIES; i++) {
+            // 250k banks of 4 codes each: the headquarters and three branches
+            var prefix = "%06d".formatted(i / 4) + (char) ('A' + random.nextInt(26)) + (char) ('A' + random.nextInt(26));
+            swiftCodes.add(prefix + (i % 4 == 0 ? "XXX" : "%03d".formatted(i % 4)));
+        }
+
+        hashMap = new HashMap<>();
+        hashMapByPrefix = new HashMap<>();
+        longIntMap = new LongIntMap(ENTRIES);
+        var branches = new ArrayList<Branch>(ENTRIES);
+        for (var i = 0; i < ENTRIES; i++) {
+            var swiftCode = swiftCodes.get(i);
+            hashMap.put(swiftCode, i);
+            hashMapByPrefix.computeIfAbsent(swiftCode.substring(0, 8), key -> new ArrayList<>()).add(i);
+            longIntMap.put(SwiftCode.encode(swiftCode), i);
+            branches.add(Branch.builder()
+                    .countryIso2("PL")
+                    .swiftCode(swiftCode)
+                    .swiftPrefix(swiftCode.substring(0, 8))
+                    .build());
+        }
+        index = DirectoryIndex.of(Branch.class, branches);
+
+        queries = new String[QUERIES];
+        for (var i = 0; i < QUERIES; i++) {
+            queries[i] = new String(swiftCodes.get(random.nextInt(ENTRIES)).toCharArray());
+        }
+    }
+
+    @Benchmark
+    public Integer hashMapGet() {
+        return hashMap.get(nextQuery());
+    }
+
+    @Benchmark
+    public int longIntMapGet() {
+        return longIntMap.get(SwiftCode.tryEncode(nextQuery()));
+    }
+
+    @Benchmark
+    public Object directoryIndexFind() {
+        return index.find(nextQuery());
+    }
+
+    @Benchmark
+    public List<Integer> hashMapByPrefixGet() {
+        return hashMapByPrefix.get(nextQuery().substring(0, 8));
+    }
+
+    @Benchmark
+    public List<Branch> directoryIndexFindAllForPrefix() {
+        return index.findAllForPrefix(nextQuery().substring(0, 8));
+    }
+
+    private String nextQuery() {
+        return queries[next++ & (QUERIES - 1)];
+    }
+}
@@ -0,0 +1,65 @@
+package mostowska.aleksandra.benchmark;
+
+import mostowska.aleksandra.repository.SwiftCodeTrie;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures `SwiftCodeTrie.search` over 1M codes for short and bank-long prefixes,
+ * and the cost of adding and removing a code while the trie holds them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class SwiftCodeTrieBenchmark {
+
+    private static final int ENTRIES = 1_000_000;
+    private static final String LETTERS = "ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+
+    private SwiftCodeTrie trie;
+    private String[] codes;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        var random = new Random(42);
+        trie = new SwiftCodeTrie(null);
+        codes = new String[ENTRIES];
+        for (var i = 0; i < ENTRIES; i++) {
+            var code = new StringBuilder(11);
+            for (var j = 0; j < 6; j++) {
+                code.append(LETTERS.charAt(random.nextInt(LETTERS.length())));
+            }
+            code.append("PL").append(i % 4 == 0 ? "XXX" : "%03d".formatted(random.nextInt(1000)));
+            codes[i] = code.toString();
+            trie.add(codes[i]);
+        }
+    }
+
+    @Benchmark
+    public List<String> searchTwoCharacters() {
+        return trie.search(nextCode().substring(0, 2), 10);
+    }
+
+    @Benchmark
+    public List<String> searchBankPrefix() {
+        return trie.search(nextCode().substring(0, 8), 10);
+    }
+
+    @Benchmark
+    public void addAndRemove() {
+        var code = nextCode();
+        trie.remove(code);
+        trie.add(code);
+    }
+
+    private String nextCode() {
+        return codes[next++ % ENTRIES];
+    }
+}
@@ -0,0 +1,79 @@
+package mostowska.aleksandra.benchmark;
+
+import mostowska.aleksandra.model.dto.search.GetSearchHitDto;
+import mostowska.aleksandra.model.impl.Branch;
+import mostowska.aleksandra.model.impl.Headquarters;
+import mostowska.aleksandra.repository.model.BranchRepository;
+import mostowska.aleksandra.repository.model.HeadquartersRepository;
+import mostowska.aleksandra.repository.search.TextSearchIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.*;
+
+/**
+ * Measures `TextSearchIndex.search` over 100k branches for exact and misspelled queries,
+ * and the cost of reindexing a branch while the index holds them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class TextSearchIndexBenchmark {
+
+    private static final int ENTRIES = 100_000;
+    private static final String[] BANKS = {"PKO BANK POLSKI", "BANK PEKAO", "SANTANDER BANK POLSKA", "ING BANK SLASKI",
+            "MBANK", "BNP PARIBAS BANK POLSKA", "CREDIT AGRICOLE BANK POLSKA", "ALIOR BANK", "BANK MILLENNIUM"};
+    private static final String[] STREETS = {"MARSZALKOWSKA", "PULAWSKA", "PIOTRKOWSKA", "GRUNWALDZKA", "DLUGA",
+            "KROLEWSKA", "SWIETOKRZYSKA", "SOKOLSKA", "KOPERNIKA", "MICKIEWICZA"};
+    private static final String[] TOWNS = {"WARSZAWA", "KRAKOW", "LODZ", "WROCLAW", "POZNAN", "GDANSK", "SZCZECIN",
+            "BYDGOSZCZ", "LUBLIN", "KATOWICE"};
+
+    private TextSearchIndex index;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        var random = new Random(42);
+        var branches = new ArrayList<Branch>(ENTRIES);
+        for (var i = 0; i < ENTRIES; i++) {
+            branches.add(Branch
+                    .builder()
+                    .swiftCode("BANKPL%02d%03d".formatted(i / 1000, i % 1000))
+                    .bankName(BANKS[random.nextInt(BANKS.length)])
+                    .address(STREETS[random.nextInt(STREETS.length)] + " " + (1 + random.nextInt(200)))
+                    .townName(TOWNS[random.nextInt(TOWNS.length)])
+                    .countryIso2("PL")
+                    .build());
+        }
+
+        var headquartersRepository = mock(HeadquartersRepository.class);
+        var branchRepository = mock(BranchRepository.class);
+        when(headquartersRepository.findAll()).thenReturn(List.<Headquarters>of());
+        when(branchRepository.findAll()).thenReturn(branches);
+        index = new TextSearchIndex(headquartersRepository, branchRepository);
+        index.load();
+    }
+
+    @Benchmark
+    public List<GetSearchHitDto> searchExact() {
+        return index.search("MILLENNIUM KOPERNIKA GDANSK", 10);
+    }
+
+    @Benchmark
+    public List<GetSearchHitDto> searchMisspelled() {
+        return index.search("milenium kopernka gdanks", 10);
+    }
+
+    @Benchmark
+    public void reindex() {
+        var i = next++ % ENTRIES;
+        index.index("BANKPL%02d%03d".formatted(i / 1000, i % 1000), "ALIOR BANK", "DLUGA 5", "GDANSK", "PL");
+    }
+}
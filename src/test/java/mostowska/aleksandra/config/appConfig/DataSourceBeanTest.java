@@ -0,0 +1,64 @@
+package mostowska.aleksandra.config.appConfig;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import mostowska.aleksandra.config.AppConfig;
+import org.jdbi.v3.core.Jdbi;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DataSourceBeanTest {
+
+    private AnnotationConfigApplicationContext context;
+    private HikariDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        context = new AnnotationConfigApplicationContext(AppConfig.class);
+        dataSource = context.getBean(HikariDataSource.class);
+    }
+
+    @AfterEach
+    void tearDown() {
+        context.close();
+    }
+
+    @Test
+    @DisplayName("Should configure pool size and timeouts from application properties")
+    void shouldConfigurePoolFromProperties() {
+        assertEquals(10, dataSource.getMaximumPoolSize());
+        assertEquals(10, dataSource.getMinimumIdle());
+        assertEquals(3000, dataSource.getConnectionTimeout());
+        assertEquals(1000, dataSource.getValidationTimeout());
+        assertEquals(-1, dataSource.getInitializationFailTimeout());
+    }
+
+    @Test
+    @DisplayName("Should enable prepared statement caching and batch rewriting on pooled connections")
+    void shouldEnableStatementCaching() {
+        var properties = dataSource.getDataSourceProperties();
+
+        assertEquals("true", properties.getProperty("cachePrepStmts"));
+        assertEquals("true", properties.getProperty("useServerPrepStmts"));
+        assertEquals("250", properties.getProperty("prepStmtCacheSize"));
+        assertEquals("2048", properties.getProperty("prepStmtCacheSqlLimit"));
+        assertEquals("true", properties.getProperty("rewriteBatchedStatements"));
+    }
+
+    @Test
+    @DisplayName("Should publish pool metrics to the meter registry")
+    void shouldPublishPoolMetrics() {
+        assertSame(context.getBean(MeterRegistry.class), dataSource.getMetricRegistry());
+    }
+
+    @Test
+    @DisplayName("Should back Jdbi with the pooled data source")
+    void shouldBackJdbiWithPooledDataSource() {
+        assertNotNull(context.getBean(Jdbi.class));
+    }
+}
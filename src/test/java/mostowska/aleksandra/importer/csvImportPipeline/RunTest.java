@@ -0,0 +1,145 @@
+package mostowska.aleksandra.importer.csvImportPipeline;
+
+import mostowska.aleksandra.importer.CsvImportPipeline;
+import mostowska.aleksandra.importer.ImportSettings;
+import mostowska.aleksandra.repository.model.BranchRepository;
+import mostowska.aleksandra.repository.model.HeadquartersRepository;
+import mostowska.aleksandra.repository.model.impl.BranchRepositoryImpl;
+import mostowska.aleksandra.repository.model.impl.HeadquartersRepositoryImpl;
+import mostowska.aleksandra.support.EmbeddedDatabase;
+import org.jdbi.v3.core.Jdbi;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class RunTest {
+
+    // Run with -Dimport.test.rows=3000000 to import a multi-million row file
+    private static final long ROWS = Long.getLong("import.test.rows", 100_000);
+    private static final int BRANCHES_PER_BANK = 3;
+
+    private static final ImportSettings SETTINGS = new ImportSettings(8, 1000, 2, 2, 500);
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    @DisplayName("Should import every row of a synthetic file into both tables")
+    void shouldImportSyntheticFile() throws IOException {
+        var jdbi = EmbeddedDatabase.create("csv_import_pipeline_test");
+        var pipeline = new CsvImportPipeline(new HeadquartersRepositoryImpl(jdbi), new BranchRepositoryImpl(jdbi));
+        var banks = ROWS / (BRANCHES_PER_BANK + 1);
+        var csv = writeSyntheticCsv(banks, 0);
+
+        var report = pipeline.run(csv, SETTINGS);
+
+        assertEquals(banks * (BRANCHES_PER_BANK + 1), report.rowsRead());
+        assertEquals(0, report.rowsRejected());
+        assertEquals(0, report.rowsFailed());
+        assertEquals(banks, report.headquartersWritten());
+        assertEquals(banks * BRANCHES_PER_BANK, report.branchesWritten());
+        assertTrue(report.rowsPerSecond() > 0);
+        assertEquals(banks, count(jdbi, "headquarters"));
+        assertEquals(banks * BRANCHES_PER_BANK, count(jdbi, "branches"));
+    }
+
+    @Test
+    @DisplayName("Should reject rows with an invalid SWIFT code or country code")
+    void shouldRejectInvalidRows() throws IOException {
+        var headquartersRepository = mock(HeadquartersRepository.class);
+        var branchRepository = mock(BranchRepository.class);
+        var pipeline = new CsvImportPipeline(headquartersRepository, branchRepository);
+        var csv = writeSyntheticCsv(10, 5);
+
+        var report = pipeline.run(csv, SETTINGS);
+
+        assertEquals(45, report.rowsRead());
+        assertEquals(5, report.rowsRejected());
+        assertEquals(10, report.headquartersWritten());
+        assertEquals(30, report.branchesWritten());
+    }
+
+    @Test
+    @DisplayName("Should count a refused batch as failed and keep importing")
+    void shouldContinueWhenBatchFails() throws IOException {
+        var headquartersRepository = mock(HeadquartersRepository.class);
+        var branchRepository = mock(BranchRepository.class);
+        when(branchRepository.saveAll(anyList())).thenThrow(new IllegalStateException("Rows not inserted"));
+        var pipeline = new CsvImportPipeline(headquartersRepository, branchRepository);
+        var csv = writeSyntheticCsv(10, 0);
+
+        var report = pipeline.run(csv, SETTINGS);
+
+        assertEquals(30, report.rowsFailed());
+        assertEquals(10, report.headquartersWritten());
+        assertEquals(0, report.branchesWritten());
+        verify(headquartersRepository, atLeastOnce()).saveAll(anyList());
+    }
+
+    @Test
+    @DisplayName("Should stop the import instead of hanging when a writer dies")
+    void shouldStopWhenWriterDies() throws IOException {
+        var headquartersRepository = mock(HeadquartersRepository.class);
+        var branchRepository = mock(BranchRepository.class);
+        when(branchRepository.saveAll(anyList())).thenThrow(new AssertionError("Writer died"));
+        var pipeline = new CsvImportPipeline(headquartersRepository, branchRepository);
+        var csv = writeSyntheticCsv(10_000, 0);
+
+        var exception = assertTimeoutPreemptively(Duration.ofSeconds(30),
+                () -> assertThrows(IllegalStateException.class, () -> pipeline.run(csv, SETTINGS)));
+
+        assertEquals("Import failed: Writer died", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Should throw exception when the file cannot be read")
+    void shouldThrowExceptionWhenFileIsMissing() {
+        var pipeline = new CsvImportPipeline(mock(HeadquartersRepository.class), mock(BranchRepository.class));
+
+        var exception = assertThrows(IllegalStateException.class,
+                () -> pipeline.run(directory.resolve("missing.csv"), SETTINGS));
+
+        assertTrue(exception.getMessage().startsWith("Import failed"));
+    }
+
+    /**
+     * Writes a CSV file with one headquarters and a few branches per bank, followed by invalid rows.
+     */
+    private Path writeSyntheticCsv(long banks, int invalidRows) throws IOException {
+        var csv = directory.resolve("swift.csv");
+        try (var writer = Files.newBufferedWriter(csv, StandardCharsets.UTF_8)) {
+            writer.write("COUNTRY ISO2 CODE,SWIFT CODE,CODE TYPE,NAME,ADDRESS,TOWN NAME,COUNTRY NAME,TIME ZONE\n");
+            for (var bank = 0L; bank < banks; bank++) {
+                var prefix = "B%07d".formatted(bank);
+                writer.write(row(prefix + "XXX"));
+                for (var branch = 1; branch <= BRANCHES_PER_BANK; branch++) {
+                    writer.write(row(prefix + "%03d".formatted(branch)));
+                }
+            }
+            for (var i = 0; i < invalidRows; i++) {
+                writer.write(row("SHORT" + i));
+            }
+        }
+        return csv;
+    }
+
+    private static String row(String swiftCode) {
+        return "pl," + swiftCode + ",BIC11,Test Bank,\"Street 1, Warsaw\",WARSAW,POLAND,Europe/Warsaw\n";
+    }
+
+    private static long count(Jdbi jdbi, String table) {
+        return jdbi.withHandle(handle -> handle.createQuery("select count(*) from " + table)
+                .mapTo(Long.class)
+                .one());
+    }
+}
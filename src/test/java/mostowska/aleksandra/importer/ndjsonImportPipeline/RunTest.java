@@ -0,0 +1,202 @@
+package mostowska.aleksandra.importer.ndjsonImportPipeline;
+
+import com.google.gson.Gson;
+import mostowska.aleksandra.importer.NdjsonImportPipeline;
+import mostowska.aleksandra.importer.NdjsonImportReport;
+import mostowska.aleksandra.importer.NdjsonImportSettings;
+import mostowska.aleksandra.model.dto.CreateModelDto;
+import mostowska.aleksandra.repository.model.BranchRepository;
+import mostowska.aleksandra.repository.model.HeadquartersRepository;
+import mostowska.aleksandra.repository.model.impl.BranchRepositoryImpl;
+import mostowska.aleksandra.repository.model.impl.HeadquartersRepositoryImpl;
+import mostowska.aleksandra.support.EmbeddedDatabase;
+import org.jdbi.v3.core.Jdbi;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RunTest {
+
+    // Run with -Dbulk.test.rows=3000000 to import a multi-million line upload
+    private static final long ROWS = Long.getLong("bulk.test.rows", 40_000);
+    private static final int BRANCHES_PER_BANK = 3;
+
+    private static final NdjsonImportSettings SETTINGS = new NdjsonImportSettings(500, 4, 1024, 10);
+
+    private static final Gson GSON = new Gson();
+
+    @Test
+    @DisplayName("Should create every row of a synthetic upload generated as it is read")
+    void shouldImportSyntheticUpload() {
+        var jdbi = EmbeddedDatabase.create("ndjson_import_pipeline_test");
+        var pipeline = new NdjsonImportPipeline(new HeadquartersRepositoryImpl(jdbi), new BranchRepositoryImpl(jdbi),
+                GSON);
+        var banks = ROWS / (BRANCHES_PER_BANK + 1);
+        var created = new LongAdder();
+
+        var report = pipeline.run(new SyntheticUpload(banks), SETTINGS, dto -> created.increment());
+
+        assertEquals(banks * (BRANCHES_PER_BANK + 1), report.rowsRead());
+        assertEquals(banks, report.headquartersCreated());
+        assertEquals(banks * BRANCHES_PER_BANK, report.branchesCreated());
+        assertEquals(0, report.rowsRejected());
+        assertEquals(0, report.rowsFailed());
+        assertTrue(report.errors().isEmpty());
+        assertEquals(report.rowsRead(), created.sum());
+        assertEquals(banks, count(jdbi, "headquarters"));
+        assertEquals(banks * BRANCHES_PER_BANK, count(jdbi, "branches"));
+    }
+
+    @Test
+    @DisplayName("Should report invalid rows with their line number and create the valid ones")
+    void shouldRejectInvalidRows() {
+        var headquartersRepository = mock(HeadquartersRepository.class);
+        var branchRepository = mock(BranchRepository.class);
+        var pipeline = new NdjsonImportPipeline(headquartersRepository, branchRepository, GSON);
+        var upload = String.join("\n",
+                row("PLNABCDEXXX", true),
+                "",
+                "{not json",
+                row("PLNABCDE001", true),
+                "null",
+                "{\"swiftCode\":\"PLNABCDE002\"}",
+                "{\"address\":\"" + "x".repeat(2000) + "\"}",
+                row("PLNABCDE003", false) + "\r");
+
+        var report = pipeline.run(stream(upload), SETTINGS, dto -> {
+        });
+
+        assertEquals(7, report.rowsRead());
+        assertEquals(1, report.headquartersCreated());
+        assertEquals(1, report.branchesCreated());
+        assertEquals(5, report.rowsRejected());
+        assertEquals(List.of(3L, 4L, 5L, 6L, 7L), report.errors().stream().map(NdjsonImportReport.RowError::line).toList());
+        assertEquals("Malformed JSON", report.errors().get(0).error());
+        assertEquals("PLNABCDE001", report.errors().get(1).swiftCode());
+        assertEquals("Missing required field: address", report.errors().get(3).error());
+        assertEquals("Line longer than 1024 characters", report.errors().get(4).error());
+        assertFalse(report.errorsTruncated());
+    }
+
+    @Test
+    @DisplayName("Should save a refused batch row by row and report only the rows refused again")
+    void shouldRetryRefusedBatchRowByRow() {
+        var jdbi = EmbeddedDatabase.create("ndjson_import_pipeline_retry_test");
+        var pipeline = new NdjsonImportPipeline(new HeadquartersRepositoryImpl(jdbi), new BranchRepositoryImpl(jdbi),
+                GSON);
+        var upload = String.join("\n",
+                row("PLNABCDE001", false),
+                row("PLNABCDE002", false),
+                row("PLNABCDE001", false));
+
+        var report = pipeline.run(stream(upload), SETTINGS, dto -> {
+        });
+
+        assertEquals(2, report.branchesCreated());
+        assertEquals(1, report.rowsFailed());
+        assertEquals(3, report.errors().get(0).line());
+        assertEquals("PLNABCDE001", report.errors().get(0).swiftCode());
+        assertEquals(2, count(jdbi, "branches"));
+    }
+
+    @Test
+    @DisplayName("Should list at most the configured number of errors")
+    void shouldTruncateErrors() {
+        var pipeline = new NdjsonImportPipeline(mock(HeadquartersRepository.class), mock(BranchRepository.class), GSON);
+
+        var report = pipeline.run(stream("{\n".repeat(25)), SETTINGS, dto -> {
+        });
+
+        assertEquals(25, report.rowsRejected());
+        assertEquals(10, report.errors().size());
+        assertTrue(report.errorsTruncated());
+    }
+
+    @Test
+    @DisplayName("Should throw exception when the upload cannot be read")
+    void shouldThrowExceptionWhenUploadFails() {
+        var pipeline = new NdjsonImportPipeline(mock(HeadquartersRepository.class), mock(BranchRepository.class), GSON);
+        var broken = new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("Connection reset");
+            }
+        };
+
+        var exception = assertThrows(IllegalStateException.class, () -> pipeline.run(broken, SETTINGS, dto -> {
+        }));
+
+        assertEquals("Upload could not be read: Connection reset", exception.getMessage());
+    }
+
+    private static String row(String swiftCode, boolean isHeadquarter) {
+        return GSON.toJson(new CreateModelDto("Street 1, Warsaw", "Test Bank", "PL", "POLAND", isHeadquarter,
+                swiftCode));
+    }
+
+    private static InputStream stream(String upload) {
+        return new ByteArrayInputStream(upload.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static long count(Jdbi jdbi, String table) {
+        return jdbi.withHandle(handle -> handle.createQuery("select count(*) from " + table)
+                .mapTo(Long.class)
+                .one());
+    }
+
+    /**
+     * An upload with one headquarters and a few branches per bank, generated one line at a time,
+     * so that the test itself holds no more than a line of it.
+     */
+    private static final class SyntheticUpload extends InputStream {
+        private final long banks;
+        private long line;
+        private byte[] current = new byte[0];
+        private int position;
+
+        SyntheticUpload(long banks) {
+            this.banks = banks;
+        }
+
+        @Override
+        public int read() {
+            return nextLine() ? current[position++] & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (!nextLine()) {
+                return -1;
+            }
+            var count = Math.min(length, current.length - position);
+            System.arraycopy(current, position, bytes, offset, count);
+            position += count;
+            return count;
+        }
+
+        private boolean nextLine() {
+            if (position < current.length) {
+                return true;
+            }
+            if (line == banks * (BRANCHES_PER_BANK + 1)) {
+                return false;
+            }
+            var prefix = "B%07d".formatted(line / (BRANCHES_PER_BANK + 1));
+            var branch = line % (BRANCHES_PER_BANK + 1);
+            var swiftCode = branch == 0 ? prefix + "XXX" : prefix + "%03d".formatted(branch);
+            current = (row(swiftCode, branch == 0) + "\n").getBytes(StandardCharsets.UTF_8);
+            position = 0;
+            line++;
+            return true;
+        }
+    }
+}
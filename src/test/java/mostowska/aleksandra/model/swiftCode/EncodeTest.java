@@ -0,0 +1,68 @@
+package mostowska.aleksandra.model.swiftCode;
+
+import mostowska.aleksandra.model.SwiftCode;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.NullAndEmptySource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EncodeTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {"PLNABCDEXXX", "PLNABCDE", "AAISALTRXXX", "ZZZZZZZZZZZ", "00000000000", "A", "BREXPLPW123"})
+    @DisplayName("Should decode the encoded code back to the same code")
+    void shouldRoundTrip(String swiftCode) {
+        var packed = SwiftCode.encode(swiftCode);
+
+        assertTrue(packed >= 0);
+        assertEquals(swiftCode, SwiftCode.decode(packed));
+    }
+
+    @Test
+    @DisplayName("Should encode codes ignoring letter case")
+    void shouldIgnoreCase() {
+        assertEquals(SwiftCode.encode("PLNABCDEXXX"), SwiftCode.encode("plnAbcdeXxx"));
+        assertEquals("PLNABCDEXXX", SwiftCode.decode(SwiftCode.encode("plnabcdexxx")));
+    }
+
+    @Test
+    @DisplayName("Should encode the 8 characters form of a code to its bank")
+    void shouldEncodePrefixToBank() {
+        var bank = SwiftCode.encode("PLNABCDE");
+
+        assertEquals(bank, SwiftCode.bankOf(SwiftCode.encode("PLNABCDEXXX")));
+        assertTrue(SwiftCode.isOfBank(SwiftCode.encode("PLNABCDE001"), bank));
+        assertFalse(SwiftCode.isOfBank(SwiftCode.encode("PLNABCDF001"), bank));
+    }
+
+    @Test
+    @DisplayName("Should keep the order of the codes")
+    void shouldKeepOrder() {
+        var swiftCodes = new ArrayList<>(List.of("PLNABCDE", "PLNABCDE001", "PLNABCDEXXX", "PLNABCD", "AAAAAAAA999",
+                "ZZZZZZZZ000", "PLNABCDF000", "9ZZZZZZZ"));
+        var sorted = swiftCodes.stream().sorted().toList();
+
+        var sortedByPacked = swiftCodes.stream()
+                .map(SwiftCode::encode)
+                .sorted()
+                .map(SwiftCode::decode)
+                .toList();
+
+        assertEquals(sorted, sortedByPacked);
+    }
+
+    @ParameterizedTest
+    @NullAndEmptySource
+    @ValueSource(strings = {"PLNABCDEXXXX", "PLN-BCDEXXX", "PLNĄBCDEXXX", "PLN BCDEXXX"})
+    @DisplayName("Should reject texts that are not SWIFT codes")
+    void shouldRejectInvalidCodes(String swiftCode) {
+        assertEquals(SwiftCode.INVALID, SwiftCode.tryEncode(swiftCode));
+        assertThrows(IllegalArgumentException.class, () -> SwiftCode.encode(swiftCode));
+    }
+}
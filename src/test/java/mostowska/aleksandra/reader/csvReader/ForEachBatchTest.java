@@ -0,0 +1,72 @@
+package mostowska.aleksandra.reader.csvReader;
+
+import mostowska.aleksandra.model.dto.csv.CreateModelFromCsvDto;
+import mostowska.aleksandra.reader.CsvReader;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ForEachBatchTest {
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    @DisplayName("Should push rows in batches of the requested size with a smaller last batch")
+    void shouldPushRowsInBatches() throws IOException {
+        var csv = writeCsv(directory.resolve("swift.csv"), 7, false);
+        var batches = new ArrayList<List<CreateModelFromCsvDto>>();
+
+        CsvReader.forEachBatch(csv, 3, batches::add);
+
+        assertEquals(List.of(3, 3, 1), batches.stream().map(List::size).toList());
+        assertEquals("BANK0000XXX", batches.get(0).get(0).swiftCode());
+        assertEquals("BANK0006XXX", batches.get(2).get(0).swiftCode());
+    }
+
+    @Test
+    @DisplayName("Should read gzip-compressed files")
+    void shouldReadGzippedFile() throws IOException {
+        var csv = writeCsv(directory.resolve("swift.csv.gz"), 5, true);
+        var rows = new ArrayList<CreateModelFromCsvDto>();
+
+        CsvReader.forEachBatch(csv, 2, rows::addAll);
+
+        assertEquals(5, rows.size());
+    }
+
+    @Test
+    @DisplayName("Should throw exception when batch size is not positive")
+    void shouldThrowExceptionForInvalidBatchSize() {
+        var exception = assertThrows(IllegalArgumentException.class,
+                () -> CsvReader.forEachBatch(directory.resolve("swift.csv"), 0, batch -> { }));
+
+        assertEquals("Batch size must be positive", exception.getMessage());
+    }
+
+    private static Path writeCsv(Path path, int rows, boolean gzip) throws IOException {
+        var csv = new StringBuilder("COUNTRY ISO2 CODE,SWIFT CODE,CODE TYPE,NAME,ADDRESS,TOWN NAME,COUNTRY NAME,TIME ZONE\n");
+        for (var i = 0; i < rows; i++) {
+            csv.append("PL,BANK%04dXXX,BIC11,BANK,Street,WARSAW,POLAND,Europe/Warsaw\n".formatted(i));
+        }
+        var bytes = csv.toString().getBytes(StandardCharsets.UTF_8);
+        if (gzip) {
+            try (var out = new GZIPOutputStream(Files.newOutputStream(path))) {
+                out.write(bytes);
+            }
+        } else {
+            Files.write(path, bytes);
+        }
+        return path;
+    }
+}
@@ -0,0 +1,80 @@
+package mostowska.aleksandra.reader.csvReader;
+
+import mostowska.aleksandra.reader.CsvReader;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StreamTest {
+
+    private static final String CSV = """
+            COUNTRY ISO2 CODE,SWIFT CODE,CODE TYPE,NAME,ADDRESS,TOWN NAME,COUNTRY NAME,TIME ZONE
+            pl , PLNXXXXXXXX ,BIC11, test bank ,"Street 1, Warsaw",WARSAW,POLAND,Europe/Warsaw
+            pl,PLNXXXXX001,BIC11,test bank,Street 2,WARSAW,POLAND,Europe/Warsaw
+            """;
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    @DisplayName("Should map rows with the header mapping from a plain file")
+    void shouldStreamPlainFile() throws IOException {
+        var csv = Files.writeString(directory.resolve("swift.csv"), CSV);
+
+        try (var rows = CsvReader.stream(csv)) {
+            var result = rows.toList();
+
+            assertEquals(2, result.size());
+            assertEquals("PL", result.get(0).countryISO2());
+            assertEquals("PLNXXXXXXXX", result.get(0).swiftCode());
+            assertEquals("TEST BANK", result.get(0).bankName());
+            assertEquals("Street 1, Warsaw", result.get(0).address());
+            assertEquals("PLNXXXXX001", result.get(1).swiftCode());
+        }
+    }
+
+    @Test
+    @DisplayName("Should detect and decompress gzip-compressed input")
+    void shouldStreamGzippedInput() throws IOException {
+        var compressed = new ByteArrayOutputStream();
+        try (var gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(CSV.getBytes(StandardCharsets.UTF_8));
+        }
+
+        try (var rows = CsvReader.stream(new ByteArrayInputStream(compressed.toByteArray()))) {
+            var result = rows.toList();
+
+            assertEquals(2, result.size());
+            assertEquals("PLNXXXXXXXX", result.get(0).swiftCode());
+        }
+    }
+
+    @Test
+    @DisplayName("Should parse rows lazily as the stream is consumed")
+    void shouldParseLazily() throws IOException {
+        var csv = Files.writeString(directory.resolve("swift.csv"), CSV + "broken,\"unterminated\n");
+
+        try (var rows = CsvReader.stream(csv)) {
+            var first = rows.findFirst();
+
+            assertTrue(first.isPresent());
+            assertEquals("PLNXXXXXXXX", first.get().swiftCode());
+        }
+    }
+
+    @Test
+    @DisplayName("Should throw exception when the file does not exist")
+    void shouldThrowExceptionWhenFileIsMissing() {
+        assertThrows(IOException.class, () -> CsvReader.stream(directory.resolve("missing.csv")));
+    }
+}
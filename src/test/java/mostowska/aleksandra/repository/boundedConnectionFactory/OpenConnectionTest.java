@@ -0,0 +1,81 @@
+package mostowska.aleksandra.repository.boundedConnectionFactory;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import mostowska.aleksandra.repository.BoundedConnectionFactory;
+import mostowska.aleksandra.repository.DatabaseConcurrencySettings;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OpenConnectionTest {
+
+    @Mock
+    private DataSource dataSource;
+
+    @Mock
+    private Connection connection;
+
+    private SimpleMeterRegistry meterRegistry;
+    private BoundedConnectionFactory connectionFactory;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        connectionFactory = new BoundedConnectionFactory(dataSource,
+                new DatabaseConcurrencySettings(2, Duration.ofMillis(50)), meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Should fail callers past the bound until a connection is closed")
+    void shouldBoundConcurrentConnections() throws Exception {
+        when(dataSource.getConnection()).thenReturn(connection);
+
+        var first = connectionFactory.openConnection();
+        connectionFactory.openConnection();
+
+        assertEquals(2, meterRegistry.get("db.calls.active").gauge().value());
+        assertThrows(SQLTransientConnectionException.class, connectionFactory::openConnection);
+
+        connectionFactory.closeConnection(first);
+        verify(connection).close();
+        assertEquals(1, meterRegistry.get("db.calls.active").gauge().value());
+        assertSame(connection, connectionFactory.openConnection());
+    }
+
+    @Test
+    @DisplayName("Should free the permit when the pool fails to hand out a connection")
+    void shouldReleasePermitOnPoolFailure() throws Exception {
+        when(dataSource.getConnection()).thenThrow(new SQLException("Pool exhausted"));
+
+        for (var i = 0; i < 3; i++) {
+            var exception = assertThrows(SQLException.class, connectionFactory::openConnection);
+            assertEquals("Pool exhausted", exception.getMessage());
+        }
+        assertEquals(0, meterRegistry.get("db.calls.active").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Should free the permit when closing the connection fails")
+    void shouldReleasePermitOnCloseFailure() throws Exception {
+        when(dataSource.getConnection()).thenReturn(connection);
+        doThrow(new SQLException("Broken")).when(connection).close();
+
+        var opened = connectionFactory.openConnection();
+        assertThrows(SQLException.class, () -> connectionFactory.closeConnection(opened));
+
+        assertEquals(0, meterRegistry.get("db.calls.active").gauge().value());
+    }
+}
@@ -0,0 +1,88 @@
+package mostowska.aleksandra.repository.cache.cachingBranchRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import mostowska.aleksandra.model.impl.Branch;
+import mostowska.aleksandra.repository.cache.CachingBranchRepository;
+import mostowska.aleksandra.repository.cache.RepositoryCacheSettings;
+import mostowska.aleksandra.repository.model.BranchRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FindAllForSWIFTTest {
+
+    @Mock
+    private BranchRepository delegate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private CachingBranchRepository branchRepository;
+    private Branch branch;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        branchRepository = new CachingBranchRepository(delegate,
+                new RepositoryCacheSettings(1, Duration.ofMinutes(5)), meterRegistry);
+        branch = Branch.builder()
+                .address("Test Address")
+                .bankName("Test Bank")
+                .countryIso2("PL")
+                .countryName("POLAND")
+                .isHeadquarter(false)
+                .swiftCode("PLNXXX12001")
+                .swiftPrefix("PLNXXX12")
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should share one entry for all SWIFT codes of a bank")
+    void shouldShareEntryPerBankPrefix() {
+        when(delegate.findAllForSWIFT("PLNXXX12XXX")).thenReturn(List.of(branch));
+
+        var first = branchRepository.findAllForSWIFT("PLNXXX12XXX");
+        var second = branchRepository.findAllForSWIFT("PLNXXX12002");
+
+        assertEquals(List.of(branch), first);
+        assertSame(first, second);
+        verify(delegate, times(1)).findAllForSWIFT(anyString());
+    }
+
+    @Test
+    @DisplayName("Should invalidate the bank entry when any of its branches is saved")
+    void shouldInvalidateBankEntryOnSaveAll() {
+        when(delegate.findAllForSWIFT("PLNXXX12XXX")).thenReturn(List.of(), List.of(branch));
+
+        assertTrue(branchRepository.findAllForSWIFT("PLNXXX12XXX").isEmpty());
+        branchRepository.saveAll(List.of(branch));
+
+        assertEquals(List.of(branch), branchRepository.findAllForSWIFT("PLNXXX12XXX"));
+    }
+
+    @Test
+    @DisplayName("Should evict entries beyond the maximum size and count evictions")
+    void shouldEvictBeyondMaximumSize() throws InterruptedException {
+        when(delegate.findAllForSWIFT(anyString())).thenReturn(List.of());
+
+        for (var i = 0; i < 10; i++) {
+            branchRepository.findAllForSWIFT("BANK%04dXXX".formatted(i));
+        }
+
+        // Caffeine evicts in a background maintenance task
+        var evictions = meterRegistry.get("cache.evictions").tags("cache", "branches.forSwift").functionCounter();
+        for (var attempt = 0; attempt < 50 && evictions.count() == 0; attempt++) {
+            branchRepository.findAllForSWIFT("BANK0000XXX");
+            Thread.sleep(100);
+        }
+        assertTrue(evictions.count() > 0);
+    }
+}
@@ -0,0 +1,73 @@
+package mostowska.aleksandra.repository.cache.cachingBranchRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import mostowska.aleksandra.model.impl.Branch;
+import mostowska.aleksandra.repository.cache.CachingBranchRepository;
+import mostowska.aleksandra.repository.cache.RepositoryCacheSettings;
+import mostowska.aleksandra.repository.model.BranchRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LookupBySwiftCodeTest {
+
+    @Mock
+    private BranchRepository delegate;
+
+    private CachingBranchRepository branchRepository;
+    private Branch branch;
+
+    @BeforeEach
+    void setUp() {
+        branchRepository = new CachingBranchRepository(delegate,
+                new RepositoryCacheSettings(100, Duration.ofMinutes(5)), new SimpleMeterRegistry());
+        branch = Branch.builder()
+                .address("Test Address")
+                .bankName("Test Bank")
+                .countryIso2("PL")
+                .countryName("POLAND")
+                .isHeadquarter(false)
+                .swiftCode("PLNXXX12001")
+                .swiftPrefix("PLNXXX12")
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should serve cached codes and read all the others in one lookup")
+    void shouldReadOnlyUncachedCodes() {
+        when(delegate.findBySwiftCode("PLNXXX12001")).thenReturn(Optional.of(branch));
+        when(delegate.lookupBySwiftCode(List.of("PLNXXX12002", "PLNXXX12003"))).thenReturn(List.of());
+        branchRepository.findBySwiftCode("PLNXXX12001");
+
+        var result = branchRepository.lookupBySwiftCode(List.of("plnxxx12001", "PLNXXX12002", "PLNXXX12003"));
+
+        assertEquals(List.of(branch), result);
+        verify(delegate, times(1)).lookupBySwiftCode(anyList());
+    }
+
+    @Test
+    @DisplayName("Should not cache a row deleted while the lookup was reading it")
+    void shouldNotCacheRowDeletedDuringLookup() {
+        when(delegate.lookupBySwiftCode(List.of("PLNXXX12001"))).thenAnswer(invocation -> {
+            // The delete commits and invalidates the code after the lookup has read the row
+            branchRepository.delete("PLNXXX12001");
+            return List.of(branch);
+        });
+        when(delegate.findBySwiftCode("PLNXXX12001")).thenReturn(Optional.empty());
+
+        branchRepository.lookupBySwiftCode(List.of("PLNXXX12001"));
+
+        assertTrue(branchRepository.findBySwiftCode("PLNXXX12001").isEmpty());
+    }
+}
@@ -0,0 +1,122 @@
+package mostowska.aleksandra.repository.cache.cachingHeadquartersRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import mostowska.aleksandra.model.impl.Headquarters;
+import mostowska.aleksandra.repository.cache.CachingHeadquartersRepository;
+import mostowska.aleksandra.repository.cache.RepositoryCacheSettings;
+import mostowska.aleksandra.repository.model.HeadquartersRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FindBySwiftCodeTest {
+
+    private static final String SWIFT_CODE = "PLNXXX12XXX";
+
+    @Mock
+    private HeadquartersRepository delegate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private CachingHeadquartersRepository headquartersRepository;
+    private Headquarters headquarters;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        headquartersRepository = new CachingHeadquartersRepository(delegate,
+                new RepositoryCacheSettings(100, Duration.ofMinutes(5)), meterRegistry);
+        headquarters = Headquarters.builder()
+                .address("Test Address")
+                .bankName("Test Bank")
+                .countryIso2("PL")
+                .countryName("POLAND")
+                .isHeadquarter(true)
+                .swiftCode(SWIFT_CODE)
+                .swiftPrefix("PLNXXX12")
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should read the database once and serve repeated lookups from the cache")
+    void shouldServeRepeatedLookupsFromCache() {
+        when(delegate.findBySwiftCode(SWIFT_CODE)).thenReturn(Optional.of(headquarters));
+
+        var first = headquartersRepository.findBySwiftCode(SWIFT_CODE);
+        var second = headquartersRepository.findBySwiftCode(SWIFT_CODE.toLowerCase());
+
+        assertSame(headquarters, first.orElseThrow());
+        assertSame(headquarters, second.orElseThrow());
+        verify(delegate, times(1)).findBySwiftCode(anyString());
+        assertEquals(1.0, meterRegistry.get("cache.gets")
+                .tags("cache", "headquarters.bySwiftCode", "result", "hit").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets")
+                .tags("cache", "headquarters.bySwiftCode", "result", "miss").functionCounter().count());
+    }
+
+    @Test
+    @DisplayName("Should cache missing entities until one is saved")
+    void shouldInvalidateOnSave() {
+        when(delegate.findBySwiftCode(SWIFT_CODE)).thenReturn(Optional.empty(), Optional.of(headquarters));
+
+        assertTrue(headquartersRepository.findBySwiftCode(SWIFT_CODE).isEmpty());
+        assertTrue(headquartersRepository.findBySwiftCode(SWIFT_CODE).isEmpty());
+        headquartersRepository.save(headquarters);
+
+        assertTrue(headquartersRepository.findBySwiftCode(SWIFT_CODE).isPresent());
+        verify(delegate, times(2)).findBySwiftCode(SWIFT_CODE);
+    }
+
+    @Test
+    @DisplayName("Should reload the entity after update, delete and bulk delete")
+    void shouldInvalidateOnWrites() {
+        when(delegate.findBySwiftCode(SWIFT_CODE)).thenReturn(Optional.of(headquarters));
+
+        headquartersRepository.findBySwiftCode(SWIFT_CODE);
+        headquartersRepository.update(SWIFT_CODE, headquarters);
+        headquartersRepository.findBySwiftCode(SWIFT_CODE);
+        headquartersRepository.delete(SWIFT_CODE);
+        headquartersRepository.findBySwiftCode(SWIFT_CODE);
+        headquartersRepository.deleteAllBySwiftCode(List.of(SWIFT_CODE));
+        headquartersRepository.findBySwiftCode(SWIFT_CODE);
+        headquartersRepository.deleteAll();
+        headquartersRepository.findBySwiftCode(SWIFT_CODE);
+
+        verify(delegate, times(5)).findBySwiftCode(SWIFT_CODE);
+    }
+
+    @Test
+    @DisplayName("Should keep entries of other SWIFT codes on write")
+    void shouldKeepOtherEntriesOnWrite() {
+        when(delegate.findBySwiftCode(SWIFT_CODE)).thenReturn(Optional.of(headquarters));
+
+        headquartersRepository.findBySwiftCode(SWIFT_CODE);
+        headquartersRepository.delete("DEUXXX12XXX");
+        headquartersRepository.findBySwiftCode(SWIFT_CODE);
+
+        verify(delegate, times(1)).findBySwiftCode(SWIFT_CODE);
+    }
+
+    @Test
+    @DisplayName("Should invalidate the entry even when the write fails")
+    void shouldInvalidateWhenWriteFails() {
+        when(delegate.findBySwiftCode(SWIFT_CODE)).thenReturn(Optional.of(headquarters));
+        when(delegate.update(SWIFT_CODE, headquarters)).thenThrow(new IllegalStateException("Update not completed"));
+
+        headquartersRepository.findBySwiftCode(SWIFT_CODE);
+        assertThrows(IllegalStateException.class, () -> headquartersRepository.update(SWIFT_CODE, headquarters));
+        headquartersRepository.findBySwiftCode(SWIFT_CODE);
+
+        verify(delegate, times(2)).findBySwiftCode(SWIFT_CODE);
+    }
+}
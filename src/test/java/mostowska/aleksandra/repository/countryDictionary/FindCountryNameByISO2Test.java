@@ -0,0 +1,60 @@
+package mostowska.aleksandra.repository.countryDictionary;
+
+import mostowska.aleksandra.repository.CountryDictionary;
+import org.jdbi.v3.core.Jdbi;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class FindCountryNameByISO2Test {
+
+    @Mock
+    private Jdbi jdbi;
+
+    @InjectMocks
+    private CountryDictionary countryDictionary;
+
+    @BeforeEach
+    void setUp() {
+        countryDictionary.register("PL", "POLAND");
+    }
+
+    @Test
+    @DisplayName("Should find country name without querying the database")
+    void shouldFindCountryName() {
+        assertEquals("POLAND", countryDictionary.findCountryNameByISO2("PL"));
+        verifyNoInteractions(jdbi);
+    }
+
+    @Test
+    @DisplayName("Should find country name regardless of letter case")
+    void shouldFindCountryNameIgnoringCase() {
+        assertEquals("POLAND", countryDictionary.findCountryNameByISO2("pl"));
+        assertTrue(countryDictionary.contains("pL"));
+    }
+
+    @Test
+    @DisplayName("Should throw exception when country is not known")
+    void shouldThrowExceptionWhenCountryIsNotKnown() {
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> countryDictionary.findCountryNameByISO2("XX"));
+
+        assertEquals("No such country", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Should throw exception when code is not two latin letters")
+    void shouldThrowExceptionForMalformedCode() {
+        assertThrows(IllegalStateException.class, () -> countryDictionary.findCountryNameByISO2("P1"));
+        assertThrows(IllegalStateException.class, () -> countryDictionary.findCountryNameByISO2("POL"));
+        assertThrows(IllegalStateException.class, () -> countryDictionary.findCountryNameByISO2(null));
+    }
+}
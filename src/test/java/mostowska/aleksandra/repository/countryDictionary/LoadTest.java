@@ -0,0 +1,43 @@
+package mostowska.aleksandra.repository.countryDictionary;
+
+import mostowska.aleksandra.model.impl.Branch;
+import mostowska.aleksandra.model.impl.Headquarters;
+import mostowska.aleksandra.repository.CountryDictionary;
+import mostowska.aleksandra.repository.model.impl.BranchRepositoryImpl;
+import mostowska.aleksandra.repository.model.impl.HeadquartersRepositoryImpl;
+import mostowska.aleksandra.support.EmbeddedDatabase;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoadTest {
+
+    @Test
+    @DisplayName("Should load countries from both headquarters and branches")
+    void shouldLoadCountriesFromBothTables() {
+        var jdbi = EmbeddedDatabase.create("country_dictionary_test");
+        new HeadquartersRepositoryImpl(jdbi).save(Headquarters.builder()
+                .countryIso2("PL")
+                .countryName("POLAND")
+                .isHeadquarter(true)
+                .swiftCode("PLNABCDEXXX")
+                .swiftPrefix("PLNABCDE")
+                .build());
+        new BranchRepositoryImpl(jdbi).save(Branch.builder()
+                .countryIso2("DE")
+                .countryName("GERMANY")
+                .isHeadquarter(false)
+                .swiftCode("DEUABCDE001")
+                .swiftPrefix("DEUABCDE")
+                .build());
+        var countryDictionary = new CountryDictionary(jdbi);
+
+        var loaded = countryDictionary.load();
+
+        assertEquals(2, loaded);
+        assertEquals("POLAND", countryDictionary.findCountryNameByISO2("PL"));
+        assertEquals("GERMANY", countryDictionary.findCountryNameByISO2("DE"));
+        assertFalse(countryDictionary.contains("FR"));
+    }
+}
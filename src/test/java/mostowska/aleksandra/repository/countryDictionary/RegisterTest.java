@@ -0,0 +1,47 @@
+package mostowska.aleksandra.repository.countryDictionary;
+
+import mostowska.aleksandra.repository.CountryDictionary;
+import org.jdbi.v3.core.Jdbi;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class RegisterTest {
+
+    @Mock
+    private Jdbi jdbi;
+
+    @InjectMocks
+    private CountryDictionary countryDictionary;
+
+    @Test
+    @DisplayName("Should add a new country and replace the name of a known one")
+    void shouldAddAndReplaceCountry() {
+        countryDictionary.register("pl", "POLSKA");
+        countryDictionary.register("PL", "POLAND");
+
+        assertEquals("POLAND", countryDictionary.findCountryNameByISO2("PL"));
+    }
+
+    @Test
+    @DisplayName("Should throw exception when code is not two latin letters")
+    void shouldThrowExceptionForMalformedCode() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> countryDictionary.register("P", "POLAND"));
+
+        assertEquals("Wrong input for country ISO2 code - should contain 2 letters.", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Should throw exception when name is missing")
+    void shouldThrowExceptionForMissingName() {
+        assertThrows(IllegalArgumentException.class, () -> countryDictionary.register("PL", null));
+        assertFalse(countryDictionary.contains("PL"));
+    }
+}
@@ -0,0 +1,43 @@
+package mostowska.aleksandra.repository.countryDictionary;
+
+import mostowska.aleksandra.exception.NotFoundException;
+import mostowska.aleksandra.repository.CountryDictionary;
+import org.jdbi.v3.core.Jdbi;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class RemoveTest {
+
+    @Mock
+    private Jdbi jdbi;
+
+    @InjectMocks
+    private CountryDictionary countryDictionary;
+
+    @Test
+    @DisplayName("Should forget a removed country and keep the others")
+    void shouldForgetRemovedCountry() {
+        countryDictionary.register("PL", "POLAND");
+        countryDictionary.register("DE", "GERMANY");
+
+        countryDictionary.remove("pl");
+
+        assertFalse(countryDictionary.contains("PL"));
+        assertThrows(NotFoundException.class, () -> countryDictionary.findCountryNameByISO2("PL"));
+        assertEquals("GERMANY", countryDictionary.findCountryNameByISO2("DE"));
+    }
+
+    @Test
+    @DisplayName("Should ignore malformed codes")
+    void shouldIgnoreMalformedCodes() {
+        assertDoesNotThrow(() -> countryDictionary.remove(null));
+        assertDoesNotThrow(() -> countryDictionary.remove("POL"));
+    }
+}
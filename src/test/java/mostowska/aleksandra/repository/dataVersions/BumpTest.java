@@ -0,0 +1,35 @@
+package mostowska.aleksandra.repository.dataVersions;
+
+import mostowska.aleksandra.repository.DataVersions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BumpTest {
+
+    @Test
+    @DisplayName("Should move the versions of the country and of the bank of the written model ignoring case")
+    void shouldMoveCountryAndBankVersions() {
+        var dataVersions = new DataVersions();
+
+        dataVersions.bump("pl", "plnabcdexxx");
+        dataVersions.bump("PL", "PLNABCDE001");
+
+        assertEquals(2, dataVersions.countryVersion("PL"));
+        assertEquals(2, dataVersions.prefixVersion("PLNABCDEXXX"));
+        assertEquals(2, dataVersions.prefixVersion("plnabcde002"));
+    }
+
+    @Test
+    @DisplayName("Should leave the versions of other countries and banks at 0")
+    void shouldLeaveOtherVersionsUntouched() {
+        var dataVersions = new DataVersions();
+
+        dataVersions.bump("PL", "PLNABCDE001");
+
+        assertEquals(0, dataVersions.countryVersion("DE"));
+        assertEquals(0, dataVersions.prefixVersion("PLNABCDFXXX"));
+        assertEquals(0, dataVersions.prefixVersion("PLN"));
+    }
+}
@@ -0,0 +1,83 @@
+package mostowska.aleksandra.repository.generic.abstractCrudRepository;
+
+import mostowska.aleksandra.model.impl.Branch;
+import mostowska.aleksandra.repository.generic.DeleteChunkRunner;
+import mostowska.aleksandra.repository.model.impl.BranchRepositoryImpl;
+import mostowska.aleksandra.support.EmbeddedDatabase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeleteAllForCountryTest {
+
+    private BranchRepositoryImpl branchRepository;
+
+    @BeforeEach
+    void setUp() {
+        branchRepository = new BranchRepositoryImpl(EmbeddedDatabase.create("delete_all_for_country_test"));
+        branchRepository.setDeleteChunkSize(3);
+        branchRepository.saveAll(IntStream.range(0, 7)
+                .mapToObj(i -> branch("PLNABCDE%03d".formatted(i), "PL"))
+                .toList());
+        branchRepository.save(branch("DEUABCDE001", "DE"));
+    }
+
+    @Test
+    @DisplayName("Should delete every row of the country over several chunks and keep the other countries")
+    void shouldDeleteCountryOverSeveralChunks() {
+        var result = branchRepository.deleteAllForCountry("PL", DeleteChunkRunner.direct());
+
+        assertEquals(7, result.size());
+        assertTrue(branchRepository.findAllForCountry("PL").isEmpty());
+        assertEquals(1, branchRepository.findAllForCountry("DE").size());
+    }
+
+    @Test
+    @DisplayName("Should stop after an exactly full last chunk")
+    void shouldStopAfterFullLastChunk() {
+        branchRepository.setDeleteChunkSize(7);
+
+        assertEquals(7, branchRepository.deleteAllForCountry("PL", DeleteChunkRunner.direct()).size());
+        assertTrue(branchRepository.deleteAllForCountry("PL", DeleteChunkRunner.direct()).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should run every chunk through the runner without SWIFT codes")
+    void shouldRunEveryChunkThroughRunner() {
+        var chunkSizes = new ArrayList<Integer>();
+
+        var result = branchRepository.deleteAllForCountry("PL", (swiftCodes, delete) -> {
+            assertNull(swiftCodes);
+            var deleted = delete.get();
+            chunkSizes.add(deleted.size());
+            return deleted;
+        });
+
+        assertEquals(List.of(3, 3, 1), chunkSizes);
+        assertEquals(7, result.size());
+    }
+
+    @Test
+    @DisplayName("Should throw exception when the chunk size is not positive")
+    void shouldThrowWhenChunkSizeNotPositive() {
+        assertThrows(IllegalArgumentException.class, () -> branchRepository.setDeleteChunkSize(0));
+    }
+
+    private static Branch branch(String swiftCode, String countryIso2) {
+        return Branch.builder()
+                .address("Branch Address")
+                .bankName("Test Bank")
+                .countryIso2(countryIso2)
+                .countryName("TEST COUNTRY")
+                .isHeadquarter(false)
+                .swiftCode(swiftCode)
+                .swiftPrefix(swiftCode.substring(0, 8))
+                .build();
+    }
+}
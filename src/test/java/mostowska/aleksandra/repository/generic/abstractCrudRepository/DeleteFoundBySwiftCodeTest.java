@@ -0,0 +1,99 @@
+package mostowska.aleksandra.repository.generic.abstractCrudRepository;
+
+import mostowska.aleksandra.model.impl.Branch;
+import mostowska.aleksandra.repository.generic.DeleteChunkRunner;
+import mostowska.aleksandra.repository.model.impl.BranchRepositoryImpl;
+import mostowska.aleksandra.support.EmbeddedDatabase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeleteFoundBySwiftCodeTest {
+
+    private BranchRepositoryImpl branchRepository;
+
+    @BeforeEach
+    void setUp() {
+        branchRepository = new BranchRepositoryImpl(EmbeddedDatabase.create("delete_found_by_swift_code_test"));
+        branchRepository.setDeleteChunkSize(2);
+        branchRepository.saveAll(List.of(
+                branch("PLNABCDE001", "PL"),
+                branch("PLNABCDE002", "PL"),
+                branch("PLNABCDE003", "PL"),
+                branch("DEUABCDE001", "DE")));
+    }
+
+    @Test
+    @DisplayName("Should delete the codes found over several chunks and leave out the missing ones")
+    void shouldDeleteFoundCodesOverSeveralChunks() {
+        var result = branchRepository.deleteFoundBySwiftCode(
+                List.of("PLNABCDE001", "PLNMISSE001", "PLNABCDE003", "DEUABCDE001", "DEUMISSE001"), DeleteChunkRunner.direct());
+
+        assertEquals(List.of("DEUABCDE001", "PLNABCDE001", "PLNABCDE003"), result.stream()
+                .map(branch -> branch.toGetBranchDto().swiftCode())
+                .sorted()
+                .toList());
+        assertEquals(List.of("PLNABCDE002"), branchRepository.findAll().stream()
+                .map(branch -> branch.toGetBranchDto().swiftCode())
+                .toList());
+    }
+
+    @Test
+    @DisplayName("Should return an empty list when no code is found")
+    void shouldReturnEmptyListWhenNothingFound() {
+        assertTrue(branchRepository.deleteFoundBySwiftCode(List.of("PLNMISSE001"), DeleteChunkRunner.direct()).isEmpty());
+        assertTrue(branchRepository.deleteFoundBySwiftCode(List.of(), DeleteChunkRunner.direct()).isEmpty());
+        assertEquals(4, branchRepository.findAll().size());
+    }
+
+    @Test
+    @DisplayName("Should run each chunk through the runner with its SWIFT codes")
+    void shouldRunEveryChunkThroughRunner() {
+        var chunks = new ArrayList<List<String>>();
+
+        branchRepository.deleteFoundBySwiftCode(List.of("PLNABCDE001", "PLNABCDE002", "PLNABCDE003"),
+                (swiftCodes, delete) -> {
+                    chunks.add(swiftCodes);
+                    return delete.get();
+                });
+
+        assertEquals(List.of(List.of("PLNABCDE001", "PLNABCDE002"), List.of("PLNABCDE003")), chunks);
+    }
+
+    @Test
+    @DisplayName("Should report each row deleted once when two deletes of the same codes run at once")
+    void shouldReportRowsOnceUnderConcurrentDeletes() throws Exception {
+        var swiftCodes = List.of("PLNABCDE001", "PLNABCDE002", "PLNABCDE003", "DEUABCDE001");
+        for (var round = 0; round < 20; round++) {
+            branchRepository.deleteAll();
+            branchRepository.saveAll(swiftCodes.stream()
+                    .map(swiftCode -> branch(swiftCode, swiftCode.substring(0, 2)))
+                    .toList());
+
+            try (var executor = Executors.newFixedThreadPool(2)) {
+                var first = executor.submit(() -> branchRepository.deleteFoundBySwiftCode(swiftCodes, DeleteChunkRunner.direct()));
+                var second = executor.submit(() -> branchRepository.deleteFoundBySwiftCode(swiftCodes, DeleteChunkRunner.direct()));
+
+                assertEquals(swiftCodes.size(), first.get().size() + second.get().size());
+            }
+        }
+    }
+
+    private static Branch branch(String swiftCode, String countryIso2) {
+        return Branch.builder()
+                .address("Branch Address")
+                .bankName("Test Bank")
+                .countryIso2(countryIso2)
+                .countryName("TEST COUNTRY")
+                .isHeadquarter(false)
+                .swiftCode(swiftCode)
+                .swiftPrefix(swiftCode.substring(0, 8))
+                .build();
+    }
+}
@@ -0,0 +1,92 @@
+package mostowska.aleksandra.repository.generic.abstractCrudRepository;
+
+
+import lombok.extern.slf4j.Slf4j;
+import mostowska.aleksandra.model.impl.Branch;
+import mostowska.aleksandra.repository.model.impl.BranchRepositoryImpl;
+import org.jdbi.v3.core.Jdbi;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@Slf4j
+@ExtendWith(MockitoExtension.class)
+class FindPageTest {
+
+    @Mock
+    private Jdbi jdbi;
+
+    @InjectMocks
+    private BranchRepositoryImpl branchRepository;
+
+    private List<Branch> branches;
+
+    @BeforeEach
+    void setUp() {
+        Branch branch1 = Branch.builder()
+                .address("Test Address 1")
+                .bankName("Test Bank 1")
+                .countryIso2("PL")
+                .countryName("POLAND")
+                .isHeadquarter(false)
+                .swiftCode("PLNXXX12345")
+                .swiftPrefix("PLNXXX12")
+                .townName("Test Town 1")
+                .timeZone("CET")
+                .codeType("Test CodeType 1")
+                .build();
+
+        Branch branch2 = Branch.builder()
+                .address("Test Address 2")
+                .bankName("Test Bank 2")
+                .countryIso2("PL")
+                .countryName("POLAND")
+                .isHeadquarter(false)
+                .swiftCode("PLNXXX12346")
+                .swiftPrefix("PLNXXX12")
+                .townName("Test Town 2")
+                .timeZone("CET")
+                .codeType("Test CodeType 2")
+                .build();
+
+        branches = List.of(branch1, branch2);
+    }
+
+    @Test
+    @DisplayName("Should find the entities of a page successfully")
+    void shouldFindPageSuccessfully() {
+        when(jdbi.withHandle(Mockito.any())).thenReturn(branches);
+
+        var result = branchRepository.findPage("PLNXXX12344", 2);
+
+        assertNotNull(result);
+        assertEquals(2, result.size());
+        assertEquals("PLNXXX12345", result.get(0).toGetBranchDto().swiftCode());
+        assertEquals("PLNXXX12346", result.get(1).toGetBranchDto().swiftCode());
+
+        verify(jdbi, times(1)).withHandle(Mockito.any());
+    }
+
+    @Test
+    @DisplayName("Should return empty list if no records follow the cursor")
+    void shouldReturnEmptyListIfNoRecordsFound() {
+        when(jdbi.withHandle(Mockito.any())).thenReturn(List.of());
+
+        var result = branchRepository.findPage("PLNXXX12346", 2);
+
+        assertNotNull(result);
+        assertTrue(result.isEmpty());
+
+        verify(jdbi, times(1)).withHandle(Mockito.any());
+    }
+}
@@ -0,0 +1,61 @@
+package mostowska.aleksandra.repository.generic.abstractCrudRepository;
+
+import mostowska.aleksandra.model.impl.Branch;
+import mostowska.aleksandra.repository.model.impl.BranchRepositoryImpl;
+import mostowska.aleksandra.support.EmbeddedDatabase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LookupBySwiftCodeTest {
+
+    private BranchRepositoryImpl branchRepository;
+
+    @BeforeEach
+    void setUp() {
+        branchRepository = new BranchRepositoryImpl(EmbeddedDatabase.create("lookup_by_swift_code_test"));
+        branchRepository.saveAll(IntStream.range(0, 2500)
+                .mapToObj(i -> branch(swiftCode(i)))
+                .toList());
+    }
+
+    @Test
+    @DisplayName("Should find codes spread over several chunks and leave out the missing ones")
+    void shouldFindCodesOverSeveralChunks() {
+        var swiftCodes = new ArrayList<>(IntStream.range(0, 2500).mapToObj(LookupBySwiftCodeTest::swiftCode).toList());
+        swiftCodes.add("PLNMISSE001");
+
+        var result = branchRepository.lookupBySwiftCode(swiftCodes);
+
+        assertEquals(2500, result.size());
+        assertTrue(result.stream().noneMatch(branch -> branch.toGetBranchDto().swiftCode().equals("PLNMISSE001")));
+    }
+
+    @Test
+    @DisplayName("Should return an empty list without querying when no codes are passed")
+    void shouldReturnEmptyListForNoCodes() {
+        assertTrue(branchRepository.lookupBySwiftCode(List.of()).isEmpty());
+    }
+
+    private static String swiftCode(int i) {
+        return "PLNABC" + (char) ('A' + i / 1000) + "E" + "%03d".formatted(i % 1000);
+    }
+
+    private static Branch branch(String swiftCode) {
+        return Branch.builder()
+                .address("Branch Address")
+                .bankName("Test Bank")
+                .countryIso2("PL")
+                .countryName("POLAND")
+                .isHeadquarter(false)
+                .swiftCode(swiftCode)
+                .swiftPrefix(swiftCode.substring(0, 8))
+                .build();
+    }
+}
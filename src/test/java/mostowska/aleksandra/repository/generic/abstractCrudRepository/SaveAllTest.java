@@ -3,6 +3,7 @@ package mostowska.aleksandra.repository.generic.abstractCrudRepository;
 import lombok.extern.slf4j.Slf4j;
 import mostowska.aleksandra.model.impl.Branch;
 import mostowska.aleksandra.repository.model.impl.BranchRepositoryImpl;
+import mostowska.aleksandra.support.EmbeddedDatabase;
 import org.jdbi.v3.core.Handle;
 import org.jdbi.v3.core.Jdbi;
 import org.junit.jupiter.api.BeforeEach;
@@ -68,9 +69,8 @@ class SaveAllTest {
     @Test
     @DisplayName("Should save all entities successfully")
     void shouldSaveAllEntitiesSuccessfully() {
-        when(jdbi.withHandle(Mockito.any()))
-                .thenReturn(2)
-                .thenReturn(branches);
+        when(jdbi.inTransaction(Mockito.any()))
+                .thenReturn(2);
 
         var result = branchRepository.saveAll(branches);
 
@@ -79,20 +79,53 @@ class SaveAllTest {
         assertEquals("Test Address 1", result.get(0).toGetBranchDto().address());
         assertEquals("Test Address 2", result.get(1).toGetBranchDto().address());
 
-        verify(jdbi, times(2)).withHandle(any());
+        verify(jdbi, times(1)).inTransaction(any());
+        verify(jdbi, never()).withHandle(any());
+    }
+
+    @Test
+    @DisplayName("Should save entities in one transaction per chunk")
+    void shouldSaveEntitiesInOneTransactionPerChunk() {
+        branchRepository.setBatchSize(1);
+        when(jdbi.inTransaction(Mockito.any()))
+                .thenReturn(1);
+
+        var result = branchRepository.saveAll(branches);
+
+        assertEquals(2, result.size());
+        verify(jdbi, times(2)).inTransaction(any());
+    }
+
+    @Test
+    @DisplayName("Should return empty list without touching the database when nothing is saved")
+    void shouldReturnEmptyListForNoEntities() {
+        var result = branchRepository.saveAll(List.of());
+
+        assertTrue(result.isEmpty());
+        verifyNoInteractions(jdbi);
+    }
+
+    @Test
+    @DisplayName("Should insert all rows in chunked batches into the database")
+    void shouldInsertAllRowsInChunkedBatches() {
+        var repository = new BranchRepositoryImpl(EmbeddedDatabase.create("save_all_test"));
+        repository.setBatchSize(1);
+
+        repository.saveAll(branches);
+
+        assertEquals(2, repository.findAll().size());
     }
 
     @Test
     @DisplayName("Should throw exception when insertion fails (no rows inserted)")
     void shouldThrowExceptionWhenInsertionFails() {
-        when(jdbi.withHandle(any())).thenReturn(0);
+        when(jdbi.inTransaction(any())).thenReturn(0);
 
         IllegalStateException exception = assertThrows(IllegalStateException.class,
                 () -> branchRepository.saveAll(branches));
 
         assertEquals("Rows not inserted", exception.getMessage());
 
-        verify(jdbi, times(1)).withHandle(any());
+        verify(jdbi, times(1)).inTransaction(any());
     }
 }
-
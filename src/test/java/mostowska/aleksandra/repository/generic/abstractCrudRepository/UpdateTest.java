@@ -3,6 +3,7 @@ package mostowska.aleksandra.repository.generic.abstractCrudRepository;
 import lombok.extern.slf4j.Slf4j;
 import mostowska.aleksandra.model.impl.Branch;
 import mostowska.aleksandra.repository.model.impl.BranchRepositoryImpl;
+import mostowska.aleksandra.support.EmbeddedDatabase;
 import org.jdbi.v3.core.Handle;
 import org.jdbi.v3.core.Jdbi;
 import org.junit.jupiter.api.BeforeEach;
@@ -80,5 +81,20 @@ class UpdateTest {
 
         assertEquals("Update not completed", exception.getMessage());
     }
-}
 
+    @Test
+    @DisplayName("Should bind values with single quotes and keep columns passed as null")
+    void shouldBindQuotedValuesAndKeepNullColumns() {
+        var repository = new BranchRepositoryImpl(EmbeddedDatabase.create("update_test"));
+        repository.save(branch);
+
+        var changes = Branch.builder()
+                .address("UL. O'HIGGINSA 1")
+                .build();
+        var result = repository.update("PLNXXX12345", changes).toGetBranchDto();
+
+        assertEquals("UL. O'HIGGINSA 1", result.address());
+        assertEquals("Test Bank", result.bankName());
+        assertEquals("PLNXXX12345", result.swiftCode());
+    }
+}
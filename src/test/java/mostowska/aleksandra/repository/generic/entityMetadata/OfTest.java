@@ -0,0 +1,61 @@
+package mostowska.aleksandra.repository.generic.entityMetadata;
+
+import mostowska.aleksandra.model.impl.Branch;
+import mostowska.aleksandra.model.impl.Headquarters;
+import mostowska.aleksandra.repository.generic.EntityMetadata;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OfTest {
+
+    @Test
+    @DisplayName("Should resolve plural lower_underscore table name")
+    void shouldResolveTableName() {
+        assertEquals("branches", EntityMetadata.of(Branch.class).tableName());
+        assertEquals("headquarters", EntityMetadata.of(Headquarters.class).tableName());
+    }
+
+    @Test
+    @DisplayName("Should map every persistent field to a column")
+    void shouldMapFieldsToColumns() {
+        var columns = EntityMetadata.of(Branch.class)
+                .columns()
+                .stream()
+                .map(EntityMetadata.Column::name)
+                .toList();
+
+        assertEquals(List.of("country_iso2", "swift_code", "swift_prefix", "code_type", "bank_name", "address",
+                "town_name", "country_name", "time_zone", "is_headquarter"), columns);
+    }
+
+    @Test
+    @DisplayName("Should build parameterized statements once")
+    void shouldBuildParameterizedStatements() {
+        var metadata = EntityMetadata.of(Branch.class);
+
+        assertTrue(metadata.insertSql().startsWith("insert into branches ( country_iso2, swift_code"));
+        assertTrue(metadata.insertSql().contains(":countryIso2, :swiftCode"));
+        assertTrue(metadata.updateSql().contains("bank_name = coalesce(:bankName, bank_name)"));
+        assertEquals("select * from branches where swift_code = :swift_code", metadata.selectBySwiftCodeSql());
+    }
+
+    @Test
+    @DisplayName("Should read column values through getter handles")
+    void shouldReadValuesThroughGetterHandles() {
+        var metadata = EntityMetadata.of(Branch.class);
+        var branch = Branch.builder()
+                .swiftCode("PLNXXX12345")
+                .bankName("Test Bank")
+                .isHeadquarter(false)
+                .build();
+
+        assertEquals("PLNXXX12345", metadata.swiftCode(branch));
+        var values = metadata.columns().stream().map(column -> column.get(branch)).toList();
+        assertTrue(values.contains("Test Bank"));
+        assertTrue(values.contains(false));
+    }
+}
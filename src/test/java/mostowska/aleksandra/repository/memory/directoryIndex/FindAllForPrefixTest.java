@@ -0,0 +1,54 @@
+package mostowska.aleksandra.repository.memory.directoryIndex;
+
+import mostowska.aleksandra.model.impl.Branch;
+import mostowska.aleksandra.repository.memory.DirectoryIndex;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FindAllForPrefixTest {
+
+    @Test
+    @DisplayName("Should return the codes of the bank in code order and nothing from neighbouring banks")
+    void shouldReturnBankRange() {
+        var index = DirectoryIndex.of(Branch.class, List.of(
+                branch("PLNABCDF001"),
+                branch("PLNABCDE002"),
+                branch("PLNABCDD999"),
+                branch("PLNABCDEXXX"),
+                branch("PLNABCDE001")));
+
+        assertEquals(List.of("PLNABCDE001", "PLNABCDE002", "PLNABCDEXXX"),
+                index.findAllForPrefix("plnabcde").stream().map(branch -> branch.toGetBranchDto().swiftCode()).toList());
+        assertTrue(index.findAllForPrefix("PLNABCDA").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should find codes outside the SWIFT alphabet by their prefix as well")
+    void shouldFindUnencodedCodes() {
+        var index = DirectoryIndex.of(Branch.class, List.of(branch("PLNABCDE001"), branch("PLNABCDE-01")));
+
+        assertEquals(2, index.size());
+        assertTrue(index.find("plnabcde-01").isPresent());
+        assertEquals(List.of("PLNABCDE-01", "PLNABCDE001"), swiftCodesOf(index.findAllForPrefix("PLNABCDE")));
+    }
+
+    private static List<String> swiftCodesOf(List<Branch> branches) {
+        return branches.stream().map(branch -> branch.toGetBranchDto().swiftCode()).sorted().toList();
+    }
+
+    private static Branch branch(String swiftCode) {
+        return Branch.builder()
+                .address("Branch Address")
+                .bankName("Test Bank")
+                .countryIso2("PL")
+                .countryName("POLAND")
+                .isHeadquarter(false)
+                .swiftCode(swiftCode)
+                .swiftPrefix(swiftCode.substring(0, 8))
+                .build();
+    }
+}
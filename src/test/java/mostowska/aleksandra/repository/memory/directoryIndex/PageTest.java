@@ -0,0 +1,56 @@
+package mostowska.aleksandra.repository.memory.directoryIndex;
+
+import mostowska.aleksandra.model.impl.Branch;
+import mostowska.aleksandra.repository.memory.DirectoryIndex;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PageTest {
+
+    @Test
+    @DisplayName("Should return pages in code order starting after the cursor code")
+    void shouldReturnPagesAfterCursor() {
+        var index = DirectoryIndex.of(Branch.class, List.of(
+                branch("PLNABCDE003"),
+                branch("PLNABCDE001"),
+                branch("DEUABCDE001"),
+                branch("PLNABCDE002")));
+
+        assertEquals(List.of("DEUABCDE001", "PLNABCDE001"), swiftCodesOf(index.page(null, 2)));
+        assertEquals(List.of("PLNABCDE002", "PLNABCDE003"), swiftCodesOf(index.page("plnabcde001", 2)));
+        assertEquals(List.of("PLNABCDE003"), swiftCodesOf(index.page("PLNABCDE0025", 2)));
+        assertTrue(index.page("PLNABCDE003", 2).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should page through codes outside the SWIFT alphabet in code order as well")
+    void shouldPageUnencodedCodes() {
+        var index = DirectoryIndex.of(Branch.class, List.of(
+                branch("PLNABCDE001"),
+                branch("PLNABCDE-01"),
+                branch("DEUABCDE001")));
+
+        assertEquals(List.of("DEUABCDE001", "PLNABCDE-01"), swiftCodesOf(index.page(null, 2)));
+        assertEquals(List.of("PLNABCDE001"), swiftCodesOf(index.page("PLNABCDE-01", 2)));
+    }
+
+    private static List<String> swiftCodesOf(List<Branch> branches) {
+        return branches.stream().map(branch -> branch.toGetBranchDto().swiftCode()).toList();
+    }
+
+    private static Branch branch(String swiftCode) {
+        return Branch.builder()
+                .address("Branch Address")
+                .bankName("Test Bank")
+                .countryIso2(swiftCode.substring(4, 6))
+                .countryName("POLAND")
+                .isHeadquarter(false)
+                .swiftCode(swiftCode)
+                .swiftPrefix(swiftCode.substring(0, 8))
+                .build();
+    }
+}
@@ -0,0 +1,131 @@
+package mostowska.aleksandra.repository.memory.directoryIndex;
+
+import mostowska.aleksandra.model.impl.Branch;
+import mostowska.aleksandra.repository.memory.DirectoryIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WithTest {
+
+    private DirectoryIndex<Branch> index;
+
+    @BeforeEach
+    void setUp() {
+        index = DirectoryIndex.of(Branch.class, List.of(
+                branch("PLNABCDE001", "PL"),
+                branch("PLNABCDE002", "PL"),
+                branch("DEUABCDE001", "DE")));
+    }
+
+    @Test
+    @DisplayName("Should index entities by SWIFT code, bank prefix and country ignoring case")
+    void shouldIndexEntities() {
+        assertEquals(3, index.size());
+        assertTrue(index.find("plnabcde001").isPresent());
+        assertEquals(2, index.findAllForPrefix("PLNABCDE").size());
+        assertEquals(1, index.findAllForCountry("de").size());
+        assertTrue(index.findAllForCountry("FR").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should leave the original index unchanged when building a new one")
+    void shouldNotModifyOriginalIndex() {
+        var changed = index.with(List.of(branch("PLNABCDE003", "PL")), List.of("DEUABCDE001"));
+
+        assertEquals(3, changed.size());
+        assertEquals(3, changed.findAllForPrefix("PLNABCDE").size());
+        assertTrue(changed.findAllForCountry("DE").isEmpty());
+        assertTrue(changed.find("DEUABCDE001").isEmpty());
+
+        assertEquals(3, index.size());
+        assertEquals(2, index.findAllForPrefix("PLNABCDE").size());
+        assertEquals(1, index.findAllForCountry("DE").size());
+    }
+
+    @Test
+    @DisplayName("Should move a replaced entity to the groups of its new values")
+    void shouldRegroupReplacedEntity() {
+        var moved = branch("PLNABCDE001", "DE");
+
+        var changed = index.with(List.of(moved), List.of());
+
+        assertEquals(3, changed.size());
+        assertSame(moved, changed.find("PLNABCDE001").orElseThrow());
+        assertEquals(2, changed.findAllForPrefix("PLNABCDE").size());
+        assertEquals(1, changed.findAllForCountry("PL").size());
+        assertEquals(2, changed.findAllForCountry("DE").size());
+    }
+
+    @Test
+    @DisplayName("Should empty the index when cleared")
+    void shouldClearIndex() {
+        var cleared = index.cleared();
+
+        assertEquals(0, cleared.size());
+        assertTrue(cleared.findAllForPrefix("PLNABCDE").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should keep the order and lookups of many entities across successive changes")
+    void shouldKeepManyEntitiesConsistent() {
+        var random = new Random(42);
+        var expected = new TreeMap<String, Branch>();
+        var countries = new HashMap<String, String>();
+        var changed = index.cleared();
+
+        for (var round = 0; round < 20; round++) {
+            var upserts = new ArrayList<Branch>();
+            var removals = new ArrayList<String>();
+            var updates = new HashMap<String, Branch>();
+            for (var i = 0; i < 500; i++) {
+                var swiftCode = "BANK%04dXXX".formatted(random.nextInt(5000));
+                if (random.nextInt(4) == 0) {
+                    removals.add(swiftCode);
+                } else {
+                    var country = random.nextBoolean() ? "PL" : "DE";
+                    var item = branch(swiftCode, country);
+                    upserts.add(item);
+                    updates.put(swiftCode, item);
+                    countries.put(swiftCode, country);
+                }
+            }
+            removals.forEach(expected::remove);
+            expected.putAll(updates);
+            changed = changed.with(upserts, removals);
+
+            var inPoland = expected.entrySet()
+                    .stream()
+                    .filter(entry -> countries.get(entry.getKey()).equals("PL"))
+                    .map(Map.Entry::getValue)
+                    .toList();
+            assertEquals(expected.size(), changed.size());
+            assertEquals(List.copyOf(expected.values()), changed.page(null, Integer.MAX_VALUE));
+            assertEquals(inPoland, changed.findAllForCountry("PL"));
+            for (var entry : expected.entrySet()) {
+                assertSame(entry.getValue(), changed.find(entry.getKey()).orElseThrow());
+            }
+        }
+    }
+
+    private static Branch branch(String swiftCode, String countryIso2) {
+        return Branch.builder()
+                .address("Branch Address")
+                .bankName("Test Bank")
+                .countryIso2(countryIso2)
+                .countryName("COUNTRY " + countryIso2)
+                .isHeadquarter(false)
+                .swiftCode(swiftCode)
+                .swiftPrefix(swiftCode.substring(0, 8))
+                .build();
+    }
+}
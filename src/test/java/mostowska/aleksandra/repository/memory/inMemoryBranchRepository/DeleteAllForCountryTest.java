@@ -0,0 +1,90 @@
+package mostowska.aleksandra.repository.memory.inMemoryBranchRepository;
+
+import mostowska.aleksandra.model.impl.Branch;
+import mostowska.aleksandra.repository.memory.InMemoryBranchRepository;
+import mostowska.aleksandra.repository.memory.InMemoryDirectory;
+import mostowska.aleksandra.repository.model.impl.BranchRepositoryImpl;
+import mostowska.aleksandra.repository.model.impl.HeadquartersRepositoryImpl;
+import mostowska.aleksandra.support.EmbeddedDatabase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeleteAllForCountryTest {
+
+    private BranchRepositoryImpl branchRepositoryImpl;
+    private InMemoryBranchRepository branchRepository;
+
+    @BeforeEach
+    void setUp() {
+        var jdbi = EmbeddedDatabase.create("in_memory_delete_all_for_country_test");
+        branchRepositoryImpl = new BranchRepositoryImpl(jdbi);
+        branchRepositoryImpl.setDeleteChunkSize(3);
+        branchRepositoryImpl.saveAll(IntStream.range(0, 7)
+                .mapToObj(i -> branch("PLNABCDE%03d".formatted(i), "PL"))
+                .toList());
+
+        var directory = new InMemoryDirectory(new HeadquartersRepositoryImpl(jdbi), branchRepositoryImpl);
+        branchRepository = new InMemoryBranchRepository(branchRepositoryImpl, directory);
+        directory.load();
+    }
+
+    @Test
+    @DisplayName("Should remove each committed chunk from memory before the next one and keep it on failure")
+    void shouldPublishEachChunk() {
+        var chunks = new AtomicInteger();
+
+        var exception = assertThrows(IllegalStateException.class, () -> branchRepository.deleteAllForCountry("PL",
+                (swiftCodes, delete) -> {
+                    if (chunks.incrementAndGet() == 2) {
+                        throw new IllegalStateException("Chunk failed");
+                    }
+                    var deleted = delete.get();
+                    assertEquals(4, branchRepository.findAllForCountry("PL").size());
+                    return deleted;
+                }));
+
+        assertEquals("Chunk failed", exception.getMessage());
+        assertEquals(4, branchRepository.findAllForCountry("PL").size());
+        assertEquals(4, branchRepositoryImpl.findAllForCountry("PL").size());
+    }
+
+    @Test
+    @DisplayName("Should let other writes run between the chunks of a purge")
+    void shouldReleaseStripesBetweenChunks() throws Exception {
+        try (var executor = Executors.newSingleThreadExecutor()) {
+            var result = branchRepository.deleteAllForCountry("PL", (swiftCodes, delete) -> {
+                var deleted = delete.get();
+                try {
+                    executor.submit(() -> branchRepository.save(branch("DEUABCDE001", "DE"))).get(5, TimeUnit.SECONDS);
+                    branchRepository.delete("DEUABCDE001");
+                } catch (Exception e) {
+                    throw new AssertionError("Write blocked by the purge", e);
+                }
+                return deleted;
+            });
+
+            assertEquals(7, result.size());
+            assertTrue(branchRepository.findAllForCountry("PL").isEmpty());
+        }
+    }
+
+    private static Branch branch(String swiftCode, String countryIso2) {
+        return Branch.builder()
+                .address("Branch Address")
+                .bankName("Test Bank")
+                .countryIso2(countryIso2)
+                .countryName("COUNTRY " + countryIso2)
+                .isHeadquarter(false)
+                .swiftCode(swiftCode)
+                .swiftPrefix(swiftCode.substring(0, 8))
+                .build();
+    }
+}
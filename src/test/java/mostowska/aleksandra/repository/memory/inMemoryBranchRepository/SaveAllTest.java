@@ -0,0 +1,91 @@
+package mostowska.aleksandra.repository.memory.inMemoryBranchRepository;
+
+import mostowska.aleksandra.model.impl.Branch;
+import mostowska.aleksandra.repository.memory.InMemoryBranchRepository;
+import mostowska.aleksandra.repository.memory.InMemoryDirectory;
+import mostowska.aleksandra.repository.model.impl.BranchRepositoryImpl;
+import mostowska.aleksandra.repository.model.impl.HeadquartersRepositoryImpl;
+import mostowska.aleksandra.support.EmbeddedDatabase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SaveAllTest {
+
+    private static final int WRITERS = 8;
+    private static final int BATCHES_PER_WRITER = 10;
+    private static final int BATCH_SIZE = 25;
+
+    private BranchRepositoryImpl branchRepositoryImpl;
+    private InMemoryDirectory directory;
+    private InMemoryBranchRepository branchRepository;
+
+    @BeforeEach
+    void setUp() {
+        var jdbi = EmbeddedDatabase.create("in_memory_save_all_test");
+        branchRepositoryImpl = new BranchRepositoryImpl(jdbi);
+        directory = new InMemoryDirectory(new HeadquartersRepositoryImpl(jdbi), branchRepositoryImpl);
+        branchRepository = new InMemoryBranchRepository(branchRepositoryImpl, directory);
+    }
+
+    @Test
+    @DisplayName("Should keep every batch saved by concurrent writers in memory and in the database")
+    void shouldKeepConcurrentBatches() throws Exception {
+        directory.load();
+
+        var tasks = new ArrayList<Callable<List<Branch>>>();
+        for (var writer = 0; writer < WRITERS; writer++) {
+            for (var batch = 0; batch < BATCHES_PER_WRITER; batch++) {
+                var bank = "W%dB%d".formatted(writer, batch);
+                tasks.add(() -> branchRepository.saveAll(IntStream
+                        .range(0, BATCH_SIZE)
+                        .mapToObj(i -> branch("PL" + bank + "XX" + "%03d".formatted(i)))
+                        .toList()));
+            }
+        }
+        try (var executor = Executors.newFixedThreadPool(WRITERS)) {
+            for (var future : executor.invokeAll(tasks)) {
+                future.get();
+            }
+        }
+
+        var expected = WRITERS * BATCHES_PER_WRITER * BATCH_SIZE;
+        assertEquals(expected, branchRepository.findAll().size());
+        assertEquals(expected, branchRepository.findAllForCountry("PL").size());
+        assertEquals(expected, branchRepositoryImpl.findAll().size());
+        assertEquals(BATCH_SIZE, branchRepository.findAllForSWIFT("PLW0B0XX000").size());
+    }
+
+    @Test
+    @DisplayName("Should only write to the database until the directory is loaded")
+    void shouldWriteThroughBeforeLoad() {
+        branchRepository.saveAll(List.of(branch("PLNABCDE001"), branch("PLNABCDE002")));
+
+        assertNull(directory.snapshot());
+        assertEquals(2, branchRepositoryImpl.findAll().size());
+        assertEquals(2, branchRepository.findAllForSWIFT("PLNABCDEXXX").size());
+
+        directory.load();
+        assertEquals(2, branchRepository.findAllForSWIFT("PLNABCDEXXX").size());
+    }
+
+    private static Branch branch(String swiftCode) {
+        return Branch.builder()
+                .address("Branch Address")
+                .bankName("Test Bank")
+                .countryIso2("PL")
+                .countryName("POLAND")
+                .isHeadquarter(false)
+                .swiftCode(swiftCode)
+                .swiftPrefix(swiftCode.substring(0, 8))
+                .build();
+    }
+}
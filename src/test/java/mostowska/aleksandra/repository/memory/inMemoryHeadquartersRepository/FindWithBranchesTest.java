@@ -0,0 +1,113 @@
+package mostowska.aleksandra.repository.memory.inMemoryHeadquartersRepository;
+
+import mostowska.aleksandra.model.dto.branch.GetBranchForHeadquarterDto;
+import mostowska.aleksandra.model.impl.Branch;
+import mostowska.aleksandra.model.impl.Headquarters;
+import mostowska.aleksandra.repository.memory.InMemoryBranchRepository;
+import mostowska.aleksandra.repository.memory.InMemoryDirectory;
+import mostowska.aleksandra.repository.memory.InMemoryHeadquartersRepository;
+import mostowska.aleksandra.repository.model.impl.BranchRepositoryImpl;
+import mostowska.aleksandra.repository.model.impl.HeadquartersRepositoryImpl;
+import mostowska.aleksandra.support.EmbeddedDatabase;
+import org.jdbi.v3.core.Jdbi;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FindWithBranchesTest {
+
+    private Jdbi jdbi;
+    private BranchRepositoryImpl branchRepositoryImpl;
+    private InMemoryDirectory directory;
+    private InMemoryHeadquartersRepository headquartersRepository;
+    private InMemoryBranchRepository branchRepository;
+
+    @BeforeEach
+    void setUp() {
+        jdbi = EmbeddedDatabase.create("in_memory_find_with_branches_test");
+        var headquartersRepositoryImpl = new HeadquartersRepositoryImpl(jdbi);
+        branchRepositoryImpl = new BranchRepositoryImpl(jdbi);
+        directory = new InMemoryDirectory(headquartersRepositoryImpl, branchRepositoryImpl);
+        headquartersRepository = new InMemoryHeadquartersRepository(headquartersRepositoryImpl, directory);
+        branchRepository = new InMemoryBranchRepository(branchRepositoryImpl, directory);
+
+        headquartersRepositoryImpl.save(Headquarters.builder()
+                .address("HQ Address")
+                .bankName("Test Bank")
+                .countryIso2("PL")
+                .countryName("POLAND")
+                .isHeadquarter(true)
+                .swiftCode("PLNABCDEXXX")
+                .swiftPrefix("PLNABCDE")
+                .build());
+        branchRepositoryImpl.saveAll(List.of(branch("PLNABCDE001"), branch("PLNABCDE002")));
+    }
+
+    @Test
+    @DisplayName("Should serve headquarters with branches from memory once loaded")
+    void shouldServeFromMemoryOnceLoaded() {
+        assertEquals(3, directory.load());
+        jdbi.useHandle(handle -> handle.execute("delete from branches"));
+
+        var result = headquartersRepository.findWithBranches("plnabcdexxx");
+
+        assertTrue(result.isPresent());
+        assertEquals("PLNABCDEXXX", result.get().swiftCode());
+        assertEquals(List.of("PLNABCDE001", "PLNABCDE002"), swiftCodesOf(result.get().branches()));
+    }
+
+    @Test
+    @DisplayName("Should read the database until the directory is loaded")
+    void shouldReadDatabaseBeforeLoad() {
+        jdbi.useHandle(handle -> handle.execute("delete from branches"));
+
+        var result = headquartersRepository.findWithBranches("PLNABCDEXXX");
+
+        assertTrue(result.isPresent());
+        assertTrue(result.get().branches().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should write branches through to the database and show them in memory")
+    void shouldWriteThrough() {
+        directory.load();
+
+        branchRepository.save(branch("PLNABCDE003"));
+        branchRepository.delete("PLNABCDE001");
+
+        var result = headquartersRepository.findWithBranches("PLNABCDEXXX");
+        assertEquals(List.of("PLNABCDE002", "PLNABCDE003"), swiftCodesOf(result.orElseThrow().branches()));
+        assertTrue(branchRepositoryImpl.findBySwiftCode("PLNABCDE003").isPresent());
+        assertTrue(branchRepositoryImpl.findBySwiftCode("PLNABCDE001").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should leave memory unchanged when the database refuses a write")
+    void shouldNotIndexFailedWrite() {
+        directory.load();
+
+        assertThrows(RuntimeException.class, () -> branchRepository.save(branch("PLNABCDE001")));
+
+        assertEquals(2, branchRepository.findAllForSWIFT("PLNABCDEXXX").size());
+    }
+
+    private static List<String> swiftCodesOf(List<GetBranchForHeadquarterDto> branches) {
+        return branches.stream().map(GetBranchForHeadquarterDto::swiftCode).sorted().toList();
+    }
+
+    private static Branch branch(String swiftCode) {
+        return Branch.builder()
+                .address("Branch Address")
+                .bankName("Test Bank")
+                .countryIso2("PL")
+                .countryName("POLAND")
+                .isHeadquarter(false)
+                .swiftCode(swiftCode)
+                .swiftPrefix(swiftCode.substring(0, 8))
+                .build();
+    }
+}
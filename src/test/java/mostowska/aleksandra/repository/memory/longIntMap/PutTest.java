@@ -0,0 +1,66 @@
+package mostowska.aleksandra.repository.memory.longIntMap;
+
+import mostowska.aleksandra.repository.memory.LongIntMap;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PutTest {
+
+    @Test
+    @DisplayName("Should return the values put and MISSING for other keys")
+    void shouldReturnPutValues() {
+        var map = new LongIntMap(4);
+
+        map.put(0L, 10);
+        map.put(42L, 20);
+        map.put(Long.MAX_VALUE, 30);
+
+        assertEquals(3, map.size());
+        assertEquals(10, map.get(0L));
+        assertEquals(20, map.get(42L));
+        assertEquals(30, map.get(Long.MAX_VALUE));
+        assertEquals(LongIntMap.MISSING, map.get(43L));
+    }
+
+    @Test
+    @DisplayName("Should replace the value of an existing key without growing")
+    void shouldReplaceValue() {
+        var map = new LongIntMap(4);
+
+        map.put(7L, 1);
+        map.put(7L, 2);
+
+        assertEquals(1, map.size());
+        assertEquals(2, map.get(7L));
+    }
+
+    @Test
+    @DisplayName("Should keep every entry when growing past the expected size")
+    void shouldGrow() {
+        var map = new LongIntMap(1);
+        var expected = new HashMap<Long, Integer>();
+        var random = new Random(42);
+
+        for (var i = 0; i < 10_000; i++) {
+            var key = random.nextLong() >>> 6;
+            map.put(key, i);
+            expected.put(key, i);
+        }
+
+        assertEquals(expected.size(), map.size());
+        expected.forEach((key, value) -> assertEquals(value, map.get(key)));
+    }
+
+    @Test
+    @DisplayName("Should reject negative keys")
+    void shouldRejectNegativeKeys() {
+        var map = new LongIntMap(4);
+
+        assertThrows(IllegalArgumentException.class, () -> map.put(-1L, 0));
+    }
+}
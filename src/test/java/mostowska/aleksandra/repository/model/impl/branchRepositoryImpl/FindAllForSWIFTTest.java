@@ -108,4 +108,14 @@ class FindAllForSWIFTTest {
 
         verify(jdbi, times(1)).withHandle(Mockito.any());
     }
+
+    @Test
+    @DisplayName("Should return empty list without querying for a SWIFT code shorter than the bank prefix")
+    void shouldReturnEmptyListForShortSWIFTCode() {
+        var result = branchRepository.findAllForSWIFT("PLN");
+
+        assertTrue(result.isEmpty());
+
+        verifyNoInteractions(jdbi);
+    }
 }
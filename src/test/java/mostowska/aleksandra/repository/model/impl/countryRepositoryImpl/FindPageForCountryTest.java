@@ -0,0 +1,127 @@
+package mostowska.aleksandra.repository.model.impl.countryRepositoryImpl;
+
+import mostowska.aleksandra.model.dto.country.GetModelForCountryDto;
+import mostowska.aleksandra.model.impl.Branch;
+import mostowska.aleksandra.model.impl.Headquarters;
+import mostowska.aleksandra.repository.model.impl.BranchRepositoryImpl;
+import mostowska.aleksandra.repository.model.impl.CountryRepositoryImpl;
+import mostowska.aleksandra.repository.model.impl.HeadquartersRepositoryImpl;
+import mostowska.aleksandra.support.EmbeddedDatabase;
+import org.jdbi.v3.core.Jdbi;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FindPageForCountryTest {
+
+    private Jdbi jdbi;
+    private CountryRepositoryImpl countryRepository;
+
+    @BeforeEach
+    void setUp() {
+        jdbi = EmbeddedDatabase.create("find_page_for_country_test");
+        countryRepository = new CountryRepositoryImpl(jdbi);
+
+        new HeadquartersRepositoryImpl(jdbi).save(Headquarters.builder()
+                .address("HQ Address")
+                .bankName("Test Bank")
+                .countryIso2("PL")
+                .countryName("POLAND")
+                .isHeadquarter(true)
+                .swiftCode("PLNABCDEXXX")
+                .swiftPrefix("PLNABCDE")
+                .build());
+        new BranchRepositoryImpl(jdbi).saveAll(List.of(
+                branch("PLNABCDE001", "PL", "POLAND"),
+                branch("PLNZZZZZ001", "PL", "POLAND"),
+                branch("DEUABCDE001", "DE", "GERMANY")));
+    }
+
+    @Test
+    @DisplayName("Should return the first page of headquarters and branches of the country in SWIFT code order")
+    void shouldReturnFirstPageInOrder() {
+        var result = countryRepository.findPageForCountry("PL", null, 2);
+
+        assertTrue(result.isPresent());
+        assertEquals("PL", result.get().countryISO2());
+        assertEquals("POLAND", result.get().countryName());
+        assertEquals(List.of("PLNABCDE001", "PLNABCDEXXX"), swiftCodesOf(result.get().items()));
+    }
+
+    @Test
+    @DisplayName("Should return the rows following the SWIFT code the page starts after")
+    void shouldReturnPageAfterSwiftCode() {
+        var result = countryRepository.findPageForCountry("PL", "PLNABCDEXXX", 2);
+
+        assertTrue(result.isPresent());
+        assertEquals(List.of("PLNZZZZZ001"), swiftCodesOf(result.get().items()));
+        assertTrue(countryRepository.findPageForCountry("PL", "PLNZZZZZ001", 2).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should return country with branches only when it has no headquarters")
+    void shouldReturnBranchesOnlyCountry() {
+        var result = countryRepository.findPageForCountry("DE", null, 10);
+
+        assertTrue(result.isPresent());
+        assertEquals("GERMANY", result.get().countryName());
+        assertEquals(1, result.get().items().size());
+        assertFalse(result.get().items().get(0).isHeadquarter());
+    }
+
+    @Test
+    @DisplayName("Should return empty Optional when the country has no rows")
+    void shouldReturnEmptyForUnknownCountry() {
+        assertTrue(countryRepository.findPageForCountry("FR", null, 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should read at most a page of each table from its country index, starting at the cursor")
+    void shouldReadPageFromIndexes() {
+        var firstPage = explain(CountryRepositoryImpl.FIND_FIRST_PAGE_FOR_COUNTRY_SQL);
+        var pageAfter = explain(CountryRepositoryImpl.FIND_PAGE_AFTER_FOR_COUNTRY_SQL);
+
+        for (var plan : List.of(firstPage, pageAfter)) {
+            assertFalse(plan.contains("tableScan"), () -> "Full scan in plan: " + plan);
+            assertTrue(plan.contains("idx_headquarters_country_swift_code: country_iso2 = "), plan);
+            assertTrue(plan.contains("idx_branches_country_swift_code: country_iso2 = "), plan);
+            // Each table is limited on its own before the rows of both are merged into the page
+            assertEquals(3, plan.split("FETCH FIRST").length - 1, () -> "Unbounded table read: " + plan);
+        }
+        assertTrue(Pattern.compile("idx_headquarters_country_swift_code: country_iso2 = \\?\\d+\\s+AND swift_code > ")
+                .matcher(pageAfter).find(), pageAfter);
+        assertTrue(Pattern.compile("idx_branches_country_swift_code: country_iso2 = \\?\\d+\\s+AND swift_code > ")
+                .matcher(pageAfter).find(), pageAfter);
+    }
+
+    private String explain(String sql) {
+        return jdbi.withHandle(handle -> handle
+                .createQuery("explain " + sql)
+                .bind("country_iso2", "PL")
+                .bind("after", "PLNABCDE001")
+                .bind("limit", 2)
+                .mapTo(String.class)
+                .one());
+    }
+
+    private static List<String> swiftCodesOf(List<GetModelForCountryDto> items) {
+        return items.stream().map(GetModelForCountryDto::swiftCode).toList();
+    }
+
+    private static Branch branch(String swiftCode, String countryIso2, String countryName) {
+        return Branch.builder()
+                .address("Branch Address")
+                .bankName("Test Bank")
+                .countryIso2(countryIso2)
+                .countryName(countryName)
+                .isHeadquarter(false)
+                .swiftCode(swiftCode)
+                .swiftPrefix(swiftCode.substring(0, 8))
+                .build();
+    }
+}
@@ -0,0 +1,87 @@
+package mostowska.aleksandra.repository.model.impl.headquartersRepositoryImpl;
+
+import mostowska.aleksandra.model.dto.branch.GetBranchForHeadquarterDto;
+import mostowska.aleksandra.model.impl.Branch;
+import mostowska.aleksandra.model.impl.Headquarters;
+import mostowska.aleksandra.repository.model.impl.BranchRepositoryImpl;
+import mostowska.aleksandra.repository.model.impl.HeadquartersRepositoryImpl;
+import mostowska.aleksandra.support.EmbeddedDatabase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FindWithBranchesTest {
+
+    private HeadquartersRepositoryImpl headquartersRepository;
+
+    @BeforeEach
+    void setUp() {
+        var jdbi = EmbeddedDatabase.create("find_with_branches_test");
+        headquartersRepository = new HeadquartersRepositoryImpl(jdbi);
+        var branchRepository = new BranchRepositoryImpl(jdbi);
+
+        headquartersRepository.save(Headquarters.builder()
+                .address("HQ Address")
+                .bankName("Test Bank")
+                .countryIso2("PL")
+                .countryName("POLAND")
+                .isHeadquarter(true)
+                .swiftCode("PLNABCDEXXX")
+                .swiftPrefix("PLNABCDE")
+                .build());
+        branchRepository.saveAll(List.of(
+                branch("PLNABCDE001", "PLNABCDE"),
+                branch("PLNABCDE002", "PLNABCDE"),
+                branch("PLNOTHER001", "PLNOTHER")));
+    }
+
+    @Test
+    @DisplayName("Should return headquarters with all branches sharing its prefix")
+    void shouldReturnHeadquartersWithBranches() {
+        var result = headquartersRepository.findWithBranches("PLNABCDEXXX");
+
+        assertTrue(result.isPresent());
+        assertEquals("PLNABCDEXXX", result.get().swiftCode());
+        assertEquals("HQ Address", result.get().address());
+        assertEquals("POLAND", result.get().countryName());
+        assertTrue(result.get().isHeadquarter());
+        assertEquals(List.of("PLNABCDE001", "PLNABCDE002"), result.get().branches()
+                .stream()
+                .map(GetBranchForHeadquarterDto::swiftCode)
+                .sorted()
+                .toList());
+        assertFalse(result.get().branches().get(0).isHeadquarter());
+    }
+
+    @Test
+    @DisplayName("Should return empty Optional when headquarters does not exist even if branches do")
+    void shouldReturnEmptyWhenHeadquartersNotFound() {
+        var result = headquartersRepository.findWithBranches("PLNOTHERXXX");
+
+        assertTrue(result.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should return empty Optional for a SWIFT code shorter than the bank prefix")
+    void shouldReturnEmptyForShortSwiftCode() {
+        var result = headquartersRepository.findWithBranches("XXX");
+
+        assertTrue(result.isEmpty());
+    }
+
+    private static Branch branch(String swiftCode, String swiftPrefix) {
+        return Branch.builder()
+                .address("Branch Address")
+                .bankName("Test Bank")
+                .countryIso2("PL")
+                .countryName("POLAND")
+                .isHeadquarter(false)
+                .swiftCode(swiftCode)
+                .swiftPrefix(swiftPrefix)
+                .build();
+    }
+}
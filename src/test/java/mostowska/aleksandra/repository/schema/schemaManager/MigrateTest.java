@@ -0,0 +1,117 @@
+package mostowska.aleksandra.repository.schema.schemaManager;
+
+import mostowska.aleksandra.model.impl.Branch;
+import mostowska.aleksandra.model.impl.Headquarters;
+import mostowska.aleksandra.repository.generic.EntityMetadata;
+import mostowska.aleksandra.repository.model.impl.BranchRepositoryImpl;
+import mostowska.aleksandra.repository.model.impl.CountryRepositoryImpl;
+import mostowska.aleksandra.repository.model.impl.HeadquartersRepositoryImpl;
+import mostowska.aleksandra.repository.schema.SchemaManager;
+import mostowska.aleksandra.support.EmbeddedDatabase;
+import org.jdbi.v3.core.Jdbi;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MigrateTest {
+
+    private static final Pattern PARAMETER = Pattern.compile("(?<!:):(\\w+)");
+    private static final Map<String, Object> SAMPLE_VALUES = Map.of(
+            "swift_code", "PKOPPLPWXXX",
+            "swift_prefix", "PKOPPLPW",
+            "after", "PKOPPLPW001",
+            "limit", 2);
+
+    private Jdbi jdbi;
+
+    @BeforeEach
+    void setUp() {
+        jdbi = EmbeddedDatabase.create("schema_manager_test");
+    }
+
+    @Test
+    @DisplayName("Should record every migration once and skip them on the next run")
+    void shouldApplyMigrationsOnce() {
+        var version = new SchemaManager(jdbi).migrate();
+
+        assertEquals(3, version);
+        assertEquals(List.of(1, 2, 3), jdbi.withHandle(handle -> handle
+                .createQuery("select version from schema_version order by version")
+                .mapTo(Integer.class)
+                .list()));
+    }
+
+    @Test
+    @DisplayName("Should migrate tables created by the original dump")
+    void shouldMigrateDumpTables() {
+        jdbi.useHandle(handle -> {
+            handle.execute("drop table schema_version");
+            handle.execute("drop index idx_branches_swift_prefix");
+            handle.execute("drop index idx_branches_country_swift_code");
+            handle.execute("drop index idx_headquarters_country_swift_code");
+            handle.execute("alter table branches modify swift_code varchar(20) not null");
+        });
+
+        var version = new SchemaManager(jdbi).migrate();
+
+        assertEquals(3, version);
+        var length = jdbi.withHandle(handle -> handle
+                .createQuery("select character_maximum_length from information_schema.columns " +
+                             "where table_name = 'branches' and column_name = 'swift_code'")
+                .mapTo(Integer.class)
+                .one());
+        assertEquals(11, length);
+    }
+
+    @Test
+    @DisplayName("Should serve every filtered repository query from an index")
+    void shouldServeRepositoryQueriesFromIndexes() {
+        var queries = new ArrayList<String>();
+        for (var metadata : List.of(EntityMetadata.of(Headquarters.class), EntityMetadata.of(Branch.class))) {
+            queries.add(metadata.selectBySwiftCodeSql());
+            queries.add(metadata.selectPageAfterSql());
+            queries.add(metadata.selectAllBySwiftCodesSql());
+            queries.add(metadata.lockAllBySwiftCodesSql());
+            queries.add(metadata.lockChunkForCountrySql());
+            // selectAll, selectLast and selectFirstPage read the table in primary key order and have no filter to index
+            queries.add(metadata.updateSql());
+            queries.add(metadata.deleteBySwiftCodeSql());
+            queries.add(metadata.deleteAllBySwiftCodesSql());
+        }
+        queries.add(HeadquartersRepositoryImpl.FIND_ALL_FOR_SWIFT_SQL);
+        queries.add(HeadquartersRepositoryImpl.FIND_ALL_FOR_COUNTRY_SQL);
+        queries.add(HeadquartersRepositoryImpl.FIND_WITH_BRANCHES_SQL);
+        queries.add(BranchRepositoryImpl.FIND_ALL_FOR_SWIFT_SQL);
+        queries.add(BranchRepositoryImpl.FIND_ALL_FOR_COUNTRY_SQL);
+        queries.add(CountryRepositoryImpl.FIND_FIRST_PAGE_FOR_COUNTRY_SQL);
+        queries.add(CountryRepositoryImpl.FIND_PAGE_AFTER_FOR_COUNTRY_SQL);
+
+        for (var query : queries) {
+            var plan = explain(query);
+
+            assertFalse(plan.contains("tableScan"), () -> "Full scan in plan: " + plan);
+        }
+    }
+
+    private String explain(String query) {
+        return jdbi.withHandle(handle -> {
+            var statement = handle.createQuery("explain " + query);
+            if (query.contains("<swiftCodes>")) {
+                statement.bindList("swiftCodes", List.of("PKOPPLPWXXX", "PKOPPLPW001"));
+            }
+            var parameters = PARAMETER.matcher(query);
+            while (parameters.find()) {
+                var name = parameters.group(1);
+                statement.bind(name, SAMPLE_VALUES.getOrDefault(name, "PL"));
+            }
+            return statement.mapTo(String.class).one();
+        });
+    }
+}
@@ -0,0 +1,83 @@
+package mostowska.aleksandra.repository.search.postingList;
+
+import mostowska.aleksandra.repository.search.PostingList;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WithTest {
+
+    @Test
+    @DisplayName("Should keep ids sorted and distinct whatever the order they are added in")
+    void shouldKeepIdsSortedAndDistinct() {
+        var list = PostingList.EMPTY.with(40).with(3).with(1_000_000).with(3).with(0).with(41);
+
+        assertArrayEquals(new int[]{0, 3, 40, 41, 1_000_000}, list.toArray());
+        assertEquals(5, list.size());
+    }
+
+    @Test
+    @DisplayName("Should return the same list when the id is already present")
+    void shouldReturnSameListWhenIdPresent() {
+        var list = PostingList.of(1, 5, 9);
+
+        assertSame(list, list.with(5));
+    }
+
+    @Test
+    @DisplayName("Should remove ids and ignore missing ones")
+    void shouldRemoveIds() {
+        var list = PostingList.of(1, 5, 9);
+
+        assertArrayEquals(new int[]{1, 9}, list.without(5).toArray());
+        assertSame(list, list.without(4));
+        assertSame(list, list.without(10));
+        assertTrue(list.without(1).without(5).without(9).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should store close ids in one byte each")
+    void shouldCompressCloseIds() {
+        var list = PostingList.EMPTY;
+        for (var id = 0; id < 1000; id += 3) {
+            list = list.with(id);
+        }
+
+        assertEquals(334, list.size());
+        assertEquals(334, list.encodedSize());
+        assertArrayEquals(IntStream.iterate(0, id -> id < 1000, id -> id + 3).toArray(), list.toArray());
+    }
+
+    @Test
+    @DisplayName("Should splice ids in and out of a long list")
+    void shouldSpliceIdsOfLongList() {
+        var builder = PostingList.builder();
+        for (var id = 0; id < 100_000; id += 10) {
+            builder.add(id);
+        }
+        var list = builder.build();
+
+        var changed = list.with(5).with(50_005).with(300).without(0).without(99_990).without(50_000);
+
+        var expected = IntStream
+                .concat(IntStream.iterate(0, id -> id < 100_000, id -> id + 10), IntStream.of(5, 50_005))
+                .filter(id -> id != 0 && id != 99_990 && id != 50_000)
+                .sorted()
+                .toArray();
+        assertArrayEquals(expected, changed.toArray());
+        assertEquals(expected.length, changed.size());
+        assertArrayEquals(new int[]{5, 10, 20}, PostingList.of(0, 10, 20).without(0).with(5).toArray());
+        assertArrayEquals(new int[]{7}, PostingList.of(7, 9).without(9).with(7).toArray());
+        assertEquals(10_000, list.size());
+    }
+
+    @Test
+    @DisplayName("Should reject negative ids")
+    void shouldRejectNegativeIds() {
+        assertThrows(IllegalArgumentException.class, () -> PostingList.EMPTY.with(-1));
+        assertThrows(IllegalArgumentException.class, () -> PostingList.of(2, -1));
+    }
+}
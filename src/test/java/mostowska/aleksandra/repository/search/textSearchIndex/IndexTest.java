@@ -0,0 +1,68 @@
+package mostowska.aleksandra.repository.search.textSearchIndex;
+
+import mostowska.aleksandra.model.dto.search.GetSearchHitDto;
+import mostowska.aleksandra.repository.model.BranchRepository;
+import mostowska.aleksandra.repository.model.HeadquartersRepository;
+import mostowska.aleksandra.repository.search.TextSearchIndex;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class IndexTest {
+
+    @Mock
+    private HeadquartersRepository headquartersRepository;
+
+    @Mock
+    private BranchRepository branchRepository;
+
+    @InjectMocks
+    private TextSearchIndex textSearchIndex;
+
+    @Test
+    @DisplayName("Should replace the document indexed under the same SWIFT code")
+    void shouldReplaceDocument() {
+        textSearchIndex.index("PKOPPLPWXXX", "PKO BANK POLSKI S.A.", "PULAWSKA 15", "WARSZAWA", "PL");
+        textSearchIndex.index("pkopplpwxxx", "PKO BANK POLSKI S.A.", "RYNEK GLOWNY 31", "KRAKOW", "PL");
+
+        assertEquals(List.of(), codesOf(textSearchIndex.search("warszawa", 10)));
+        assertEquals(List.of("PKOPPLPWXXX"), codesOf(textSearchIndex.search("krakow", 10)));
+        assertEquals(1, textSearchIndex.size());
+    }
+
+    @Test
+    @DisplayName("Should reuse the ids of reindexed and removed documents and words")
+    void shouldReuseIds() throws ReflectiveOperationException {
+        textSearchIndex.index("INGBPLPWXXX", "ING BANK SLASKI S.A.", "SOKOLSKA 34", "KATOWICE", "PL");
+        for (var i = 0; i < 1_000; i++) {
+            textSearchIndex.index("PKOPPLPWXXX", "PKO BANK POLSKI S.A.", "ULICA" + i, "WARSZAWA", "PL");
+            textSearchIndex.index("BPKOPLPW" + i % 1_000, "PKO BANK POLSKI S.A.", "RYNEK" + i, "KRAKOW", "PL");
+            textSearchIndex.remove("BPKOPLPW" + i % 1_000);
+        }
+
+        assertEquals(2, textSearchIndex.size());
+        assertTrue(intField("nextDocumentId") <= 3);
+        assertTrue(intField("nextWordId") <= 16);
+        assertEquals(List.of("PKOPPLPWXXX"), codesOf(textSearchIndex.search("ulica999", 10)));
+        assertEquals(List.of(), codesOf(textSearchIndex.search("rynek999 krakow", 10)));
+        assertEquals(List.of("INGBPLPWXXX"), codesOf(textSearchIndex.search("sokolska katowice", 10)));
+    }
+
+    private int intField(String name) throws ReflectiveOperationException {
+        var field = TextSearchIndex.class.getDeclaredField(name);
+        field.setAccessible(true);
+        return field.getInt(textSearchIndex);
+    }
+
+    private static List<String> codesOf(List<GetSearchHitDto> hits) {
+        return hits.stream().map(GetSearchHitDto::swiftCode).toList();
+    }
+}
@@ -0,0 +1,62 @@
+package mostowska.aleksandra.repository.search.textSearchIndex;
+
+import mostowska.aleksandra.model.impl.Branch;
+import mostowska.aleksandra.model.impl.Headquarters;
+import mostowska.aleksandra.repository.model.BranchRepository;
+import mostowska.aleksandra.repository.model.HeadquartersRepository;
+import mostowska.aleksandra.repository.search.TextSearchIndex;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LoadTest {
+
+    @Mock
+    private HeadquartersRepository headquartersRepository;
+
+    @Mock
+    private BranchRepository branchRepository;
+
+    @InjectMocks
+    private TextSearchIndex textSearchIndex;
+
+    @Test
+    @DisplayName("Should index headquarters and branches read from the repositories, replacing the previous index")
+    void shouldIndexRepositories() {
+        textSearchIndex.index("STALEXXXXXX", "STALE BANK", "NOWHERE 1", null, "PL");
+        when(headquartersRepository.findAll()).thenReturn(List.of(Headquarters
+                .builder()
+                .swiftCode("BREXPLPWXXX")
+                .bankName("MBANK S.A.")
+                .address("PROSTA 18")
+                .townName("WARSZAWA")
+                .countryIso2("PL")
+                .build()));
+        when(branchRepository.findAll()).thenReturn(List.of(Branch
+                .builder()
+                .swiftCode("BREXPLPWLOD")
+                .bankName("MBANK S.A.")
+                .address("PIOTRKOWSKA 173")
+                .townName("LODZ")
+                .countryIso2("PL")
+                .build()));
+
+        var loaded = textSearchIndex.load();
+
+        assertEquals(2, loaded);
+        assertEquals(List.of(), textSearchIndex.search("stale", 10));
+        assertEquals("BREXPLPWLOD", textSearchIndex.search("lodz", 10).get(0).swiftCode());
+        assertEquals(2, textSearchIndex.search("mbank", 10).size());
+        verify(headquartersRepository, times(1)).findAll();
+        verify(branchRepository, times(1)).findAll();
+    }
+}
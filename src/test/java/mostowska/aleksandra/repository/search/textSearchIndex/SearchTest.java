@@ -0,0 +1,97 @@
+package mostowska.aleksandra.repository.search.textSearchIndex;
+
+import mostowska.aleksandra.model.dto.search.GetSearchHitDto;
+import mostowska.aleksandra.repository.model.BranchRepository;
+import mostowska.aleksandra.repository.model.HeadquartersRepository;
+import mostowska.aleksandra.repository.search.TextSearchIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class SearchTest {
+
+    @Mock
+    private HeadquartersRepository headquartersRepository;
+
+    @Mock
+    private BranchRepository branchRepository;
+
+    @InjectMocks
+    private TextSearchIndex textSearchIndex;
+
+    @BeforeEach
+    void setUp() {
+        textSearchIndex.index("PKOPPLPWXXX", "PKO BANK POLSKI S.A.", "PULAWSKA 15", "WARSZAWA", "PL");
+        textSearchIndex.index("BPKOPLPWKRK", "PKO BANK POLSKI S.A.", "RYNEK GLOWNY 31", "KRAKÓW", "PL");
+        textSearchIndex.index("INGBPLPWXXX", "ING BANK SLASKI S.A.", "SOKOLSKA 34", "KATOWICE", "PL");
+        textSearchIndex.index("DEUTDEFFXXX", "DEUTSCHE BANK AG", "TAUNUSANLAGE 12", "FRANKFURT", "DE");
+    }
+
+    @Test
+    @DisplayName("Should rank documents matching more query words first")
+    void shouldRankByMatchedWords() {
+        var hits = textSearchIndex.search("pko bank", 10);
+
+        assertEquals(List.of("BPKOPLPWKRK", "PKOPPLPWXXX", "DEUTDEFFXXX", "INGBPLPWXXX"), codesOf(hits));
+        assertEquals(2.0, hits.get(0).score());
+        assertEquals(1.0, hits.get(2).score());
+    }
+
+    @Test
+    @DisplayName("Should tolerate typos in query words")
+    void shouldTolerateTypos() {
+        var hits = textSearchIndex.search("deutsche banc frankfrut", 10);
+
+        assertEquals("DEUTDEFFXXX", hits.get(0).swiftCode());
+        assertTrue(hits.get(0).score() > hits.get(1).score());
+    }
+
+    @Test
+    @DisplayName("Should match words ignoring case and diacritics")
+    void shouldIgnoreCaseAndDiacritics() {
+        var hits = textSearchIndex.search("Kraków", 10);
+
+        assertEquals(List.of("BPKOPLPWKRK"), codesOf(hits));
+        assertEquals(new GetSearchHitDto("RYNEK GLOWNY 31", "PKO BANK POLSKI S.A.", "PL", "BPKOPLPWKRK", "KRAKÓW", 1.0),
+                hits.get(0));
+    }
+
+    @Test
+    @DisplayName("Should keep only the best hits up to the limit")
+    void shouldApplyLimit() {
+        var hits = textSearchIndex.search("bank polski", 2);
+
+        assertEquals(List.of("BPKOPLPWKRK", "PKOPPLPWXXX"), codesOf(hits));
+    }
+
+    @Test
+    @DisplayName("Should reflect removed and reindexed documents")
+    void shouldReflectWrites() {
+        textSearchIndex.remove("pkopplpwxxx");
+        textSearchIndex.index("INGBPLPWXXX", "ING BANK SLASKI S.A.", "PULAWSKA 2", "WARSZAWA", "PL");
+
+        assertEquals(List.of("INGBPLPWXXX"), codesOf(textSearchIndex.search("warszawa", 10)));
+        assertEquals(List.of(), codesOf(textSearchIndex.search("sokolska", 10)));
+        assertEquals(3, textSearchIndex.size());
+    }
+
+    @Test
+    @DisplayName("Should return no hits for queries without searchable words")
+    void shouldReturnNoHitsForEmptyQuery() {
+        assertEquals(List.of(), textSearchIndex.search(" - ", 10));
+        assertEquals(List.of(), textSearchIndex.search("xyzzy", 10));
+    }
+
+    private static List<String> codesOf(List<GetSearchHitDto> hits) {
+        return hits.stream().map(GetSearchHitDto::swiftCode).toList();
+    }
+}
@@ -0,0 +1,49 @@
+package mostowska.aleksandra.repository.swiftCodeTrie;
+
+import mostowska.aleksandra.repository.SwiftCodeTrie;
+import mostowska.aleksandra.support.EmbeddedDatabase;
+import org.jdbi.v3.core.Jdbi;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoadTest {
+
+    private Jdbi jdbi;
+    private SwiftCodeTrie trie;
+
+    @BeforeEach
+    void setUp() {
+        jdbi = EmbeddedDatabase.create("swift_code_trie_load_test");
+        trie = new SwiftCodeTrie(jdbi);
+    }
+
+    @Test
+    @DisplayName("Should load the codes of both tables")
+    void shouldLoadBothTables() {
+        jdbi.useHandle(handle -> {
+            handle.execute("insert into headquarters (swift_code, swift_prefix, country_iso2) " +
+                           "values ('PLNABCDEXXX', 'PLNABCDE', 'PL')");
+            handle.execute("insert into branches (swift_code, swift_prefix, country_iso2) " +
+                           "values ('PLNABCDE001', 'PLNABCDE', 'PL'), ('DEUTDEFF500', 'DEUTDEFF', 'DE')");
+        });
+
+        var loaded = trie.load();
+
+        assertEquals(3, loaded);
+        assertEquals(List.of("PLNABCDE001", "PLNABCDEXXX"), trie.search("PLN", 10));
+    }
+
+    @Test
+    @DisplayName("Should replace codes added before loading")
+    void shouldReplaceCurrentCodes() {
+        trie.add("PLNABCDEXXX");
+
+        assertEquals(0, trie.load());
+        assertTrue(trie.search("PLN", 10).isEmpty());
+    }
+}
@@ -0,0 +1,95 @@
+package mostowska.aleksandra.repository.swiftCodeTrie;
+
+import mostowska.aleksandra.repository.SwiftCodeTrie;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchTest {
+
+    private SwiftCodeTrie trie;
+
+    @BeforeEach
+    void setUp() {
+        trie = new SwiftCodeTrie(null);
+        List.of("PLNABCDEXXX", "PLNABCDE001", "PLNABCDF001", "DEUTDEFFXXX", "plnabcde002", "PLNZZZZZXXX")
+                .forEach(trie::add);
+    }
+
+    @Test
+    @DisplayName("Should return codes starting with the prefix in lexicographic order ignoring case")
+    void shouldReturnMatchesInOrder() {
+        assertEquals(List.of("PLNABCDE001", "PLNABCDE002", "PLNABCDEXXX", "PLNABCDF001", "PLNZZZZZXXX"),
+                trie.search("pln", 10));
+        assertEquals(List.of("PLNABCDE001", "PLNABCDE002", "PLNABCDEXXX"), trie.search("PLNABCDE", 10));
+        assertEquals(List.of("DEUTDEFFXXX"), trie.search("DEUTDEFFXXX", 10));
+    }
+
+    @Test
+    @DisplayName("Should return at most the requested number of codes")
+    void shouldApplyLimit() {
+        assertEquals(List.of("PLNABCDE001", "PLNABCDE002"), trie.search("PLN", 2));
+    }
+
+    @Test
+    @DisplayName("Should return an empty list when no code starts with the prefix")
+    void shouldReturnEmptyWhenNoMatch() {
+        assertTrue(trie.search("PLNABCDG", 10).isEmpty());
+        assertTrue(trie.search("PLNABCDE0011", 10).isEmpty());
+        assertTrue(trie.search("X", 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should stop returning removed codes and keep their neighbours")
+    void shouldRemoveCodes() {
+        trie.remove("PLNABCDE001");
+        trie.remove("plnabcdexxx");
+        trie.remove("PLNNOTHERE1");
+
+        assertEquals(4, trie.size());
+        assertEquals(List.of("PLNABCDE002", "PLNABCDF001", "PLNZZZZZXXX"), trie.search("PLN", 10));
+    }
+
+    @Test
+    @DisplayName("Should count a code added twice once")
+    void shouldIgnoreDuplicates() {
+        trie.add("PLNABCDE001");
+
+        assertEquals(6, trie.size());
+        assertEquals(3, trie.search("PLNABCDE", 10).size());
+    }
+
+    @Test
+    @DisplayName("Should match a sorted set after random additions and removals")
+    void shouldMatchSortedSet() {
+        var random = new Random(42);
+        var expected = new TreeSet<String>(trie.search("", 100));
+        var codes = new ArrayList<String>();
+        for (var i = 0; i < 2000; i++) {
+            codes.add("PL%03dAB%s".formatted(random.nextInt(50), random.nextBoolean() ? "XXX" : random.nextInt(10)));
+        }
+
+        for (var i = 0; i < codes.size(); i++) {
+            var code = codes.get(random.nextInt(codes.size()));
+            if (i % 3 == 0) {
+                trie.remove(code);
+                expected.remove(code);
+            } else {
+                trie.add(code);
+                expected.add(code);
+            }
+        }
+
+        assertEquals(expected.size(), trie.size());
+        assertEquals(List.copyOf(expected), trie.search("", expected.size()));
+        assertEquals(expected.stream().filter(code -> code.startsWith("PL01")).limit(20).toList(),
+                trie.search("PL01", 20));
+    }
+}
@@ -0,0 +1,53 @@
+package mostowska.aleksandra.service.impl.headquartersServiceImpl;
+
+import mostowska.aleksandra.model.dto.branch.GetBranchForHeadquarterDto;
+import mostowska.aleksandra.model.dto.headquarters.GetHeadquartersDto;
+import mostowska.aleksandra.repository.model.HeadquartersRepository;
+import mostowska.aleksandra.service.impl.HeadquartersServiceImpl;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GetAllWithBranchesBySwiftCodeTest {
+
+    @Mock
+    private HeadquartersRepository headquartersRepository;
+
+    @InjectMocks
+    private HeadquartersServiceImpl headquartersService;
+
+    @Test
+    @DisplayName("Should return headquarters with nested branches from a single repository call")
+    void shouldReturnHeadquartersWithBranches() {
+        var branch = new GetBranchForHeadquarterDto("Branch Address", "Bank", "PL", false, "PLNXXX12345");
+        var headquarters = new GetHeadquartersDto("Address", "Bank", "PL", "POLAND", true, "PLNXXX12XXX",
+                List.of(branch));
+        when(headquartersRepository.findWithBranches("PLNXXX12XXX")).thenReturn(Optional.of(headquarters));
+
+        var result = headquartersService.getAllWithBranchesBySwiftCode("PLNXXX12XXX");
+
+        assertEquals(List.of(headquarters), result);
+        verify(headquartersRepository, times(1)).findWithBranches("PLNXXX12XXX");
+        verifyNoMoreInteractions(headquartersRepository);
+    }
+
+    @Test
+    @DisplayName("Should return empty list when headquarters is not found")
+    void shouldReturnEmptyListWhenNotFound() {
+        when(headquartersRepository.findWithBranches("PLNXXX12XXX")).thenReturn(Optional.empty());
+
+        var result = headquartersService.getAllWithBranchesBySwiftCode("PLNXXX12XXX");
+
+        assertTrue(result.isEmpty());
+    }
+}
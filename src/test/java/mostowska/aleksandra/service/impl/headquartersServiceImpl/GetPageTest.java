@@ -0,0 +1,87 @@
+package mostowska.aleksandra.service.impl.headquartersServiceImpl;
+
+import lombok.extern.slf4j.Slf4j;
+import mostowska.aleksandra.model.dto.PageDto;
+import mostowska.aleksandra.model.impl.Headquarters;
+import mostowska.aleksandra.repository.model.HeadquartersRepository;
+import mostowska.aleksandra.service.impl.HeadquartersServiceImpl;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@Slf4j
+@ExtendWith(MockitoExtension.class)
+public class GetPageTest {
+
+    @Mock
+    private HeadquartersRepository headquartersRepository;
+
+    @InjectMocks
+    private HeadquartersServiceImpl headquartersService;
+
+    @Test
+    @DisplayName("Should return a full page with the cursor of the following page")
+    void shouldReturnPageWithNextCursor() {
+        when(headquartersRepository.findPage(null, 3))
+                .thenReturn(List.of(headquarters("PLNXXX11XXX"), headquarters("PLNXXX22XXX"), headquarters("PLNXXX33XXX")));
+
+        var result = headquartersService.getPage(null, 2);
+
+        assertEquals(2, result.items().size());
+        assertEquals("PLNXXX22XXX", result.items().get(1).swiftCode());
+        assertEquals("PLNXXX22XXX", PageDto.afterSwiftCode(result.next()));
+    }
+
+    @Test
+    @DisplayName("Should resume after the cursor and return no cursor on the last page")
+    void shouldResumeAfterCursor() {
+        when(headquartersRepository.findPage("PLNXXX22XXX", 3))
+                .thenReturn(List.of(headquarters("PLNXXX33XXX")));
+
+        var result = headquartersService.getPage(PageDto.cursorOf("PLNXXX22XXX"), 2);
+
+        assertEquals(1, result.items().size());
+        assertEquals("PLNXXX33XXX", result.items().get(0).swiftCode());
+        assertNull(result.next());
+    }
+
+    @Test
+    @DisplayName("Should reject a limit out of range before any database work")
+    void shouldRejectLimitOutOfRange() {
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> headquartersService.getPage(null, 0));
+
+        assertEquals("Limit must be between 1 and 1000", exception.getMessage());
+        verifyNoInteractions(headquartersRepository);
+    }
+
+    @Test
+    @DisplayName("Should reject a cursor that was not handed out by the service")
+    void shouldRejectInvalidCursor() {
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> headquartersService.getPage("not a cursor!", 10));
+
+        assertEquals("Invalid cursor", exception.getMessage());
+        verifyNoInteractions(headquartersRepository);
+    }
+
+    private static Headquarters headquarters(String swiftCode) {
+        return Headquarters.builder()
+                .address("Address")
+                .bankName("Bank")
+                .countryIso2("PL")
+                .countryName("POLAND")
+                .isHeadquarter(true)
+                .swiftCode(swiftCode)
+                .swiftPrefix(swiftCode.substring(0, 8))
+                .build();
+    }
+}
@@ -0,0 +1,96 @@
+package mostowska.aleksandra.service.modelService;
+
+import mostowska.aleksandra.importer.NdjsonImportPipeline;
+import mostowska.aleksandra.importer.NdjsonImportReport;
+import mostowska.aleksandra.importer.NdjsonImportSettings;
+import mostowska.aleksandra.model.dto.CreateModelDto;
+import mostowska.aleksandra.repository.CountryDictionary;
+import mostowska.aleksandra.repository.DataVersions;
+import mostowska.aleksandra.repository.SwiftCodeTrie;
+import mostowska.aleksandra.repository.model.CountryRepository;
+import mostowska.aleksandra.repository.search.TextSearchIndex;
+import mostowska.aleksandra.service.ModelService;
+import mostowska.aleksandra.service.impl.BranchServiceImpl;
+import mostowska.aleksandra.service.impl.HeadquartersServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CreateAllTest {
+
+    private static final NdjsonImportSettings SETTINGS = new NdjsonImportSettings(1000, 4, 65536, 1000);
+
+    @Mock
+    private HeadquartersServiceImpl headquartersService;
+
+    @Mock
+    private BranchServiceImpl branchService;
+
+    @Mock
+    private CountryRepository countryRepository;
+
+    @Mock
+    private CountryDictionary countryDictionary;
+
+    @Mock
+    private SwiftCodeTrie swiftCodeTrie;
+
+    @Mock
+    private TextSearchIndex textSearchIndex;
+
+    @Mock
+    private DataVersions dataVersions;
+
+    @Mock
+    private NdjsonImportPipeline ndjsonImportPipeline;
+
+    private ModelService modelService;
+
+    @BeforeEach
+    void setUp() {
+        modelService = new ModelService(headquartersService, branchService, countryRepository, countryDictionary,
+                swiftCodeTrie, textSearchIndex, dataVersions, ndjsonImportPipeline, SETTINGS);
+    }
+
+    @Test
+    @DisplayName("Should register every created model like a single created one")
+    @SuppressWarnings("unchecked")
+    void shouldRegisterCreatedModels() {
+        var upload = new ByteArrayInputStream(new byte[0]);
+        var report = new NdjsonImportReport(1, 0, 1, 0, 0, List.of(), false, 0, 0);
+        ArgumentCaptor<Consumer<CreateModelDto>> onCreated = ArgumentCaptor.forClass(Consumer.class);
+        when(ndjsonImportPipeline.run(eq(upload), eq(SETTINGS), onCreated.capture())).thenReturn(report);
+
+        var result = modelService.createAll(upload);
+        onCreated.getValue().accept(new CreateModelDto("Test Address", "Test Bank", "PL", "Poland", false,
+                "PLNABCDE001"));
+
+        assertSame(report, result);
+        verify(dataVersions, times(1)).bump("PL", "PLNABCDE001");
+        verify(countryDictionary, times(1)).register("PL", "POLAND");
+        verify(swiftCodeTrie, times(1)).add("PLNABCDE001");
+        verify(textSearchIndex, times(1)).index("PLNABCDE001", "Test Bank", "Test Address", null, "PL");
+    }
+
+    @Test
+    @DisplayName("Should throw exception when no upload is passed")
+    void shouldThrowWhenUploadMissing() {
+        var exception = assertThrows(IllegalStateException.class, () -> modelService.createAll((InputStream) null));
+
+        assertEquals("Models must be passed as newline-delimited JSON", exception.getMessage());
+        verifyNoInteractions(ndjsonImportPipeline);
+    }
+}
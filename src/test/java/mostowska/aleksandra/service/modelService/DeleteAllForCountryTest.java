@@ -0,0 +1,111 @@
+package mostowska.aleksandra.service.modelService;
+
+import mostowska.aleksandra.model.dto.country.GetGroupedByCountryDto;
+import mostowska.aleksandra.model.dto.country.GetModelForCountryDto;
+import mostowska.aleksandra.repository.CountryDictionary;
+import mostowska.aleksandra.repository.DataVersions;
+import mostowska.aleksandra.repository.SwiftCodeTrie;
+import mostowska.aleksandra.repository.model.CountryRepository;
+import mostowska.aleksandra.repository.search.TextSearchIndex;
+import mostowska.aleksandra.service.ModelService;
+import mostowska.aleksandra.service.impl.BranchServiceImpl;
+import mostowska.aleksandra.service.impl.HeadquartersServiceImpl;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.stubbing.Answer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DeleteAllForCountryTest {
+
+    @Mock
+    private HeadquartersServiceImpl headquartersService;
+
+    @Mock
+    private BranchServiceImpl branchService;
+
+    @Mock
+    private SwiftCodeTrie swiftCodeTrie;
+
+    @Mock
+    private TextSearchIndex textSearchIndex;
+
+    @Mock
+    private DataVersions dataVersions;
+
+    @Mock
+    private CountryRepository countryRepository;
+
+    @Mock
+    private CountryDictionary countryDictionary;
+
+    @InjectMocks
+    private ModelService modelService;
+
+    @Test
+    @DisplayName("Should purge headquarters and branches of the upper-cased country and unregister them")
+    void shouldPurgeCountry() {
+        when(headquartersService.removeAllForCountry(eq("PL"), any())).thenAnswer(removing(List.of(
+                new GetModelForCountryDto("Test Address", "Test Bank", "PL", true, "PLNABCDEXXX"))));
+        when(branchService.removeAllForCountry(eq("PL"), any())).thenAnswer(removing(
+                List.of(new GetModelForCountryDto("Test Address", "Test Bank", "PL", false, "PLNABCDE001")),
+                List.of(new GetModelForCountryDto("Test Address", "Test Bank", "PL", false, "PLNABCDE002"))));
+        when(countryRepository.findPageForCountry("PL", null, 1)).thenReturn(Optional.empty());
+
+        var result = modelService.deleteAllForCountry("pl");
+
+        assertEquals(1, result.headquartersDeleted());
+        assertEquals(2, result.branchesDeleted());
+        assertEquals(0, result.missing());
+        verify(dataVersions, times(3)).bump(eq("PL"), anyString());
+        verify(swiftCodeTrie, times(1)).remove("PLNABCDE002");
+        verify(textSearchIndex, times(1)).remove("PLNABCDEXXX");
+        verify(countryDictionary, times(1)).remove("PL");
+    }
+
+    @Test
+    @DisplayName("Should keep the country known when a model of it was saved during the purge")
+    void shouldKeepCountryWithModelsLeft() {
+        when(headquartersService.removeAllForCountry(eq("PL"), any())).thenAnswer(removing());
+        when(branchService.removeAllForCountry(eq("PL"), any())).thenAnswer(removing());
+        when(countryRepository.findPageForCountry("PL", null, 1)).thenReturn(Optional.of(
+                new GetGroupedByCountryDto("PL", "POLAND", List.of(
+                        new GetModelForCountryDto("Test Address", "Test Bank", "PL", true, "PLNNEWXXXXX")), null)));
+
+        modelService.deleteAllForCountry("PL");
+
+        verify(countryDictionary, never()).remove(anyString());
+    }
+
+    @Test
+    @DisplayName("Should throw exception when the country code is missing or malformed")
+    void shouldThrowWhenCountryInvalid() {
+        assertThrows(IllegalStateException.class, () -> modelService.deleteAllForCountry(null));
+        assertThrows(IllegalStateException.class, () -> modelService.deleteAllForCountry("POL"));
+        verifyNoInteractions(headquartersService, branchService);
+    }
+
+    @SafeVarargs
+    private static Answer<List<GetModelForCountryDto>> removing(List<GetModelForCountryDto>... chunks) {
+        return invocation -> {
+            Consumer<List<GetModelForCountryDto>> onRemoved = invocation.getArgument(1);
+            var removed = new ArrayList<GetModelForCountryDto>();
+            for (var chunk : chunks) {
+                onRemoved.accept(chunk);
+                removed.addAll(chunk);
+            }
+            return removed;
+        };
+    }
+}
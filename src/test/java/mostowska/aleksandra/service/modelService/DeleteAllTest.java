@@ -0,0 +1,116 @@
+package mostowska.aleksandra.service.modelService;
+
+import mostowska.aleksandra.model.dto.country.GetModelForCountryDto;
+import mostowska.aleksandra.repository.DataVersions;
+import mostowska.aleksandra.repository.SwiftCodeTrie;
+import mostowska.aleksandra.repository.search.TextSearchIndex;
+import mostowska.aleksandra.service.ModelService;
+import mostowska.aleksandra.service.impl.BranchServiceImpl;
+import mostowska.aleksandra.service.impl.HeadquartersServiceImpl;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.stubbing.Answer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DeleteAllTest {
+
+    @Mock
+    private HeadquartersServiceImpl headquartersService;
+
+    @Mock
+    private BranchServiceImpl branchService;
+
+    @Mock
+    private SwiftCodeTrie swiftCodeTrie;
+
+    @Mock
+    private TextSearchIndex textSearchIndex;
+
+    @Mock
+    private DataVersions dataVersions;
+
+    @InjectMocks
+    private ModelService modelService;
+
+    @Test
+    @DisplayName("Should delete headquarters and branches, unregister them and report the missing codes")
+    void shouldDeleteAndReportMissing() {
+        when(headquartersService.removeAll(eq(List.of("PLNABCDEXXX")), any()))
+                .thenAnswer(removing(List.of(model("PLNABCDEXXX", true))));
+        when(branchService.removeAll(eq(List.of("PLNABCDE001", "PLNMISSE002")), any()))
+                .thenAnswer(removing(List.of(model("PLNABCDE001", false))));
+
+        var result = modelService.deleteAll(List.of("plnabcde001", "PLNABCDEXXX", " PLNMISSE002 ", "PLNABCDE001"));
+
+        assertEquals(1, result.headquartersDeleted());
+        assertEquals(1, result.branchesDeleted());
+        assertEquals(1, result.missing());
+        assertEquals(List.of("PLNMISSE002"), result.missingSwiftCodes());
+        verify(dataVersions, times(1)).bump("PL", "PLNABCDEXXX");
+        verify(dataVersions, times(1)).bump("PL", "PLNABCDE001");
+        verify(swiftCodeTrie, times(1)).remove("PLNABCDE001");
+        verify(textSearchIndex, times(1)).remove("PLNABCDEXXX");
+        verify(swiftCodeTrie, never()).remove("PLNMISSE002");
+    }
+
+    @Test
+    @DisplayName("Should throw exception when no codes or too many codes are passed")
+    void shouldThrowWhenCodesInvalid() {
+        assertThrows(IllegalStateException.class, () -> modelService.deleteAll(null));
+        assertThrows(IllegalStateException.class, () -> modelService.deleteAll(List.of()));
+
+        var exception = assertThrows(IllegalStateException.class,
+                () -> modelService.deleteAll(Collections.nCopies(50_001, "PLNABCDE001")));
+
+        assertEquals("At most 50000 swift codes can be deleted at once", exception.getMessage());
+        verifyNoInteractions(headquartersService, branchService);
+    }
+
+    @Test
+    @DisplayName("Should unregister the chunks removed before a failing one")
+    void shouldUnregisterChunksBeforeFailure() {
+        when(headquartersService.removeAll(eq(List.of()), any())).thenAnswer(removing());
+        when(branchService.removeAll(eq(List.of("PLNABCDE001", "PLNABCDE002")), any())).thenAnswer(invocation -> {
+            Consumer<List<GetModelForCountryDto>> onRemoved = invocation.getArgument(1);
+            onRemoved.accept(List.of(model("PLNABCDE001", false)));
+            throw new IllegalStateException("Chunk failed");
+        });
+
+        assertThrows(IllegalStateException.class,
+                () -> modelService.deleteAll(List.of("PLNABCDE001", "PLNABCDE002")));
+
+        verify(dataVersions, times(1)).bump("PL", "PLNABCDE001");
+        verify(swiftCodeTrie, times(1)).remove("PLNABCDE001");
+        verify(textSearchIndex, times(1)).remove("PLNABCDE001");
+        verify(swiftCodeTrie, never()).remove("PLNABCDE002");
+    }
+
+    private static GetModelForCountryDto model(String swiftCode, boolean isHeadquarter) {
+        return new GetModelForCountryDto("Test Address", "Test Bank", "PL", isHeadquarter, swiftCode);
+    }
+
+    @SafeVarargs
+    private static Answer<List<GetModelForCountryDto>> removing(List<GetModelForCountryDto>... chunks) {
+        return invocation -> {
+            Consumer<List<GetModelForCountryDto>> onRemoved = invocation.getArgument(1);
+            var removed = new ArrayList<GetModelForCountryDto>();
+            for (var chunk : chunks) {
+                onRemoved.accept(chunk);
+                removed.addAll(chunk);
+            }
+            return removed;
+        };
+    }
+}
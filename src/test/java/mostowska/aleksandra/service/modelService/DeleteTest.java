@@ -6,6 +6,9 @@ import mostowska.aleksandra.model.dto.branch.GetBranchDto;
 import mostowska.aleksandra.model.dto.headquarters.GetHeadquartersDto;
 import mostowska.aleksandra.model.impl.Branch;
 import mostowska.aleksandra.model.impl.Headquarters;
+import mostowska.aleksandra.repository.DataVersions;
+import mostowska.aleksandra.repository.SwiftCodeTrie;
+import mostowska.aleksandra.repository.search.TextSearchIndex;
 import mostowska.aleksandra.service.ModelService;
 import mostowska.aleksandra.service.impl.BranchServiceImpl;
 import mostowska.aleksandra.service.impl.HeadquartersServiceImpl;
@@ -31,6 +34,15 @@ public class DeleteTest {
     @Mock
     private BranchServiceImpl branchService;
 
+    @Mock
+    private SwiftCodeTrie swiftCodeTrie;
+
+    @Mock
+    private TextSearchIndex textSearchIndex;
+
+    @Mock
+    private DataVersions dataVersions;
+
     @InjectMocks
     private ModelService modelService;
 
@@ -84,6 +96,9 @@ public class DeleteTest {
 
         verify(headquartersService, times(1)).removeHeadquarters(SWIFT_CODE_XXX);
         verify(branchService, never()).removeBranch(anyString());
+        verify(swiftCodeTrie, times(1)).remove(SWIFT_CODE_XXX);
+        verify(textSearchIndex, times(1)).remove(SWIFT_CODE_XXX);
+        verify(dataVersions, times(1)).bump("PL", SWIFT_CODE_XXX);
     }
 
     @Test
@@ -98,6 +113,9 @@ public class DeleteTest {
 
         verify(branchService, times(1)).removeBranch(SWIFT_CODE_NORMAL);
         verify(headquartersService, never()).removeHeadquarters(anyString());
+        verify(swiftCodeTrie, times(1)).remove(SWIFT_CODE_NORMAL);
+        verify(textSearchIndex, times(1)).remove(SWIFT_CODE_NORMAL);
+        verify(dataVersions, times(1)).bump("PL", SWIFT_CODE_NORMAL);
     }
 
 }
@@ -75,10 +75,8 @@ public class GetAllHeadquartersWithBranchesTest {
     @Test
     @DisplayName("Should return headquarters with branches when swiftCode ends with XXX")
     void shouldReturnHeadquartersWithBranchesWhenSwiftEndsWithXXX() {
-        when(headquartersService.getAllBySwiftCode(SWIFT_CODE_XXX))
-                .thenReturn(List.of(getHeadquartersDto));
-        when(branchService.getAllBySwiftCode(SWIFT_CODE_XXX))
-                .thenReturn(List.of(getBranchDto));
+        when(headquartersService.getAllWithBranchesBySwiftCode(SWIFT_CODE_XXX))
+                .thenReturn(List.of(getHeadquartersDto.withBranches(List.of(getBranchDto))));
 
         var result = modelService.getAllHeadquartersWithBranches(SWIFT_CODE_XXX);
 
@@ -86,9 +84,10 @@ public class GetAllHeadquartersWithBranchesTest {
         assertFalse(result.isEmpty());
         assertEquals(1, result.size());
         assertTrue(result.get(0) instanceof GetHeadquartersDto);
+        assertEquals(1, ((GetHeadquartersDto) result.get(0)).branches().size());
 
-        verify(headquartersService, times(1)).getAllBySwiftCode(SWIFT_CODE_XXX);
-        verify(branchService, times(1)).getAllBySwiftCode(SWIFT_CODE_XXX);
+        verify(headquartersService, times(1)).getAllWithBranchesBySwiftCode(SWIFT_CODE_XXX);
+        verify(branchService, never()).getAllBySwiftCode(anyString());
     }
 
     @Test
@@ -104,23 +103,22 @@ public class GetAllHeadquartersWithBranchesTest {
         assertEquals(1, result.size());
         assertTrue(result.get(0) instanceof GetBranchDto);
 
-        verify(headquartersService, never()).getAllBySwiftCode(anyString());
+        verify(headquartersService, never()).getAllWithBranchesBySwiftCode(anyString());
         verify(branchService, times(1)).getAllBySwiftCode(SWIFT_CODE_NORMAL);
     }
 
     @Test
     @DisplayName("Should return empty list when no headquarters and branches are found for XXX swift code")
     void shouldReturnEmptyListWhenNoHeadquartersAndBranchesFoundForXXX() {
-        when(headquartersService.getAllBySwiftCode(SWIFT_CODE_XXX)).thenReturn(Collections.emptyList());
-        when(branchService.getAllBySwiftCode(SWIFT_CODE_XXX)).thenReturn(Collections.emptyList());
+        when(headquartersService.getAllWithBranchesBySwiftCode(SWIFT_CODE_XXX)).thenReturn(Collections.emptyList());
 
         var result = modelService.getAllHeadquartersWithBranches(SWIFT_CODE_XXX);
 
         assertNotNull(result);
         assertTrue(result.isEmpty());
 
-        verify(headquartersService, times(1)).getAllBySwiftCode(SWIFT_CODE_XXX);
-        verify(branchService, times(1)).getAllBySwiftCode(SWIFT_CODE_XXX);
+        verify(headquartersService, times(1)).getAllWithBranchesBySwiftCode(SWIFT_CODE_XXX);
+        verify(branchService, never()).getAllBySwiftCode(anyString());
     }
 
     @Test
@@ -133,7 +131,7 @@ public class GetAllHeadquartersWithBranchesTest {
         assertNotNull(result);
         assertTrue(result.isEmpty());
 
-        verify(headquartersService, never()).getAllBySwiftCode(anyString());
+        verify(headquartersService, never()).getAllWithBranchesBySwiftCode(anyString());
         verify(branchService, times(1)).getAllBySwiftCode(SWIFT_CODE_NORMAL);
     }
 }
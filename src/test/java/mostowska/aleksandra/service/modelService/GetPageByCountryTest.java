@@ -0,0 +1,120 @@
+package mostowska.aleksandra.service.modelService;
+
+import lombok.extern.slf4j.Slf4j;
+import mostowska.aleksandra.model.dto.PageDto;
+import mostowska.aleksandra.model.dto.country.GetGroupedByCountryDto;
+import mostowska.aleksandra.model.dto.country.GetModelForCountryDto;
+import mostowska.aleksandra.model.impl.Branch;
+import mostowska.aleksandra.repository.CountryDictionary;
+import mostowska.aleksandra.repository.model.CountryRepository;
+import mostowska.aleksandra.service.ModelService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@Slf4j
+@ExtendWith(MockitoExtension.class)
+public class GetPageByCountryTest {
+
+    @Mock
+    private CountryRepository countryRepository;
+
+    @Mock
+    private CountryDictionary countryDictionary;
+
+    @InjectMocks
+    private ModelService modelService;
+
+    private final String COUNTRY_ISO2 = "PL";
+    private final String COUNTRY_NAME = "POLAND";
+
+    @Test
+    @DisplayName("Should return a full page with the cursor of the following page")
+    void shouldReturnPageWithNextCursor() {
+        when(countryDictionary.contains(COUNTRY_ISO2)).thenReturn(true);
+        when(countryRepository.findPageForCountry(COUNTRY_ISO2, null, 3)).thenReturn(Optional.of(
+                new GetGroupedByCountryDto(COUNTRY_ISO2, COUNTRY_NAME,
+                        List.of(model("PLNXXX11XXX"), model("PLNXXX11001"), model("PLNXXX22XXX")))));
+
+        var result = modelService.getPageByCountry(COUNTRY_ISO2, null, 2);
+
+        assertEquals(COUNTRY_NAME, result.countryName());
+        assertEquals(2, result.items().size());
+        assertEquals("PLNXXX11001", PageDto.afterSwiftCode(result.next()));
+    }
+
+    @Test
+    @DisplayName("Should return no cursor on the last page")
+    void shouldReturnNoCursorOnLastPage() {
+        when(countryDictionary.contains(COUNTRY_ISO2)).thenReturn(true);
+        when(countryRepository.findPageForCountry(COUNTRY_ISO2, "PLNXXX11001", 3)).thenReturn(Optional.of(
+                new GetGroupedByCountryDto(COUNTRY_ISO2, COUNTRY_NAME, List.of(model("PLNXXX22XXX")))));
+
+        var result = modelService.getPageByCountry(COUNTRY_ISO2, PageDto.cursorOf("PLNXXX11001"), 2);
+
+        assertEquals(1, result.items().size());
+        assertNull(result.next());
+    }
+
+    @Test
+    @DisplayName("Should return an empty page when the cursor is past the last model")
+    void shouldReturnEmptyPagePastLastModel() {
+        when(countryDictionary.contains(COUNTRY_ISO2)).thenReturn(true);
+        when(countryDictionary.findCountryNameByISO2(COUNTRY_ISO2)).thenReturn(COUNTRY_NAME);
+        when(countryRepository.findPageForCountry(COUNTRY_ISO2, "PLNXXX22XXX", 3)).thenReturn(Optional.empty());
+
+        var result = modelService.getPageByCountry(COUNTRY_ISO2, PageDto.cursorOf("PLNXXX22XXX"), 2);
+
+        assertEquals(COUNTRY_NAME, result.countryName());
+        assertTrue(result.items().isEmpty());
+        assertNull(result.next());
+    }
+
+    @Test
+    @DisplayName("Should throw exception when the first page of a country is empty")
+    void shouldThrowExceptionWhenNothingFound() {
+        when(countryDictionary.contains(COUNTRY_ISO2)).thenReturn(true);
+        when(countryRepository.findPageForCountry(COUNTRY_ISO2, null, 11)).thenReturn(Optional.empty());
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> modelService.getPageByCountry(COUNTRY_ISO2, null, 10));
+
+        assertEquals("No such country", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Should reject unknown country and a limit out of range before any database work")
+    void shouldRejectInvalidRequestsWithoutDatabaseWork() {
+        when(countryDictionary.contains("XX")).thenReturn(false);
+
+        assertEquals("No such country", assertThrows(IllegalStateException.class,
+                () -> modelService.getPageByCountry("XX", null, 10)).getMessage());
+        assertEquals("Limit must be between 1 and 1000", assertThrows(IllegalStateException.class,
+                () -> modelService.getPageByCountry(COUNTRY_ISO2, null, 1001)).getMessage());
+        assertEquals("CountryISO2 must be passed", assertThrows(IllegalStateException.class,
+                () -> modelService.getPageByCountry(null, null, 10)).getMessage());
+        verifyNoInteractions(countryRepository);
+    }
+
+    private GetModelForCountryDto model(String swiftCode) {
+        return Branch.builder()
+                .address("Branch Address")
+                .bankName("Test Bank")
+                .countryIso2(COUNTRY_ISO2)
+                .countryName(COUNTRY_NAME)
+                .isHeadquarter(swiftCode.endsWith("XXX"))
+                .swiftCode(swiftCode)
+                .swiftPrefix(swiftCode.substring(0, 8))
+                .build()
+                .toGetModelByCountryDto();
+    }
+}
@@ -0,0 +1,106 @@
+package mostowska.aleksandra.service.modelService;
+
+import mostowska.aleksandra.model.dto.country.GetModelForCountryDto;
+import mostowska.aleksandra.repository.DataVersions;
+import mostowska.aleksandra.repository.SwiftCodeTrie;
+import mostowska.aleksandra.repository.search.TextSearchIndex;
+import mostowska.aleksandra.service.ModelService;
+import mostowska.aleksandra.service.impl.BranchServiceImpl;
+import mostowska.aleksandra.service.impl.HeadquartersServiceImpl;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LookupTest {
+
+    @Mock
+    private HeadquartersServiceImpl headquartersService;
+
+    @Mock
+    private BranchServiceImpl branchService;
+
+    @Mock
+    private SwiftCodeTrie swiftCodeTrie;
+
+    @Mock
+    private TextSearchIndex textSearchIndex;
+
+    @Mock
+    private DataVersions dataVersions;
+
+    @InjectMocks
+    private ModelService modelService;
+
+    @Test
+    @DisplayName("Should return found models and missing codes in request order")
+    void shouldReturnFoundAndMissingInRequestOrder() {
+        var headquarters = model("PLNABCDEXXX", true);
+        var branch = model("PLNABCDE001", false);
+        when(headquartersService.lookup(List.of("PLNABCDEXXX", "PLNMISSXXXX")))
+                .thenReturn(List.of(headquarters));
+        when(branchService.lookup(List.of("PLNABCDE001", "PLNMISSE002"))).thenReturn(List.of(branch));
+
+        var result = modelService.lookup(List.of(
+                "plnabcde001", "PLNABCDEXXX", " PLNMISSE002 ", "PLNMISSXXXX", "PLNABCDE001"));
+
+        assertEquals(List.of(branch, headquarters), result.found());
+        assertEquals(List.of("PLNMISSE002", "PLNMISSXXXX"), result.missing());
+    }
+
+    @Test
+    @DisplayName("Should not query branches when only headquarters codes are passed")
+    void shouldSkipBranchesWhenOnlyHeadquartersCodes() {
+        when(headquartersService.lookup(List.of("PLNABCDEXXX"))).thenReturn(List.of());
+
+        var result = modelService.lookup(List.of("PLNABCDEXXX"));
+
+        assertTrue(result.found().isEmpty());
+        assertEquals(List.of("PLNABCDEXXX"), result.missing());
+        verifyNoInteractions(branchService);
+    }
+
+    @Test
+    @DisplayName("Should rethrow the exception of a failed lookup")
+    void shouldRethrowLookupFailure() {
+        when(branchService.lookup(anyList())).thenThrow(new IllegalStateException("Database unavailable"));
+
+        var exception = assertThrows(IllegalStateException.class,
+                () -> modelService.lookup(List.of("PLNABCDE001")));
+
+        assertEquals("Database unavailable", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Should throw exception when no codes are passed")
+    void shouldThrowWhenNoCodes() {
+        assertThrows(IllegalStateException.class, () -> modelService.lookup(null));
+        assertThrows(IllegalStateException.class, () -> modelService.lookup(List.of()));
+        assertThrows(IllegalStateException.class, () -> modelService.lookup(Arrays.asList("PLNABCDE001", null)));
+    }
+
+    @Test
+    @DisplayName("Should throw exception when too many codes are passed")
+    void shouldThrowWhenTooManyCodes() {
+        var swiftCodes = Collections.nCopies(50_001, "PLNABCDE001");
+
+        var exception = assertThrows(IllegalStateException.class, () -> modelService.lookup(swiftCodes));
+
+        assertEquals("At most 50000 swift codes can be looked up at once", exception.getMessage());
+        verifyNoInteractions(headquartersService, branchService);
+    }
+
+    private static GetModelForCountryDto model(String swiftCode, boolean isHeadquarter) {
+        return new GetModelForCountryDto("Test Address", "Test Bank", "PL", isHeadquarter, swiftCode);
+    }
+}
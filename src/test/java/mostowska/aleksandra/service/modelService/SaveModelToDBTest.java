@@ -6,6 +6,10 @@ import mostowska.aleksandra.model.dto.branch.GetBranchDto;
 import mostowska.aleksandra.model.dto.headquarters.GetHeadquartersDto;
 import mostowska.aleksandra.model.impl.Branch;
 import mostowska.aleksandra.model.impl.Headquarters;
+import mostowska.aleksandra.repository.CountryDictionary;
+import mostowska.aleksandra.repository.DataVersions;
+import mostowska.aleksandra.repository.SwiftCodeTrie;
+import mostowska.aleksandra.repository.search.TextSearchIndex;
 import mostowska.aleksandra.service.ModelService;
 import mostowska.aleksandra.service.impl.HeadquartersServiceImpl;
 import mostowska.aleksandra.service.impl.BranchServiceImpl;
@@ -29,6 +33,18 @@ public class SaveModelToDBTest {
     @Mock
     private BranchServiceImpl branchService;
 
+    @Mock
+    private CountryDictionary countryDictionary;
+
+    @Mock
+    private SwiftCodeTrie swiftCodeTrie;
+
+    @Mock
+    private TextSearchIndex textSearchIndex;
+
+    @Mock
+    private DataVersions dataVersions;
+
     @InjectMocks
     private ModelService modelService;
 
@@ -75,6 +91,10 @@ public class SaveModelToDBTest {
                 .addBranch(any(CreateModelDto.class), anyString());
         verify(headquartersService, never())
                 .addHeadquarters(any(CreateModelDto.class), anyString());
+        verify(countryDictionary, times(1)).register("PL", "POLAND");
+        verify(swiftCodeTrie, times(1)).add("PLNXXX12345");
+        verify(textSearchIndex, times(1)).index("PLNXXX12345", "Test Bank", "Test Address", null, "PL");
+        verify(dataVersions, times(1)).bump("PL", "PLNXXX12345");
     }
 
     @Test
@@ -116,6 +136,10 @@ public class SaveModelToDBTest {
 
         verify(headquartersService, times(1)).addHeadquarters(any(CreateModelDto.class), anyString());
         verify(branchService, never()).addBranch(any(CreateModelDto.class), anyString());
+        verify(countryDictionary, times(1)).register("PL", "POLAND");
+        verify(swiftCodeTrie, times(1)).add("PLNXXXXXXXX");
+        verify(textSearchIndex, times(1)).index("PLNXXXXXXXX", "Test Bank", "Test Address", null, "PL");
+        verify(dataVersions, times(1)).bump("PL", "PLNXXXXXXXX");
     }
 
     @Test
@@ -0,0 +1,60 @@
+package mostowska.aleksandra.service.modelService;
+
+import mostowska.aleksandra.repository.SwiftCodeTrie;
+import mostowska.aleksandra.service.ModelService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.NullAndEmptySource;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SearchTest {
+
+    @Mock
+    private SwiftCodeTrie swiftCodeTrie;
+
+    @InjectMocks
+    private ModelService modelService;
+
+    @Test
+    @DisplayName("Should return the codes found in the trie for the stripped prefix")
+    void shouldSearchTrie() {
+        when(swiftCodeTrie.search("PLN", 10)).thenReturn(List.of("PLNABCDEXXX", "PLNABCDE001"));
+
+        var result = modelService.search(" PLN ", 10);
+
+        assertEquals(List.of("PLNABCDEXXX", "PLNABCDE001"), result);
+        verify(swiftCodeTrie, times(1)).search("PLN", 10);
+    }
+
+    @ParameterizedTest
+    @NullAndEmptySource
+    @ValueSource(strings = {"  "})
+    @DisplayName("Should throw exception when prefix is missing")
+    void shouldThrowExceptionWhenPrefixMissing(String prefix) {
+        var exception = assertThrows(IllegalStateException.class, () -> modelService.search(prefix, 10));
+
+        assertEquals("Prefix must be passed", exception.getMessage());
+        verifyNoInteractions(swiftCodeTrie);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, -1, 101})
+    @DisplayName("Should throw exception when limit is out of range")
+    void shouldThrowExceptionWhenLimitOutOfRange(int limit) {
+        var exception = assertThrows(IllegalStateException.class, () -> modelService.search("PLN", limit));
+
+        assertEquals("Limit must be between 1 and 100", exception.getMessage());
+        verifyNoInteractions(swiftCodeTrie);
+    }
+}
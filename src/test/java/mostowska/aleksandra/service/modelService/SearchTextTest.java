@@ -0,0 +1,62 @@
+package mostowska.aleksandra.service.modelService;
+
+import mostowska.aleksandra.model.dto.search.GetSearchHitDto;
+import mostowska.aleksandra.repository.search.TextSearchIndex;
+import mostowska.aleksandra.service.ModelService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.NullAndEmptySource;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SearchTextTest {
+
+    @Mock
+    private TextSearchIndex textSearchIndex;
+
+    @InjectMocks
+    private ModelService modelService;
+
+    @Test
+    @DisplayName("Should return the hits found in the full-text index")
+    void shouldSearchIndex() {
+        var hit = new GetSearchHitDto("PULAWSKA 15", "PKO BANK POLSKI S.A.", "PL", "PKOPPLPWXXX", "WARSZAWA", 2.0);
+        when(textSearchIndex.search("pko bank", 10)).thenReturn(List.of(hit));
+
+        var result = modelService.searchText("pko bank", 10);
+
+        assertEquals(List.of(hit), result);
+        verify(textSearchIndex, times(1)).search("pko bank", 10);
+    }
+
+    @ParameterizedTest
+    @NullAndEmptySource
+    @ValueSource(strings = {"  "})
+    @DisplayName("Should throw exception when query is missing")
+    void shouldThrowExceptionWhenQueryMissing(String query) {
+        var exception = assertThrows(IllegalStateException.class, () -> modelService.searchText(query, 10));
+
+        assertEquals("Query must be passed", exception.getMessage());
+        verifyNoInteractions(textSearchIndex);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, -1, 101})
+    @DisplayName("Should throw exception when limit is out of range")
+    void shouldThrowExceptionWhenLimitOutOfRange(int limit) {
+        var exception = assertThrows(IllegalStateException.class, () -> modelService.searchText("bank", limit));
+
+        assertEquals("Limit must be between 1 and 100", exception.getMessage());
+        verifyNoInteractions(textSearchIndex);
+    }
+}
@@ -0,0 +1,35 @@
+package mostowska.aleksandra.support;
+
+import mostowska.aleksandra.repository.schema.SchemaManager;
+import org.h2.jdbcx.JdbcConnectionPool;
+import org.jdbi.v3.core.Jdbi;
+
+/**
+ * EmbeddedDatabase creates in-memory H2 databases running in MySQL compatibility mode,
+ * with the `headquarters` and `branches` tables created by the schema migrations,
+ * for tests and benchmarks that need a real database.
+ */
+public final class EmbeddedDatabase {
+
+    private EmbeddedDatabase() {
+    }
+
+    /**
+     * Creates a new in-memory database with empty `headquarters` and `branches` tables at the latest schema version.
+     *
+     * @param name The name of the in-memory database, unique per test or benchmark.
+     * @return A Jdbi instance backed by a connection pool of the embedded database.
+     */
+    public static Jdbi create(String name) {
+        var dataSource = JdbcConnectionPool.create(
+                "jdbc:h2:mem:" + name + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+        var jdbi = Jdbi.create(dataSource);
+        jdbi.useHandle(handle -> {
+            handle.execute("drop table if exists headquarters");
+            handle.execute("drop table if exists branches");
+            handle.execute("drop table if exists schema_version");
+        });
+        new SchemaManager(jdbi).migrate();
+        return jdbi;
+    }
+}